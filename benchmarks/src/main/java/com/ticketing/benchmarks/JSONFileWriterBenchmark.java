@@ -0,0 +1,80 @@
+package com.ticketing.benchmarks;
+
+import com.ticketing.model.ActionType;
+import com.ticketing.model.InMemoryTransactionLog;
+import com.ticketing.util.JSONFileWriter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to serialize a transaction history of 10^4 to 10^7 records, comparing the
+ * original list-based Gson export with the streaming writer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class JSONFileWriterBenchmark {
+
+    @Param({"10000", "100000", "1000000", "10000000"})
+    public int records;
+
+    /**
+     * "gson": copy the history into a list and pretty-print it with Gson.
+     * "streaming": stream records with the pretty-printing JsonWriter.
+     * "compact": stream records without indentation.
+     */
+    @Param({"gson", "streaming", "compact"})
+    public String writer;
+
+    private InMemoryTransactionLog log;
+    private Path output;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        log = new InMemoryTransactionLog();
+        for (int i = 0; i < records; i++) {
+            boolean add = i % 3 == 0;
+            log.append(add ? ActionType.ADD : ActionType.RETRIEVE,
+                    (add ? "Vendor-" : "Customer-") + (i % 50), 1 + i % 5, i % 1000);
+        }
+        output = Files.createTempFile("transactions", ".json");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(output);
+    }
+
+    @Benchmark
+    public long export() {
+        switch (writer) {
+            case "gson":
+                JSONFileWriter.writeTicketRecordsToJSON(log.getTransactions(), output.toString());
+                return records;
+            case "compact":
+                return JSONFileWriter.writeTicketRecordsStreaming(log, output.toString(), true, false);
+            default:
+                return JSONFileWriter.writeTicketRecordsStreaming(log, output.toString(), false, false);
+        }
+    }
+}
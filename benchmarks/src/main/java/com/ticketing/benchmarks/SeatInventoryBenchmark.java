@@ -0,0 +1,89 @@
+package com.ticketing.benchmarks;
+
+import com.ticketing.seating.SeatHold;
+import com.ticketing.seating.SeatInventory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of finding and holding a block of consecutive seats in a 100,000-seat venue,
+ * from an empty venue to one that is almost sold out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SeatInventoryBenchmark {
+    private static final int SEATS = 100_000;
+
+    /** Percentage of the venue bought in blocks of 1-5 seats before measuring. */
+    @Param({"0", "90", "99"})
+    public int soldPercent;
+
+    @Param({"1000"})
+    public int sectionSize;
+
+    private SeatInventory inventory;
+
+    @Setup
+    public void setUp() {
+        inventory = new SeatInventory(SEATS, sectionSize, SEATS);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int toSell = SEATS / 100 * soldPercent;
+        for (int sold = 0, buyer = 0; sold < toSell; buyer++) {
+            int count = Math.min(1 + random.nextInt(5), toSell - sold);
+            if (inventory.purchase(count, "Customer-" + (buyer % 50)) < 0) {
+                break;
+            }
+            sold += count;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        inventory.close();
+    }
+
+    /**
+     * Holds four seats and cancels the hold, which leaves the venue unchanged.
+     */
+    @Benchmark
+    @Threads(1)
+    public SeatHold holdAndCancel() {
+        SeatHold hold = inventory.hold(4, "Customer-7", 60_000);
+        if (hold != null) {
+            inventory.cancel(hold);
+        }
+        return hold;
+    }
+
+    /**
+     * Same as {@link #holdAndCancel()} from four threads with different home sections.
+     */
+    @Benchmark
+    @Threads(4)
+    public SeatHold holdAndCancelContended() {
+        SeatHold hold = inventory.hold(4, Thread.currentThread().getName(), 60_000);
+        if (hold != null) {
+            inventory.cancel(hold);
+        }
+        return hold;
+    }
+}
@@ -0,0 +1,91 @@
+package com.ticketing.benchmarks;
+
+import com.ticketing.logging.LogLevel;
+import com.ticketing.logging.Logger;
+import com.ticketing.model.TicketPool;
+import com.ticketing.model.TicketPoolFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Timeout;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@code retrieveTickets}/{@code addTickets} for every pool implementation.
+ * Run the symmetric benchmark at several thread counts with {@code -t 1 -t 2 ...} (see README).
+ * Logging is switched off so that only the pool is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TicketPoolBenchmark {
+    private static final int CAPACITY = 1_000;
+
+    @Param({"blocking", "atomic", "sharded"})
+    public String poolType;
+
+    /**
+     * "empty": the pool holds a handful of tickets, so most purchases fail.
+     * "full": the pool starts at max capacity, so every restock lands exactly at the limit.
+     */
+    @Param({"empty", "full"})
+    public String fill;
+
+    private TicketPool pool;
+
+    @Setup
+    public void setUp() {
+        Logger.configure(LogLevel.OFF, 0, 1024);
+        int initial = fill.equals("full") ? CAPACITY : 4;
+        pool = TicketPoolFactory.create(poolType, initial, CAPACITY, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Buys one ticket and, on success, puts it back. Every thread only returns tickets it
+     * bought, so the pool never exceeds its capacity and vendors never block.
+     */
+    @Benchmark
+    public boolean purchaseAndRestock() {
+        boolean bought = pool.retrieveTickets(1, "Customer-1");
+        if (bought) {
+            pool.addTickets(1, "Vendor-1");
+        }
+        return bought;
+    }
+
+    /**
+     * Producer/consumer mix with three customers per vendor, as in the default simulation:
+     * the pool drains towards empty and purchases contend with restocking.
+     * The timeout interrupts a vendor left blocked at capacity when the iteration ends.
+     */
+    @Benchmark
+    @Group("vendorsAndCustomers")
+    @GroupThreads(3)
+    @Timeout(time = 5)
+    public boolean customer() {
+        return pool.retrieveTickets(1, "Customer-1");
+    }
+
+    @Benchmark
+    @Group("vendorsAndCustomers")
+    @GroupThreads(1)
+    @Timeout(time = 5)
+    public void vendor() {
+        pool.addTickets(1, "Vendor-1");
+    }
+}
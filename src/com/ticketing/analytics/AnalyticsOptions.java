@@ -0,0 +1,110 @@
+package com.ticketing.analytics;
+
+/**
+ * Settings of an analytics run over a transaction log, parsed from command-line flags.
+ */
+public class AnalyticsOptions {
+    public static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: TicketingSystem --analyze <file> [options]",
+            "  --analyze <file>           Transaction log to analyze: binary journal, JSON journal or transactions.json(.gz)",
+            "  --bucket <ms>              Width of the throughput time buckets (default 1000; needs timestamped records)",
+            "  --threads <n>              Worker threads (default: available processors)",
+            "  --top <n>                  Entities listed in the text report (default 10)",
+            "  --report <file>            Machine-readable JSON report (default analytics-report.json)");
+
+    private String logFile;
+    private long bucketMillis = 1_000;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int topEntities = 10;
+    private String reportFile = "analytics-report.json";
+
+    /**
+     * Parses command-line flags.
+     *
+     * @param args Command-line arguments including "--analyze".
+     * @return The parsed options.
+     * @throws IllegalArgumentException If a flag is unknown or its value is invalid.
+     */
+    public static AnalyticsOptions parse(String[] args) {
+        AnalyticsOptions options = new AnalyticsOptions();
+        for (int i = 0; i < args.length; i++) {
+            String flag = args[i];
+            switch (flag) {
+                case "--analyze":
+                    options.logFile = value(args, ++i, flag);
+                    break;
+                case "--bucket":
+                    options.bucketMillis = number(args, ++i, flag);
+                    break;
+                case "--threads":
+                    options.threads = (int) Math.min(number(args, ++i, flag), 32_767); // ForkJoinPool's limit
+                    break;
+                case "--top":
+                    options.topEntities = (int) Math.min(number(args, ++i, flag), Integer.MAX_VALUE);
+                    break;
+                case "--report":
+                    options.reportFile = value(args, ++i, flag);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + flag);
+            }
+        }
+        return options;
+    }
+
+    /**
+     * Checks whether the arguments ask for an analytics run.
+     *
+     * @param args Command-line arguments.
+     * @return true if "--analyze" is present.
+     */
+    public static boolean isAnalyze(String[] args) {
+        for (String arg : args) {
+            if (arg.equals("--analyze")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String value(String[] args, int index, String flag) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + flag);
+        }
+        return args[index];
+    }
+
+    private static long number(String[] args, int index, String flag) {
+        String text = value(args, index, flag);
+        try {
+            long number = Long.parseLong(text);
+            if (number < 1) {
+                throw new IllegalArgumentException(flag + " must be at least 1");
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for " + flag + ": " + text);
+        }
+    }
+
+    // Getters for the analytics settings
+    public String getLogFile() {
+        return logFile;
+    }
+
+    public long getBucketMillis() {
+        return bucketMillis;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getTopEntities() {
+        return topEntities;
+    }
+
+    public String getReportFile() {
+        return reportFile;
+    }
+}
@@ -0,0 +1,191 @@
+package com.ticketing.analytics;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.util.List;
+
+/**
+ * Result of an analytics run: the aggregates of a transaction log and how fast they were computed.
+ */
+public class AnalyticsReport {
+    private static final int BUCKET_ROWS = 60; // Longer series are summarized in the text report
+    private final String logFile;
+    private final TransactionAnalyzer.LogFormat format;
+    private final long bytes;
+    private final int threads;
+    private final double elapsedSeconds;
+    private final TransactionStats stats;
+
+    /**
+     * Initializes a report.
+     *
+     * @param logFile        The analyzed log.
+     * @param format         Its encoding.
+     * @param bytes          Its size on disk.
+     * @param threads        Worker threads used.
+     * @param elapsedSeconds Time the analysis took.
+     * @param stats          The aggregates.
+     */
+    public AnalyticsReport(String logFile, TransactionAnalyzer.LogFormat format, long bytes, int threads,
+                           double elapsedSeconds, TransactionStats stats) {
+        this.logFile = logFile;
+        this.format = format;
+        this.bytes = bytes;
+        this.threads = threads;
+        this.elapsedSeconds = elapsedSeconds;
+        this.stats = stats;
+    }
+
+    public double getRecordsPerSecond() {
+        return elapsedSeconds > 0 ? stats.getRecords() / elapsedSeconds : 0;
+    }
+
+    /**
+     * Formats the report for the console.
+     *
+     * @param topEntities Number of entities to list.
+     * @return Multi-line text report.
+     */
+    public String toText(int topEntities) {
+        StringBuilder text = new StringBuilder();
+        text.append("Analytics Report (").append(logFile).append(", ").append(format).append(")\n");
+        text.append(String.format("Scanned: %d records, %.1f MB in %.2f s on %d threads, %.0f records/sec%n",
+                stats.getRecords(), bytes / 1e6, elapsedSeconds, threads, getRecordsPerSecond()));
+        text.append(String.format("Releases: %d (%d tickets)%n", stats.getReleases(), stats.getTicketsReleased()));
+        text.append(String.format("Purchases: %d (%d tickets)%n", stats.getPurchases(), stats.getTicketsPurchased()));
+        if (stats.getFailedPurchases() > 0) {
+            text.append(String.format("Failed purchases: %d (%d tickets asked for), failure rate %.2f%%%n",
+                    stats.getFailedPurchases(), stats.getTicketsFailed(), stats.getFailureRate() * 100));
+        } else {
+            text.append("Failed purchases: none recorded (set recordFailedPurchases to log them)\n");
+        }
+        if (stats.hasInventory()) {
+            text.append(String.format("Inventory: min %d%s, max %d%s, sold out %d time(s)%s%n",
+                    stats.getMinRemaining(), relativeTime(stats.getMinRemainingAt()),
+                    stats.getMaxRemaining(), relativeTime(stats.getMaxRemainingAt()),
+                    stats.getSellOuts(),
+                    stats.getFirstSellOutAt() >= 0 ? ", first" + relativeTime(stats.getFirstSellOutAt()) : ""));
+        } else {
+            text.append("Inventory: not recorded (the sharded pool logs no ticket counts)\n");
+        }
+        appendThroughput(text);
+        List<EntityTotals> entities = stats.getEntities();
+        text.append(String.format("Entities: %d, top %d by tickets moved%n",
+                entities.size(), Math.min(topEntities, entities.size())));
+        for (int i = 0; i < entities.size() && i < topEntities; i++) {
+            EntityTotals entity = entities.get(i);
+            text.append(String.format("  %-20s released %8d in %6d  bought %8d in %6d  failed %6d (%.1f%%)%n",
+                    entity.getEntityName(), entity.getTicketsReleased(), entity.getReleases(),
+                    entity.getTicketsPurchased(), entity.getPurchases(), entity.getFailedPurchases(),
+                    entity.getFailureRate() * 100));
+        }
+        return text.toString();
+    }
+
+    private void appendThroughput(StringBuilder text) {
+        if (!stats.hasTimestamps()) {
+            text.append("Throughput over time: not available (the log has no timestamps; JSON logs from older versions carry none)\n");
+            return;
+        }
+        double spanSeconds = (stats.getLastTimestamp() - stats.getFirstTimestamp()) / 1000.0;
+        int count = stats.getBucketCount();
+        double bucketSeconds = stats.getBucketMillis() / 1000.0;
+        text.append(String.format("Throughput over %.1f s in %d bucket(s) of %d ms:%n",
+                spanSeconds, count, stats.getBucketMillis()));
+        if (count <= BUCKET_ROWS) {
+            for (int i = 0; i < count; i++) {
+                text.append(String.format("  +%8.1f s  %8.0f records/s  released %8d  bought %8d  failed %6d%n",
+                        i * bucketSeconds, stats.getBucketRecords(i) / bucketSeconds,
+                        stats.getBucketTicketsReleased(i), stats.getBucketTicketsPurchased(i),
+                        stats.getBucketFailedPurchases(i)));
+            }
+            return;
+        }
+        int peak = 0;
+        for (int i = 1; i < count; i++) {
+            if (stats.getBucketRecords(i) > stats.getBucketRecords(peak)) {
+                peak = i;
+            }
+        }
+        text.append(String.format("  mean %.0f records/s, peak %.0f records/s at +%.1f s%n",
+                stats.getRecords() / (count * bucketSeconds), stats.getBucketRecords(peak) / bucketSeconds,
+                peak * bucketSeconds));
+    }
+
+    /**
+     * Formats a time relative to the start of the log, if the log has times.
+     */
+    private String relativeTime(long timestamp) {
+        if (timestamp < 0 || !stats.hasTimestamps()) {
+            return "";
+        }
+        return String.format(" at +%.3f s", (timestamp - stats.getFirstTimestamp()) / 1000.0);
+    }
+
+    /**
+     * Builds the machine-readable form of the report; every entity and bucket is included.
+     *
+     * @return JSON object with the same figures as {@link #toText(int)}.
+     */
+    public JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        json.addProperty("logFile", logFile);
+        json.addProperty("format", format.toString());
+        json.addProperty("bytes", bytes);
+        json.addProperty("threads", threads);
+        json.addProperty("elapsedSeconds", elapsedSeconds);
+        json.addProperty("records", stats.getRecords());
+        json.addProperty("recordsPerSecond", getRecordsPerSecond());
+        json.addProperty("releases", stats.getReleases());
+        json.addProperty("ticketsReleased", stats.getTicketsReleased());
+        json.addProperty("purchases", stats.getPurchases());
+        json.addProperty("ticketsPurchased", stats.getTicketsPurchased());
+        json.addProperty("failedPurchases", stats.getFailedPurchases());
+        json.addProperty("ticketsFailed", stats.getTicketsFailed());
+        json.addProperty("failureRate", stats.getFailureRate());
+        if (stats.hasInventory()) {
+            JsonObject inventory = new JsonObject();
+            inventory.addProperty("min", stats.getMinRemaining());
+            inventory.addProperty("minAt", stats.getMinRemainingAt());
+            inventory.addProperty("max", stats.getMaxRemaining());
+            inventory.addProperty("maxAt", stats.getMaxRemainingAt());
+            inventory.addProperty("sellOuts", stats.getSellOuts());
+            inventory.addProperty("firstSellOutAt", stats.getFirstSellOutAt());
+            json.add("inventory", inventory);
+        }
+        if (stats.hasTimestamps()) {
+            JsonObject throughput = new JsonObject();
+            throughput.addProperty("firstTimestamp", stats.getFirstTimestamp());
+            throughput.addProperty("lastTimestamp", stats.getLastTimestamp());
+            throughput.addProperty("bucketMs", stats.getBucketMillis());
+            JsonArray buckets = new JsonArray();
+            for (int i = 0; i < stats.getBucketCount(); i++) {
+                JsonObject bucket = new JsonObject();
+                bucket.addProperty("start", stats.getOriginMillis() + i * stats.getBucketMillis());
+                bucket.addProperty("records", stats.getBucketRecords(i));
+                bucket.addProperty("ticketsReleased", stats.getBucketTicketsReleased(i));
+                bucket.addProperty("ticketsPurchased", stats.getBucketTicketsPurchased(i));
+                bucket.addProperty("failedPurchases", stats.getBucketFailedPurchases(i));
+                buckets.add(bucket);
+            }
+            throughput.add("buckets", buckets);
+            json.add("throughput", throughput);
+        }
+        JsonArray entities = new JsonArray();
+        for (EntityTotals entity : stats.getEntities()) {
+            JsonObject row = new JsonObject();
+            row.addProperty("entity", entity.getEntityName());
+            row.addProperty("releases", entity.getReleases());
+            row.addProperty("ticketsReleased", entity.getTicketsReleased());
+            row.addProperty("purchases", entity.getPurchases());
+            row.addProperty("ticketsPurchased", entity.getTicketsPurchased());
+            row.addProperty("failedPurchases", entity.getFailedPurchases());
+            row.addProperty("ticketsFailed", entity.getTicketsFailed());
+            row.addProperty("failureRate", entity.getFailureRate());
+            entities.add(row);
+        }
+        json.add("entities", entities);
+        return json;
+    }
+}
@@ -0,0 +1,91 @@
+package com.ticketing.analytics;
+
+/**
+ * What one vendor or customer did over a transaction log: releases, purchases and failed purchases.
+ * Each analysis task fills its own instances, which are merged when the tasks join, so no
+ * synchronization is needed.
+ */
+public final class EntityTotals {
+    private final String entityName;
+    private long releases;
+    private long ticketsReleased;
+    private long purchases;
+    private long ticketsPurchased;
+    private long failedPurchases;
+    private long ticketsFailed; // Tickets asked for by the failed purchases
+
+    EntityTotals(String entityName) {
+        this.entityName = entityName;
+    }
+
+    void released(int ticketCount) {
+        releases++;
+        ticketsReleased += ticketCount;
+    }
+
+    void purchased(int ticketCount) {
+        purchases++;
+        ticketsPurchased += ticketCount;
+    }
+
+    void failed(int ticketCount) {
+        failedPurchases++;
+        ticketsFailed += ticketCount;
+    }
+
+    void add(EntityTotals other) {
+        releases += other.releases;
+        ticketsReleased += other.ticketsReleased;
+        purchases += other.purchases;
+        ticketsPurchased += other.ticketsPurchased;
+        failedPurchases += other.failedPurchases;
+        ticketsFailed += other.ticketsFailed;
+    }
+
+    /**
+     * Retrieves the tickets this entity moved: released by a vendor or bought by a customer.
+     *
+     * @return Ticket count.
+     */
+    public long getTicketsMoved() {
+        return ticketsReleased + ticketsPurchased;
+    }
+
+    /**
+     * Retrieves the share of this entity's purchase attempts that failed.
+     *
+     * @return Failure rate between 0 and 1; 0 if it never tried to buy.
+     */
+    public double getFailureRate() {
+        long attempts = purchases + failedPurchases;
+        return attempts == 0 ? 0 : (double) failedPurchases / attempts;
+    }
+
+    public String getEntityName() {
+        return entityName;
+    }
+
+    public long getReleases() {
+        return releases;
+    }
+
+    public long getTicketsReleased() {
+        return ticketsReleased;
+    }
+
+    public long getPurchases() {
+        return purchases;
+    }
+
+    public long getTicketsPurchased() {
+        return ticketsPurchased;
+    }
+
+    public long getFailedPurchases() {
+        return failedPurchases;
+    }
+
+    public long getTicketsFailed() {
+        return ticketsFailed;
+    }
+}
@@ -0,0 +1,374 @@
+package com.ticketing.analytics;
+
+import com.ticketing.model.ActionType;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads ticket records in JSON straight from bytes into a {@link TransactionStats}, without a
+ * JSON library and without allocating per record. It accepts the one-record-per-line journal
+ * and the exported array (compact or pretty-printed) alike: a record is any object, and records
+ * never nest. A scanner can start anywhere in a file; it skips to the next opening brace, which
+ * is how parallel tasks split a file into byte ranges. Entity names must not contain braces.
+ */
+final class JsonRecordScanner {
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final byte[] ACTION_TYPE = key("actionType");
+    private static final byte[] ENTITY_NAME = key("entityName");
+    private static final byte[] TICKET_COUNT = key("ticketCount");
+    private static final byte[] REMAINING_TICKETS = key("remainingTickets");
+    private static final byte[] TIMESTAMP = key("timestamp");
+
+    /**
+     * Supplies the bytes to scan, e.g. a file from a given position or a decompressing stream.
+     */
+    @FunctionalInterface
+    interface ByteSource {
+        /**
+         * Reads up to {@code length} bytes.
+         *
+         * @return Bytes read, or -1 at the end of the data.
+         */
+        int read(byte[] into, int offset, int length) throws IOException;
+    }
+
+    private final TransactionStats stats;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private byte[][] cachedNames = new byte[64][]; // Raw entity name bytes -> totals, open addressing
+    private EntityTotals[] cachedTotals = new EntityTotals[64];
+    private int cached;
+    private long bufferOffset; // Position of buffer[0] in the source
+    private int filled;
+
+    // Fields of the record being parsed
+    private ActionType action;
+    private EntityTotals entity;
+    private long ticketCount;
+    private long remainingTickets;
+    private long timestamp;
+
+    JsonRecordScanner(TransactionStats stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * Counts the records that start within the first {@code limit} bytes of the source. The
+     * record that straddles the limit is read to its end; the next one is left to the task after.
+     *
+     * @param source     The bytes.
+     * @param limit      Bytes of the source in which records may start.
+     * @param maxRecords Stop after this many records.
+     * @return Number of records counted.
+     * @throws IOException If the source cannot be read or holds a malformed record.
+     */
+    long scan(ByteSource source, long limit, long maxRecords) throws IOException {
+        long count = 0;
+        int position = 0;
+        boolean ended = false;
+        while (count < maxRecords) {
+            int open = indexOf((byte) '{', position);
+            if (open < 0) {
+                if (ended) {
+                    break;
+                }
+                bufferOffset += filled;
+                filled = 0;
+                position = 0;
+                ended = !fill(source);
+                continue;
+            }
+            if (bufferOffset + open >= limit) {
+                break;
+            }
+            int close = closingBrace(open + 1);
+            if (close < 0) {
+                if (ended) {
+                    break; // A torn record at the end of a journal that was not closed cleanly
+                }
+                if (open == 0 && filled == buffer.length) {
+                    throw new IOException("Record longer than " + BUFFER_SIZE + " bytes at byte " + bufferOffset);
+                }
+                System.arraycopy(buffer, open, buffer, 0, filled - open); // Keep the partial record
+                bufferOffset += open;
+                filled -= open;
+                position = 0;
+                ended = !fill(source);
+                continue;
+            }
+            parseRecord(open, close);
+            count++;
+            position = close + 1;
+        }
+        return count;
+    }
+
+    /**
+     * Reads more bytes after the ones already in the buffer.
+     *
+     * @return false if the source has ended.
+     */
+    private boolean fill(ByteSource source) throws IOException {
+        while (filled < buffer.length) {
+            int read = source.read(buffer, filled, buffer.length - filled);
+            if (read < 0) {
+                return false;
+            }
+            filled += read;
+            if (read == 0) {
+                break;
+            }
+        }
+        return true;
+    }
+
+    private int indexOf(byte value, int from) {
+        for (int i = from; i < filled; i++) {
+            if (buffer[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the brace that ends the record, skipping over strings.
+     */
+    private int closingBrace(int from) {
+        boolean inString = false;
+        for (int i = from; i < filled; i++) {
+            byte b = buffer[i];
+            if (inString) {
+                if (b == '\\') {
+                    i++;
+                } else if (b == '"') {
+                    inString = false;
+                }
+            } else if (b == '"') {
+                inString = true;
+            } else if (b == '}') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void parseRecord(int open, int close) throws IOException {
+        action = null;
+        entity = null;
+        ticketCount = -1;
+        remainingTickets = Long.MIN_VALUE;
+        timestamp = -1;
+        int i = skipWhitespace(open + 1, close);
+        while (i < close) {
+            if (buffer[i] != '"') {
+                throw malformed("Expected a member name", i);
+            }
+            int keyStart = i;
+            int keyEnd = stringEnd(i + 1, close) + 1; // The key with its quotes
+            i = skipWhitespace(keyEnd, close);
+            if (i >= close || buffer[i] != ':') {
+                throw malformed("Expected ':'", i);
+            }
+            i = skipWhitespace(i + 1, close);
+            if (i >= close) {
+                throw malformed("Expected a value", i);
+            }
+            i = skipWhitespace(readValue(keyStart, keyEnd, i, close), close);
+            if (i < close) {
+                if (buffer[i] != ',') {
+                    throw malformed("Expected ',' or '}'", i);
+                }
+                i = skipWhitespace(i + 1, close);
+            }
+        }
+        if (action == null || entity == null || ticketCount < 0 || remainingTickets == Long.MIN_VALUE) {
+            throw malformed("Record without actionType, entityName, ticketCount or remainingTickets", open);
+        }
+        stats.record(entity, action, (int) ticketCount, (int) remainingTickets, timestamp);
+    }
+
+    /**
+     * Reads the value of one member and stores it if the member is one of the record's fields.
+     *
+     * @return Position after the value.
+     */
+    private int readValue(int keyStart, int keyEnd, int i, int close) throws IOException {
+        if (buffer[i] == '"') {
+            int valueEnd = stringEnd(i + 1, close);
+            if (matches(ACTION_TYPE, keyStart, keyEnd)) {
+                action = parseAction(i + 1, valueEnd);
+            } else if (matches(ENTITY_NAME, keyStart, keyEnd)) {
+                entity = lookUpEntity(i + 1, valueEnd);
+            }
+            return valueEnd + 1;
+        }
+        int valueEnd = i;
+        while (valueEnd < close && buffer[valueEnd] != ',' && buffer[valueEnd] != ' ' && buffer[valueEnd] != '\n'
+                && buffer[valueEnd] != '\r' && buffer[valueEnd] != '\t') {
+            valueEnd++;
+        }
+        if (matches(TICKET_COUNT, keyStart, keyEnd)) {
+            ticketCount = parseNumber(i, valueEnd);
+        } else if (matches(REMAINING_TICKETS, keyStart, keyEnd)) {
+            remainingTickets = parseNumber(i, valueEnd);
+        } else if (matches(TIMESTAMP, keyStart, keyEnd)) {
+            timestamp = parseNumber(i, valueEnd);
+        }
+        return valueEnd;
+    }
+
+    private ActionType parseAction(int start, int end) throws IOException {
+        int length = end - start;
+        if (length == 3 && buffer[start] == 'A') {
+            return ActionType.ADD;
+        }
+        if (length == 8 && buffer[start] == 'R') {
+            return ActionType.RETRIEVE;
+        }
+        if (length == 15 && buffer[start] == 'R') {
+            return ActionType.RETRIEVE_FAILED;
+        }
+        throw malformed("Unknown action '" + new String(buffer, start, length, StandardCharsets.UTF_8) + "'", start);
+    }
+
+    private long parseNumber(int start, int end) throws IOException {
+        boolean negative = start < end && buffer[start] == '-';
+        int i = negative ? start + 1 : start;
+        if (i >= end) {
+            throw malformed("Expected a number", start);
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            byte b = buffer[i];
+            if (b < '0' || b > '9') {
+                throw malformed("Expected a whole number", start);
+            }
+            value = value * 10 + (b - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Finds the totals of an entity by the raw bytes of its name; the name is only decoded the
+     * first time this scanner sees it.
+     */
+    private EntityTotals lookUpEntity(int start, int end) {
+        int hash = 1;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + buffer[i];
+        }
+        int mask = cachedNames.length - 1;
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        while (cachedNames[slot] != null) {
+            byte[] name = cachedNames[slot];
+            if (Arrays.equals(name, 0, name.length, buffer, start, end)) {
+                return cachedTotals[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        EntityTotals totals = stats.entity(decodeString(start, end));
+        cachedNames[slot] = Arrays.copyOfRange(buffer, start, end);
+        cachedTotals[slot] = totals;
+        if (++cached * 2 > cachedNames.length) {
+            growCache();
+        }
+        return totals;
+    }
+
+    private void growCache() {
+        byte[][] names = cachedNames;
+        EntityTotals[] totals = cachedTotals;
+        cachedNames = new byte[names.length * 2][];
+        cachedTotals = new EntityTotals[names.length * 2];
+        int mask = cachedNames.length - 1;
+        for (int i = 0; i < names.length; i++) {
+            if (names[i] != null) {
+                int hash = 1;
+                for (byte b : names[i]) {
+                    hash = 31 * hash + b;
+                }
+                int slot = (hash ^ (hash >>> 16)) & mask;
+                while (cachedNames[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                cachedNames[slot] = names[i];
+                cachedTotals[slot] = totals[i];
+            }
+        }
+    }
+
+    private String decodeString(int start, int end) {
+        String raw = new String(buffer, start, end - start, StandardCharsets.UTF_8);
+        if (raw.indexOf('\\') < 0) {
+            return raw;
+        }
+        StringBuilder text = new StringBuilder(raw.length());
+        for (int i = 0; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (c != '\\' || i + 1 >= raw.length()) {
+                text.append(c);
+                continue;
+            }
+            char escaped = raw.charAt(++i);
+            switch (escaped) {
+                case 'b':
+                    text.append('\b');
+                    break;
+                case 'f':
+                    text.append('\f');
+                    break;
+                case 'n':
+                    text.append('\n');
+                    break;
+                case 'r':
+                    text.append('\r');
+                    break;
+                case 't':
+                    text.append('\t');
+                    break;
+                case 'u':
+                    if (i + 4 < raw.length()) {
+                        text.append((char) Integer.parseInt(raw.substring(i + 1, i + 5), 16));
+                        i += 4;
+                    }
+                    break;
+                default:
+                    text.append(escaped); // '"', '\\' and '/'
+            }
+        }
+        return text.toString();
+    }
+
+    private int stringEnd(int from, int close) throws IOException {
+        for (int i = from; i < close; i++) {
+            if (buffer[i] == '\\') {
+                i++;
+            } else if (buffer[i] == '"') {
+                return i;
+            }
+        }
+        throw malformed("Unterminated string", from);
+    }
+
+    private int skipWhitespace(int from, int close) {
+        int i = from;
+        while (i < close && (buffer[i] == ' ' || buffer[i] == '\n' || buffer[i] == '\r' || buffer[i] == '\t')) {
+            i++;
+        }
+        return i;
+    }
+
+    private boolean matches(byte[] quotedKey, int start, int end) {
+        return Arrays.equals(quotedKey, 0, quotedKey.length, buffer, start, end);
+    }
+
+    private IOException malformed(String message, int position) {
+        return new IOException(message + " at byte " + (bufferOffset + position) + ".");
+    }
+
+    private static byte[] key(String name) {
+        return ("\"" + name + "\"").getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,237 @@
+package com.ticketing.analytics;
+
+import com.ticketing.journal.BinaryRecordFormat;
+import com.ticketing.journal.MappedRecordReader;
+import com.ticketing.model.ActionType;
+import com.ticketing.model.EntityDictionary;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Computes {@link TransactionStats} over a whole transaction log with fork/join: the log is
+ * split into chunks (record ranges of a binary log, byte ranges of a JSON file), every chunk is
+ * aggregated on its own and neighbouring results are merged on the way back up. Chunks share
+ * nothing while they run, so the work scales with the cores until the disk or memory bandwidth
+ * runs out. A gzipped export cannot be split and is read by one thread.
+ */
+public final class TransactionAnalyzer {
+    /**
+     * Encodings the analyzer recognizes from the first bytes of a file.
+     */
+    public enum LogFormat {
+        BINARY, JSON, GZIP_JSON;
+
+        @Override
+        public String toString() {
+            return name().toLowerCase().replace('_', ' ');
+        }
+    }
+
+    private static final long BINARY_CHUNK_RECORDS = 1 << 20; // 32 MB of records per task
+    private static final long JSON_CHUNK_BYTES = 16 << 20;
+
+    private TransactionAnalyzer() {
+    }
+
+    /**
+     * Recognizes a log's encoding: binary logs start with their magic number, gzip files with
+     * theirs; anything else is taken as JSON lines or a JSON array.
+     *
+     * @param file The log file.
+     * @return The format.
+     * @throws IOException If the file cannot be read.
+     */
+    public static LogFormat detectFormat(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer head = ByteBuffer.allocate(4);
+            while (head.hasRemaining() && channel.read(head) > 0) {
+                // Read up to four bytes
+            }
+            if (head.position() == 4 && head.getInt(0) == BinaryRecordFormat.MAGIC) {
+                return LogFormat.BINARY;
+            }
+            if (head.position() >= 2 && head.get(0) == (byte) 0x1f && head.get(1) == (byte) 0x8b) {
+                return LogFormat.GZIP_JSON;
+            }
+            return LogFormat.JSON;
+        }
+    }
+
+    /**
+     * Analyzes a transaction log.
+     *
+     * @param file         The log: a binary journal, a JSON journal or an exported transactions.json(.gz).
+     * @param format       The log's encoding, see {@link #detectFormat}.
+     * @param bucketMillis Width of the throughput time buckets in milliseconds.
+     * @param pool         Threads to run the chunks on.
+     * @return The aggregates of the whole log.
+     * @throws IOException If the log cannot be read or is malformed.
+     */
+    public static TransactionStats analyze(Path file, LogFormat format, long bucketMillis, ForkJoinPool pool)
+            throws IOException {
+        try {
+            switch (format) {
+                case BINARY:
+                    return analyzeBinary(file, bucketMillis, pool);
+                case GZIP_JSON:
+                    return analyzeGzip(file, bucketMillis);
+                default:
+                    return analyzeJson(file, bucketMillis, pool);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause(); // Rethrown by a chunk task
+        }
+    }
+
+    private static TransactionStats analyzeBinary(Path file, long bucketMillis, ForkJoinPool pool) throws IOException {
+        try (MappedRecordReader reader = new MappedRecordReader(file)) {
+            EntityDictionary names = reader.getDictionary();
+            long[] origin = {0};
+            reader.forEach(0, 1, (sequence, timestamp, action, entityId, count, remaining, firstSeat) ->
+                    origin[0] = timestamp);
+            return pool.invoke(new BinaryChunk(reader, names, origin[0], bucketMillis, 0, reader.size()));
+        }
+    }
+
+    private static TransactionStats analyzeJson(Path file, long bucketMillis, ForkJoinPool pool) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long origin = firstTimestamp(fileSource(channel, 0));
+            return pool.invoke(new JsonChunk(channel, origin, bucketMillis, 0, channel.size()));
+        }
+    }
+
+    private static TransactionStats analyzeGzip(Path file, long bucketMillis) throws IOException {
+        long origin;
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file), 64 * 1024)) {
+            origin = firstTimestamp(in::read);
+        }
+        TransactionStats stats = new TransactionStats(origin, bucketMillis);
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file), 64 * 1024)) {
+            new JsonRecordScanner(stats).scan(in::read, Long.MAX_VALUE, Long.MAX_VALUE);
+        }
+        return stats;
+    }
+
+    /**
+     * Reads the first record of a JSON log for the start of the time buckets.
+     *
+     * @return Its timestamp, or 0 if the records carry none (JSON logs from older versions).
+     */
+    private static long firstTimestamp(JsonRecordScanner.ByteSource source) throws IOException {
+        TransactionStats first = new TransactionStats(0, Long.MAX_VALUE);
+        new JsonRecordScanner(first).scan(source, Long.MAX_VALUE, 1);
+        return Math.max(0, first.getFirstTimestamp());
+    }
+
+    private static JsonRecordScanner.ByteSource fileSource(FileChannel channel, long start) {
+        long[] position = {start};
+        return (into, offset, length) -> {
+            int read = channel.read(ByteBuffer.wrap(into, offset, length), position[0]);
+            if (read > 0) {
+                position[0] += read;
+            }
+            return read;
+        };
+    }
+
+    /**
+     * Aggregates a range of records of a binary log, splitting it while it is larger than one chunk.
+     */
+    private static final class BinaryChunk extends RecursiveTask<TransactionStats> {
+        private static final long serialVersionUID = 1L;
+
+        private final MappedRecordReader reader;
+        private final EntityDictionary names;
+        private final long originMillis;
+        private final long bucketMillis;
+        private final long from;
+        private final long to;
+
+        BinaryChunk(MappedRecordReader reader, EntityDictionary names, long originMillis, long bucketMillis,
+                    long from, long to) {
+            this.reader = reader;
+            this.names = names;
+            this.originMillis = originMillis;
+            this.bucketMillis = bucketMillis;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected TransactionStats compute() {
+            if (to - from > BINARY_CHUNK_RECORDS) {
+                long middle = (from + to) >>> 1;
+                BinaryChunk first = new BinaryChunk(reader, names, originMillis, bucketMillis, from, middle);
+                first.fork();
+                TransactionStats second = new BinaryChunk(reader, names, originMillis, bucketMillis, middle, to).compute();
+                return first.join().merge(second);
+            }
+            TransactionStats stats = new TransactionStats(originMillis, bucketMillis);
+            EntityTotals[][] byId = {new EntityTotals[Math.max(16, names.size())]}; // Saves a map lookup per record
+            reader.forEach(from, to, (sequence, timestamp, action, entityId, count, remaining, firstSeat) -> {
+                EntityTotals[] entities = byId[0];
+                if (entityId >= entities.length) {
+                    entities = Arrays.copyOf(entities, entityId + 1);
+                    byId[0] = entities;
+                }
+                EntityTotals entity = entities[entityId];
+                if (entity == null) {
+                    entity = stats.entity(names.nameOf(entityId));
+                    entities[entityId] = entity;
+                }
+                stats.record(entity, ActionType.fromCode(action), count, remaining, timestamp);
+            });
+            return stats;
+        }
+    }
+
+    /**
+     * Aggregates the JSON records that start in a byte range, splitting it while it is larger than one chunk.
+     */
+    private static final class JsonChunk extends RecursiveTask<TransactionStats> {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final long originMillis;
+        private final long bucketMillis;
+        private final long from;
+        private final long to;
+
+        JsonChunk(FileChannel channel, long originMillis, long bucketMillis, long from, long to) {
+            this.channel = channel;
+            this.originMillis = originMillis;
+            this.bucketMillis = bucketMillis;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected TransactionStats compute() {
+            if (to - from > JSON_CHUNK_BYTES) {
+                long middle = (from + to) >>> 1;
+                JsonChunk first = new JsonChunk(channel, originMillis, bucketMillis, from, middle);
+                first.fork();
+                TransactionStats second = new JsonChunk(channel, originMillis, bucketMillis, middle, to).compute();
+                return first.join().merge(second);
+            }
+            TransactionStats stats = new TransactionStats(originMillis, bucketMillis);
+            try {
+                new JsonRecordScanner(stats).scan(fileSource(channel, from), to - from, Long.MAX_VALUE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return stats;
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package com.ticketing.analytics;
+
+import com.ticketing.model.ActionType;
+import com.ticketing.model.TicketRecord;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregates of a stretch of a transaction log: totals per action and per entity, throughput per
+ * time bucket, failure rates and the lowest and highest ticket count seen. Every analysis task
+ * fills its own instance for its part of the log; {@link #merge} combines the results of
+ * neighbouring parts, the earlier part first, so "first occurrence" figures stay correct.
+ */
+public final class TransactionStats {
+    // Values kept per time bucket
+    private static final int RECORDS = 0;
+    private static final int RELEASED = 1;
+    private static final int PURCHASED = 2;
+    private static final int FAILED = 3;
+    private static final int FIELDS = 4;
+    private static final int MAX_BUCKETS = 10_000_000; // Later timestamps are counted in the last bucket
+
+    private final long originMillis; // Start of the first bucket, normally the first record's timestamp
+    private final long bucketMillis;
+    private final Map<String, EntityTotals> entities = new HashMap<>();
+    private long records;
+    private long releases;
+    private long ticketsReleased;
+    private long purchases;
+    private long ticketsPurchased;
+    private long failedPurchases;
+    private long ticketsFailed;
+    private int minRemaining = Integer.MAX_VALUE;
+    private long minRemainingAt = -1; // Timestamp of the first record with the lowest count, -1 if unknown
+    private int maxRemaining = Integer.MIN_VALUE;
+    private long maxRemainingAt = -1;
+    private long sellOuts; // Purchases that left no tickets
+    private long firstSellOutAt = -1;
+    private long firstTimestamp = Long.MAX_VALUE;
+    private long lastTimestamp = Long.MIN_VALUE;
+    private long[] buckets = new long[0]; // FIELDS values per bucket
+
+    /**
+     * Initializes empty aggregates.
+     *
+     * @param originMillis Start of the first time bucket in epoch milliseconds.
+     * @param bucketMillis Width of a time bucket in milliseconds.
+     */
+    TransactionStats(long originMillis, long bucketMillis) {
+        this.originMillis = originMillis;
+        this.bucketMillis = bucketMillis;
+    }
+
+    /**
+     * Looks up the totals of an entity, creating them on first use. Tasks cache the
+     * result per entity, so the map is only consulted once per entity and task.
+     */
+    EntityTotals entity(String entityName) {
+        return entities.computeIfAbsent(entityName, EntityTotals::new);
+    }
+
+    /**
+     * Counts one record.
+     *
+     * @param entity           Totals of the record's entity, from {@link #entity}.
+     * @param action           The recorded action.
+     * @param ticketCount      Tickets involved.
+     * @param remainingTickets Tickets in the pool after the action, or {@link TicketRecord#UNKNOWN_REMAINING}.
+     * @param timestamp        Time of the action in epoch milliseconds, or -1 if the log has no times.
+     */
+    void record(EntityTotals entity, ActionType action, int ticketCount, int remainingTickets, long timestamp) {
+        records++;
+        switch (action) {
+            case ADD:
+                releases++;
+                ticketsReleased += ticketCount;
+                entity.released(ticketCount);
+                break;
+            case RETRIEVE:
+                purchases++;
+                ticketsPurchased += ticketCount;
+                entity.purchased(ticketCount);
+                if (remainingTickets == 0) { // Never true for an unknown count
+                    sellOuts++;
+                    if (firstSellOutAt < 0) {
+                        firstSellOutAt = timestamp;
+                    }
+                }
+                break;
+            default:
+                failedPurchases++;
+                ticketsFailed += ticketCount;
+                entity.failed(ticketCount);
+                break;
+        }
+        if (remainingTickets != TicketRecord.UNKNOWN_REMAINING) {
+            if (remainingTickets < minRemaining) {
+                minRemaining = remainingTickets;
+                minRemainingAt = timestamp;
+            }
+            if (remainingTickets > maxRemaining) {
+                maxRemaining = remainingTickets;
+                maxRemainingAt = timestamp;
+            }
+        }
+        if (timestamp >= 0) {
+            firstTimestamp = Math.min(firstTimestamp, timestamp);
+            lastTimestamp = Math.max(lastTimestamp, timestamp);
+            countInBucket(action, ticketCount, timestamp);
+        }
+    }
+
+    private void countInBucket(ActionType action, int ticketCount, long timestamp) {
+        long index = Math.max(0, (timestamp - originMillis) / bucketMillis); // Slightly out-of-order times go to the first bucket
+        int slot = (int) Math.min(index, MAX_BUCKETS - 1) * FIELDS;
+        if (slot >= buckets.length) {
+            buckets = Arrays.copyOf(buckets, Math.max(slot + FIELDS, buckets.length * 2));
+        }
+        buckets[slot + RECORDS]++;
+        if (action == ActionType.ADD) {
+            buckets[slot + RELEASED] += ticketCount;
+        } else if (action == ActionType.RETRIEVE) {
+            buckets[slot + PURCHASED] += ticketCount;
+        } else {
+            buckets[slot + FAILED]++;
+        }
+    }
+
+    /**
+     * Adds the aggregates of the part of the log that directly follows this one.
+     *
+     * @param later Aggregates of the later part.
+     * @return This instance.
+     */
+    TransactionStats merge(TransactionStats later) {
+        records += later.records;
+        releases += later.releases;
+        ticketsReleased += later.ticketsReleased;
+        purchases += later.purchases;
+        ticketsPurchased += later.ticketsPurchased;
+        failedPurchases += later.failedPurchases;
+        ticketsFailed += later.ticketsFailed;
+        for (EntityTotals totals : later.entities.values()) {
+            entity(totals.getEntityName()).add(totals);
+        }
+        if (later.minRemaining < minRemaining) {
+            minRemaining = later.minRemaining;
+            minRemainingAt = later.minRemainingAt;
+        }
+        if (later.maxRemaining > maxRemaining) {
+            maxRemaining = later.maxRemaining;
+            maxRemainingAt = later.maxRemainingAt;
+        }
+        if (sellOuts == 0) {
+            firstSellOutAt = later.firstSellOutAt;
+        }
+        sellOuts += later.sellOuts;
+        firstTimestamp = Math.min(firstTimestamp, later.firstTimestamp);
+        lastTimestamp = Math.max(lastTimestamp, later.lastTimestamp);
+        if (later.buckets.length > buckets.length) {
+            buckets = Arrays.copyOf(buckets, later.buckets.length);
+        }
+        for (int i = 0; i < later.buckets.length; i++) {
+            buckets[i] += later.buckets[i];
+        }
+        return this;
+    }
+
+    /**
+     * Lists the entities, most tickets moved first.
+     *
+     * @return Totals of every entity that appears in the log.
+     */
+    public List<EntityTotals> getEntities() {
+        List<EntityTotals> list = new ArrayList<>(entities.values());
+        list.sort(Comparator.comparingLong(EntityTotals::getTicketsMoved).reversed()
+                .thenComparing(EntityTotals::getEntityName));
+        return list;
+    }
+
+    /**
+     * Retrieves the share of purchase attempts that failed. Failed purchases are only in the
+     * log if failure recording was on when it was written.
+     *
+     * @return Failure rate between 0 and 1.
+     */
+    public double getFailureRate() {
+        long attempts = purchases + failedPurchases;
+        return attempts == 0 ? 0 : (double) failedPurchases / attempts;
+    }
+
+    /**
+     * Checks whether the log carries timestamps; JSON logs from older versions do not.
+     *
+     * @return true if time buckets and times of events are available.
+     */
+    public boolean hasTimestamps() {
+        return firstTimestamp != Long.MAX_VALUE;
+    }
+
+    public long getRecords() {
+        return records;
+    }
+
+    public long getReleases() {
+        return releases;
+    }
+
+    public long getTicketsReleased() {
+        return ticketsReleased;
+    }
+
+    public long getPurchases() {
+        return purchases;
+    }
+
+    public long getTicketsPurchased() {
+        return ticketsPurchased;
+    }
+
+    public long getFailedPurchases() {
+        return failedPurchases;
+    }
+
+    public long getTicketsFailed() {
+        return ticketsFailed;
+    }
+
+    /**
+     * Checks whether any record carries the tickets left in the pool. Logs of the sharded pool do not.
+     *
+     * @return true if the inventory figures are known.
+     */
+    public boolean hasInventory() {
+        return minRemaining != Integer.MAX_VALUE;
+    }
+
+    /**
+     * Retrieves the lowest ticket count left after any recorded action.
+     *
+     * @return Lowest count, or 0 if no record carries a count.
+     */
+    public int getMinRemaining() {
+        return hasInventory() ? minRemaining : 0;
+    }
+
+    /**
+     * Retrieves when the lowest ticket count was first reached.
+     *
+     * @return Epoch milliseconds, or -1 if unknown.
+     */
+    public long getMinRemainingAt() {
+        return minRemainingAt;
+    }
+
+    /**
+     * Retrieves the highest ticket count left after any recorded action.
+     *
+     * @return Highest count, or 0 if no record carries a count.
+     */
+    public int getMaxRemaining() {
+        return hasInventory() ? maxRemaining : 0;
+    }
+
+    public long getMaxRemainingAt() {
+        return maxRemainingAt;
+    }
+
+    /**
+     * Retrieves the number of purchases that sold the pool out.
+     *
+     * @return Sell-out count.
+     */
+    public long getSellOuts() {
+        return sellOuts;
+    }
+
+    /**
+     * Retrieves when the pool first sold out.
+     *
+     * @return Epoch milliseconds, or -1 if it never sold out or the log has no times.
+     */
+    public long getFirstSellOutAt() {
+        return firstSellOutAt;
+    }
+
+    public long getFirstTimestamp() {
+        return hasTimestamps() ? firstTimestamp : -1;
+    }
+
+    public long getLastTimestamp() {
+        return hasTimestamps() ? lastTimestamp : -1;
+    }
+
+    public long getOriginMillis() {
+        return originMillis;
+    }
+
+    public long getBucketMillis() {
+        return bucketMillis;
+    }
+
+    /**
+     * Retrieves the number of time buckets, up to the last one with a record.
+     *
+     * @return Bucket count, 0 without timestamps.
+     */
+    public int getBucketCount() {
+        int count = buckets.length / FIELDS;
+        while (count > 0 && buckets[(count - 1) * FIELDS + RECORDS] == 0) {
+            count--;
+        }
+        return count;
+    }
+
+    public long getBucketRecords(int bucket) {
+        return buckets[bucket * FIELDS + RECORDS];
+    }
+
+    public long getBucketTicketsReleased(int bucket) {
+        return buckets[bucket * FIELDS + RELEASED];
+    }
+
+    public long getBucketTicketsPurchased(int bucket) {
+        return buckets[bucket * FIELDS + PURCHASED];
+    }
+
+    public long getBucketFailedPurchases(int bucket) {
+        return buckets[bucket * FIELDS + FAILED];
+    }
+}
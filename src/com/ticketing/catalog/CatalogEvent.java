@@ -0,0 +1,115 @@
+package com.ticketing.catalog;
+
+import com.ticketing.model.TicketPool;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An event in the catalog: its own ticket pool plus sales counters.
+ * Every event has a separate pool and lock, so traffic on a popular event never
+ * waits for a quiet one. The counters are {@link LongAdder}s, which spread concurrent
+ * updates over several cells, so reading statistics needs no lock either.
+ */
+public final class CatalogEvent {
+    private final EventSpec spec;
+    private final int index; // Position in the catalog, also the index into the popularity tables
+    private final TicketPool pool;
+    private final LongAdder purchases = new LongAdder();
+    private final LongAdder failedPurchases = new LongAdder();
+    private final LongAdder ticketsSold = new LongAdder();
+    private final LongAdder releases = new LongAdder();
+    private final LongAdder ticketsReleased = new LongAdder();
+    private final LongAdder skippedReleases = new LongAdder();
+
+    CatalogEvent(EventSpec spec, int index, TicketPool pool) {
+        this.spec = spec;
+        this.index = index;
+        this.pool = pool;
+    }
+
+    /**
+     * Buys tickets for this event.
+     *
+     * @param count        Number of tickets.
+     * @param customerName Name recorded in the transaction log.
+     * @return true if the tickets were bought.
+     */
+    public boolean purchase(int count, String customerName) {
+        if (pool.retrieveTickets(count, customerName)) {
+            purchases.increment();
+            ticketsSold.add(count);
+            return true;
+        }
+        failedPurchases.increment();
+        return false;
+    }
+
+    /**
+     * Puts tickets on sale for this event. A release that would not fit is skipped instead of
+     * waiting, so a vendor is not held up by one sold-in event while others need tickets.
+     * The check is not atomic with the add; if a concurrent release fills the pool first,
+     * the vendor waits for space as it would on a single pool.
+     *
+     * @param count      Number of tickets.
+     * @param vendorName Name recorded in the transaction log.
+     * @return true if the tickets were added, false if the release was skipped or interrupted.
+     */
+    public boolean release(int count, String vendorName) {
+        if (pool.getTotalTickets() + count > pool.getMaxCapacity()) {
+            skippedReleases.increment();
+            return false;
+        }
+        pool.addTickets(count, vendorName);
+        if (Thread.currentThread().isInterrupted()) {
+            return false; // Gave up waiting for capacity
+        }
+        releases.increment();
+        ticketsReleased.add(count);
+        return true;
+    }
+
+    /**
+     * Puts tickets on sale for this event only if they fit, without ever waiting for space.
+     *
+     * @param count      Number of tickets.
+     * @param vendorName Name recorded in the transaction log.
+     * @return true if the tickets were added, false if the release was skipped.
+     */
+    public boolean tryRelease(int count, String vendorName) {
+        if (!pool.tryAddTickets(count, vendorName)) {
+            skippedReleases.increment();
+            return false;
+        }
+        releases.increment();
+        ticketsReleased.add(count);
+        return true;
+    }
+
+    /**
+     * Takes a snapshot of the counters. The counters are read one by one while sales
+     * continue, so the figures may differ slightly from one another.
+     *
+     * @return Current statistics of this event.
+     */
+    public EventStats getStats() {
+        return new EventStats(spec.getEventId(), pool.getTotalTickets(), pool.getMaxCapacity(),
+                purchases.sum(), failedPurchases.sum(), ticketsSold.sum(),
+                releases.sum(), ticketsReleased.sum(), skippedReleases.sum());
+    }
+
+    public String getEventId() {
+        return spec.getEventId();
+    }
+
+    public EventSpec getSpec() {
+        return spec;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public TicketPool getPool() {
+        return pool;
+    }
+}
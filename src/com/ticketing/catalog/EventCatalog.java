@@ -0,0 +1,259 @@
+package com.ticketing.catalog;
+
+import com.ticketing.config.Configuration;
+import com.ticketing.model.TicketPool;
+import com.ticketing.model.TicketPoolFactory;
+import com.ticketing.model.TransactionLog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the events on sale, each with its own ticket pool.
+ * Events are looked up by id in a {@link ConcurrentHashMap}. Vendors and customers pick
+ * events through an immutable listing (the events in rank order plus the popularity tables),
+ * which is replaced as a whole when events are added. Picking, buying and reading statistics
+ * therefore never take a catalog-wide lock; only registering events does.
+ */
+public final class EventCatalog {
+    private final ConcurrentHashMap<String, CatalogEvent> events = new ConcurrentHashMap<>();
+    private final String popularity;
+    private volatile Listing listing;
+
+    /**
+     * Immutable view of the catalog used for picking events.
+     */
+    private static final class Listing {
+        final CatalogEvent[] ranked; // Index i holds the event with catalog index i
+        final PopularityDistribution demand;
+        final PopularityDistribution supply;
+
+        Listing(CatalogEvent[] ranked, PopularityDistribution demand, PopularityDistribution supply) {
+            this.ranked = ranked;
+            this.demand = demand;
+            this.supply = supply;
+        }
+    }
+
+    /**
+     * Initializes an empty catalog.
+     *
+     * @param popularity Default popularity of events without their own weights: "uniform", "zipf" or "zipf:&lt;exponent&gt;".
+     *                   Earlier events rank higher.
+     * @throws IllegalArgumentException If the popularity spec is invalid.
+     */
+    public EventCatalog(String popularity) {
+        PopularityDistribution.weightsFor(popularity, 1); // Validate before any event is added
+        this.popularity = popularity;
+    }
+
+    /**
+     * Builds the catalog described by the configuration: the events listed in config.json first,
+     * then generated events with the global settings until there are {@code eventCount} events.
+     * All pools record to the same transaction log.
+     *
+     * @param config         The system configuration.
+     * @param transactionLog Destination for every event's transactions.
+     * @return The catalog.
+     */
+    public static EventCatalog create(Configuration config, TransactionLog transactionLog) {
+        List<EventSpec> specs = withGeneratedEvents(config.getEvents(), config.getEventCount(),
+                config.getTotalTickets(), config.getMaxTicketCapacity(), config.getPoolType());
+        EventCatalog catalog = create(specs, config.getEventPopularity(), config.getShardCount(), transactionLog);
+        for (CatalogEvent event : catalog.getEvents()) {
+            event.getPool().setFailureRecording(config.isRecordFailedPurchases());
+        }
+        return catalog;
+    }
+
+    /**
+     * Appends generated events "Event-1", "Event-2", ... (skipping ids already in use) to the configured ones.
+     *
+     * @param configured     Events with their own settings.
+     * @param eventCount     Total number of events wanted.
+     * @param initialTickets Tickets on sale in each generated event.
+     * @param maxCapacity    Capacity of each generated event.
+     * @param poolType       Pool implementation of each generated event.
+     * @return The configured events followed by the generated ones.
+     */
+    public static List<EventSpec> withGeneratedEvents(List<EventSpec> configured, int eventCount,
+                                                      int initialTickets, int maxCapacity, String poolType) {
+        List<EventSpec> specs = new ArrayList<>(configured);
+        Set<String> ids = new HashSet<>();
+        for (EventSpec spec : configured) {
+            ids.add(spec.getEventId());
+        }
+        for (int i = 1; specs.size() < eventCount; i++) {
+            String eventId = "Event-" + i;
+            if (!ids.contains(eventId)) {
+                specs.add(new EventSpec(eventId, initialTickets, maxCapacity, poolType, 0, 0));
+            }
+        }
+        return specs;
+    }
+
+    /**
+     * Builds a catalog with one new pool per event.
+     *
+     * @param specs          The events, most popular first.
+     * @param popularity     Default popularity of events without their own weights.
+     * @param shardCount     Shards of each sharded pool.
+     * @param transactionLog Destination for every event's transactions.
+     * @return The catalog.
+     */
+    public static EventCatalog create(List<EventSpec> specs, String popularity, int shardCount,
+                                      TransactionLog transactionLog) {
+        EventCatalog catalog = new EventCatalog(popularity);
+        List<TicketPool> pools = new ArrayList<>(specs.size());
+        boolean warned = false;
+        for (EventSpec spec : specs) {
+            String poolType = spec.getPoolType();
+            if (TicketPoolFactory.SEATED.equals(poolType)) {
+                if (!warned) {
+                    System.out.println("Seated pools are not supported in the event catalog. Using "
+                            + TicketPoolFactory.BLOCKING + " pools.");
+                    warned = true;
+                }
+                poolType = TicketPoolFactory.BLOCKING;
+            }
+            pools.add(TicketPoolFactory.create(poolType, spec.getInitialTickets(), spec.getMaxCapacity(),
+                    shardCount, transactionLog));
+        }
+        catalog.registerAll(specs, pools);
+        return catalog;
+    }
+
+    /**
+     * Adds an event while the catalog is in use.
+     *
+     * @param spec The event's settings.
+     * @param pool The event's ticket pool.
+     * @return The new catalog entry.
+     * @throws IllegalArgumentException If an event with the same id exists.
+     */
+    public CatalogEvent register(EventSpec spec, TicketPool pool) {
+        return registerAll(Collections.singletonList(spec), Collections.singletonList(pool)).get(0);
+    }
+
+    /**
+     * Adds several events at once, rebuilding the popularity tables only once.
+     *
+     * @param specs The events' settings.
+     * @param pools One ticket pool per event, in the same order.
+     * @return The new catalog entries.
+     * @throws IllegalArgumentException If an id is already registered or appears twice.
+     */
+    public synchronized List<CatalogEvent> registerAll(List<EventSpec> specs, List<TicketPool> pools) {
+        Listing current = listing;
+        CatalogEvent[] ranked = current == null ? new CatalogEvent[0] : current.ranked;
+        ranked = Arrays.copyOf(ranked, ranked.length + specs.size());
+        List<CatalogEvent> added = new ArrayList<>(specs.size());
+        for (int i = 0; i < specs.size(); i++) {
+            EventSpec spec = specs.get(i);
+            CatalogEvent event = new CatalogEvent(spec, ranked.length - specs.size() + i, pools.get(i));
+            if (events.putIfAbsent(spec.getEventId(), event) != null) {
+                for (CatalogEvent previous : added) {
+                    events.remove(previous.getEventId());
+                }
+                throw new IllegalArgumentException("Duplicate event id: " + spec.getEventId());
+            }
+            ranked[event.getIndex()] = event;
+            added.add(event);
+        }
+
+        double[] defaults = PopularityDistribution.weightsFor(popularity, ranked.length);
+        double[] demand = new double[ranked.length];
+        double[] supply = new double[ranked.length];
+        for (int i = 0; i < ranked.length; i++) {
+            EventSpec spec = ranked[i].getSpec();
+            demand[i] = spec.getDemandWeight() > 0 ? spec.getDemandWeight() : defaults[i];
+            supply[i] = spec.getSupplyWeight() > 0 ? spec.getSupplyWeight() : defaults[i];
+        }
+        listing = new Listing(ranked, PopularityDistribution.fromWeights(demand),
+                PopularityDistribution.fromWeights(supply));
+        return added;
+    }
+
+    /**
+     * Looks up an event by id.
+     *
+     * @param eventId Id of the event.
+     * @return The event, or null if there is none with that id.
+     */
+    public CatalogEvent get(String eventId) {
+        return events.get(eventId);
+    }
+
+    /**
+     * Picks the event a customer buys for next, following the demand weights.
+     *
+     * @param random Random source owned by the calling thread.
+     * @return The event.
+     */
+    public CatalogEvent pickForPurchase(SplittableRandom random) {
+        Listing current = listing;
+        return current.ranked[current.demand.sample(random)];
+    }
+
+    /**
+     * Picks the event a vendor releases tickets for next, following the supply weights.
+     *
+     * @param random Random source owned by the calling thread.
+     * @return The event.
+     */
+    public CatalogEvent pickForRelease(SplittableRandom random) {
+        Listing current = listing;
+        return current.ranked[current.supply.sample(random)];
+    }
+
+    /**
+     * Retrieves the probability that a customer picks the given event.
+     *
+     * @param event An event of this catalog.
+     * @return Probability between 0 and 1.
+     */
+    public double getDemandShare(CatalogEvent event) {
+        return listing.demand.getShare(event.getIndex());
+    }
+
+    /**
+     * Lists the events in catalog order.
+     *
+     * @return Unmodifiable list of the events.
+     */
+    public List<CatalogEvent> getEvents() {
+        Listing current = listing;
+        return current == null ? Collections.emptyList() : Collections.unmodifiableList(Arrays.asList(current.ranked));
+    }
+
+    /**
+     * Collects the statistics of the events that sold the most tickets.
+     *
+     * @param limit Maximum number of events returned.
+     * @return Statistics sorted by tickets sold, highest first.
+     */
+    public List<EventStats> topEvents(int limit) {
+        List<EventStats> stats = new ArrayList<>(size());
+        for (CatalogEvent event : getEvents()) {
+            stats.add(event.getStats());
+        }
+        stats.sort(Comparator.comparingLong(EventStats::getTicketsSold).reversed());
+        return stats.subList(0, Math.min(limit, stats.size()));
+    }
+
+    public int size() {
+        Listing current = listing;
+        return current == null ? 0 : current.ranked.length;
+    }
+
+    public String getPopularity() {
+        return popularity;
+    }
+}
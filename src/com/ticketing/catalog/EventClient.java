@@ -0,0 +1,76 @@
+package com.ticketing.catalog;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * A vendor's or customer's access to the catalog. Picks an event for every action and
+ * records the transaction under "&lt;entity&gt;@&lt;event&gt;" so that the shared transaction
+ * log shows which event it belongs to. The per-event names are built once and cached,
+ * so steady-state actions do not allocate. Used only by the thread running the entity.
+ */
+public final class EventClient {
+    private final EventCatalog catalog;
+    private final String entityName;
+    private String[] names = new String[0]; // Index: catalog index of the event
+
+    /**
+     * Initializes a client.
+     *
+     * @param catalog    The catalog to buy from or release to.
+     * @param entityName Name of the vendor or customer.
+     */
+    public EventClient(EventCatalog catalog, String entityName) {
+        this.catalog = catalog;
+        this.entityName = entityName;
+    }
+
+    /**
+     * Buys tickets for an event picked by the demand weights.
+     *
+     * @param count  Number of tickets.
+     * @param random Random source of the calling entity.
+     * @return true if the tickets were bought.
+     */
+    public boolean purchase(int count, SplittableRandom random) {
+        CatalogEvent event = catalog.pickForPurchase(random);
+        return event.purchase(count, nameFor(event));
+    }
+
+    /**
+     * Releases tickets for an event picked by the supply weights.
+     *
+     * @param count  Number of tickets.
+     * @param random Random source of the calling entity.
+     * @return true if the tickets were added, false if the event was full or the vendor was interrupted.
+     */
+    public boolean release(int count, SplittableRandom random) {
+        CatalogEvent event = catalog.pickForRelease(random);
+        return event.release(count, nameFor(event));
+    }
+
+    /**
+     * Releases tickets for an event picked by the supply weights, without ever waiting for space.
+     *
+     * @param count  Number of tickets.
+     * @param random Random source of the calling entity.
+     * @return true if the tickets were added, false if they did not fit in the event's pool.
+     */
+    public boolean tryRelease(int count, SplittableRandom random) {
+        CatalogEvent event = catalog.pickForRelease(random);
+        return event.tryRelease(count, nameFor(event));
+    }
+
+    private String nameFor(CatalogEvent event) {
+        int index = event.getIndex();
+        if (index >= names.length) {
+            names = Arrays.copyOf(names, Math.max(index + 1, catalog.size()));
+        }
+        String name = names[index];
+        if (name == null) {
+            name = entityName + "@" + event.getEventId();
+            names[index] = name;
+        }
+        return name;
+    }
+}
@@ -0,0 +1,58 @@
+package com.ticketing.catalog;
+
+/**
+ * Settings of one event in the catalog, as read from the "events" list in config.json.
+ * Values missing from an entry fall back to the global settings.
+ */
+public final class EventSpec {
+    private final String eventId;
+    private final int initialTickets;
+    private final int maxCapacity;
+    private final String poolType;
+    private final double demandWeight;
+    private final double supplyWeight;
+
+    /**
+     * Initializes an event's settings.
+     *
+     * @param eventId        Unique id of the event (e.g. "Event-1").
+     * @param initialTickets Tickets on sale when the event is created.
+     * @param maxCapacity    Most tickets the event's pool can hold.
+     * @param poolType       Pool implementation ("blocking", "atomic" or "sharded").
+     * @param demandWeight   Relative rate at which customers pick this event; 0 uses the popularity distribution.
+     * @param supplyWeight   Relative rate at which vendors pick this event; 0 uses the popularity distribution.
+     */
+    public EventSpec(String eventId, int initialTickets, int maxCapacity, String poolType,
+                     double demandWeight, double supplyWeight) {
+        this.eventId = eventId;
+        this.initialTickets = initialTickets;
+        this.maxCapacity = maxCapacity;
+        this.poolType = poolType;
+        this.demandWeight = demandWeight;
+        this.supplyWeight = supplyWeight;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public int getInitialTickets() {
+        return initialTickets;
+    }
+
+    public int getMaxCapacity() {
+        return maxCapacity;
+    }
+
+    public String getPoolType() {
+        return poolType;
+    }
+
+    public double getDemandWeight() {
+        return demandWeight;
+    }
+
+    public double getSupplyWeight() {
+        return supplyWeight;
+    }
+}
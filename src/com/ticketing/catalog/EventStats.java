@@ -0,0 +1,71 @@
+package com.ticketing.catalog;
+
+/**
+ * Sales figures of one event at a point in time.
+ */
+public final class EventStats {
+    private final String eventId;
+    private final int ticketsAvailable;
+    private final int maxCapacity;
+    private final long purchases;
+    private final long failedPurchases;
+    private final long ticketsSold;
+    private final long releases;
+    private final long ticketsReleased;
+    private final long skippedReleases;
+
+    EventStats(String eventId, int ticketsAvailable, int maxCapacity, long purchases, long failedPurchases,
+               long ticketsSold, long releases, long ticketsReleased, long skippedReleases) {
+        this.eventId = eventId;
+        this.ticketsAvailable = ticketsAvailable;
+        this.maxCapacity = maxCapacity;
+        this.purchases = purchases;
+        this.failedPurchases = failedPurchases;
+        this.ticketsSold = ticketsSold;
+        this.releases = releases;
+        this.ticketsReleased = ticketsReleased;
+        this.skippedReleases = skippedReleases;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public int getTicketsAvailable() {
+        return ticketsAvailable;
+    }
+
+    public int getMaxCapacity() {
+        return maxCapacity;
+    }
+
+    public long getPurchases() {
+        return purchases;
+    }
+
+    public long getFailedPurchases() {
+        return failedPurchases;
+    }
+
+    public long getTicketsSold() {
+        return ticketsSold;
+    }
+
+    public long getReleases() {
+        return releases;
+    }
+
+    public long getTicketsReleased() {
+        return ticketsReleased;
+    }
+
+    public long getSkippedReleases() {
+        return skippedReleases;
+    }
+
+    @Override
+    public String toString() {
+        return eventId + ": " + ticketsSold + " sold in " + purchases + " purchases (" + failedPurchases
+                + " failed), " + ticketsReleased + " released, " + ticketsAvailable + "/" + maxCapacity + " on sale";
+    }
+}
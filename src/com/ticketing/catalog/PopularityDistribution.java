@@ -0,0 +1,162 @@
+package com.ticketing.catalog;
+
+import java.util.SplittableRandom;
+
+/**
+ * Picks an event index according to fixed relative weights.
+ * Uses Vose's alias method: building the tables is O(n) and every pick is O(1)
+ * (one random number, one table lookup), however many events there are.
+ * The tables are never modified after construction, so any number of threads can sample concurrently.
+ */
+public final class PopularityDistribution {
+    public static final String ZIPF = "zipf";
+    public static final String UNIFORM = "uniform";
+
+    private final double[] probability; // Chance of keeping column i instead of taking its alias
+    private final int[] alias;
+    private final double[] share; // Normalised weight of each index, for reports
+
+    private PopularityDistribution(double[] weights) {
+        int n = weights.length;
+        if (n == 0) {
+            throw new IllegalArgumentException("A distribution needs at least one weight.");
+        }
+        double sum = 0;
+        for (double weight : weights) {
+            if (!(weight >= 0) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("Weights must be finite and not negative: " + weight);
+            }
+            sum += weight;
+        }
+        if (sum <= 0) {
+            throw new IllegalArgumentException("At least one weight must be positive.");
+        }
+        probability = new double[n];
+        alias = new int[n];
+        share = new double[n];
+
+        // Scale weights so that the average column holds exactly 1, then pair small columns with large ones
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            share[i] = weights[i] / sum;
+            scaled[i] = share[i] * n;
+            if (scaled[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            probability[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        // Whatever is left is full up to rounding error
+        while (largeCount > 0) {
+            probability[large[--largeCount]] = 1.0;
+        }
+        while (smallCount > 0) {
+            probability[small[--smallCount]] = 1.0;
+        }
+    }
+
+    /**
+     * Builds a distribution from relative weights.
+     *
+     * @param weights Weight of each index; they do not need to add up to 1.
+     * @return The distribution.
+     * @throws IllegalArgumentException If a weight is negative or all weights are 0.
+     */
+    public static PopularityDistribution fromWeights(double[] weights) {
+        return new PopularityDistribution(weights.clone());
+    }
+
+    /**
+     * Computes Zipf weights: the event of rank k (1-based) gets weight 1 / k^exponent.
+     *
+     * @param count    Number of events.
+     * @param exponent Skew; 0 is uniform, about 1 is typical of ticket demand.
+     * @return The weights, most popular first.
+     */
+    public static double[] zipfWeights(int count, double exponent) {
+        double[] weights = new double[count];
+        for (int k = 0; k < count; k++) {
+            weights[k] = 1.0 / Math.pow(k + 1, exponent);
+        }
+        return weights;
+    }
+
+    /**
+     * Computes default weights for a popularity spec.
+     *
+     * @param spec  "uniform", "zipf" (exponent 1) or "zipf:&lt;exponent&gt;".
+     * @param count Number of events.
+     * @return The weights, most popular first.
+     * @throws IllegalArgumentException If the spec cannot be parsed.
+     */
+    public static double[] weightsFor(String spec, int count) {
+        String[] parts = spec.trim().toLowerCase().split(":");
+        switch (parts[0]) {
+            case UNIFORM:
+                if (parts.length == 1) {
+                    return zipfWeights(count, 0);
+                }
+                break;
+            case ZIPF:
+                if (parts.length == 1) {
+                    return zipfWeights(count, 1.0);
+                }
+                if (parts.length == 2) {
+                    try {
+                        double exponent = Double.parseDouble(parts[1]);
+                        if (exponent >= 0 && !Double.isInfinite(exponent)) {
+                            return zipfWeights(count, exponent);
+                        }
+                    } catch (NumberFormatException e) {
+                        // Reported below
+                    }
+                }
+                break;
+            default:
+                break;
+        }
+        throw new IllegalArgumentException("Unknown popularity '" + spec + "'. Use uniform, zipf or zipf:<exponent>.");
+    }
+
+    /**
+     * Picks an index.
+     *
+     * @param random Random source owned by the calling thread.
+     * @return Index in [0, size()).
+     */
+    public int sample(SplittableRandom random) {
+        double u = random.nextDouble() * probability.length;
+        int column = Math.min((int) u, probability.length - 1); // Guard against rounding up to the length
+        return u - column < probability[column] ? column : alias[column];
+    }
+
+    /**
+     * Retrieves the probability of picking an index.
+     *
+     * @param index Index in [0, size()).
+     * @return Probability between 0 and 1.
+     */
+    public double getShare(int index) {
+        return share[index];
+    }
+
+    public int size() {
+        return probability.length;
+    }
+}
@@ -0,0 +1,285 @@
+package com.ticketing.config;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Small hand-written JSON reader for config.json, so that loading the configuration does not
+ * initialize Gson and its type adapters on startup. Objects become {@link LinkedHashMap}s, arrays
+ * {@link ArrayList}s and numbers {@link Long} (if integral) or {@link Double}; strings, booleans
+ * and null map to themselves. Errors name the line and column of the offending character.
+ */
+final class ConfigParser {
+    private final String text;
+    private int position;
+
+    private ConfigParser(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Parses a JSON document whose top level is an object.
+     *
+     * @param text The document.
+     * @return The object's members, in file order.
+     * @throws IllegalArgumentException If the text is not valid JSON or not an object.
+     */
+    static Map<String, Object> parseObject(String text) {
+        ConfigParser parser = new ConfigParser(text);
+        parser.skipWhitespace();
+        if (parser.peek() != '{') {
+            throw parser.error("Expected an object");
+        }
+        Map<String, Object> object = parser.readObject();
+        parser.skipWhitespace();
+        if (parser.position < text.length()) {
+            throw parser.error("Unexpected text after the object");
+        }
+        return object;
+    }
+
+    /**
+     * Parses a value given on the command line, e.g. the right-hand side of {@code --set vendorCount=8}.
+     * Text that is not valid JSON is taken as a plain string, so {@code poolType=atomic} needs no quotes.
+     *
+     * @param text The value.
+     * @return The parsed value.
+     */
+    static Object parseValue(String text) {
+        ConfigParser parser = new ConfigParser(text.trim());
+        try {
+            Object value = parser.readValue();
+            if (parser.position == parser.text.length()) {
+                return value;
+            }
+        } catch (IllegalArgumentException e) {
+            // Not JSON; fall through
+        }
+        return text;
+    }
+
+    private Object readValue() {
+        skipWhitespace();
+        char c = peek();
+        switch (c) {
+            case '{':
+                return readObject();
+            case '[':
+                return readArray();
+            case '"':
+                return readString();
+            case 't':
+                expectWord("true");
+                return Boolean.TRUE;
+            case 'f':
+                expectWord("false");
+                return Boolean.FALSE;
+            case 'n':
+                expectWord("null");
+                return null;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    return readNumber();
+                }
+                throw error("Unexpected character '" + c + "'");
+        }
+    }
+
+    private Map<String, Object> readObject() {
+        Map<String, Object> object = new LinkedHashMap<>();
+        position++; // '{'
+        skipWhitespace();
+        if (peek() == '}') {
+            position++;
+            return object;
+        }
+        while (true) {
+            skipWhitespace();
+            if (peek() != '"') {
+                throw error("Expected a quoted member name");
+            }
+            int nameStart = position;
+            String name = readString();
+            if (object.containsKey(name)) {
+                position = nameStart;
+                throw error("Duplicate member '" + name + "'");
+            }
+            skipWhitespace();
+            expect(':');
+            object.put(name, readValue());
+            skipWhitespace();
+            if (peek() == ',') {
+                position++;
+            } else if (peek() == '}') {
+                position++;
+                return object;
+            } else {
+                throw error("Expected ',' or '}'");
+            }
+        }
+    }
+
+    private List<Object> readArray() {
+        List<Object> array = new ArrayList<>();
+        position++; // '['
+        skipWhitespace();
+        if (peek() == ']') {
+            position++;
+            return array;
+        }
+        while (true) {
+            array.add(readValue());
+            skipWhitespace();
+            if (peek() == ',') {
+                position++;
+            } else if (peek() == ']') {
+                position++;
+                return array;
+            } else {
+                throw error("Expected ',' or ']'");
+            }
+        }
+    }
+
+    private String readString() {
+        position++; // Opening quote
+        StringBuilder value = null; // Only needed if the string contains escapes
+        int start = position;
+        while (true) {
+            if (position >= text.length()) {
+                throw error("Unterminated string");
+            }
+            char c = text.charAt(position);
+            if (c == '"') {
+                String result = value == null ? text.substring(start, position)
+                        : value.append(text, start, position).toString();
+                position++;
+                return result;
+            }
+            if (c == '\\') {
+                if (value == null) {
+                    value = new StringBuilder();
+                }
+                value.append(text, start, position);
+                position++;
+                value.append(readEscape());
+                start = position;
+            } else if (c < 0x20) {
+                throw error("Control character in string");
+            } else {
+                position++;
+            }
+        }
+    }
+
+    private char readEscape() {
+        char c = peek();
+        position++;
+        switch (c) {
+            case '"':
+            case '\\':
+            case '/':
+                return c;
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                if (position + 4 > text.length()) {
+                    throw error("Incomplete unicode escape");
+                }
+                try {
+                    char decoded = (char) Integer.parseInt(text.substring(position, position + 4), 16);
+                    position += 4;
+                    return decoded;
+                } catch (NumberFormatException e) {
+                    throw error("Invalid unicode escape");
+                }
+            default:
+                position--;
+                throw error("Invalid escape '\\" + c + "'");
+        }
+    }
+
+    private Object readNumber() {
+        int start = position;
+        boolean integral = true;
+        if (peek() == '-') {
+            position++;
+        }
+        while (position < text.length()) {
+            char c = text.charAt(position);
+            if (c >= '0' && c <= '9') {
+                position++;
+            } else if (c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-') {
+                integral = false;
+                position++;
+            } else {
+                break;
+            }
+        }
+        String number = text.substring(start, position);
+        try {
+            if (integral) {
+                return Long.parseLong(number);
+            }
+            return Double.parseDouble(number);
+        } catch (NumberFormatException e) {
+            position = start;
+            throw error("Invalid number '" + number + "'");
+        }
+    }
+
+    private void expectWord(String word) {
+        if (!text.startsWith(word, position)) {
+            throw error("Unexpected character '" + peek() + "'");
+        }
+        position += word.length();
+    }
+
+    private void expect(char c) {
+        if (peek() != c) {
+            throw error("Expected '" + c + "'");
+        }
+        position++;
+    }
+
+    private char peek() {
+        if (position >= text.length()) {
+            throw error("Unexpected end of input");
+        }
+        return text.charAt(position);
+    }
+
+    private void skipWhitespace() {
+        while (position < text.length()) {
+            char c = text.charAt(position);
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+                return;
+            }
+            position++;
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        int line = 1;
+        int column = 1;
+        for (int i = 0; i < Math.min(position, text.length()); i++) {
+            if (text.charAt(i) == '\n') {
+                line++;
+                column = 1;
+            } else {
+                column++;
+            }
+        }
+        return new IllegalArgumentException(message + " at line " + line + ", column " + column + ".");
+    }
+}
@@ -0,0 +1,118 @@
+package com.ticketing.config;
+
+/**
+ * Immutable copy of the settings that can change while the simulation runs. The
+ * {@link ConfigWatcher} publishes a new snapshot for every accepted reload; vendors,
+ * customers and the pool read the current one once per cycle, so they never see the
+ * values of two different reloads mixed together.
+ */
+public final class ConfigSnapshot {
+    private final int version;
+    private final int ticketReleaseRate;
+    private final int customerRetrievalRate;
+    private final int maxTicketCapacity;
+    private final int vendorCount;
+    private final int customerCount;
+
+    /**
+     * Copies the reloadable settings of a configuration.
+     *
+     * @param configuration The loaded configuration.
+     * @param version       1 for the settings the simulation started with, incremented on every reload.
+     */
+    public ConfigSnapshot(Configuration configuration, int version) {
+        this.version = version;
+        this.ticketReleaseRate = configuration.getTicketReleaseRate();
+        this.customerRetrievalRate = configuration.getCustomerRetrievalRate();
+        this.maxTicketCapacity = configuration.getMaxTicketCapacity();
+        this.vendorCount = configuration.getVendorCount();
+        this.customerCount = configuration.getCustomerCount();
+    }
+
+    private ConfigSnapshot(ConfigSnapshot settings, int maxTicketCapacity) {
+        this.version = settings.version;
+        this.ticketReleaseRate = settings.ticketReleaseRate;
+        this.customerRetrievalRate = settings.customerRetrievalRate;
+        this.maxTicketCapacity = maxTicketCapacity;
+        this.vendorCount = settings.vendorCount;
+        this.customerCount = settings.customerCount;
+    }
+
+    /**
+     * Copies this snapshot with another max capacity, e.g. the one kept by a pool that cannot be resized.
+     *
+     * @param maxTicketCapacity The capacity in force.
+     * @return The copy, or this snapshot if the capacity is the same.
+     */
+    public ConfigSnapshot withMaxTicketCapacity(int maxTicketCapacity) {
+        return maxTicketCapacity == this.maxTicketCapacity ? this : new ConfigSnapshot(this, maxTicketCapacity);
+    }
+
+    /**
+     * Checks whether another snapshot holds the same settings, whatever its version.
+     *
+     * @param other The snapshot to compare with.
+     * @return true if no setting differs.
+     */
+    public boolean sameSettings(ConfigSnapshot other) {
+        return ticketReleaseRate == other.ticketReleaseRate
+                && customerRetrievalRate == other.customerRetrievalRate
+                && maxTicketCapacity == other.maxTicketCapacity
+                && vendorCount == other.vendorCount
+                && customerCount == other.customerCount;
+    }
+
+    /**
+     * Lists the settings that differ from an earlier snapshot, e.g.
+     * {@code ticketReleaseRate 1000 -> 250 ms, maxTicketCapacity 50 -> 80}.
+     *
+     * @param previous The earlier snapshot.
+     * @return The changes, or an empty string if there are none.
+     */
+    public String describeChanges(ConfigSnapshot previous) {
+        StringBuilder changes = new StringBuilder();
+        if (ticketReleaseRate != previous.ticketReleaseRate) {
+            changes.append(", ticketReleaseRate ").append(previous.ticketReleaseRate).append(" -> ")
+                    .append(ticketReleaseRate).append(" ms");
+        }
+        if (customerRetrievalRate != previous.customerRetrievalRate) {
+            changes.append(", customerRetrievalRate ").append(previous.customerRetrievalRate).append(" -> ")
+                    .append(customerRetrievalRate).append(" ms");
+        }
+        if (maxTicketCapacity != previous.maxTicketCapacity) {
+            changes.append(", maxTicketCapacity ").append(previous.maxTicketCapacity).append(" -> ")
+                    .append(maxTicketCapacity);
+        }
+        if (vendorCount != previous.vendorCount) {
+            changes.append(", vendorCount ").append(previous.vendorCount).append(" -> ").append(vendorCount);
+        }
+        if (customerCount != previous.customerCount) {
+            changes.append(", customerCount ").append(previous.customerCount).append(" -> ").append(customerCount);
+        }
+        return changes.length() == 0 ? "" : changes.substring(2);
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public int getTicketReleaseRate() {
+        return ticketReleaseRate;
+    }
+
+    public int getCustomerRetrievalRate() {
+        return customerRetrievalRate;
+    }
+
+    public int getMaxTicketCapacity() {
+        return maxTicketCapacity;
+    }
+
+    public int getVendorCount() {
+        return vendorCount;
+    }
+
+    public int getCustomerCount() {
+        return customerCount;
+    }
+}
@@ -0,0 +1,196 @@
+package com.ticketing.config;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+/**
+ * Background thread that watches the configuration file while the simulation runs and
+ * publishes its reloadable settings as a new {@link ConfigSnapshot} whenever the file changes.
+ * The file is re-read with the same validation as on startup (command-line overrides still
+ * win); a change with any problem is rejected and the running settings are kept.
+ *
+ * <p>Each accepted reload is printed with the time it took to take effect, measured from the
+ * moment the change was noticed and from the file's modification time. A reload is applied by
+ * the listeners first and published afterwards, with the settings they actually applied: a pool
+ * that keeps its capacity keeps it in the snapshot too. Vendors and customers pick up new rates
+ * at their next turn; a new capacity is applied to the pool at once.
+ */
+public class ConfigWatcher implements AutoCloseable {
+    private static final long SETTLE_MILLIS = 50; // Editors often write a file in several steps
+
+    private final Path file;
+    private final List<String> overrides;
+    private final WatchService watchService;
+    private final List<UnaryOperator<ConfigSnapshot>> listeners = new CopyOnWriteArrayList<>();
+    private final Thread thread;
+    private volatile ConfigSnapshot current;
+    private volatile boolean closed;
+
+    private ConfigWatcher(Path file, List<String> overrides, Configuration initial, WatchService watchService) {
+        this.file = file;
+        this.overrides = new ArrayList<>(overrides);
+        this.watchService = watchService;
+        this.current = new ConfigSnapshot(initial, 1);
+        this.thread = new Thread(this::watchLoop, "config-watcher");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Starts watching a configuration file.
+     *
+     * @param filename  The file the configuration was loaded from.
+     * @param overrides Command-line settings ("key=value") to apply on top of every reload.
+     * @param initial   The configuration the simulation starts with.
+     * @return The running watcher, or null if the file's directory cannot be watched.
+     */
+    public static ConfigWatcher start(String filename, List<String> overrides, Configuration initial) {
+        Path file = Paths.get(filename).toAbsolutePath();
+        WatchService watchService = null;
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            // Watch the directory, not the file: editors and tools often replace the file with a new one
+            file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_CREATE);
+        } catch (IOException | UnsupportedOperationException e) {
+            System.err.println("Cannot watch " + filename + " for changes: " + e.getMessage());
+            closeQuietly(watchService);
+            return null;
+        }
+        ConfigWatcher watcher = new ConfigWatcher(file, overrides, initial, watchService);
+        watcher.thread.start();
+        System.out.println("Watching " + filename + " for changes to the release rate, retrieval rate, capacity and entity counts.");
+        return watcher;
+    }
+
+    /**
+     * Retrieves the settings currently in force. Read it once per cycle and use the
+     * returned snapshot for the whole cycle.
+     *
+     * @return The latest accepted snapshot.
+     */
+    public ConfigSnapshot current() {
+        return current;
+    }
+
+    /**
+     * Registers a callback run on the watcher thread for each accepted reload, in the order of
+     * registration and before the reload is published.
+     *
+     * @param listener Receives the new snapshot and returns it, or a copy with the settings it
+     *                 kept instead; {@link #current()} still returns the previous one.
+     */
+    public void addListener(UnaryOperator<ConfigSnapshot> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Stops watching.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        closeQuietly(watchService); // Wakes the watcher thread
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void watchLoop() {
+        try {
+            while (!closed) {
+                WatchKey key = watchService.take();
+                long detectedNanos = System.nanoTime();
+                boolean changed = drain(key);
+                // Wait for the writes to settle, so that a half-written file is not read
+                while ((key = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    changed |= drain(key);
+                }
+                if (changed) {
+                    reload(detectedNanos);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Closed
+        }
+    }
+
+    /**
+     * Consumes a key's events and checks whether any of them concerns the watched file.
+     */
+    private boolean drain(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(event.context())) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    private void reload(long detectedNanos) {
+        Configuration reloaded = new Configuration();
+        if (!reloaded.loadConfiguration(file.toString(), overrides) || !reloaded.getProblems().isEmpty()) {
+            System.err.println("Ignoring the change to " + file.getFileName() + " ("
+                    + reloaded.getProblems().size() + " problem(s)). The running settings are kept.");
+            return;
+        }
+        ConfigSnapshot previous = current;
+        ConfigSnapshot next = new ConfigSnapshot(reloaded, previous.getVersion() + 1);
+        if (next.sameSettings(previous)) {
+            System.out.println("Reloaded " + file.getFileName() + ": no change to the release rate, retrieval rate, "
+                    + "capacity or entity counts. Other settings only apply after a restart.");
+            return;
+        }
+        for (UnaryOperator<ConfigSnapshot> listener : listeners) {
+            try {
+                next = listener.apply(next);
+            } catch (RuntimeException e) {
+                System.err.println("Failed to apply the reloaded configuration: " + e.getMessage());
+            }
+        }
+        if (next.sameSettings(previous)) {
+            System.out.println("Reloaded " + file.getFileName() + ": none of the changes could be applied. "
+                    + "The running settings are kept.");
+            return;
+        }
+        current = next;
+        long appliedNanos = System.nanoTime();
+        long appliedMillis = System.currentTimeMillis();
+        String sinceWrite = "";
+        try {
+            long modifiedMillis = Files.getLastModifiedTime(file).toMillis();
+            sinceWrite = ", " + Math.max(0, appliedMillis - modifiedMillis) + " ms after the file was written";
+        } catch (IOException e) {
+            // The file was replaced again meanwhile; report the detection latency only
+        }
+        System.out.println(String.format("Reloaded %s (version %d): %s. Took effect %.1f ms after the change was "
+                        + "noticed%s.", file.getFileName(), next.getVersion(), next.describeChanges(previous),
+                (appliedNanos - detectedNanos) / 1e6, sinceWrite));
+    }
+
+    private static void closeQuietly(WatchService watchService) {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                // Nothing left to release
+            }
+        }
+    }
+}
@@ -1,9 +1,32 @@
 package com.ticketing.config;
 
+import com.google.gson.JsonArray; // Importing the JsonArray class from Gson library to represent JSON lists
 import com.google.gson.JsonObject; // Importing the JsonObject class from Gson library to represent JSON objects
+import com.ticketing.catalog.EventSpec; // Importing the per-event settings of the event catalog
+import com.ticketing.catalog.PopularityDistribution; // Importing the popularity distributions for validation
+import com.ticketing.journal.BinaryRecordFormat; // Importing the binary record size that bounds history segments
+import com.ticketing.journal.JournalFormat; // Importing the journal on-disk encodings
+import com.ticketing.journal.SyncPolicy; // Importing the journal fsync policies
+import com.ticketing.logging.LogLevel; // Importing the log levels of the console logger
+import com.ticketing.main.EntityExecutor; // Importing the executor that knows the available execution modes
+import com.ticketing.model.TicketPoolFactory; // Importing the factory that knows the available ticket pool implementations
+import com.ticketing.model.WaitingTicketPool; // Importing the wait line that knows the available purchase wait modes
+import com.ticketing.remote.WireProtocol; // Importing the pool server protocol to validate server addresses
+import com.ticketing.seating.SeatInventory; // Importing the seat inventory for its default section size
 import com.ticketing.util.JSONFileWriter; // Importing the custom JSONFileWriter utility class for saving and loading configurations in JSON format
 
 import java.io.File; // Importing Java's File class to check for file existence and work with files in the system
+import java.io.IOException; // Importing IOException to handle unreadable configuration files
+import java.nio.charset.StandardCharsets; // Importing StandardCharsets to decode the configuration file as UTF-8
+import java.nio.file.Files; // Importing Files to read the configuration file in one call
+import java.nio.file.Paths; // Importing Paths to locate the configuration file
+import java.util.ArrayList; // Importing ArrayList to collect the configured events
+import java.util.Collections; // Importing Collections to expose the events read-only
+import java.util.HashSet; // Importing HashSet to detect duplicate event ids
+import java.util.LinkedHashMap; // Importing LinkedHashMap to hold settings in file order
+import java.util.List; // Importing List for the configured events
+import java.util.Map; // Importing Map for the parsed settings
+import java.util.Set; // Importing Set for duplicate detection
 import java.util.Scanner; // Importing Scanner for reading user input from the command line
 
 /**
@@ -18,8 +41,62 @@ public class Configuration {
     private int ticketReleaseRate;
     private int customerRetrievalRate;
     private int maxTicketCapacity;
+    private String poolType = TicketPoolFactory.BLOCKING; // Ticket pool implementation ("blocking", "atomic", "sharded" or "seated")
+    private int shardCount = Runtime.getRuntime().availableProcessors(); // Shards used by the sharded pool
+    private int seatSectionSize = SeatInventory.DEFAULT_SECTION_SIZE; // Seats per section in the seated pool
+    private int coalesceBatchSize = 1; // Requests applied per batch by the coalescing front end, 1 = no coalescing
+    private int coalesceLingerMicros = 20; // Longest wait for a batch to fill
+    private int eventCount = 0; // Events on sale, each with its own pool; 0 = one global pool
+    private String eventPopularity = PopularityDistribution.ZIPF; // How vendors and customers pick events
+    private List<EventSpec> events = new ArrayList<>(); // Events with their own settings, listed in config.json
+    private int vendorCount = 5; // Number of simulated vendors
+    private int customerCount = 3; // Number of simulated customers
+    private String executorMode = EntityExecutor.PLATFORM; // How entities are run ("platform", "pool" or "virtual")
+    private int threadPoolSize = Runtime.getRuntime().availableProcessors(); // Threads used in "pool" mode
+    private boolean journalEnabled = false; // Write transactions to an append-only journal instead of memory
+    private String journalFile = "transactions.journal"; // Journal file
+    private JournalFormat journalFormat = JournalFormat.JSON; // One JSON record per line, or fixed-width binary
+    private int journalQueueCapacity = 65536; // Records that may wait for the journal writer
+    private int journalBatchSize = 1024; // Records written per batch
+    private SyncPolicy journalSyncPolicy = SyncPolicy.BATCH; // When written batches are forced to disk
+    private int journalSyncIntervalMs = 100; // Minimum time between forces for the "interval" policy
+    private boolean recoveryEnabled = false; // Restore the pool from the journal's snapshot and tail on start
+    private int snapshotIntervalRecords = 1_000_000; // Journal records between two pool snapshots
+    private int historyMemoryRecords = 0; // Recent transactions kept in memory, older ones spilled to disk; 0 keeps all in memory
+    private String historyDir = "history"; // Directory of the spilled history segments
+    private int historySegmentRecords = 1_048_576; // Transactions per history segment file
+    private LogLevel logLevel = LogLevel.INFO; // Minimum level printed; "off" silences all simulation output
+    private int logRateLimit = 0; // Messages per second allowed for each repeated message, 0 = unlimited
+    private int logQueueCapacity = 65536; // Messages that may wait for the console appender
+    private int metricsIntervalMs = 0; // Time between metrics reports, 0 = no periodic report
+    private String metricsFile = ""; // Append metrics as JSON lines to this file instead of printing them
+    private boolean contentionProfiling = false; // Time lock waits, awaits and hold times per entity; report on exit
+    private boolean exportCompact = false; // Write transactions.json without pretty printing
+    private boolean exportGzip = false; // Gzip the exported transactions (transactions.json.gz)
+    private boolean recordFailedPurchases = false; // Also log purchases that found too few tickets, for failure rates
+    private boolean configReload = false; // Apply changed rates and capacity from the config file while running
+    private String purchaseWaitMode = WaitingTicketPool.RETRY; // What a purchase does without tickets ("retry", "fifo" or "priority")
+    private int purchaseWaitTimeoutMs = 5000; // Longest time a customer waits in line
+    private int priorityTiers = 3; // Lines in "priority" mode
+    private String poolServer = ""; // Address of a pool server to use instead of a local pool; empty for a local pool
+    private int targetFillPercent = 0; // Fill level the release rate controller holds the pool at; 0 turns it off
+    private int controlIntervalMs = 200; // Time between two adjustments of the release rate
+
+    private final List<String> problems = new ArrayList<>(); // Problems found by the last load
 
     private static final String CONFIG_FILE = "config.json"; // The file to save and load configurations
+    private static final List<String> REQUIRED_KEYS = List.of("totalTickets", "ticketReleaseRate",
+            "customerRetrievalRate", "maxTicketCapacity"); // Settings without a default
+    private static final Set<String> KNOWN_KEYS = Set.of("totalTickets", "ticketReleaseRate", "customerRetrievalRate",
+            "maxTicketCapacity", "poolType", "shardCount", "seatSectionSize", "coalesceBatchSize",
+            "coalesceLingerMicros", "eventCount", "eventPopularity", "events", "vendorCount", "customerCount",
+            "executorMode", "threadPoolSize", "journalEnabled", "journalFile", "journalFormat",
+            "journalQueueCapacity", "journalBatchSize", "journalSyncPolicy", "journalSyncIntervalMs",
+            "recoveryEnabled", "snapshotIntervalRecords", "logLevel", "logRateLimit", "logQueueCapacity",
+            "metricsIntervalMs", "metricsFile", "contentionProfiling", "exportCompact", "exportGzip",
+            "recordFailedPurchases", "configReload", "purchaseWaitMode", "purchaseWaitTimeoutMs",
+            "priorityTiers", "poolServer", "targetFillPercent",
+            "controlIntervalMs", "historyMemoryRecords", "historyDir", "historySegmentRecords"); // Catches typos
 
     /**
      * Prompts the user to configure system parameters with validation.
@@ -36,8 +113,11 @@ public class Configuration {
             // If user chooses 'y' to load, check if the configuration file exists
             File configFile = new File(CONFIG_FILE);
             if (configFile.exists() && !configFile.isDirectory()) {
-                // Load the existing configuration if the file exists
-                loadConfiguration();
+                // Load the existing configuration if the file exists; fall back to new input if it is unusable
+                if (!loadConfiguration()) {
+                    System.out.println("Entering new configuration...\n");
+                    promptForConfiguration(scanner);
+                }
             } else {
                 // If the file doesn't exist, show this message and proceed to new configuration input
                 System.out.println("No previous configurations. Enter a new configuration.");
@@ -97,6 +177,63 @@ public class Configuration {
         System.out.println("Ticket Release Rate: " + ticketReleaseRate + " ms");
         System.out.println("Customer Retrieval Rate: " + customerRetrievalRate + " ms");
         System.out.println("Max Ticket Capacity: " + maxTicketCapacity);
+        System.out.println("Pool Implementation: " + poolType);
+        if (TicketPoolFactory.SHARDED.equals(poolType)) {
+            System.out.println("Shard Count: " + shardCount);
+        }
+        if (TicketPoolFactory.SEATED.equals(poolType)) {
+            System.out.println("Seats per Section: " + seatSectionSize);
+        }
+        if (coalesceBatchSize > 1) {
+            System.out.println("Request Coalescing: up to " + coalesceBatchSize + " per batch, linger "
+                    + coalesceLingerMicros + " us");
+        }
+        if (isCatalogEnabled()) {
+            System.out.println("Events: " + getEventCount() + " (" + events.size() + " configured, popularity "
+                    + eventPopularity + ")");
+        }
+        System.out.println("Vendors: " + vendorCount + ", Customers: " + customerCount);
+        System.out.println("Executor Mode: " + executorMode
+                + (EntityExecutor.POOL.equals(executorMode) ? " (" + threadPoolSize + " threads)" : ""));
+        System.out.println("Log Level: " + logLevel.name().toLowerCase()
+                + (logRateLimit > 0 ? " (max " + logRateLimit + " repeats/s per message)" : ""));
+        if (metricsIntervalMs > 0) {
+            System.out.println("Metrics: every " + metricsIntervalMs + " ms to "
+                    + (metricsFile.isEmpty() ? "the console" : metricsFile));
+        }
+        if (contentionProfiling) {
+            System.out.println("Contention Profiling: on");
+        }
+        if (recordFailedPurchases) {
+            System.out.println("Failed Purchases: recorded in the transaction log");
+        }
+        if (!WaitingTicketPool.RETRY.equals(purchaseWaitMode)) {
+            System.out.println("Purchase Waiting: " + purchaseWaitMode
+                    + (WaitingTicketPool.PRIORITY.equals(purchaseWaitMode) ? " (" + priorityTiers + " tiers)" : "")
+                    + ", up to " + purchaseWaitTimeoutMs + " ms" + (isCatalogEnabled() ? " (not used with events)" : ""));
+        }
+        if (targetFillPercent > 0) {
+            System.out.println("Release Rate Controller: holds the pool at " + targetFillPercent + "% full, adjusting every "
+                    + controlIntervalMs + " ms" + (isCatalogEnabled() ? " (not used with events)" : ""));
+        }
+        if (!poolServer.isEmpty()) {
+            System.out.println("Pool Server: " + poolServer + (isCatalogEnabled() ? " (not used with events)" : ""));
+        }
+        if (configReload) {
+            System.out.println("Config Reload: on (release rate, retrieval rate, capacity and entity counts)");
+        }
+        if (journalEnabled) {
+            System.out.println("Transaction Journal: " + journalFile + " (" + journalFormat.name().toLowerCase() + ", sync: " + journalSyncPolicy.name().toLowerCase()
+                    + ", batch: " + journalBatchSize + ", queue: " + journalQueueCapacity + ")");
+            if (recoveryEnabled) {
+                System.out.println("Crash Recovery: on (snapshot every " + snapshotIntervalRecords + " records)");
+            }
+        }
+        if (historyMemoryRecords > 0) {
+            System.out.println("Transaction History: last " + historyMemoryRecords + " records in memory, all in "
+                    + historyDir + " (" + historySegmentRecords + " records per segment)"
+                    + (journalEnabled ? " (not used with the journal)" : ""));
+        }
     }
 
     /**
@@ -108,6 +245,63 @@ public class Configuration {
         config.addProperty("ticketReleaseRate", ticketReleaseRate);
         config.addProperty("customerRetrievalRate", customerRetrievalRate);
         config.addProperty("maxTicketCapacity", maxTicketCapacity);
+        config.addProperty("poolType", poolType);
+        config.addProperty("shardCount", shardCount);
+        config.addProperty("seatSectionSize", seatSectionSize);
+        config.addProperty("coalesceBatchSize", coalesceBatchSize);
+        config.addProperty("coalesceLingerMicros", coalesceLingerMicros);
+        config.addProperty("eventCount", eventCount);
+        config.addProperty("eventPopularity", eventPopularity);
+        if (!events.isEmpty()) {
+            JsonArray eventList = new JsonArray();
+            for (EventSpec spec : events) {
+                JsonObject event = new JsonObject();
+                event.addProperty("eventId", spec.getEventId());
+                event.addProperty("totalTickets", spec.getInitialTickets());
+                event.addProperty("maxTicketCapacity", spec.getMaxCapacity());
+                event.addProperty("poolType", spec.getPoolType());
+                if (spec.getDemandWeight() > 0) {
+                    event.addProperty("demandWeight", spec.getDemandWeight());
+                }
+                if (spec.getSupplyWeight() > 0) {
+                    event.addProperty("supplyWeight", spec.getSupplyWeight());
+                }
+                eventList.add(event);
+            }
+            config.add("events", eventList);
+        }
+        config.addProperty("vendorCount", vendorCount);
+        config.addProperty("customerCount", customerCount);
+        config.addProperty("executorMode", executorMode);
+        config.addProperty("threadPoolSize", threadPoolSize);
+        config.addProperty("journalEnabled", journalEnabled);
+        config.addProperty("journalFile", journalFile);
+        config.addProperty("journalFormat", journalFormat.name().toLowerCase());
+        config.addProperty("journalQueueCapacity", journalQueueCapacity);
+        config.addProperty("journalBatchSize", journalBatchSize);
+        config.addProperty("journalSyncPolicy", journalSyncPolicy.name().toLowerCase());
+        config.addProperty("journalSyncIntervalMs", journalSyncIntervalMs);
+        config.addProperty("recoveryEnabled", recoveryEnabled);
+        config.addProperty("snapshotIntervalRecords", snapshotIntervalRecords);
+        config.addProperty("logLevel", logLevel.name().toLowerCase());
+        config.addProperty("logRateLimit", logRateLimit);
+        config.addProperty("logQueueCapacity", logQueueCapacity);
+        config.addProperty("metricsIntervalMs", metricsIntervalMs);
+        config.addProperty("metricsFile", metricsFile);
+        config.addProperty("contentionProfiling", contentionProfiling);
+        config.addProperty("exportCompact", exportCompact);
+        config.addProperty("exportGzip", exportGzip);
+        config.addProperty("recordFailedPurchases", recordFailedPurchases);
+        config.addProperty("configReload", configReload);
+        config.addProperty("purchaseWaitMode", purchaseWaitMode);
+        config.addProperty("purchaseWaitTimeoutMs", purchaseWaitTimeoutMs);
+        config.addProperty("priorityTiers", priorityTiers);
+        config.addProperty("poolServer", poolServer);
+        config.addProperty("targetFillPercent", targetFillPercent);
+        config.addProperty("controlIntervalMs", controlIntervalMs);
+        config.addProperty("historyMemoryRecords", historyMemoryRecords);
+        config.addProperty("historyDir", historyDir);
+        config.addProperty("historySegmentRecords", historySegmentRecords);
 
         // Use JSONFileWriter to save the configuration to the file
         JSONFileWriter.writeToJSON(config, CONFIG_FILE);
@@ -115,16 +309,312 @@ public class Configuration {
 
     /**
      * Load the configuration from a JSON file.
+     *
+     * @return true if the file was read and holds the required settings.
+     */
+    public boolean loadConfiguration() {
+        return loadConfiguration(CONFIG_FILE);
+    }
+
+    /**
+     * Load the configuration from the given JSON file.
+     *
+     * @param filename The configuration file to read.
+     * @return true if the file was read and holds the required settings.
+     */
+    public boolean loadConfiguration(String filename) {
+        return loadConfiguration(filename, Collections.emptyList());
+    }
+
+    /**
+     * Loads the configuration from a JSON file and applies settings given on the command line on top.
+     * The file is read with a small built-in parser instead of Gson, which keeps startup fast.
+     * Every problem (unknown or missing keys, wrong types, values out of range) is printed and
+     * kept in {@link #getProblems()}, so that all of them can be reported before anything starts.
+     *
+     * @param filename  The configuration file to read, or null to start from the defaults.
+     * @param overrides Settings as "key=value", e.g. "vendorCount=8" or "poolType=atomic".
+     * @return true if the settings could be read and the required ones are present.
+     */
+    public boolean loadConfiguration(String filename, List<String> overrides) {
+        problems.clear();
+        Map<String, Object> config = new LinkedHashMap<>();
+        if (filename != null) {
+            try {
+                config = ConfigParser.parseObject(new String(Files.readAllBytes(Paths.get(filename)), StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                System.err.println("Failed to read from JSON file: " + e.getMessage());
+                problems.add("Cannot read " + filename + ".");
+                return false;
+            } catch (IllegalArgumentException e) {
+                report("Invalid JSON in " + filename + ": " + e.getMessage());
+                return false;
+            }
+        }
+        for (String override : overrides) {
+            int separator = override.indexOf('=');
+            if (separator <= 0) {
+                report("Invalid setting '" + override + "'. Expected key=value.");
+                continue;
+            }
+            config.put(override.substring(0, separator).trim(), ConfigParser.parseValue(override.substring(separator + 1)));
+        }
+        for (String key : config.keySet()) {
+            if (!KNOWN_KEYS.contains(key)) {
+                report("Unknown setting '" + key + "'. Ignoring it.");
+            }
+        }
+        boolean complete = true;
+        for (String key : REQUIRED_KEYS) {
+            if (!config.containsKey(key)) {
+                report("Missing setting '" + key + "'.");
+                complete = false;
+            }
+        }
+
+        totalTickets = readInt(config, "totalTickets", totalTickets, 0);
+        ticketReleaseRate = readInt(config, "ticketReleaseRate", ticketReleaseRate, 0);
+        customerRetrievalRate = readInt(config, "customerRetrievalRate", customerRetrievalRate, 0);
+        maxTicketCapacity = readInt(config, "maxTicketCapacity", maxTicketCapacity, 1);
+        if (maxTicketCapacity < totalTickets) {
+            report("Total tickets (" + totalTickets + ") exceed the max ticket capacity (" + maxTicketCapacity + ").");
+        }
+        if (config.containsKey("poolType")) {
+            String type = readString(config, "poolType", poolType);
+            if (TicketPoolFactory.isSupported(type)) {
+                poolType = type;
+            } else {
+                report("Unknown pool type '" + type + "'. Using " + poolType + ".");
+            }
+        }
+        shardCount = readPositive(config, "shardCount", shardCount);
+        seatSectionSize = readPositive(config, "seatSectionSize", seatSectionSize);
+        coalesceBatchSize = readPositive(config, "coalesceBatchSize", coalesceBatchSize);
+        coalesceLingerMicros = readInt(config, "coalesceLingerMicros", coalesceLingerMicros, 0);
+        eventCount = readInt(config, "eventCount", eventCount, 0);
+        if (config.containsKey("eventPopularity")) {
+            String spec = readString(config, "eventPopularity", eventPopularity);
+            try {
+                PopularityDistribution.weightsFor(spec, 1);
+                eventPopularity = spec;
+            } catch (IllegalArgumentException e) {
+                report(e.getMessage() + " Using " + eventPopularity + ".");
+            }
+        }
+        if (config.containsKey("events")) {
+            if (config.get("events") instanceof List) {
+                events = readEvents((List<?>) config.get("events"));
+            } else {
+                report("'events' must be a list. Ignoring it.");
+            }
+        }
+        vendorCount = readPositive(config, "vendorCount", vendorCount);
+        customerCount = readPositive(config, "customerCount", customerCount);
+        threadPoolSize = readPositive(config, "threadPoolSize", threadPoolSize);
+        journalQueueCapacity = readPositive(config, "journalQueueCapacity", journalQueueCapacity);
+        journalBatchSize = readPositive(config, "journalBatchSize", journalBatchSize);
+        journalSyncIntervalMs = readPositive(config, "journalSyncIntervalMs", journalSyncIntervalMs);
+        journalEnabled = readBoolean(config, "journalEnabled", journalEnabled);
+        recoveryEnabled = readBoolean(config, "recoveryEnabled", recoveryEnabled);
+        snapshotIntervalRecords = readPositive(config, "snapshotIntervalRecords", snapshotIntervalRecords);
+        logQueueCapacity = readPositive(config, "logQueueCapacity", logQueueCapacity);
+        logRateLimit = readInt(config, "logRateLimit", logRateLimit, 0);
+        metricsIntervalMs = readInt(config, "metricsIntervalMs", metricsIntervalMs, 0);
+        metricsFile = readString(config, "metricsFile", metricsFile);
+        contentionProfiling = readBoolean(config, "contentionProfiling", contentionProfiling);
+        if (config.containsKey("logLevel")) {
+            try {
+                logLevel = LogLevel.fromName(readString(config, "logLevel", logLevel.name()));
+            } catch (IllegalArgumentException e) {
+                report("Unknown log level. Using " + logLevel.name().toLowerCase() + ".");
+            }
+        }
+        exportCompact = readBoolean(config, "exportCompact", exportCompact);
+        exportGzip = readBoolean(config, "exportGzip", exportGzip);
+        recordFailedPurchases = readBoolean(config, "recordFailedPurchases", recordFailedPurchases);
+        configReload = readBoolean(config, "configReload", configReload);
+        purchaseWaitTimeoutMs = readPositive(config, "purchaseWaitTimeoutMs", purchaseWaitTimeoutMs);
+        priorityTiers = readPositive(config, "priorityTiers", priorityTiers);
+        if (config.containsKey("purchaseWaitMode")) {
+            String mode = readString(config, "purchaseWaitMode", purchaseWaitMode);
+            if (WaitingTicketPool.isSupported(mode)) {
+                purchaseWaitMode = mode;
+            } else {
+                report("Unknown purchase wait mode '" + mode + "'. Using " + purchaseWaitMode + ".");
+            }
+        }
+        int fill = readInt(config, "targetFillPercent", targetFillPercent, 0);
+        if (fill > 99) {
+            report("'targetFillPercent' must be at most 99. Using " + targetFillPercent + ".");
+        } else {
+            targetFillPercent = fill;
+        }
+        controlIntervalMs = readPositive(config, "controlIntervalMs", controlIntervalMs);
+        if (config.containsKey("poolServer")) {
+            String server = readString(config, "poolServer", poolServer).trim();
+            try {
+                if (!server.isEmpty()) {
+                    WireProtocol.parseAddress(server);
+                }
+                poolServer = server;
+            } catch (IllegalArgumentException e) {
+                report(e.getMessage() + ". Using " + (poolServer.isEmpty() ? "a local pool" : poolServer) + ".");
+            }
+        }
+        journalFile = readString(config, "journalFile", journalFile);
+        if (config.containsKey("journalFormat")) {
+            try {
+                journalFormat = JournalFormat.fromName(readString(config, "journalFormat", journalFormat.name()));
+            } catch (IllegalArgumentException e) {
+                report("Unknown journal format. Using " + journalFormat.name().toLowerCase() + ".");
+            }
+        }
+        if (config.containsKey("journalSyncPolicy")) {
+            try {
+                journalSyncPolicy = SyncPolicy.fromName(readString(config, "journalSyncPolicy", journalSyncPolicy.name()));
+            } catch (IllegalArgumentException e) {
+                report("Unknown journal sync policy. Using " + journalSyncPolicy.name().toLowerCase() + ".");
+            }
+        }
+        if (config.containsKey("executorMode")) {
+            String mode = readString(config, "executorMode", executorMode);
+            if (EntityExecutor.isSupported(mode)) {
+                executorMode = mode;
+            } else {
+                report("Unknown executor mode '" + mode + "'. Using " + executorMode + ".");
+            }
+        }
+        historyMemoryRecords = readInt(config, "historyMemoryRecords", historyMemoryRecords, 0);
+        historyDir = readString(config, "historyDir", historyDir);
+        int segment = readPositive(config, "historySegmentRecords", historySegmentRecords);
+        if (segment > Integer.MAX_VALUE / BinaryRecordFormat.RECORD_SIZE) {
+            report("'historySegmentRecords' must be at most " + Integer.MAX_VALUE / BinaryRecordFormat.RECORD_SIZE
+                    + ". Using " + historySegmentRecords + ".");
+        } else {
+            historySegmentRecords = segment;
+        }
+        if (journalEnabled) {
+            File parent = new File(journalFile).getAbsoluteFile().getParentFile();
+            if (parent != null && !parent.isDirectory()) {
+                report("Journal directory " + parent + " does not exist.");
+            }
+        }
+        if (!complete) {
+            return false;
+        }
+        System.out.println(filename != null ? "Configuration loaded from file." : "Configuration loaded from the command line.");
+        return true;
+    }
+
+    /**
+     * Reads the "events" list. Missing values fall back to the global settings; invalid entries are skipped.
+     */
+    private List<EventSpec> readEvents(List<?> list) {
+        List<EventSpec> specs = new ArrayList<>();
+        Set<String> ids = new HashSet<>();
+        for (Object element : list) {
+            if (!(element instanceof Map) || !((Map<?, ?>) element).containsKey("eventId")) {
+                report("Skipping an event without an eventId.");
+                continue;
+            }
+            @SuppressWarnings("unchecked")
+            Map<String, Object> event = (Map<String, Object>) element;
+            String eventId = String.valueOf(event.get("eventId"));
+            if (!ids.add(eventId)) {
+                report("Skipping duplicate event '" + eventId + "'.");
+                continue;
+            }
+            int capacity = readPositive(event, "maxTicketCapacity", maxTicketCapacity);
+            int initial = readInt(event, "totalTickets", totalTickets, 0);
+            String type = readString(event, "poolType", poolType);
+            if (!TicketPoolFactory.isSupported(type)) {
+                report("Unknown pool type '" + type + "' for event '" + eventId + "'. Using " + poolType + ".");
+                type = poolType;
+            }
+            double demandWeight = Math.max(0, readDouble(event, "demandWeight", 0));
+            double supplyWeight = Math.max(0, readDouble(event, "supplyWeight", 0));
+            specs.add(new EventSpec(eventId, Math.min(initial, capacity), capacity, type, demandWeight, supplyWeight));
+        }
+        return specs;
+    }
+
+    /**
+     * Prints a problem with the loaded settings and keeps it for {@link #getProblems()}.
      */
-    public void loadConfiguration() {
-        JsonObject config = JSONFileWriter.readFromJSON(CONFIG_FILE);
-        if (config != null) {
-            totalTickets = config.get("totalTickets").getAsInt();
-            ticketReleaseRate = config.get("ticketReleaseRate").getAsInt();
-            customerRetrievalRate = config.get("customerRetrievalRate").getAsInt();
-            maxTicketCapacity = config.get("maxTicketCapacity").getAsInt();
-            System.out.println("Configuration loaded from file.");
+    private void report(String problem) {
+        System.out.println(problem);
+        problems.add(problem);
+    }
+
+    /**
+     * Reads an optional positive integer, keeping the current value if the key is absent or invalid.
+     */
+    private int readPositive(Map<String, Object> config, String key, int currentValue) {
+        return readInt(config, key, currentValue, 1);
+    }
+
+    /**
+     * Reads an optional integer of at least minValue, keeping the current value if the key is absent or invalid.
+     */
+    private int readInt(Map<String, Object> config, String key, int currentValue, int minValue) {
+        Object value = config.get(key);
+        if (value == null) {
+            return currentValue;
+        }
+        if (!(value instanceof Long) || (Long) value > Integer.MAX_VALUE || (Long) value < Integer.MIN_VALUE) {
+            report("'" + key + "' must be a whole number. Using " + currentValue + ".");
+            return currentValue;
+        }
+        if ((Long) value < minValue) {
+            report("'" + key + "' must be at least " + minValue + ". Using " + currentValue + ".");
+            return currentValue;
+        }
+        return ((Long) value).intValue();
+    }
+
+    private double readDouble(Map<String, Object> config, String key, double currentValue) {
+        Object value = config.get(key);
+        if (value == null) {
+            return currentValue;
+        }
+        if (!(value instanceof Number)) {
+            report("'" + key + "' must be a number. Using " + currentValue + ".");
+            return currentValue;
         }
+        return ((Number) value).doubleValue();
+    }
+
+    private boolean readBoolean(Map<String, Object> config, String key, boolean currentValue) {
+        Object value = config.get(key);
+        if (value == null) {
+            return currentValue;
+        }
+        if (!(value instanceof Boolean)) {
+            report("'" + key + "' must be true or false. Using " + currentValue + ".");
+            return currentValue;
+        }
+        return (Boolean) value;
+    }
+
+    private String readString(Map<String, Object> config, String key, String currentValue) {
+        Object value = config.get(key);
+        if (value == null) {
+            return currentValue;
+        }
+        if (value instanceof Map || value instanceof List) {
+            report("'" + key + "' must be a single value. Using " + currentValue + ".");
+            return currentValue;
+        }
+        return String.valueOf(value);
+    }
+
+    /**
+     * Lists the problems found by the last {@link #loadConfiguration(String, List)}.
+     *
+     * @return Messages, empty if the settings were valid.
+     */
+    public List<String> getProblems() {
+        return Collections.unmodifiableList(problems);
     }
 
     // Getters for retrieving configuration parameters
@@ -143,4 +633,173 @@ public class Configuration {
     public int getMaxTicketCapacity() {
         return maxTicketCapacity;
     }
+
+    public String getPoolType() {
+        return poolType;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public int getSeatSectionSize() {
+        return seatSectionSize;
+    }
+
+    public int getCoalesceBatchSize() {
+        return coalesceBatchSize;
+    }
+
+    public int getCoalesceLingerMicros() {
+        return coalesceLingerMicros;
+    }
+
+    /**
+     * Checks whether tickets are sold for several events, each with its own pool.
+     *
+     * @return true if eventCount is set or events are listed.
+     */
+    public boolean isCatalogEnabled() {
+        return eventCount > 0 || !events.isEmpty();
+    }
+
+    public int getEventCount() {
+        return Math.max(eventCount, events.size());
+    }
+
+    public String getEventPopularity() {
+        return eventPopularity;
+    }
+
+    public List<EventSpec> getEvents() {
+        return Collections.unmodifiableList(events);
+    }
+
+    public int getVendorCount() {
+        return vendorCount;
+    }
+
+    public int getCustomerCount() {
+        return customerCount;
+    }
+
+    public String getExecutorMode() {
+        return executorMode;
+    }
+
+    public int getThreadPoolSize() {
+        return threadPoolSize;
+    }
+
+    public boolean isJournalEnabled() {
+        return journalEnabled;
+    }
+
+    public String getJournalFile() {
+        return journalFile;
+    }
+
+    public boolean isRecoveryEnabled() {
+        return recoveryEnabled;
+    }
+
+    public int getSnapshotIntervalRecords() {
+        return snapshotIntervalRecords;
+    }
+
+    public LogLevel getLogLevel() {
+        return logLevel;
+    }
+
+    public int getLogRateLimit() {
+        return logRateLimit;
+    }
+
+    public int getLogQueueCapacity() {
+        return logQueueCapacity;
+    }
+
+    public int getMetricsIntervalMs() {
+        return metricsIntervalMs;
+    }
+
+    public String getMetricsFile() {
+        return metricsFile;
+    }
+
+    public boolean isContentionProfiling() {
+        return contentionProfiling;
+    }
+
+    public boolean isExportCompact() {
+        return exportCompact;
+    }
+
+    public boolean isExportGzip() {
+        return exportGzip;
+    }
+
+    public boolean isRecordFailedPurchases() {
+        return recordFailedPurchases;
+    }
+
+    public boolean isConfigReload() {
+        return configReload;
+    }
+
+    public String getPurchaseWaitMode() {
+        return purchaseWaitMode;
+    }
+
+    public int getPurchaseWaitTimeoutMs() {
+        return purchaseWaitTimeoutMs;
+    }
+
+    public int getPriorityTiers() {
+        return priorityTiers;
+    }
+
+    public String getPoolServer() {
+        return poolServer;
+    }
+
+    public int getTargetFillPercent() {
+        return targetFillPercent;
+    }
+
+    public int getControlIntervalMs() {
+        return controlIntervalMs;
+    }
+
+    public int getHistoryMemoryRecords() {
+        return historyMemoryRecords;
+    }
+
+    public String getHistoryDir() {
+        return historyDir;
+    }
+
+    public int getHistorySegmentRecords() {
+        return historySegmentRecords;
+    }
+
+    public JournalFormat getJournalFormat() {
+        return journalFormat;
+    }
+
+    public int getJournalQueueCapacity() {
+        return journalQueueCapacity;
+    }
+
+    public int getJournalBatchSize() {
+        return journalBatchSize;
+    }
+
+    public SyncPolicy getJournalSyncPolicy() {
+        return journalSyncPolicy;
+    }
+
+    public int getJournalSyncIntervalMs() {
+        return journalSyncIntervalMs;
+    }
 }
@@ -1,15 +1,27 @@
 package com.ticketing.consumer;
 
+import com.ticketing.catalog.EventCatalog;
+import com.ticketing.catalog.EventClient;
+import com.ticketing.logging.Logger;
+import com.ticketing.model.SimulatedEntity;
 import com.ticketing.model.TicketPool;
+import com.ticketing.workload.ArrivalProfile;
+import com.ticketing.workload.ArrivalSchedule;
+
+import java.util.SplittableRandom;
+import java.util.function.IntSupplier;
 
 /**
  * Represents a customer thread that purchases tickets at regular intervals.
  */
-public class Customer implements Runnable {
+public class Customer implements SimulatedEntity {
     private final TicketPool ticketPool;
-    private final int retrievalInterval;
+    private final IntSupplier retrievalInterval; // Read once per cycle, so a reloaded configuration applies
     private final String customerName;
-    private boolean isRunning = true; // Flag to control thread execution
+    private final EventClient events; // Picks an event per cycle; null when the simulation has a single pool
+    private final SplittableRandom random = new SplittableRandom(); // Used only by the thread running this entity
+    private final ArrivalSchedule schedule;
+    private volatile boolean isRunning = true; // Flag to control thread execution
 
     /**
      * Initializes a Customer object.
@@ -19,9 +31,48 @@ public class Customer implements Runnable {
      * @param customerName     Name of the customer.
      */
     public Customer(TicketPool ticketPool, int retrievalInterval, String customerName) {
+        this(ticketPool, () -> retrievalInterval, customerName);
+    }
+
+    /**
+     * Initializes a Customer object.
+     *
+     * @param ticketPool       The shared ticket pool object.
+     * @param retrievalInterval Supplies the interval (milliseconds) between purchases; read once per cycle.
+     * @param customerName     Name of the customer.
+     */
+    public Customer(TicketPool ticketPool, IntSupplier retrievalInterval, String customerName) {
         this.ticketPool = ticketPool;
         this.retrievalInterval = retrievalInterval;
         this.customerName = customerName;
+        this.events = null;
+        this.schedule = new ArrivalSchedule(ArrivalProfile.fixedInterval(retrievalInterval), 1.0, random);
+    }
+
+    /**
+     * Initializes a Customer that buys for a different event each time, picked by popularity.
+     *
+     * @param catalog           The events on sale.
+     * @param retrievalInterval Time interval (milliseconds) between purchases.
+     * @param customerName      Name of the customer.
+     */
+    public Customer(EventCatalog catalog, int retrievalInterval, String customerName) {
+        this(catalog, () -> retrievalInterval, customerName);
+    }
+
+    /**
+     * Initializes a Customer that buys for a different event each time, picked by popularity.
+     *
+     * @param catalog           The events on sale.
+     * @param retrievalInterval Supplies the interval (milliseconds) between purchases; read once per cycle.
+     * @param customerName      Name of the customer.
+     */
+    public Customer(EventCatalog catalog, IntSupplier retrievalInterval, String customerName) {
+        this.ticketPool = null;
+        this.retrievalInterval = retrievalInterval;
+        this.customerName = customerName;
+        this.events = new EventClient(catalog, customerName);
+        this.schedule = new ArrivalSchedule(ArrivalProfile.fixedInterval(retrievalInterval), 1.0, random);
     }
 
     /**
@@ -36,19 +87,41 @@ public class Customer implements Runnable {
      */
     @Override
     public void run() {
+        schedule.start(System.nanoTime());
         while (isRunning) {
             try {
-                Thread.sleep(retrievalInterval); // Wait for the next purchase attempt
-                int ticketsToBuy = (int) (Math.random() * 5) + 1; // Randomize ticket purchase (1-5 tickets)
-                boolean success = ticketPool.retrieveTickets(ticketsToBuy, customerName);
-                if (!success) {
-                    System.out.println(customerName + ": Could not purchase tickets. Pool is empty.");
-                }
+                // Wait for the next scheduled turn; a slow cycle does not push later turns back
+                ArrivalSchedule.awaitArrival(schedule.next());
+                runCycle();
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt(); // Restore interrupted state
                 break; // Exit the loop on interruption
             }
         }
-        System.out.println(customerName + ": Stopped purchasing tickets.");
+        Logger.info("{}: Stopped purchasing tickets.", customerName);
+    }
+
+    /**
+     * Attempts a single purchase of a random number of tickets.
+     */
+    @Override
+    public void runCycle() {
+        int ticketsToBuy = random.nextInt(1, 6); // Randomize ticket purchase (1-5 tickets)
+        boolean success = events != null
+                ? events.purchase(ticketsToBuy, random)
+                : ticketPool.retrieveTickets(ticketsToBuy, customerName);
+        if (!success) {
+            Logger.info("{}: Could not purchase tickets. Pool is empty.", customerName);
+        }
+    }
+
+    @Override
+    public int getInterval() {
+        return retrievalInterval.getAsInt();
+    }
+
+    @Override
+    public String getName() {
+        return customerName;
     }
-}
\ No newline at end of file
+}
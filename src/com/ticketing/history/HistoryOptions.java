@@ -0,0 +1,138 @@
+package com.ticketing.history;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Settings of a query over a spilled transaction history, parsed from command-line flags.
+ */
+public class HistoryOptions {
+    public static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: TicketingSystem --history <directory> [options]",
+            "  --history <directory>      History directory of a finished run (historyDir in config.json)",
+            "  --entity <name>            Only this vendor or customer, e.g. Customer-3",
+            "  --from <time>              Earliest time: epoch milliseconds or ISO date-time such as 2026-10-17T10:15:00",
+            "  --to <time>                Latest time, in the same forms",
+            "  --limit <n>                Records printed (default 100); all matching records are counted");
+
+    private String directory;
+    private String entityName;
+    private long fromMillis = Long.MIN_VALUE;
+    private long toMillis = Long.MAX_VALUE;
+    private int limit = 100;
+
+    /**
+     * Parses command-line flags.
+     *
+     * @param args Command-line arguments including "--history".
+     * @return The parsed options.
+     * @throws IllegalArgumentException If a flag is unknown or its value is invalid.
+     */
+    public static HistoryOptions parse(String[] args) {
+        HistoryOptions options = new HistoryOptions();
+        for (int i = 0; i < args.length; i++) {
+            String flag = args[i];
+            switch (flag) {
+                case "--history":
+                    options.directory = value(args, ++i, flag);
+                    break;
+                case "--entity":
+                    options.entityName = value(args, ++i, flag);
+                    break;
+                case "--from":
+                    options.fromMillis = time(value(args, ++i, flag));
+                    break;
+                case "--to":
+                    options.toMillis = time(value(args, ++i, flag));
+                    break;
+                case "--limit":
+                    String text = value(args, ++i, flag);
+                    try {
+                        options.limit = Integer.parseInt(text);
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Invalid number for --limit: " + text);
+                    }
+                    if (options.limit < 0) {
+                        throw new IllegalArgumentException("--limit must be 0 or more");
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + flag);
+            }
+        }
+        if (options.directory == null) {
+            throw new IllegalArgumentException("Missing value for --history");
+        }
+        if (options.fromMillis > options.toMillis) {
+            throw new IllegalArgumentException("--from is after --to");
+        }
+        return options;
+    }
+
+    /**
+     * Checks whether the arguments ask for a history query.
+     *
+     * @param args Command-line arguments.
+     * @return true if "--history" is present.
+     */
+    public static boolean isHistory(String[] args) {
+        for (String arg : args) {
+            if (arg.equals("--history")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String value(String[] args, int index, String flag) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + flag);
+        }
+        return args[index];
+    }
+
+    /**
+     * Parses epoch milliseconds, an ISO date-time with an offset, or a local ISO date-time.
+     */
+    private static long time(String text) {
+        if (text.chars().allMatch(Character::isDigit)) {
+            try {
+                return Long.parseLong(text);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid time: " + text);
+            }
+        }
+        try {
+            return OffsetDateTime.parse(text).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            try {
+                return LocalDateTime.parse(text).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            } catch (DateTimeParseException again) {
+                throw new IllegalArgumentException("Invalid time: " + text);
+            }
+        }
+    }
+
+    // Getters for the query settings
+    public String getDirectory() {
+        return directory;
+    }
+
+    public String getEntityName() {
+        return entityName;
+    }
+
+    public long getFromMillis() {
+        return fromMillis;
+    }
+
+    public long getToMillis() {
+        return toMillis;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+}
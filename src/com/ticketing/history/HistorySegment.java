@@ -0,0 +1,174 @@
+package com.ticketing.history;
+
+import com.ticketing.journal.BinaryRecordFormat;
+import com.ticketing.journal.BinaryRecordFormat.RecordVisitor;
+import com.ticketing.journal.MappedRecordReader;
+import com.ticketing.model.ActionType;
+import com.ticketing.model.EntityDictionary;
+import com.ticketing.model.TicketRecord;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+import static com.ticketing.journal.BinaryRecordFormat.*;
+
+/**
+ * One file of the on-disk history: a binary transaction log (see {@link BinaryRecordFormat})
+ * holding a fixed range of sequence numbers, so each segment can also be read on its own by
+ * {@code --analyze} or {@code --replay}. A sealed segment is complete and has a
+ * {@link SegmentIndex}; the active segment is still being written and is scanned instead.
+ * <p>
+ * The active segment is read with positional reads rather than a mapping, because the writer
+ * trims the file when it seals it, and a mapping past the new end would fault.
+ */
+class HistorySegment {
+    private static final int READ_BUFFER_RECORDS = 2048;
+
+    private final Path logFile;
+    private final Path indexFile; // null while active
+    private final SegmentIndex index; // Summary only; null while active
+    private final long firstSequence;
+    private EntityDictionary names; // The writer's dictionary while active, loaded on first use once sealed
+
+    private HistorySegment(Path logFile, Path indexFile, SegmentIndex index, long firstSequence,
+                           EntityDictionary names) {
+        this.logFile = logFile;
+        this.indexFile = indexFile;
+        this.index = index;
+        this.firstSequence = firstSequence;
+        this.names = names;
+    }
+
+    /**
+     * Opens a sealed segment by reading its index summary.
+     *
+     * @param logFile   The segment's binary log.
+     * @param indexFile The segment's index.
+     * @return The sealed segment.
+     * @throws IOException If the index cannot be read.
+     */
+    static HistorySegment sealed(Path logFile, Path indexFile) throws IOException {
+        SegmentIndex index = SegmentIndex.readSummary(indexFile);
+        return new HistorySegment(logFile, indexFile, index, index.getFirstSequence(), null);
+    }
+
+    /**
+     * Describes the segment that is being written.
+     *
+     * @param logFile       The segment's binary log.
+     * @param firstSequence Sequence of its first record.
+     * @param names         The writer's dictionary.
+     * @return The active segment.
+     */
+    static HistorySegment active(Path logFile, long firstSequence, EntityDictionary names) {
+        return new HistorySegment(logFile, null, null, firstSequence, names);
+    }
+
+    /**
+     * Visits the records that match every filter, in sequence order.
+     *
+     * @param entityName   Name of the vendor or customer, or null for all.
+     * @param fromMillis   Earliest timestamp, inclusive.
+     * @param toMillis     Latest timestamp, inclusive.
+     * @param fromSequence First sequence, inclusive.
+     * @param toSequence   Last sequence, exclusive; for the active segment, also the end of the written records.
+     * @param action       Receives each matching record.
+     * @throws IOException If the segment cannot be read.
+     */
+    void query(String entityName, long fromMillis, long toMillis, long fromSequence, long toSequence,
+               Consumer<? super TicketRecord> action) throws IOException {
+        long end = Math.min(toSequence - firstSequence, index != null ? index.getRecordCount() : Long.MAX_VALUE);
+        long start = Math.max(0, fromSequence - firstSequence);
+        if (start >= end || index != null && !index.overlaps(fromMillis, toMillis)) {
+            return;
+        }
+        EntityDictionary dictionary = getNames();
+        RecordVisitor filter = (sequence, timestamp, code, entityId, count, remaining, firstSeat) -> {
+            if (timestamp >= fromMillis && timestamp <= toMillis) {
+                String name = dictionary.nameOf(entityId);
+                if (entityName == null || entityName.equals(name)) {
+                    action.accept(new TicketRecord(ActionType.fromCode(code), name, count, remaining, timestamp,
+                            firstSeat));
+                }
+            }
+        };
+        if (index == null) {
+            scanActive(start, end, filter);
+            return;
+        }
+        try (MappedRecordReader reader = new MappedRecordReader(logFile)) {
+            if (entityName != null) {
+                for (int position : SegmentIndex.readPositions(indexFile, entityName)) {
+                    if (position >= start && position < end
+                            && index.blockOverlaps(position / SegmentIndex.BLOCK_RECORDS, fromMillis, toMillis)) {
+                        reader.forEach(position, position + 1, filter);
+                    }
+                }
+                return;
+            }
+            for (int block = (int) (start / SegmentIndex.BLOCK_RECORDS); block < index.getBlockCount(); block++) {
+                long blockStart = (long) block * SegmentIndex.BLOCK_RECORDS;
+                if (blockStart >= end) {
+                    break;
+                }
+                if (index.blockOverlaps(block, fromMillis, toMillis)) {
+                    reader.forEach(Math.max(start, blockStart), Math.min(end, blockStart + SegmentIndex.BLOCK_RECORDS),
+                            filter);
+                }
+            }
+        }
+    }
+
+    private void scanActive(long start, long end, RecordVisitor visitor) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_RECORDS * RECORD_SIZE);
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+            for (long position = start; position < end; ) {
+                buffer.clear().limit((int) Math.min(end - position, READ_BUFFER_RECORDS) * RECORD_SIZE);
+                long offset = HEADER_SIZE + position * RECORD_SIZE;
+                while (buffer.hasRemaining() && channel.read(buffer, offset + buffer.position()) > 0) {
+                    // Read until the buffer is full
+                }
+                int records = buffer.position() / RECORD_SIZE;
+                if (records == 0) {
+                    return;
+                }
+                for (int i = 0; i < records; i++) {
+                    int at = i * RECORD_SIZE;
+                    visitor.visit(buffer.getLong(at + SEQUENCE_OFFSET), buffer.getLong(at + TIMESTAMP_OFFSET),
+                            buffer.get(at + ACTION_OFFSET), buffer.getInt(at + ENTITY_OFFSET),
+                            buffer.getInt(at + COUNT_OFFSET), buffer.getInt(at + REMAINING_OFFSET),
+                            (buffer.getInt(at + ACTION_OFFSET) & 0xFFFFFF) - 1);
+                }
+                position += records;
+            }
+        }
+    }
+
+    private synchronized EntityDictionary getNames() throws IOException {
+        if (names == null) {
+            names = EntityDictionary.load(dictionaryFile(logFile));
+        }
+        return names;
+    }
+
+    long getFirstSequence() {
+        return firstSequence;
+    }
+
+    /**
+     * Retrieves the sequence after the segment's last record.
+     *
+     * @return End sequence, exclusive; unbounded while the segment is active.
+     */
+    long getEndSequence() {
+        return index != null ? firstSequence + index.getRecordCount() : Long.MAX_VALUE;
+    }
+
+    Path getLogFile() {
+        return logFile;
+    }
+}
@@ -0,0 +1,237 @@
+package com.ticketing.history;
+
+import com.ticketing.journal.MappedRecordWriter;
+import com.ticketing.model.TicketRecord;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static com.ticketing.journal.BinaryRecordFormat.RECORD_SIZE;
+import static com.ticketing.journal.BinaryRecordFormat.dictionaryFile;
+
+/**
+ * The on-disk tier of the transaction history: a directory of segments, each a binary log of
+ * {@code segmentRecords} records with its own entity dictionary and, once full, a
+ * {@link SegmentIndex}. Records carry sequence numbers from 1 across all segments, so a segment
+ * is found from a sequence number by arithmetic and from a time range by its index summary.
+ * <p>
+ * One thread appends. Any thread may query at the same time: the list of segments is replaced,
+ * never changed, when a segment is sealed, and queries are told how far the records are written.
+ */
+public class HistoryStore {
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String LOG_SUFFIX = ".log";
+    private static final String INDEX_SUFFIX = ".idx";
+
+    private final Path directory;
+    private final int segmentRecords;
+    private volatile List<HistorySegment> segments; // Sealed segments, then the active one if any
+    private MappedRecordWriter writer; // Writer thread only, as are the fields below
+    private SegmentIndex index;
+    private int segmentNumber;
+    private long nextSequence = 1;
+
+    private HistoryStore(Path directory, int segmentRecords, List<HistorySegment> segments) {
+        this.directory = directory;
+        this.segmentRecords = segmentRecords;
+        this.segments = segments;
+    }
+
+    /**
+     * Creates an empty store for a new run. Segments left in the directory by an earlier run are deleted.
+     *
+     * @param directory      Directory of the segments; created if missing.
+     * @param segmentRecords Records per segment.
+     * @return The store, ready for {@link #append}.
+     * @throws IOException If the directory cannot be created or cleared.
+     */
+    public static HistoryStore create(Path directory, int segmentRecords) throws IOException {
+        if (segmentRecords < 1 || (long) segmentRecords * RECORD_SIZE > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Segments must hold between 1 and "
+                    + Integer.MAX_VALUE / RECORD_SIZE + " records.");
+        }
+        Files.createDirectories(directory);
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*")) {
+            for (Path file : files) {
+                Files.delete(file);
+                deleted++;
+            }
+        }
+        if (deleted > 0) {
+            System.out.println("Removed " + deleted + " history files of an earlier run from " + directory + ".");
+        }
+        return new HistoryStore(directory, segmentRecords, List.of());
+    }
+
+    /**
+     * Opens the sealed segments of a finished run for querying.
+     *
+     * @param directory Directory of the segments.
+     * @return A read-only store.
+     * @throws IOException If the directory or an index cannot be read.
+     */
+    public static HistoryStore open(Path directory) throws IOException {
+        List<Path> indexes = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + INDEX_SUFFIX)) {
+            files.forEach(indexes::add);
+        }
+        indexes.sort(null); // Zero-padded numbers sort in sequence order
+        List<HistorySegment> segments = new ArrayList<>();
+        for (Path indexFile : indexes) {
+            String name = indexFile.getFileName().toString();
+            Path logFile = directory.resolve(name.substring(0, name.length() - INDEX_SUFFIX.length()) + LOG_SUFFIX);
+            segments.add(HistorySegment.sealed(logFile, indexFile));
+        }
+        return new HistoryStore(directory, 0, List.copyOf(segments));
+    }
+
+    /**
+     * Appends the next record, sealing the active segment when it is full.
+     *
+     * @param action           Action code (see {@link com.ticketing.model.ActionType}).
+     * @param entityName       Name of the vendor or customer.
+     * @param ticketCount      Number of tickets involved.
+     * @param remainingTickets Tickets remaining after the action.
+     * @param timestamp        Time of the action in epoch milliseconds.
+     * @param firstSeat        First seat id, or -1 if the record has no seats.
+     * @throws IOException If a segment cannot be written.
+     */
+    public void append(byte action, String entityName, int ticketCount, int remainingTickets, long timestamp,
+                       int firstSeat) throws IOException {
+        if (writer == null) {
+            startSegment();
+        }
+        int entityId = writer.getDictionary().idOf(entityName);
+        writer.append(action, entityId, ticketCount, remainingTickets, timestamp, firstSeat);
+        index.add(entityId, timestamp);
+        nextSequence++;
+        if (writer.getRecordCount() == segmentRecords) {
+            seal();
+        }
+    }
+
+    /**
+     * Writes newly seen entity names of the active segment, so that the segment can be read
+     * by other processes up to its last record.
+     *
+     * @throws IOException If the dictionary cannot be written.
+     */
+    public void flush() throws IOException {
+        if (writer != null) {
+            writer.flushDictionary();
+        }
+    }
+
+    /**
+     * Seals the active segment. Appending afterwards starts a new segment.
+     *
+     * @throws IOException If the segment or its index cannot be written.
+     */
+    public void close() throws IOException {
+        if (writer != null) {
+            seal();
+        }
+    }
+
+    private void startSegment() throws IOException {
+        Path logFile = directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, ++segmentNumber, LOG_SUFFIX));
+        writer = new MappedRecordWriter(logFile, segmentRecords * RECORD_SIZE); // One mapping for the whole segment
+        index = new SegmentIndex(nextSequence);
+        List<HistorySegment> next = new ArrayList<>(segments);
+        next.add(HistorySegment.active(logFile, nextSequence, writer.getDictionary()));
+        segments = List.copyOf(next);
+    }
+
+    private void seal() throws IOException {
+        Path logFile = writer.getFile();
+        writer.close();
+        String name = logFile.getFileName().toString();
+        Path indexFile = directory.resolve(name.substring(0, name.length() - LOG_SUFFIX.length()) + INDEX_SUFFIX);
+        index.write(indexFile, writer.getDictionary());
+        List<HistorySegment> next = new ArrayList<>(segments);
+        next.set(next.size() - 1, HistorySegment.sealed(logFile, indexFile));
+        segments = List.copyOf(next);
+        writer = null;
+        index = null;
+    }
+
+    /**
+     * Visits the stored records that match every filter, in sequence order.
+     *
+     * @param entityName   Name of the vendor or customer, or null for all.
+     * @param fromMillis   Earliest timestamp, inclusive.
+     * @param toMillis     Latest timestamp, inclusive.
+     * @param fromSequence First sequence, inclusive.
+     * @param toSequence   Last sequence, exclusive; must not be past the records written so far.
+     * @param action       Receives each matching record.
+     * @throws IOException If a segment cannot be read.
+     */
+    public void query(String entityName, long fromMillis, long toMillis, long fromSequence, long toSequence,
+                      Consumer<? super TicketRecord> action) throws IOException {
+        for (HistorySegment segment : segments) {
+            if (segment.getFirstSequence() >= toSequence) {
+                break;
+            }
+            if (segment.getEndSequence() > fromSequence) {
+                segment.query(entityName, fromMillis, toMillis, fromSequence, toSequence, action);
+            }
+        }
+    }
+
+    /**
+     * Retrieves the sequence after the last record of the sealed segments.
+     *
+     * @return End sequence, exclusive; 1 if nothing is stored.
+     */
+    public long getSealedEndSequence() {
+        long end = 1;
+        for (HistorySegment segment : segments) {
+            if (segment.getEndSequence() == Long.MAX_VALUE) {
+                break;
+            }
+            end = segment.getEndSequence();
+        }
+        return end;
+    }
+
+    /**
+     * Retrieves the number of segment files, including the one being written.
+     *
+     * @return Segment count.
+     */
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Retrieves the bytes the segments, dictionaries and indexes take on disk.
+     *
+     * @return Size in bytes.
+     */
+    public long getDiskBytes() {
+        long bytes = 0;
+        for (HistorySegment segment : segments) {
+            Path logFile = segment.getLogFile();
+            String name = logFile.getFileName().toString();
+            Path indexFile = logFile.resolveSibling(name.substring(0, name.length() - LOG_SUFFIX.length()) + INDEX_SUFFIX);
+            for (Path file : new Path[]{logFile, dictionaryFile(logFile), indexFile}) {
+                try {
+                    bytes += Files.exists(file) ? Files.size(file) : 0;
+                } catch (IOException e) {
+                    // Sealed or removed meanwhile; skip it
+                }
+            }
+        }
+        return bytes;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+}
@@ -0,0 +1,87 @@
+package com.ticketing.history;
+
+import com.ticketing.util.BoundedRecordQueue.RecordConsumer;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Fixed-size ring of the most recent transactions, packed into two longs each (see
+ * {@link com.ticketing.model.RecordCodec}). Every record has a position: the number of
+ * records appended before it. A slot is stamped with its record's position + 1 after the
+ * record is written, and cleared before it is reused, so readers never take a lock: they
+ * read a slot between two reads of its stamp and discard it if the stamp changed.
+ * <p>
+ * The ring does not decide when a slot may be reused; the caller must not write position
+ * {@code p} before the record at {@code p - capacity} is no longer needed.
+ */
+public class RecentHistory {
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final int mask;
+    private final long[] slots; // stamp, meta, state per record
+
+    /**
+     * Initializes an empty ring.
+     *
+     * @param capacity Requested capacity, rounded up to a power of two.
+     */
+    public RecentHistory(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.mask = size - 1;
+        this.slots = new long[size * 3];
+    }
+
+    /**
+     * Writes the record at a position.
+     *
+     * @param position Position claimed by the caller.
+     * @param meta     Encoded meta word.
+     * @param state    Encoded state word.
+     */
+    public void put(long position, long meta, long state) {
+        int slot = ((int) position & mask) * 3;
+        SLOTS.setOpaque(slots, slot, 0L); // Readers of the previous record see it is gone
+        VarHandle.storeStoreFence();
+        SLOTS.setOpaque(slots, slot + 1, meta);
+        SLOTS.setOpaque(slots, slot + 2, state);
+        SLOTS.setRelease(slots, slot, position + 1);
+    }
+
+    /**
+     * Checks whether the record at a position has been written and not yet overwritten.
+     *
+     * @param position Record position.
+     * @return true if {@link #read} would find the record.
+     */
+    public boolean isPublished(long position) {
+        return (long) SLOTS.getAcquire(slots, ((int) position & mask) * 3) == position + 1;
+    }
+
+    /**
+     * Reads the record at a position if it is still in the ring.
+     *
+     * @param position Record position.
+     * @param consumer Receives the meta and state words.
+     * @return false if the record is not written yet or was overwritten while it was read.
+     */
+    public boolean read(long position, RecordConsumer consumer) {
+        int slot = ((int) position & mask) * 3;
+        long stamp = (long) SLOTS.getAcquire(slots, slot);
+        if (stamp != position + 1) {
+            return false;
+        }
+        long meta = (long) SLOTS.getOpaque(slots, slot + 1);
+        long state = (long) SLOTS.getOpaque(slots, slot + 2);
+        VarHandle.loadLoadFence();
+        if ((long) SLOTS.getOpaque(slots, slot) != stamp) {
+            return false; // A writer reused the slot meanwhile
+        }
+        consumer.accept(meta, state);
+        return true;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
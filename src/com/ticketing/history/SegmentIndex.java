@@ -0,0 +1,237 @@
+package com.ticketing.history;
+
+import com.ticketing.model.EntityDictionary;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Index of one history segment, built while the segment is written and saved when it is sealed.
+ * <pre>
+ * header:   magic "TKIX" | version (short) | first sequence (long) | record count (int)
+ *           | min timestamp (long) | max timestamp (long) | block size (int) | block count (int)
+ * blocks:   min timestamp (long) | max timestamp (long), one per block of records
+ * entities: count (int), then per entity: name (UTF) | posting count (int) | record positions (int each)
+ * </pre>
+ * Positions count from the first record of the segment, and the record with sequence {@code s}
+ * is at position {@code s - first sequence}. Timestamps are only nearly ordered, as concurrent
+ * transactions reach the log in a slightly different order than they read the clock, so each
+ * block keeps both its lowest and its highest timestamp.
+ */
+public class SegmentIndex {
+    public static final int MAGIC = 0x544B4958; // "TKIX"
+    public static final short VERSION = 1;
+    public static final int BLOCK_RECORDS = 4096;
+
+    private final long firstSequence;
+    private int recordCount;
+    private long minTime = Long.MAX_VALUE;
+    private long maxTime = Long.MIN_VALUE;
+    private long[] blockMin = new long[16];
+    private long[] blockMax = new long[16];
+    private int[][] postings = new int[16][]; // Segment entity id -> record positions
+    private int[] postingCounts = new int[16];
+
+    /**
+     * Starts an empty index.
+     *
+     * @param firstSequence Sequence of the segment's first record.
+     */
+    public SegmentIndex(long firstSequence) {
+        this.firstSequence = firstSequence;
+    }
+
+    private SegmentIndex(long firstSequence, int recordCount, long minTime, long maxTime, long[] blockMin,
+                         long[] blockMax) {
+        this.firstSequence = firstSequence;
+        this.recordCount = recordCount;
+        this.minTime = minTime;
+        this.maxTime = maxTime;
+        this.blockMin = blockMin;
+        this.blockMax = blockMax;
+        this.postings = null;
+        this.postingCounts = null;
+    }
+
+    /**
+     * Adds the next record of the segment. Called by the single thread writing the segment.
+     *
+     * @param entityId  The record's entity id in the segment's dictionary.
+     * @param timestamp The record's time in epoch milliseconds.
+     */
+    public void add(int entityId, long timestamp) {
+        int position = recordCount++;
+        int block = position / BLOCK_RECORDS;
+        if (block == blockMin.length) {
+            blockMin = Arrays.copyOf(blockMin, block * 2);
+            blockMax = Arrays.copyOf(blockMax, block * 2);
+        }
+        if (position % BLOCK_RECORDS == 0) {
+            blockMin[block] = timestamp;
+            blockMax[block] = timestamp;
+        } else {
+            blockMin[block] = Math.min(blockMin[block], timestamp);
+            blockMax[block] = Math.max(blockMax[block], timestamp);
+        }
+        minTime = Math.min(minTime, timestamp);
+        maxTime = Math.max(maxTime, timestamp);
+
+        if (entityId >= postings.length) {
+            postings = Arrays.copyOf(postings, Math.max(entityId + 1, postings.length * 2));
+            postingCounts = Arrays.copyOf(postingCounts, postings.length);
+        }
+        int[] list = postings[entityId];
+        if (list == null) {
+            list = postings[entityId] = new int[64];
+        } else if (postingCounts[entityId] == list.length) {
+            list = postings[entityId] = Arrays.copyOf(list, list.length * 2);
+        }
+        list[postingCounts[entityId]++] = position;
+    }
+
+    /**
+     * Saves the index.
+     *
+     * @param file       Index file to write.
+     * @param dictionary The segment's dictionary, used to store entity names instead of ids.
+     * @throws IOException If the file cannot be written.
+     */
+    public void write(Path file, EntityDictionary dictionary) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeLong(firstSequence);
+            out.writeInt(recordCount);
+            out.writeLong(minTime);
+            out.writeLong(maxTime);
+            out.writeInt(BLOCK_RECORDS);
+            int blocks = getBlockCount();
+            out.writeInt(blocks);
+            for (int block = 0; block < blocks; block++) {
+                out.writeLong(blockMin[block]);
+                out.writeLong(blockMax[block]);
+            }
+            int entities = 0;
+            for (int count : postingCounts) {
+                entities += count > 0 ? 1 : 0;
+            }
+            out.writeInt(entities);
+            for (int id = 0; id < postings.length; id++) {
+                if (postingCounts[id] > 0) {
+                    out.writeUTF(dictionary.nameOf(id));
+                    out.writeInt(postingCounts[id]);
+                    for (int i = 0; i < postingCounts[id]; i++) {
+                        out.writeInt(postings[id][i]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads the header and time blocks of a saved index. Postings stay on disk until
+     * {@link #readPositions} asks for them.
+     *
+     * @param file Index file.
+     * @return The index without postings.
+     * @throws IOException If the file cannot be read or is not a segment index.
+     */
+    public static SegmentIndex readSummary(Path file) throws IOException {
+        try (DataInputStream in = open(file)) {
+            long firstSequence = in.readLong();
+            int recordCount = in.readInt();
+            long minTime = in.readLong();
+            long maxTime = in.readLong();
+            if (in.readInt() != BLOCK_RECORDS) {
+                throw new IOException(file + " uses a different block size.");
+            }
+            int blocks = in.readInt();
+            long[] blockMin = new long[blocks];
+            long[] blockMax = new long[blocks];
+            for (int block = 0; block < blocks; block++) {
+                blockMin[block] = in.readLong();
+                blockMax[block] = in.readLong();
+            }
+            return new SegmentIndex(firstSequence, recordCount, minTime, maxTime, blockMin, blockMax);
+        }
+    }
+
+    /**
+     * Reads the positions of one entity's records from a saved index.
+     *
+     * @param file       Index file.
+     * @param entityName Name of the vendor or customer.
+     * @return Ascending record positions; empty if the entity has no record in the segment.
+     * @throws IOException If the file cannot be read or is not a segment index.
+     */
+    public static int[] readPositions(Path file, String entityName) throws IOException {
+        try (DataInputStream in = open(file)) {
+            in.skipNBytes(Long.BYTES * 3 + Integer.BYTES * 2);
+            in.skipNBytes((long) in.readInt() * Long.BYTES * 2);
+            int entities = in.readInt();
+            for (int i = 0; i < entities; i++) {
+                String name = in.readUTF();
+                int count = in.readInt();
+                if (name.equals(entityName)) {
+                    int[] positions = new int[count];
+                    for (int j = 0; j < count; j++) {
+                        positions[j] = in.readInt();
+                    }
+                    return positions;
+                }
+                in.skipNBytes((long) count * Integer.BYTES);
+            }
+            return new int[0];
+        }
+    }
+
+    private static DataInputStream open(Path file) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)));
+        if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+            in.close();
+            throw new IOException(file + " is not a history segment index.");
+        }
+        return in;
+    }
+
+    /**
+     * Checks whether any record of the segment may lie in a time range.
+     *
+     * @param fromMillis Start of the range, inclusive.
+     * @param toMillis   End of the range, inclusive.
+     * @return false if every record is outside the range.
+     */
+    public boolean overlaps(long fromMillis, long toMillis) {
+        return recordCount > 0 && minTime <= toMillis && maxTime >= fromMillis;
+    }
+
+    /**
+     * Checks whether any record of a block may lie in a time range.
+     *
+     * @param block      Block number; the block holds positions from {@code block * BLOCK_RECORDS}.
+     * @param fromMillis Start of the range, inclusive.
+     * @param toMillis   End of the range, inclusive.
+     * @return false if every record of the block is outside the range.
+     */
+    public boolean blockOverlaps(int block, long fromMillis, long toMillis) {
+        return blockMin[block] <= toMillis && blockMax[block] >= fromMillis;
+    }
+
+    public long getFirstSequence() {
+        return firstSequence;
+    }
+
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    public int getBlockCount() {
+        return (recordCount + BLOCK_RECORDS - 1) / BLOCK_RECORDS;
+    }
+}
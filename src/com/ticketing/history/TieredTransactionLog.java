@@ -0,0 +1,317 @@
+package com.ticketing.history;
+
+import com.ticketing.model.ActionType;
+import com.ticketing.model.EntityDictionary;
+import com.ticketing.model.RecordCodec;
+import com.ticketing.model.TicketRecord;
+import com.ticketing.model.TicketRequest;
+import com.ticketing.model.TransactionLog;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Transaction log with a bounded memory footprint: the most recent records stay in a
+ * {@link RecentHistory} ring, and a background thread spills every record, in order, to
+ * indexed segments of a {@link HistoryStore}. Appending claims a position with one atomic
+ * increment and writes two longs, as in {@link com.ticketing.model.InMemoryTransactionLog};
+ * it only waits if the spill thread has fallen a whole ring behind.
+ * <p>
+ * Reads never block appends. {@link #recent(int)} decodes the ring alone, and
+ * {@link #query} combines the segments with the part of the ring not yet spilled, so a
+ * report can ask for "Customer-3 between 10:15 and 10:16" while the pools keep selling.
+ * Records carry sequence numbers from 1 in the order they were appended.
+ */
+public class TieredTransactionLog implements TransactionLog {
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final int SPILL_BATCH = 4096;
+
+    private final EntityDictionary dictionary = EntityDictionary.shared();
+    private final long baseTime = System.currentTimeMillis();
+    private final RecentHistory ring;
+    private final HistoryStore store;
+    private final AtomicLong nextPosition = new AtomicLong();
+    private final Thread spiller;
+    private volatile long spilled; // Records before this position are in the store
+    private volatile boolean spilling = true; // false once the spill thread has failed
+    private volatile boolean closed;
+    private volatile boolean spillerIdle;
+
+    /**
+     * Creates the store and starts the spill thread.
+     *
+     * @param directory      Directory of the history segments.
+     * @param memoryRecords  Records kept in memory, rounded up to a power of two.
+     * @param segmentRecords Records per segment file.
+     * @throws IOException If the directory cannot be created or cleared.
+     */
+    public TieredTransactionLog(Path directory, int memoryRecords, int segmentRecords) throws IOException {
+        this.store = HistoryStore.create(directory, segmentRecords);
+        this.ring = new RecentHistory(memoryRecords);
+        this.spiller = new Thread(this::spillLoop, "history-spiller");
+        this.spiller.setDaemon(true);
+        this.spiller.start();
+    }
+
+    @Override
+    public void append(ActionType actionType, String entityName, int ticketCount, int remainingTickets) {
+        long meta = RecordCodec.encodeMeta(actionType, dictionary.idOf(entityName), ticketCount);
+        store(nextPosition.getAndIncrement(), meta,
+                RecordCodec.encodeState(remainingTickets, System.currentTimeMillis(), baseTime));
+    }
+
+    @Override
+    public void append(ActionType actionType, String entityName, int ticketCount, int remainingTickets, int firstSeat) {
+        long meta = RecordCodec.encodeSeatedMeta(actionType, dictionary.idOf(entityName), ticketCount, firstSeat);
+        store(nextPosition.getAndIncrement(), meta,
+                RecordCodec.encodeState(remainingTickets, System.currentTimeMillis(), baseTime));
+    }
+
+    /**
+     * Claims positions for all applied requests of a batch with one atomic add.
+     */
+    @Override
+    public void appendBatch(List<TicketRequest> requests, boolean[] results, int[] remaining) {
+        int applied = 0;
+        for (boolean result : results) {
+            if (result) {
+                applied++;
+            }
+        }
+        if (applied == 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long position = nextPosition.getAndAdd(applied);
+        for (int i = 0; i < results.length; i++) {
+            if (results[i]) {
+                TicketRequest request = requests.get(i);
+                long meta = RecordCodec.encodeMeta(request.getActionType(),
+                        dictionary.idOf(request.getEntityName()), request.getCount());
+                store(position++, meta, RecordCodec.encodeState(remaining[i], now, baseTime));
+            }
+        }
+    }
+
+    private void store(long position, long meta, long state) {
+        while (position - spilled >= ring.capacity() && spilling) {
+            if (closed) {
+                throw new IllegalStateException("Transaction history is closed.");
+            }
+            LockSupport.unpark(spiller);
+            Thread.yield(); // The spill thread is a whole ring behind
+        }
+        ring.put(position, meta, state);
+        if (spillerIdle) {
+            LockSupport.unpark(spiller);
+        }
+    }
+
+    /**
+     * Decodes the most recent records from memory without touching the disk or any lock.
+     *
+     * @param limit Maximum number of records; at most the ring's capacity are returned.
+     * @return Records in the order they were appended, newest last.
+     */
+    public List<TicketRecord> recent(int limit) {
+        long end = nextPosition.get();
+        long start = Math.max(0, end - Math.min(limit, ring.capacity()));
+        List<TicketRecord> records = new ArrayList<>((int) (end - start));
+        for (long position = start; position < end; position++) {
+            ring.read(position, (meta, state) -> records.add(RecordCodec.decode(meta, state, baseTime, dictionary)));
+        }
+        return records;
+    }
+
+    /**
+     * Visits the records of one entity, or of all, within a time range.
+     *
+     * @param entityName Name of the vendor or customer, or null for all.
+     * @param fromMillis Earliest timestamp in epoch milliseconds, inclusive.
+     * @param toMillis   Latest timestamp in epoch milliseconds, inclusive.
+     * @param action     Receives each matching record, in the order they were appended.
+     * @throws IOException If a segment cannot be read.
+     */
+    public void query(String entityName, long fromMillis, long toMillis, Consumer<? super TicketRecord> action)
+            throws IOException {
+        query(entityName, fromMillis, toMillis, 1, Long.MAX_VALUE, action);
+    }
+
+    /**
+     * Visits the records in a range of sequence numbers that match the other filters.
+     *
+     * @param entityName   Name of the vendor or customer, or null for all.
+     * @param fromMillis   Earliest timestamp in epoch milliseconds, inclusive.
+     * @param toMillis     Latest timestamp in epoch milliseconds, inclusive.
+     * @param fromSequence First sequence, inclusive; the first record has sequence 1.
+     * @param toSequence   Last sequence, exclusive.
+     * @param action       Receives each matching record, in the order they were appended.
+     * @throws IOException If a segment cannot be read.
+     */
+    public void query(String entityName, long fromMillis, long toMillis, long fromSequence, long toSequence,
+                      Consumer<? super TicketRecord> action) throws IOException {
+        // Copy the unspilled tail first: once it is copied, the store holds everything before it
+        long tailStart = spilled;
+        long end = nextPosition.get();
+        long[] tail = new long[(int) Math.min(end - tailStart, ring.capacity()) * 2];
+        int copied = 0;
+        while (copied < tail.length / 2) {
+            int at = copied * 2;
+            long position = tailStart + copied;
+            if (ring.read(position, (meta, state) -> {
+                tail[at] = meta;
+                tail[at + 1] = state;
+            }) || position < spilled) {
+                copied++; // A record overwritten after it was spilled keeps meta 0 and is read from the store
+            } else if (!spilling) {
+                break;
+            } else {
+                Thread.onSpinWait(); // Position claimed, writer is between claiming and publishing
+            }
+        }
+        long storedEnd = spilled + 1; // Sequence after the last stored record
+        store.query(entityName, fromMillis, toMillis, fromSequence, Math.min(toSequence, storedEnd), action);
+        for (int i = 0; i < copied; i++) {
+            long sequence = tailStart + i + 1;
+            if (sequence < storedEnd || sequence < fromSequence || tail[i * 2] == 0) {
+                continue;
+            }
+            if (sequence >= toSequence) {
+                break;
+            }
+            TicketRecord record = RecordCodec.decode(tail[i * 2], tail[i * 2 + 1], baseTime, dictionary);
+            if (record.getTimestamp() >= fromMillis && record.getTimestamp() <= toMillis
+                    && (entityName == null || entityName.equals(record.getEntityName()))) {
+                action.accept(record);
+            }
+        }
+    }
+
+    /**
+     * Reads the whole history back, from disk and memory. Memory use grows with the history;
+     * use {@link #recent(int)} or {@link #query} while the simulation is busy.
+     */
+    @Override
+    public List<TicketRecord> getTransactions() {
+        List<TicketRecord> records = new ArrayList<>();
+        try {
+            forEachRecord(records::add);
+        } catch (IOException e) {
+            System.err.println("Failed to read the transaction history: " + e.getMessage());
+        }
+        return records;
+    }
+
+    /**
+     * Streams the whole history one record at a time, from disk and memory.
+     */
+    @Override
+    public void forEachRecord(Consumer<? super TicketRecord> action) throws IOException {
+        query(null, Long.MIN_VALUE, Long.MAX_VALUE, action);
+    }
+
+    /**
+     * Stops accepting records, spills everything still in memory and seals the last segment.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(spiller);
+        try {
+            spiller.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupted while closing the transaction history.");
+        }
+    }
+
+    /**
+     * Background spill thread: moves records from the ring to the store until closed, then spills the remainder.
+     */
+    private void spillLoop() {
+        try {
+            while (!closed) {
+                if (spillBatch() == 0) {
+                    spillerIdle = true;
+                    if (!ring.isPublished(spilled) && !closed) {
+                        LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                    }
+                    spillerIdle = false;
+                }
+            }
+            while (spillBatch() > 0) {
+                // Spill whatever was appended before close
+            }
+            store.close();
+        } catch (IOException | UncheckedIOException e) {
+            spilling = false; // Appends stop waiting; older records are then only kept until the ring wraps
+            System.err.println("Transaction history spill failed: " + e.getMessage()
+                    + ". Keeping only the most recent records.");
+        }
+    }
+
+    /**
+     * Appends the next published records to the store.
+     *
+     * @return Number of records spilled.
+     */
+    private int spillBatch() throws IOException {
+        long position = spilled;
+        int count = 0;
+        while (count < SPILL_BATCH && ring.read(position, this::spill)) {
+            position++;
+            count++;
+        }
+        if (count > 0) {
+            store.flush(); // Names must reach disk no later than the records using them
+            spilled = position;
+        }
+        return count;
+    }
+
+    private void spill(long meta, long state) {
+        try {
+            store.append(RecordCodec.actionCode(meta), dictionary.nameOf(RecordCodec.entityId(meta)),
+                    RecordCodec.ticketCount(meta), RecordCodec.remainingTickets(state),
+                    RecordCodec.timestamp(state, baseTime), RecordCodec.firstSeat(meta));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Retrieves the number of transactions appended so far.
+     *
+     * @return Transaction count.
+     */
+    public long size() {
+        return nextPosition.get();
+    }
+
+    /**
+     * Retrieves the number of appended records not yet written to disk.
+     *
+     * @return Spill lag in records.
+     */
+    public long getSpillLag() {
+        return nextPosition.get() - spilled;
+    }
+
+    public HistoryStore getStore() {
+        return store;
+    }
+
+    public int getMemoryRecords() {
+        return ring.capacity();
+    }
+}
@@ -0,0 +1,51 @@
+package com.ticketing.journal;
+
+import com.ticketing.util.JSONFileWriter;
+
+/**
+ * Converts a binary transaction log into the JSON shape of transactions.json.
+ * Records are streamed from the mapping to the output, so the export needs
+ * constant memory regardless of the size of the log.
+ */
+public final class BinaryLogExporter {
+
+    private BinaryLogExporter() {
+    }
+
+    /**
+     * Exports a binary log as a JSON array of ticket records.
+     *
+     * @param binaryFile Binary log to read.
+     * @param jsonFile   JSON file to write.
+     * @param compact    If true, omit indentation and line breaks.
+     * @param gzip       If true, gzip-compress the output.
+     * @return Number of records exported, or -1 if the export failed.
+     */
+    public static long exportToJson(String binaryFile, String jsonFile, boolean compact, boolean gzip) {
+        return JSONFileWriter.writeTicketRecordsStreaming(
+                TransactionJournal.fileSource(binaryFile, JournalFormat.BINARY), jsonFile, compact, gzip);
+    }
+
+    /**
+     * Command-line entry point: {@code BinaryLogExporter <binary log> <json file> [--compact] [--gzip]}.
+     *
+     * @param args Input and output file names, followed by optional flags.
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: BinaryLogExporter <binary log> <json file> [--compact] [--gzip]");
+            return;
+        }
+        boolean compact = false;
+        boolean gzip = false;
+        for (int i = 2; i < args.length; i++) {
+            compact |= args[i].equals("--compact");
+            gzip |= args[i].equals("--gzip");
+        }
+        long start = System.nanoTime();
+        long count = exportToJson(args[0], args[1], compact, gzip);
+        if (count >= 0) {
+            System.out.println("Exported " + count + " records in " + (System.nanoTime() - start) / 1_000_000 + " ms.");
+        }
+    }
+}
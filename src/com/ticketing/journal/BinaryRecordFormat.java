@@ -0,0 +1,55 @@
+package com.ticketing.journal;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Fixed-width binary layout of the transaction log.
+ * <pre>
+ * header (32 bytes): magic "TKLG" | version (short) | record size (short) | reserved
+ * record (32 bytes): action (byte) | first seat + 1 (3 bytes, 0 = no seats) | entity id (int) | ticket count (int)
+ *                    | remaining tickets (int) | timestamp millis (long) | sequence (long)
+ * </pre>
+ * Sequence numbers start at 1, so an all-zero record marks the end of the data
+ * in a file that was pre-extended but not fully written. The action and seat bytes
+ * read as one (big-endian) int are {@code action << 24 | (firstSeat + 1)}. Entity names live in a
+ * side dictionary file next to the log.
+ */
+public final class BinaryRecordFormat {
+    public static final int MAGIC = 0x544B4C47; // "TKLG"
+    public static final short VERSION = 1;
+    public static final int HEADER_SIZE = 32;
+    public static final int RECORD_SIZE = 32;
+
+    // Field offsets within a record
+    public static final int ACTION_OFFSET = 0;
+    public static final int ENTITY_OFFSET = 4;
+    public static final int COUNT_OFFSET = 8;
+    public static final int REMAINING_OFFSET = 12;
+    public static final int TIMESTAMP_OFFSET = 16;
+    public static final int SEQUENCE_OFFSET = 24;
+    public static final int MAX_SEAT_ID = (1 << 24) - 2;
+
+    private BinaryRecordFormat() {
+    }
+
+    /**
+     * Retrieves the dictionary file that belongs to a binary log.
+     *
+     * @param logFile Binary log file.
+     * @return The dictionary file path.
+     */
+    public static Path dictionaryFile(Path logFile) {
+        return Paths.get(logFile.toString() + ".dict");
+    }
+
+    /**
+     * Callback that receives binary records without allocating objects per record.
+     * {@code firstSeat} is -1 for records without seats.
+     */
+    @FunctionalInterface
+    public interface RecordVisitor {
+        void visit(long sequence, long timestamp, byte action, int entityId, int ticketCount, int remainingTickets,
+                   int firstSeat);
+    }
+}
@@ -0,0 +1,22 @@
+package com.ticketing.journal;
+
+/**
+ * On-disk encoding of the transaction journal.
+ */
+public enum JournalFormat {
+    /** One compact JSON record per line. */
+    JSON,
+    /** Fixed-width binary records (see {@link BinaryRecordFormat}). */
+    BINARY;
+
+    /**
+     * Parses a format name from the configuration file.
+     *
+     * @param name Format name (case-insensitive).
+     * @return The matching format.
+     * @throws IllegalArgumentException If the name is unknown.
+     */
+    public static JournalFormat fromName(String name) {
+        return valueOf(name.trim().toUpperCase());
+    }
+}
@@ -0,0 +1,246 @@
+package com.ticketing.journal;
+
+import com.ticketing.model.ActionType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import static com.ticketing.journal.BinaryRecordFormat.HEADER_SIZE;
+
+/**
+ * Rebuilds the pool's ticket total after a restart or crash from the latest
+ * {@link PoolSnapshot} plus the journal records written after it (the journal is the
+ * write-ahead log). Every record is a delta: an ADD adds its ticket count and a RETRIEVE
+ * subtracts it, so the result does not depend on the order in which concurrent records
+ * reached the journal. Replay work is bounded by the snapshot interval rather than by
+ * the length of the whole history.
+ *
+ * <p>A torn last line of a JSON journal is cut off so that appending can resume cleanly;
+ * a torn binary record is ignored and overwritten by the next append.
+ */
+public final class JournalRecovery {
+    private static final int READ_CHUNK = 1 << 20;
+    private static final byte[] ACTION_KEY = "\"actionType\":\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] COUNT_KEY = "\"ticketCount\":".getBytes(StandardCharsets.US_ASCII);
+
+    private final PoolSnapshot state;
+    private final PoolSnapshot snapshot;
+    private final long replayedRecords;
+    private final long discardedBytes;
+    private final long elapsedNanos;
+
+    private JournalRecovery(PoolSnapshot state, PoolSnapshot snapshot, long replayedRecords, long discardedBytes,
+                            long elapsedNanos) {
+        this.state = state;
+        this.snapshot = snapshot;
+        this.replayedRecords = replayedRecords;
+        this.discardedBytes = discardedBytes;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Recovers the ticket total at the end of a journal.
+     *
+     * @param journalFile    Journal file (it and its snapshot may be missing).
+     * @param format         Encoding of the journal.
+     * @param initialTickets Tickets in the pool before the first journal record, used when there is no usable snapshot.
+     * @return The recovered state and how it was obtained.
+     * @throws IOException If the journal cannot be read or repaired.
+     */
+    public static JournalRecovery recover(String journalFile, JournalFormat format, long initialTickets)
+            throws IOException {
+        long start = System.nanoTime();
+        Path file = Paths.get(journalFile);
+        PoolSnapshot snapshot = PoolSnapshot.read(PoolSnapshot.fileFor(journalFile));
+        if (!Files.exists(file) || Files.size(file) == 0) {
+            // Nothing to replay; a snapshot without its journal belongs to a deleted history
+            return new JournalRecovery(new PoolSnapshot(0, 0, initialTickets, System.currentTimeMillis()), null, 0, 0,
+                    System.nanoTime() - start);
+        }
+        return format == JournalFormat.BINARY
+                ? recoverBinary(file, snapshot, initialTickets, start)
+                : recoverJson(file, snapshot, initialTickets, start);
+    }
+
+    private static JournalRecovery recoverBinary(Path file, PoolSnapshot snapshot, long initialTickets, long start)
+            throws IOException {
+        if (Files.size(file) < HEADER_SIZE) {
+            return new JournalRecovery(new PoolSnapshot(0, 0, initialTickets, System.currentTimeMillis()), null, 0, 0,
+                    System.nanoTime() - start);
+        }
+        try (MappedRecordReader reader = new MappedRecordReader(file)) {
+            long records = reader.size();
+            if (snapshot != null && snapshot.getRecords() > records) {
+                System.err.println("Snapshot is ahead of the journal (" + snapshot.getRecords() + " > " + records
+                        + " records). Replaying the whole journal.");
+                snapshot = null;
+            }
+            long from = snapshot == null ? 0 : snapshot.getRecords();
+            long[] total = {snapshot == null ? initialTickets : snapshot.getTotalTickets()};
+            reader.forEach(from, records, (sequence, timestamp, code, entityId, count, remaining, firstSeat) ->
+                    total[0] += ActionType.fromCode(code).ticketDelta(count));
+            return new JournalRecovery(new PoolSnapshot(records, 0, total[0], System.currentTimeMillis()), snapshot,
+                    records - from, 0, System.nanoTime() - start);
+        }
+    }
+
+    private static JournalRecovery recoverJson(Path file, PoolSnapshot snapshot, long initialTickets, long start)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            if (snapshot != null && !endsLine(channel, snapshot.getJournalBytes(), size)) {
+                System.err.println("Snapshot does not match the journal. Replaying the whole journal.");
+                snapshot = null;
+            }
+            long position = snapshot == null ? 0 : snapshot.getJournalBytes();
+            long records = snapshot == null ? 0 : snapshot.getRecords();
+            long total = snapshot == null ? initialTickets : snapshot.getTotalTickets();
+            long replayed = 0;
+
+            // Scan whole lines; a partial line at the end of a chunk is carried over to the next read
+            ByteBuffer buffer = ByteBuffer.allocate(READ_CHUNK);
+            byte[] bytes = buffer.array();
+            long lineEnd = position; // File offset just past the last complete line
+            channel.position(position);
+            while (channel.read(buffer) > 0 || buffer.position() > 0) {
+                int limit = buffer.position();
+                int lineStart = 0;
+                for (int i = 0; i < limit; i++) {
+                    if (bytes[i] == '\n') {
+                        if (i > lineStart) {
+                            total += delta(bytes, lineStart, i);
+                            replayed++;
+                        }
+                        lineStart = i + 1;
+                    }
+                }
+                lineEnd += lineStart;
+                if (lineStart == 0 && limit == bytes.length) {
+                    throw new IOException("Journal line longer than " + READ_CHUNK + " bytes at offset " + lineEnd);
+                }
+                if (lineStart == 0 && channel.position() >= size) {
+                    break; // Only a torn line is left
+                }
+                System.arraycopy(bytes, lineStart, bytes, 0, limit - lineStart);
+                buffer.position(limit - lineStart);
+            }
+
+            long discarded = size - lineEnd;
+            if (discarded > 0) {
+                channel.truncate(lineEnd); // Drop the torn last line so new records start on a fresh line
+                channel.force(true);
+            }
+            return new JournalRecovery(new PoolSnapshot(records + replayed, lineEnd, total, System.currentTimeMillis()),
+                    snapshot, replayed, discarded, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Checks that a snapshot offset lies within the file at a line boundary.
+     */
+    private static boolean endsLine(FileChannel channel, long offset, long size) throws IOException {
+        if (offset == 0) {
+            return true;
+        }
+        if (offset > size) {
+            return false;
+        }
+        ByteBuffer last = ByteBuffer.allocate(1);
+        channel.read(last, offset - 1);
+        return last.get(0) == '\n';
+    }
+
+    /**
+     * Reads the ticket change of one JSON journal line.
+     */
+    private static long delta(byte[] line, int from, int to) throws IOException {
+        int action = indexOf(line, from, to, ACTION_KEY);
+        int count = indexOf(line, from, to, COUNT_KEY);
+        if (action < 0 || count < 0) {
+            throw new IOException("Unreadable journal line: "
+                    + new String(line, from, to - from, StandardCharsets.UTF_8));
+        }
+        long value = 0;
+        for (int i = count + COUNT_KEY.length; i < to && line[i] >= '0' && line[i] <= '9'; i++) {
+            value = value * 10 + (line[i] - '0');
+        }
+        int name = action + ACTION_KEY.length;
+        if (line[name] == 'A') {
+            return value; // "ADD"
+        }
+        return name + 8 < to && line[name + 8] == '_' ? 0 : -value; // "RETRIEVE_FAILED" or "RETRIEVE"
+    }
+
+    private static int indexOf(byte[] bytes, int from, int to, byte[] key) {
+        outer:
+        for (int i = from; i <= to - key.length; i++) {
+            for (int j = 0; j < key.length; j++) {
+                if (bytes[i + j] != key[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Keeps the recovered total within [0, maxTickets], e.g. after the capacity was lowered in config.json.
+     * The adjusted total is what the next snapshot continues from.
+     *
+     * @param maxTickets Capacity of the pool that is being restored.
+     * @return This result, or a copy with the adjusted total.
+     */
+    JournalRecovery clamp(long maxTickets) {
+        long total = Math.max(0, Math.min(state.getTotalTickets(), maxTickets));
+        if (total == state.getTotalTickets()) {
+            return this;
+        }
+        return new JournalRecovery(new PoolSnapshot(state.getRecords(), state.getJournalBytes(), total,
+                state.getCreatedMillis()), snapshot, replayedRecords, discardedBytes, elapsedNanos);
+    }
+
+    /**
+     * Summarizes the recovery for the console.
+     *
+     * @return One-line description.
+     */
+    public String describe() {
+        return String.format("Recovered %d tickets from %s and %d journal records in %.1f ms%s.",
+                state.getTotalTickets(),
+                snapshot == null ? "the start of the journal" : "a snapshot at record " + snapshot.getRecords(),
+                replayedRecords, elapsedNanos / 1e6,
+                discardedBytes > 0 ? " (discarded a torn record of " + discardedBytes + " bytes)" : "");
+    }
+
+    /**
+     * Retrieves the state at the end of the journal, from which new records continue.
+     *
+     * @return Record count, JSON journal length and ticket total after the last record.
+     */
+    public PoolSnapshot getState() {
+        return state;
+    }
+
+    public long getTotalTickets() {
+        return state.getTotalTickets();
+    }
+
+    public boolean isFromSnapshot() {
+        return snapshot != null;
+    }
+
+    public long getReplayedRecords() {
+        return replayedRecords;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+}
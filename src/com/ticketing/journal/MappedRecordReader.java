@@ -0,0 +1,165 @@
+package com.ticketing.journal;
+
+import com.ticketing.model.ActionType;
+import com.ticketing.model.EntityDictionary;
+import com.ticketing.model.TicketRecord;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.ticketing.journal.BinaryRecordFormat.*;
+
+/**
+ * Reads a binary transaction log through read-only memory-mapped chunks.
+ * Records are decoded straight from the mapping without per-record allocation,
+ * so multi-gigabyte histories are scanned at close to memory bandwidth.
+ * Instances are safe to share between threads for reading.
+ */
+public class MappedRecordReader implements AutoCloseable {
+    // Largest chunk mapped at once; a multiple of the record size below the 2 GB mapping limit
+    private static final long CHUNK_SIZE = (Integer.MAX_VALUE / RECORD_SIZE) * (long) RECORD_SIZE;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer[] chunks;
+    private final long recordCount;
+    private EntityDictionary dictionary;
+
+    /**
+     * Opens a binary log for reading.
+     *
+     * @param file Binary log file.
+     * @throws IOException If the file cannot be read or is not a binary log.
+     */
+    public MappedRecordReader(Path file) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        long dataSize = Math.max(0, channel.size() - HEADER_SIZE);
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(HEADER_SIZE, channel.size()));
+        if (header.capacity() < HEADER_SIZE || header.getInt(0) != MAGIC) {
+            channel.close();
+            throw new IOException(file + " is not a binary transaction log.");
+        }
+        int chunkCount = (int) ((dataSize + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        this.chunks = new MappedByteBuffer[chunkCount];
+        for (int i = 0; i < chunkCount; i++) {
+            long start = HEADER_SIZE + i * CHUNK_SIZE;
+            chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(CHUNK_SIZE, dataSize - i * CHUNK_SIZE));
+        }
+        this.recordCount = countCompleteRecords(dataSize / RECORD_SIZE);
+    }
+
+    /**
+     * Retrieves the number of complete records in the log.
+     *
+     * @return Record count.
+     */
+    public long size() {
+        return recordCount;
+    }
+
+    /**
+     * Retrieves the sequence number of the last complete record.
+     *
+     * @return Last sequence, or 0 if the log is empty.
+     */
+    public long lastSequence() {
+        return recordCount == 0 ? 0 : getLong(recordCount - 1, SEQUENCE_OFFSET);
+    }
+
+    /**
+     * Visits every record in order.
+     *
+     * @param visitor Receives each record's fields.
+     */
+    public void forEach(RecordVisitor visitor) {
+        forEach(0, recordCount, visitor);
+    }
+
+    /**
+     * Visits the records in {@code [fromIndex, toIndex)} in order.
+     * Disjoint ranges can be scanned concurrently from different threads.
+     *
+     * @param fromIndex First record index (inclusive).
+     * @param toIndex   Last record index (exclusive).
+     * @param visitor   Receives each record's fields.
+     */
+    public void forEach(long fromIndex, long toIndex, RecordVisitor visitor) {
+        long end = Math.min(toIndex, recordCount);
+        for (long index = Math.max(0, fromIndex); index < end; index++) {
+            long position = index * RECORD_SIZE;
+            MappedByteBuffer chunk = chunks[(int) (position / CHUNK_SIZE)];
+            int offset = (int) (position % CHUNK_SIZE);
+            visitor.visit(chunk.getLong(offset + SEQUENCE_OFFSET),
+                    chunk.getLong(offset + TIMESTAMP_OFFSET),
+                    chunk.get(offset + ACTION_OFFSET),
+                    chunk.getInt(offset + ENTITY_OFFSET),
+                    chunk.getInt(offset + COUNT_OFFSET),
+                    chunk.getInt(offset + REMAINING_OFFSET),
+                    (chunk.getInt(offset + ACTION_OFFSET) & 0xFFFFFF) - 1);
+        }
+    }
+
+    /**
+     * Decodes one record into a {@link TicketRecord}.
+     *
+     * @param index Record index.
+     * @return The decoded record.
+     * @throws IOException If the entity dictionary cannot be loaded.
+     */
+    public TicketRecord get(long index) throws IOException {
+        if (index < 0 || index >= recordCount) {
+            throw new IndexOutOfBoundsException("Record " + index + " of " + recordCount);
+        }
+        TicketRecord[] result = new TicketRecord[1];
+        EntityDictionary names = getDictionary();
+        forEach(index, index + 1, (sequence, timestamp, action, entityId, count, remaining, firstSeat) ->
+                result[0] = new TicketRecord(ActionType.fromCode(action), names.nameOf(entityId),
+                        count, remaining, timestamp, firstSeat));
+        return result[0];
+    }
+
+    /**
+     * Retrieves the entity dictionary stored next to the log, loading it on first use.
+     *
+     * @return Entity dictionary.
+     * @throws IOException If the dictionary cannot be read.
+     */
+    public synchronized EntityDictionary getDictionary() throws IOException {
+        if (dictionary == null) {
+            dictionary = EntityDictionary.load(dictionaryFile(file));
+        }
+        return dictionary;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Finds the end of the data: a pre-extended file written by a crashed process has a zero-filled tail.
+     */
+    private long countCompleteRecords(long slots) {
+        long low = 0;
+        long high = slots;
+        // Records are written in order, so complete ones form a prefix; binary search for its end
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (getLong(mid, SEQUENCE_OFFSET) != 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private long getLong(long index, int fieldOffset) {
+        long position = index * RECORD_SIZE;
+        return chunks[(int) (position / CHUNK_SIZE)].getLong((int) (position % CHUNK_SIZE) + fieldOffset);
+    }
+}
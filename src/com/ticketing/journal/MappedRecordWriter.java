@@ -0,0 +1,220 @@
+package com.ticketing.journal;
+
+import com.ticketing.model.EntityDictionary;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.ticketing.journal.BinaryRecordFormat.*;
+
+/**
+ * Appends fixed-width records to a binary log through memory-mapped regions.
+ * The file is extended one region at a time and trimmed to its real length on close.
+ * Reopening an existing log resumes after its last complete record.
+ * Not thread-safe: a single writer thread owns an instance.
+ */
+public class MappedRecordWriter implements AutoCloseable {
+    private static final int DEFAULT_REGION_SIZE = 64 * 1024 * 1024;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final int regionSize;
+    private final EntityDictionary dictionary;
+    private final BufferedWriter dictionaryWriter;
+    private int persistedNames;
+    private MappedByteBuffer region;
+    private long regionStart;
+    private long recordCount;
+    private long lastSequence;
+
+    /**
+     * Opens a binary log with the default region size.
+     *
+     * @param file Binary log file.
+     * @throws IOException If the file cannot be opened or is not a binary log.
+     */
+    public MappedRecordWriter(Path file) throws IOException {
+        this(file, DEFAULT_REGION_SIZE);
+    }
+
+    /**
+     * Opens a binary log, creating it if necessary.
+     *
+     * @param file       Binary log file.
+     * @param regionSize Bytes mapped at a time; rounded down to whole records.
+     * @throws IOException If the file cannot be opened or is not a binary log.
+     */
+    public MappedRecordWriter(Path file, int regionSize) throws IOException {
+        this.file = file;
+        this.regionSize = Math.max(RECORD_SIZE, regionSize - regionSize % RECORD_SIZE);
+        boolean existing = Files.exists(file) && Files.size(file) >= HEADER_SIZE;
+        if (existing) {
+            try (MappedRecordReader reader = new MappedRecordReader(file)) {
+                recordCount = reader.size();
+                lastSequence = reader.lastSequence();
+            }
+        }
+        Path dictionaryFile = dictionaryFile(file);
+        this.dictionary = EntityDictionary.load(dictionaryFile);
+        this.persistedNames = dictionary.size();
+        this.dictionaryWriter = Files.newBufferedWriter(dictionaryFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        if (!existing) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            header.putInt(MAGIC).putShort(VERSION).putShort((short) RECORD_SIZE);
+            header.force();
+        }
+        mapRegion(HEADER_SIZE + recordCount * RECORD_SIZE);
+    }
+
+    /**
+     * Appends one record and assigns it the next sequence number.
+     *
+     * @param action           Action code (see {@link com.ticketing.model.ActionType}).
+     * @param entityName       Name of the vendor or customer.
+     * @param ticketCount      Number of tickets involved.
+     * @param remainingTickets Tickets remaining after the action.
+     * @param timestamp        Time of the action in epoch milliseconds.
+     * @return The record's sequence number.
+     * @throws IOException If the next region cannot be mapped.
+     */
+    public long append(byte action, String entityName, int ticketCount, int remainingTickets, long timestamp)
+            throws IOException {
+        return append(action, dictionary.idOf(entityName), ticketCount, remainingTickets, timestamp, -1);
+    }
+
+    /**
+     * Appends one record, with the first of its consecutive seats if it has any.
+     *
+     * @param firstSeat First seat id, or -1 if the record has no seats.
+     * @return The record's sequence number.
+     * @throws IOException If the next region cannot be mapped.
+     */
+    public long append(byte action, String entityName, int ticketCount, int remainingTickets, long timestamp,
+                       int firstSeat) throws IOException {
+        return append(action, dictionary.idOf(entityName), ticketCount, remainingTickets, timestamp, firstSeat);
+    }
+
+    /**
+     * Appends one record whose entity is already registered in {@link #getDictionary()}.
+     *
+     * @param firstSeat First seat id, or -1 if the record has no seats.
+     * @return The record's sequence number.
+     * @throws IOException If the next region cannot be mapped.
+     */
+    public long append(byte action, int entityId, int ticketCount, int remainingTickets, long timestamp,
+                       int firstSeat) throws IOException {
+        if (firstSeat > MAX_SEAT_ID) {
+            throw new IllegalArgumentException("Seat id does not fit in the record: " + firstSeat);
+        }
+        long position = HEADER_SIZE + recordCount * RECORD_SIZE;
+        if (position + RECORD_SIZE > regionStart + region.capacity()) {
+            mapRegion(position);
+        }
+        int offset = (int) (position - regionStart);
+        long sequence = ++lastSequence;
+        region.putInt(offset + ACTION_OFFSET, (action << 24) | (firstSeat + 1));
+        region.putInt(offset + ENTITY_OFFSET, entityId);
+        region.putInt(offset + COUNT_OFFSET, ticketCount);
+        region.putInt(offset + REMAINING_OFFSET, remainingTickets);
+        region.putLong(offset + TIMESTAMP_OFFSET, timestamp);
+        region.putLong(offset + SEQUENCE_OFFSET, sequence); // Written last: marks the record complete
+        recordCount++;
+        return sequence;
+    }
+
+    /**
+     * Writes newly registered entity names and forces mapped records to disk.
+     *
+     * @throws IOException If the dictionary cannot be written.
+     */
+    public void force() throws IOException {
+        persistDictionary();
+        region.force();
+    }
+
+    /**
+     * Persists newly registered entity names without forcing the records.
+     *
+     * @throws IOException If the dictionary cannot be written.
+     */
+    public void flushDictionary() throws IOException {
+        persistDictionary();
+    }
+
+    /**
+     * Retrieves the dictionary used to intern entity names.
+     *
+     * @return Entity dictionary.
+     */
+    public EntityDictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Retrieves the number of records in the log.
+     *
+     * @return Record count.
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Retrieves the sequence number of the last appended record.
+     *
+     * @return Last sequence, or 0 if the log is empty.
+     */
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Retrieves the path of the binary log.
+     *
+     * @return Log file path.
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Forces outstanding records, trims the pre-extended tail and closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        force();
+        region = null;
+        channel.truncate(HEADER_SIZE + recordCount * RECORD_SIZE);
+        channel.close();
+        dictionaryWriter.close();
+    }
+
+    private void mapRegion(long start) throws IOException {
+        if (region != null) {
+            region.force();
+        }
+        regionStart = start;
+        region = channel.map(FileChannel.MapMode.READ_WRITE, start, regionSize);
+    }
+
+    private void persistDictionary() throws IOException {
+        if (dictionary.size() == persistedNames) {
+            return;
+        }
+        for (String name : dictionary.namesFrom(persistedNames)) {
+            dictionaryWriter.write(name);
+            dictionaryWriter.newLine();
+            persistedNames++;
+        }
+        dictionaryWriter.flush();
+    }
+}
@@ -0,0 +1,128 @@
+package com.ticketing.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Compact checkpoint of the pool's inventory at a position in the transaction journal:
+ * the ticket total after the first {@code records} records of the journal.
+ * Recovery starts from the latest snapshot and only replays the journal after it.
+ *
+ * <p>On disk a snapshot is a 48-byte file: magic, version, the three counters, the creation
+ * time and a CRC32 of the preceding bytes. It is written to a temporary file, forced and then
+ * renamed over the previous snapshot, so a crash leaves either the old or the new one.
+ */
+public final class PoolSnapshot {
+    private static final int MAGIC = 0x54534E50; // "TSNP"
+    private static final short VERSION = 1;
+    private static final int SIZE = 48;
+
+    private final long records;
+    private final long journalBytes;
+    private final long totalTickets;
+    private final long createdMillis;
+
+    /**
+     * Initializes a snapshot.
+     *
+     * @param records       Journal records covered by the snapshot.
+     * @param journalBytes  Journal file length after those records (JSON journals; 0 for binary ones).
+     * @param totalTickets  Tickets in the pool after those records.
+     * @param createdMillis Time the snapshot was taken, in epoch milliseconds.
+     */
+    public PoolSnapshot(long records, long journalBytes, long totalTickets, long createdMillis) {
+        this.records = records;
+        this.journalBytes = journalBytes;
+        this.totalTickets = totalTickets;
+        this.createdMillis = createdMillis;
+    }
+
+    /**
+     * Derives the snapshot file name from the journal file name.
+     *
+     * @param journalFile Journal file.
+     * @return Path of the journal's snapshot, "&lt;journal&gt;.snapshot".
+     */
+    public static Path fileFor(String journalFile) {
+        return Paths.get(journalFile + ".snapshot");
+    }
+
+    /**
+     * Reads a snapshot file.
+     *
+     * @param file Snapshot file.
+     * @return The snapshot, or null if the file is missing or damaged.
+     */
+    public static PoolSnapshot read(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            byte[] bytes = Files.readAllBytes(file);
+            if (bytes.length != SIZE) {
+                return null;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            CRC32 crc = new CRC32();
+            crc.update(bytes, 0, SIZE - 4);
+            if (buffer.getInt(0) != MAGIC || buffer.getShort(4) != VERSION
+                    || buffer.getInt(SIZE - 4) != (int) crc.getValue()) {
+                return null;
+            }
+            return new PoolSnapshot(buffer.getLong(8), buffer.getLong(16), buffer.getLong(24), buffer.getLong(32));
+        } catch (IOException e) {
+            System.err.println("Failed to read snapshot " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Replaces the snapshot file with this snapshot atomically and durably.
+     *
+     * @param file Snapshot file.
+     * @throws IOException If the snapshot cannot be written.
+     */
+    public void write(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SIZE);
+        buffer.putInt(MAGIC).putShort(VERSION).putShort((short) 0)
+                .putLong(records).putLong(journalBytes).putLong(totalTickets).putLong(createdMillis)
+                .putInt(0); // Reserved
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, SIZE - 4);
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public long getRecords() {
+        return records;
+    }
+
+    public long getJournalBytes() {
+        return journalBytes;
+    }
+
+    public long getTotalTickets() {
+        return totalTickets;
+    }
+
+    public long getCreatedMillis() {
+        return createdMillis;
+    }
+}
@@ -0,0 +1,24 @@
+package com.ticketing.journal;
+
+/**
+ * Controls when the journal forces written batches to stable storage.
+ */
+public enum SyncPolicy {
+    /** Never fsync; rely on the operating system to flush the page cache. */
+    NONE,
+    /** Fsync after every batch (group commit). */
+    BATCH,
+    /** Fsync at most once per configured interval. */
+    INTERVAL;
+
+    /**
+     * Parses a policy name from the configuration file.
+     *
+     * @param name Policy name (case-insensitive).
+     * @return The matching policy.
+     * @throws IllegalArgumentException If the name is unknown.
+     */
+    public static SyncPolicy fromName(String name) {
+        return valueOf(name.trim().toUpperCase());
+    }
+}
@@ -0,0 +1,523 @@
+package com.ticketing.journal;
+
+import com.google.gson.Gson;
+import com.ticketing.model.ActionType;
+import com.ticketing.model.EntityDictionary;
+import com.ticketing.model.RecordCodec;
+import com.ticketing.model.TicketRecord;
+import com.ticketing.model.TicketRecordSource;
+import com.ticketing.model.TicketRequest;
+import com.ticketing.model.TransactionLog;
+import com.ticketing.util.BoundedRecordQueue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Asynchronous, batched transaction journal.
+ * Pool operations only place records, packed into two longs, on a bounded lock-free
+ * queue, so appending allocates nothing and never performs I/O; a background
+ * writer drains the queue in batches and appends them to a file, either one JSON
+ * record per line or as fixed-width binary records, forcing them to disk according
+ * to the configured {@link SyncPolicy}.
+ * Heap usage is bounded by the queue capacity no matter how long the simulation runs.
+ *
+ * <p>When snapshots are enabled, the writer also keeps the ticket total implied by the
+ * records it has written and periodically checkpoints it to a {@link PoolSnapshot} after
+ * forcing the journal, so that {@link JournalRecovery} only has to replay the records
+ * written since the last checkpoint.
+ */
+public class TransactionJournal implements TransactionLog {
+    private static final Gson gson = new Gson(); // Compact output, one record per line
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final Path file;
+    private final JournalFormat format;
+    private final BoundedRecordQueue queue;
+    private final EntityDictionary dictionary = EntityDictionary.shared();
+    private final long baseTime = System.currentTimeMillis();
+    private final int batchSize;
+    private final SyncPolicy syncPolicy;
+    private final long syncIntervalNanos;
+    private final FileChannel channel; // JSON format
+    private final MappedRecordWriter binaryWriter; // Binary format
+    private final Thread writer;
+    private final StringBuilder batchText = new StringBuilder(); // Reused by the writer thread
+    private String[] quotedNames = new String[16]; // Entity id -> JSON-escaped name, cached by the writer
+    private final Path snapshotFile; // null unless snapshots are enabled
+    private final long snapshotEveryRecords;
+    private long journalRecords; // Records in the file including earlier runs; writer thread only
+    private long journalBytes; // Length of a JSON journal; writer thread only
+    private long ticketBalance; // Pool total implied by the records written so far; writer thread only
+    private long lastSnapshotRecords;
+    private volatile long snapshotsWritten;
+
+    private volatile boolean closed;
+    private volatile boolean writerIdle;
+    private volatile long writtenRecords;
+    private long lastSyncNanos = System.nanoTime();
+
+    /**
+     * Opens (or creates) the journal file and starts the background writer.
+     *
+     * @param filename       Journal file to append to.
+     * @param format         On-disk encoding of the records.
+     * @param queueCapacity  Maximum number of records waiting to be written.
+     * @param batchSize      Maximum number of records written per batch.
+     * @param syncPolicy     When to force written batches to disk.
+     * @param syncIntervalMs Minimum time between forces for {@link SyncPolicy#INTERVAL}.
+     * @throws IOException If the journal file cannot be opened.
+     */
+    public TransactionJournal(String filename, JournalFormat format, int queueCapacity, int batchSize,
+                              SyncPolicy syncPolicy, int syncIntervalMs) throws IOException {
+        this(filename, format, queueCapacity, batchSize, syncPolicy, syncIntervalMs, null, 0);
+    }
+
+    /**
+     * Opens (or creates) the journal file, starts the background writer and checkpoints
+     * the pool state every {@code snapshotEveryRecords} records.
+     *
+     * @param filename             Journal file to append to.
+     * @param format               On-disk encoding of the records.
+     * @param queueCapacity        Maximum number of records waiting to be written.
+     * @param batchSize            Maximum number of records written per batch.
+     * @param syncPolicy           When to force written batches to disk.
+     * @param syncIntervalMs       Minimum time between forces for {@link SyncPolicy#INTERVAL}.
+     * @param start                State at the end of the existing journal (see {@link JournalRecovery}),
+     *                             or null to disable snapshots.
+     * @param snapshotEveryRecords Records written between two snapshots.
+     * @throws IOException If the journal file or the first snapshot cannot be written.
+     */
+    public TransactionJournal(String filename, JournalFormat format, int queueCapacity, int batchSize,
+                              SyncPolicy syncPolicy, int syncIntervalMs, PoolSnapshot start,
+                              long snapshotEveryRecords) throws IOException {
+        this.file = Paths.get(filename);
+        this.format = format;
+        this.queue = new BoundedRecordQueue(queueCapacity);
+        this.batchSize = batchSize;
+        this.syncPolicy = syncPolicy;
+        this.syncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(syncIntervalMs);
+        if (format == JournalFormat.BINARY) {
+            this.channel = null;
+            this.binaryWriter = new MappedRecordWriter(file);
+        } else {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            this.binaryWriter = null;
+        }
+        if (start != null) {
+            this.snapshotFile = PoolSnapshot.fileFor(filename);
+            this.snapshotEveryRecords = Math.max(1, snapshotEveryRecords);
+            this.journalRecords = start.getRecords();
+            this.journalBytes = start.getJournalBytes();
+            this.ticketBalance = start.getTotalTickets();
+            this.lastSnapshotRecords = journalRecords;
+            start.write(snapshotFile); // Makes the starting total durable before any new record refers to it
+        } else {
+            this.snapshotFile = null;
+            this.snapshotEveryRecords = 0;
+        }
+        this.writer = new Thread(this::writeLoop, "journal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queues a record for the writer. Never performs I/O; only waits if the queue is
+     * full, which means the disk cannot keep up with the transaction rate.
+     */
+    @Override
+    public void append(ActionType actionType, String entityName, int ticketCount, int remainingTickets) {
+        long meta = RecordCodec.encodeMeta(actionType, dictionary.idOf(entityName), ticketCount);
+        offer(meta, RecordCodec.encodeState(remainingTickets, System.currentTimeMillis(), baseTime));
+    }
+
+    @Override
+    public void append(ActionType actionType, String entityName, int ticketCount, int remainingTickets, int firstSeat) {
+        long meta = RecordCodec.encodeSeatedMeta(actionType, dictionary.idOf(entityName), ticketCount, firstSeat);
+        offer(meta, RecordCodec.encodeState(remainingTickets, System.currentTimeMillis(), baseTime));
+    }
+
+    private void offer(long meta, long state) {
+        while (!queue.offer(meta, state)) {
+            if (closed) {
+                throw new IllegalStateException("Transaction journal is closed.");
+            }
+            LockSupport.unpark(writer);
+            Thread.onSpinWait();
+        }
+        if (writerIdle) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * Queues the applied requests of a batch with one reservation in the writer's queue,
+     * so the writer receives them as one group (a group commit).
+     */
+    @Override
+    public void appendBatch(List<TicketRequest> requests, boolean[] results, int[] remaining) {
+        long[] metas = new long[results.length];
+        long[] states = new long[results.length];
+        long now = System.currentTimeMillis();
+        int applied = 0;
+        for (int i = 0; i < results.length; i++) {
+            if (results[i]) {
+                TicketRequest request = requests.get(i);
+                metas[applied] = RecordCodec.encodeMeta(request.getActionType(),
+                        dictionary.idOf(request.getEntityName()), request.getCount());
+                states[applied] = RecordCodec.encodeState(remaining[i], now, baseTime);
+                applied++;
+            }
+        }
+        if (applied == 0) {
+            return;
+        }
+        if (applied > queue.capacity()) {
+            TransactionLog.super.appendBatch(requests, results, remaining); // Too large for one reservation
+            return;
+        }
+        while (!queue.offerBatch(metas, states, applied)) {
+            if (closed) {
+                throw new IllegalStateException("Transaction journal is closed.");
+            }
+            LockSupport.unpark(writer);
+            Thread.onSpinWait();
+        }
+        if (writerIdle) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * Flushes pending records and reads the whole journal back from disk.
+     * Intended for end-of-run export, not for use while the simulation is busy.
+     */
+    @Override
+    public List<TicketRecord> getTransactions() {
+        awaitDrained();
+        try {
+            return readRecords(file.toString(), format);
+        } catch (IOException e) {
+            System.err.println("Failed to read transaction journal: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Flushes pending records and streams the journal from disk one record at a time.
+     */
+    @Override
+    public void forEachRecord(Consumer<? super TicketRecord> action) throws IOException {
+        awaitDrained();
+        fileSource(file.toString(), format).forEachRecord(action);
+    }
+
+    /**
+     * Stops accepting records, writes everything still queued, forces it to disk
+     * and closes the file.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupted while closing the transaction journal.");
+        }
+    }
+
+    /**
+     * Retrieves the number of records written to the journal file so far.
+     *
+     * @return Written record count.
+     */
+    public long getWrittenRecords() {
+        return writtenRecords;
+    }
+
+    /**
+     * Retrieves the number of snapshots written by this journal, including the initial one.
+     *
+     * @return Snapshot count, 0 if snapshots are disabled.
+     */
+    public long getSnapshotsWritten() {
+        return snapshotFile == null ? 0 : snapshotsWritten + 1;
+    }
+
+    /**
+     * Retrieves the number of records waiting to be written.
+     *
+     * @return Queue depth.
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Retrieves the path of the journal file.
+     *
+     * @return Journal file path.
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Retrieves the on-disk encoding of the journal.
+     *
+     * @return Journal format.
+     */
+    public JournalFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Reads all records from a journal file.
+     *
+     * @param filename Journal file to read.
+     * @param format   Encoding of the file.
+     * @return Records in the order they were written.
+     * @throws IOException If the file cannot be read.
+     */
+    public static List<TicketRecord> readRecords(String filename, JournalFormat format) throws IOException {
+        List<TicketRecord> records = new ArrayList<>();
+        fileSource(filename, format).forEachRecord(records::add);
+        return records;
+    }
+
+    /**
+     * Streams the records of a journal file without loading the whole file.
+     *
+     * @param filename Journal file to read.
+     * @param format   Encoding of the file.
+     * @return A source that reads the file each time it is visited.
+     */
+    public static TicketRecordSource fileSource(String filename, JournalFormat format) {
+        if (format == JournalFormat.BINARY) {
+            return action -> {
+                try (MappedRecordReader reader = new MappedRecordReader(Paths.get(filename))) {
+                    EntityDictionary names = reader.getDictionary();
+                    reader.forEach((sequence, timestamp, code, entityId, count, remaining, firstSeat) ->
+                            action.accept(new TicketRecord(ActionType.fromCode(code), names.nameOf(entityId),
+                                    count, remaining, timestamp, firstSeat)));
+                }
+            };
+        }
+        return action -> {
+            try (BufferedReader reader = Files.newBufferedReader(Paths.get(filename), StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isEmpty()) {
+                        action.accept(gson.fromJson(line, TicketRecord.class));
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Background writer: drains batches until closed, then writes the remainder.
+     */
+    private void writeLoop() {
+        try {
+            while (!closed) {
+                if (writeBatch() == 0) {
+                    writerIdle = true;
+                    if (queue.size() == 0 && !closed) {
+                        LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                    }
+                    writerIdle = false;
+                    syncIfDue(false);
+                }
+            }
+            while (writeBatch() > 0) {
+                // Drain whatever producers queued before close
+            }
+            syncIfDue(true);
+            snapshotIfDue(true);
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Transaction journal writer failed: " + e.getMessage());
+        } finally {
+            try {
+                if (binaryWriter != null) {
+                    binaryWriter.close();
+                } else {
+                    channel.close();
+                }
+            } catch (IOException e) {
+                System.err.println("Failed to close transaction journal: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Appends one batch of queued records to the file with a single write.
+     *
+     * @return Number of records written.
+     */
+    private int writeBatch() throws IOException {
+        if (binaryWriter != null) {
+            return writeBinaryBatch();
+        }
+        batchText.setLength(0);
+        int count = queue.drain(this::appendJsonLine, batchSize);
+        if (count == 0) {
+            return 0;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(batchText.toString().getBytes(StandardCharsets.UTF_8));
+        journalBytes += buffer.remaining();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        writtenRecords += count;
+        journalRecords += count;
+        completeBatch();
+        snapshotIfDue(false);
+        return count;
+    }
+
+    /**
+     * Appends one batch of queued records to the memory-mapped binary log.
+     *
+     * @return Number of records written.
+     */
+    private int writeBinaryBatch() throws IOException {
+        int count = queue.drain(this::writeBinary, batchSize);
+        if (count == 0) {
+            return 0;
+        }
+        binaryWriter.flushDictionary(); // Names must reach disk no later than the records using them
+        writtenRecords += count;
+        journalRecords += count;
+        completeBatch();
+        snapshotIfDue(false);
+        return count;
+    }
+
+    private void writeBinary(long meta, long state) {
+        trackBalance(meta);
+        try {
+            binaryWriter.append(RecordCodec.actionCode(meta), dictionary.nameOf(RecordCodec.entityId(meta)),
+                    RecordCodec.ticketCount(meta), RecordCodec.remainingTickets(state),
+                    RecordCodec.timestamp(state, baseTime), RecordCodec.firstSeat(meta));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Formats one record as a compact JSON line with the same fields as {@link TicketRecord}.
+     */
+    private void appendJsonLine(long meta, long state) {
+        trackBalance(meta);
+        batchText.append("{\"actionType\":\"").append(RecordCodec.action(meta).name())
+                .append("\",\"entityName\":").append(quotedName(RecordCodec.entityId(meta)))
+                .append(",\"ticketCount\":").append(RecordCodec.ticketCount(meta))
+                .append(",\"remainingTickets\":").append(RecordCodec.remainingTickets(state))
+                .append(",\"timestamp\":").append(RecordCodec.timestamp(state, baseTime));
+        if (RecordCodec.isSeated(meta)) {
+            batchText.append(",\"firstSeat\":").append(RecordCodec.firstSeat(meta));
+        }
+        batchText.append("}\n");
+    }
+
+    private String quotedName(int entityId) {
+        if (entityId >= quotedNames.length) {
+            quotedNames = Arrays.copyOf(quotedNames, Math.max(entityId + 1, quotedNames.length * 2));
+        }
+        String quoted = quotedNames[entityId];
+        if (quoted == null) {
+            quoted = gson.toJson(dictionary.nameOf(entityId));
+            quotedNames[entityId] = quoted;
+        }
+        return quoted;
+    }
+
+    private void trackBalance(long meta) {
+        ticketBalance += RecordCodec.action(meta).ticketDelta(RecordCodec.ticketCount(meta));
+    }
+
+    /**
+     * Forces the journal and checkpoints the pool total once enough records were written since
+     * the last snapshot, or unconditionally (on close) if anything was written.
+     * A failed snapshot is reported and leaves the previous one in place; recovery then replays more records.
+     */
+    private void snapshotIfDue(boolean finalSnapshot) throws IOException {
+        long pending = journalRecords - lastSnapshotRecords;
+        if (snapshotFile == null || pending == 0 || (!finalSnapshot && pending < snapshotEveryRecords)) {
+            return;
+        }
+        force(); // The snapshot must never cover records that are not on disk
+        lastSyncNanos = System.nanoTime();
+        try {
+            new PoolSnapshot(journalRecords, journalBytes, ticketBalance, System.currentTimeMillis()).write(snapshotFile);
+            lastSnapshotRecords = journalRecords;
+            snapshotsWritten++;
+        } catch (IOException e) {
+            System.err.println("Failed to write pool snapshot: " + e.getMessage());
+            lastSnapshotRecords = journalRecords; // Retry after the next interval rather than after every batch
+        }
+    }
+
+    /**
+     * Applies the sync policy after a batch has been written.
+     */
+    private void completeBatch() throws IOException {
+        if (syncPolicy == SyncPolicy.BATCH) {
+            force();
+            lastSyncNanos = System.nanoTime();
+        } else {
+            syncIfDue(false);
+        }
+    }
+
+    private void force() throws IOException {
+        if (binaryWriter != null) {
+            binaryWriter.force();
+        } else {
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Forces written data to disk when the interval policy says it is time, or unconditionally.
+     */
+    private void syncIfDue(boolean force) throws IOException {
+        long now = System.nanoTime();
+        if (force || (syncPolicy == SyncPolicy.INTERVAL && now - lastSyncNanos >= syncIntervalNanos)) {
+            force();
+            lastSyncNanos = now;
+        }
+    }
+
+    /**
+     * Waits until the writer has written every record queued so far.
+     */
+    private void awaitDrained() {
+        long target = queue.offeredCount();
+        while (writtenRecords < target && writer.isAlive()) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(IDLE_PARK_NANOS / 10);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.ticketing.journal;
+
+import com.ticketing.config.Configuration;
+import com.ticketing.history.TieredTransactionLog;
+import com.ticketing.metrics.PoolMetrics;
+import com.ticketing.model.InMemoryTransactionLog;
+import com.ticketing.model.TicketPoolFactory;
+import com.ticketing.model.TransactionLog;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Creates the transaction log selected in the configuration.
+ */
+public final class TransactionLogFactory {
+
+    private TransactionLogFactory() {
+    }
+
+    /**
+     * Builds the transaction log: the asynchronous journal when enabled, otherwise the
+     * tiered history when a memory bound is set, otherwise the in-memory list.
+     *
+     * @param config The system configuration.
+     * @return A new transaction log.
+     */
+    public static TransactionLog create(Configuration config) {
+        return create(config, null);
+    }
+
+    /**
+     * Builds the transaction log, continuing a recovered journal and checkpointing the pool from there.
+     *
+     * @param config   The system configuration.
+     * @param recovery Result of {@link #recover(Configuration)}, or null to run without snapshots.
+     * @return A new transaction log.
+     */
+    public static TransactionLog create(Configuration config, JournalRecovery recovery) {
+        if (!config.isJournalEnabled()) {
+            return config.getHistoryMemoryRecords() > 0 ? createHistory(config) : new InMemoryTransactionLog();
+        }
+        try {
+            TransactionJournal journal = new TransactionJournal(config.getJournalFile(), config.getJournalFormat(),
+                    config.getJournalQueueCapacity(), config.getJournalBatchSize(), config.getJournalSyncPolicy(),
+                    config.getJournalSyncIntervalMs(), recovery == null ? null : recovery.getState(),
+                    config.getSnapshotIntervalRecords());
+            PoolMetrics.registerGauge("journal.lag", journal::getQueueDepth); // Records not yet written
+            PoolMetrics.registerGauge("journal.written", journal::getWrittenRecords);
+            return journal;
+        } catch (IOException e) {
+            System.err.println("Failed to open transaction journal: " + e.getMessage()
+                    + ". Keeping transactions in memory.");
+            return new InMemoryTransactionLog();
+        }
+    }
+
+    private static TransactionLog createHistory(Configuration config) {
+        try {
+            TieredTransactionLog history = new TieredTransactionLog(Paths.get(config.getHistoryDir()),
+                    config.getHistoryMemoryRecords(), config.getHistorySegmentRecords());
+            PoolMetrics.registerGauge("history.spillLag", history::getSpillLag); // Records not yet on disk
+            PoolMetrics.registerGauge("history.segments", () -> history.getStore().getSegmentCount());
+            return history;
+        } catch (IOException e) {
+            System.err.println("Failed to open the transaction history in " + config.getHistoryDir() + ": "
+                    + e.getMessage() + ". Keeping transactions in memory.");
+            return new InMemoryTransactionLog();
+        }
+    }
+
+    /**
+     * Restores the pool's ticket total from the journal's latest snapshot and the records after it.
+     * Only single pools that count tickets can be recovered; seat assignments and per-event
+     * pools are not part of the snapshot.
+     *
+     * @param config The system configuration.
+     * @return The recovery result, or null if recovery is disabled, unsupported or failed.
+     */
+    public static JournalRecovery recover(Configuration config) {
+        if (!config.isJournalEnabled() || !config.isRecoveryEnabled()) {
+            return null;
+        }
+        if (config.isCatalogEnabled() || TicketPoolFactory.SEATED.equals(config.getPoolType())) {
+            System.out.println("Crash recovery supports a single blocking, atomic or sharded pool. Starting fresh.");
+            return null;
+        }
+        try {
+            JournalRecovery recovery = JournalRecovery.recover(config.getJournalFile(), config.getJournalFormat(),
+                    config.getTotalTickets());
+            System.out.println(recovery.describe());
+            JournalRecovery clamped = recovery.clamp(config.getMaxTicketCapacity());
+            if (clamped != recovery) {
+                System.out.println("Recovered ticket count is outside the configured capacity. Using "
+                        + clamped.getTotalTickets() + ".");
+            }
+            return clamped;
+        } catch (IOException e) {
+            System.err.println("Failed to recover from the transaction journal: " + e.getMessage()
+                    + ". Starting with the configured tickets and without snapshots.");
+            return null;
+        }
+    }
+}
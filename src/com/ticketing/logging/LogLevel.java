@@ -0,0 +1,24 @@
+package com.ticketing.logging;
+
+/**
+ * Severity of a log message. {@link #OFF} silences all output, e.g. for benchmarks.
+ */
+public enum LogLevel {
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR,
+    OFF;
+
+    /**
+     * Parses a level name from the configuration file.
+     *
+     * @param name Level name (case-insensitive); "silent" is accepted for {@link #OFF}.
+     * @return The matching level.
+     * @throws IllegalArgumentException If the name is unknown.
+     */
+    public static LogLevel fromName(String name) {
+        String normalized = name.trim().toUpperCase();
+        return normalized.equals("SILENT") ? OFF : valueOf(normalized);
+    }
+}
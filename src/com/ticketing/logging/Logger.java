@@ -0,0 +1,216 @@
+package com.ticketing.logging;
+
+import com.ticketing.util.BoundedMpscQueue;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous, rate-limited console logger used by the pools, vendors and customers.
+ * Callers only check the level and place the message template and its arguments on a
+ * bounded lock-free ring; a background appender thread formats and prints them. A caller
+ * therefore never writes to the console, and in particular never while holding the pool lock.
+ * If the ring is full, messages are dropped and counted rather than blocking the caller.
+ * Templates use "{}" placeholders, e.g. {@code Logger.info("{} added {} tickets", name, count)}.
+ */
+public final class Logger {
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final int DRAIN_BATCH = 1024;
+
+    private static volatile LogLevel level = LogLevel.INFO;
+    private static volatile RateLimiter rateLimiter; // null means unlimited
+    private static volatile BoundedMpscQueue<LogEvent> queue = new BoundedMpscQueue<>(65536);
+    private static final AtomicLong dropped = new AtomicLong();
+    private static final PrintStream out = System.out;
+    private static volatile Thread appender;
+
+    /**
+     * A message waiting to be formatted by the appender.
+     */
+    private static final class LogEvent {
+        final LogLevel level;
+        final String template;
+        final Object[] args;
+        final long suppressed;
+
+        LogEvent(LogLevel level, String template, Object[] args, long suppressed) {
+            this.level = level;
+            this.template = template;
+            this.args = args;
+            this.suppressed = suppressed;
+        }
+    }
+
+    private Logger() {
+    }
+
+    /**
+     * Applies logging settings. Call before the simulation starts.
+     *
+     * @param newLevel           Minimum level that is printed; {@link LogLevel#OFF} for silent mode.
+     * @param rateLimitPerSecond Messages allowed per template per second, or 0 for no limit.
+     * @param queueCapacity      Messages that may wait for the appender before new ones are dropped.
+     */
+    public static synchronized void configure(LogLevel newLevel, int rateLimitPerSecond, int queueCapacity) {
+        flush();
+        level = newLevel;
+        rateLimiter = rateLimitPerSecond > 0 ? new RateLimiter(rateLimitPerSecond) : null;
+        if (queue.capacity() != BoundedMpscQueue.roundCapacity(queueCapacity)) {
+            queue = new BoundedMpscQueue<>(queueCapacity); // The flushed queue is empty and reused otherwise
+        }
+    }
+
+    /**
+     * Retrieves the current minimum level.
+     *
+     * @return Log level.
+     */
+    public static LogLevel getLevel() {
+        return level;
+    }
+
+    /**
+     * Checks whether messages of a level would be printed.
+     *
+     * @param messageLevel Level to check.
+     * @return true if the level is enabled.
+     */
+    public static boolean isEnabled(LogLevel messageLevel) {
+        return messageLevel.compareTo(level) >= 0 && messageLevel != LogLevel.OFF;
+    }
+
+    // Logging methods; fixed arities avoid a varargs array when the level is disabled
+    public static void debug(String template, Object a) {
+        if (isEnabled(LogLevel.DEBUG)) {
+            log(LogLevel.DEBUG, template, new Object[]{a});
+        }
+    }
+
+    public static void info(String template, Object a) {
+        if (isEnabled(LogLevel.INFO)) {
+            log(LogLevel.INFO, template, new Object[]{a});
+        }
+    }
+
+    public static void info(String template, Object a, Object b) {
+        if (isEnabled(LogLevel.INFO)) {
+            log(LogLevel.INFO, template, new Object[]{a, b});
+        }
+    }
+
+    public static void info(String template, Object a, Object b, Object c) {
+        if (isEnabled(LogLevel.INFO)) {
+            log(LogLevel.INFO, template, new Object[]{a, b, c});
+        }
+    }
+
+    public static void warn(String template, Object a) {
+        if (isEnabled(LogLevel.WARN)) {
+            log(LogLevel.WARN, template, new Object[]{a});
+        }
+    }
+
+    public static void error(String template, Object a) {
+        if (isEnabled(LogLevel.ERROR)) {
+            log(LogLevel.ERROR, template, new Object[]{a});
+        }
+    }
+
+    /**
+     * Waits until every queued message has been printed.
+     */
+    public static void flush() {
+        Thread current = appender;
+        BoundedMpscQueue<LogEvent> pending = queue;
+        while (current != null && current.isAlive() && pending.size() > 0) {
+            LockSupport.unpark(current);
+            LockSupport.parkNanos(IDLE_PARK_NANOS / 10);
+        }
+        out.flush();
+    }
+
+    /**
+     * Retrieves the number of messages dropped because the ring was full.
+     *
+     * @return Dropped message count.
+     */
+    public static long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Retrieves the number of messages waiting for the appender.
+     *
+     * @return Queued message count.
+     */
+    public static long getQueueDepth() {
+        return queue.size();
+    }
+
+    private static void log(LogLevel messageLevel, String template, Object[] args) {
+        RateLimiter limiter = rateLimiter;
+        long suppressed = 0;
+        if (limiter != null && (suppressed = limiter.tryAcquire(template)) < 0) {
+            return;
+        }
+        if (!queue.offer(new LogEvent(messageLevel, template, args, suppressed))) {
+            dropped.incrementAndGet();
+            return;
+        }
+        if (appender == null) {
+            startAppender();
+        }
+    }
+
+    private static synchronized void startAppender() {
+        if (appender != null) {
+            return;
+        }
+        Thread thread = new Thread(Logger::appendLoop, "log-appender");
+        thread.setDaemon(true);
+        thread.start();
+        appender = thread;
+    }
+
+    /**
+     * Background appender: formats and prints queued messages in batches.
+     */
+    private static void appendLoop() {
+        StringBuilder line = new StringBuilder();
+        long reportedDrops = 0;
+        while (true) {
+            int printed = queue.drain(event -> print(event, line), DRAIN_BATCH);
+            long drops = dropped.get();
+            if (drops != reportedDrops) {
+                out.println("[log] " + (drops - reportedDrops) + " messages dropped (log queue full).");
+                reportedDrops = drops;
+            }
+            if (printed == 0) {
+                out.flush();
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private static void print(LogEvent event, StringBuilder line) {
+        line.setLength(0);
+        if (event.level == LogLevel.WARN || event.level == LogLevel.ERROR) {
+            line.append(event.level.name()).append(": ");
+        }
+        int argIndex = 0;
+        int from = 0;
+        int placeholder;
+        while ((placeholder = event.template.indexOf("{}", from)) >= 0) {
+            line.append(event.template, from, placeholder);
+            line.append(argIndex < event.args.length ? event.args[argIndex++] : "{}");
+            from = placeholder + 2;
+        }
+        line.append(event.template, from, event.template.length());
+        if (event.suppressed > 0) {
+            line.append(" (").append(event.suppressed).append(" similar messages suppressed)");
+        }
+        out.println(line);
+    }
+}
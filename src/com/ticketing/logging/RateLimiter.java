@@ -0,0 +1,58 @@
+package com.ticketing.logging;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits how often the same message template is logged. Each template may pass
+ * a fixed number of times per one-second window; the rest are counted and
+ * summarized once the next window opens.
+ */
+class RateLimiter {
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+
+    private final int permitsPerWindow;
+    private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+
+    /**
+     * Per-template counters for the current window.
+     */
+    private static final class Window {
+        final AtomicLong start = new AtomicLong(System.nanoTime());
+        final AtomicInteger used = new AtomicInteger();
+        final AtomicLong suppressed = new AtomicLong();
+    }
+
+    /**
+     * Initializes the limiter.
+     *
+     * @param permitsPerWindow Messages allowed per template per second.
+     */
+    RateLimiter(int permitsPerWindow) {
+        this.permitsPerWindow = permitsPerWindow;
+    }
+
+    /**
+     * Decides whether a message may be logged.
+     *
+     * @param template Message template identifying "the same" message.
+     * @return -1 if the message must be dropped; otherwise the number of messages
+     *         with this template suppressed in the previous window (usually 0).
+     */
+    long tryAcquire(String template) {
+        Window window = windows.computeIfAbsent(template, key -> new Window());
+        long now = System.nanoTime();
+        long start = window.start.get();
+        long previouslySuppressed = 0;
+        if (now - start >= WINDOW_NANOS && window.start.compareAndSet(start, now)) {
+            window.used.set(0);
+            previouslySuppressed = window.suppressed.getAndSet(0);
+        }
+        if (window.used.incrementAndGet() > permitsPerWindow) {
+            window.suppressed.incrementAndGet();
+            return -1;
+        }
+        return previouslySuppressed;
+    }
+}
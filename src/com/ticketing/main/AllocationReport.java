@@ -0,0 +1,91 @@
+package com.ticketing.main;
+
+import com.ticketing.journal.JournalFormat;
+import com.ticketing.journal.SyncPolicy;
+import com.ticketing.journal.TransactionJournal;
+import com.ticketing.logging.LogLevel;
+import com.ticketing.logging.Logger;
+import com.ticketing.model.ActionType;
+import com.ticketing.model.InMemoryTransactionLog;
+import com.ticketing.model.TicketPool;
+import com.ticketing.model.TicketPoolFactory;
+import com.ticketing.model.TransactionLog;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Measures how many bytes the transaction hot path allocates per operation,
+ * using the per-thread allocation counter of the HotSpot JVM.
+ * Run with {@code java -cp <classpath> com.ticketing.main.AllocationReport [operations]}.
+ */
+public class AllocationReport {
+    private static final int WARMUP_OPERATIONS = 200_000;
+
+    public static void main(String[] args) throws IOException {
+        int operations = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)
+                || !((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()) {
+            System.err.println("This JVM does not report per-thread allocation.");
+            return;
+        }
+        com.sun.management.ThreadMXBean allocation = (com.sun.management.ThreadMXBean) threads;
+
+        System.out.println("Allocation per operation (" + operations + " operations, calling thread only):");
+
+        InMemoryTransactionLog memoryLog = new InMemoryTransactionLog();
+        report(allocation, "in-memory log append", operations, i -> memoryLog.append(ActionType.RETRIEVE, "Customer-1", 1, i));
+        System.out.println("  (the in-memory log keeps 16 bytes per record; that is stored history, not garbage)");
+
+        Path journalFile = Files.createTempFile("allocation-report", ".journal");
+        TransactionJournal journal = new TransactionJournal(journalFile.toString(), JournalFormat.BINARY,
+                65536, 4096, SyncPolicy.NONE, 1000);
+        report(allocation, "journal append", operations, i -> journal.append(ActionType.RETRIEVE, "Customer-1", 1, i));
+        journal.close();
+
+        Logger.configure(LogLevel.OFF, 0, 1024); // Silent mode, as used for benchmarks
+        for (String poolType : new String[]{TicketPoolFactory.BLOCKING, TicketPoolFactory.ATOMIC, TicketPoolFactory.SHARDED}) {
+            TransactionLog log = new TransactionJournal(journalFile.toString(), JournalFormat.BINARY,
+                    65536, 4096, SyncPolicy.NONE, 1000);
+            TicketPool pool = TicketPoolFactory.create(poolType, 100, 200, 4, log);
+            double bytes = measure(allocation, operations, i -> {
+                pool.retrieveTickets(1, "Customer-1");
+                pool.addTickets(1, "Vendor-1");
+            });
+            System.out.printf("  %-28s %8.1f bytes/op%n", poolType + " pool retrieve+add", bytes);
+            log.close();
+        }
+        System.out.println("  (pool operations measured with logging off)");
+
+        Files.deleteIfExists(journalFile);
+        Files.deleteIfExists(Path.of(journalFile + ".dict"));
+    }
+
+    private static void report(com.sun.management.ThreadMXBean allocation, String name, int operations, Operation op) {
+        System.out.printf("  %-28s %8.1f bytes/op%n", name, measure(allocation, operations, op));
+    }
+
+    /**
+     * Runs the operation after a warm-up and returns the bytes allocated per call.
+     */
+    private static double measure(com.sun.management.ThreadMXBean allocation, int operations, Operation op) {
+        for (int i = 0; i < WARMUP_OPERATIONS; i++) {
+            op.run(i);
+        }
+        long threadId = Thread.currentThread().getId();
+        long before = allocation.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < operations; i++) {
+            op.run(i);
+        }
+        long after = allocation.getThreadAllocatedBytes(threadId);
+        return (double) (after - before) / operations;
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        void run(int i);
+    }
+}
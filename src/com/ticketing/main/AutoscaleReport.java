@@ -0,0 +1,117 @@
+package com.ticketing.main;
+
+import com.ticketing.logging.LogLevel;
+import com.ticketing.logging.Logger;
+import com.ticketing.metrics.MetricsSnapshot;
+import com.ticketing.metrics.PoolMetrics;
+import com.ticketing.model.TicketPool;
+import com.ticketing.model.TicketPoolFactory;
+import com.ticketing.producer.ReleaseRateController;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Compares a fixed release rate with the release rate controller while demand changes: the run
+ * starts with a few customers, the roster then adds many more, and finally retires them again.
+ * For each phase it prints tickets sold per second, the share of purchases that failed, how long
+ * vendors blocked at max capacity, and how full the pool was on average and how often it sat
+ * full or empty.
+ * Run with {@code java -cp <classpath> com.ticketing.main.AutoscaleReport [secondsPerPhase] [targetPercent] [executorMode]}.
+ */
+public class AutoscaleReport {
+    private static final int VENDORS = 5;
+    private static final int INTERVAL_MS = 5;
+    private static final int MAX_CAPACITY = 500;
+    private static final int INITIAL_TICKETS = 100;
+    private static final int[] CUSTOMERS_PER_PHASE = {3, 12, 3};
+    private static final int SAMPLE_MS = 10;
+    private static final int CONTROL_INTERVAL_MS = 100;
+
+    public static void main(String[] args) throws InterruptedException {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int targetPercent = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        String mode = args.length > 2 ? args[2] : EntityExecutor.PLATFORM;
+        Logger.configure(LogLevel.OFF, 0, 1024); // Silent mode, as used for benchmarks
+
+        System.out.println("Autoscale report: " + VENDORS + " vendors and customers every " + INTERVAL_MS
+                + " ms, max capacity " + MAX_CAPACITY + ", customers per phase " + describePhases() + ", "
+                + seconds + " s per phase, " + mode + " executor");
+        System.out.printf("  %-10s %5s %9s %9s %9s %7s %7s %7s %9s%n", "release", "phase", "sold/s", "failed %",
+                "blocked %", "fill %", "full %", "empty %", "interval");
+        run(false, targetPercent, seconds, mode);
+        run(true, targetPercent, seconds, mode);
+        System.out.println("  (blocked: vendor time spent waiting at max capacity; full/empty: share of samples every "
+                + SAMPLE_MS + " ms; interval: release interval in ms at the end of the phase)");
+    }
+
+    /**
+     * Runs all phases with a fixed or a controlled release rate and prints one line per phase.
+     */
+    private static void run(boolean controlled, int targetPercent, int seconds, String mode) throws InterruptedException {
+        TicketPool pool = TicketPoolFactory.create(TicketPoolFactory.BLOCKING, INITIAL_TICKETS, MAX_CAPACITY, 1);
+        ReleaseRateController controller = controlled ? new ReleaseRateController(pool, targetPercent, INTERVAL_MS) : null;
+        IntSupplier releaseInterval = controlled ? controller::getReleaseInterval : () -> INTERVAL_MS;
+        EntityExecutor executor = new EntityExecutor(mode, VENDORS + maxCustomers());
+        EntityRoster roster = new EntityRoster(executor, pool, null, releaseInterval, () -> INTERVAL_MS);
+        String label = controlled ? "target " + targetPercent + "%" : "fixed";
+
+        roster.start(VENDORS, CUSTOMERS_PER_PHASE[0]);
+        if (controlled) {
+            controller.start(CONTROL_INTERVAL_MS);
+        }
+        for (int phase = 0; phase < CUSTOMERS_PER_PHASE.length; phase++) {
+            roster.scaleCustomers(CUSTOMERS_PER_PHASE[phase]);
+            MetricsSnapshot before = PoolMetrics.snapshot();
+            long samples = 0;
+            long fillSum = 0;
+            long full = 0;
+            long empty = 0;
+            long end = System.currentTimeMillis() + seconds * 1000L;
+            while (System.currentTimeMillis() < end) {
+                Thread.sleep(SAMPLE_MS);
+                int tickets = pool.getTotalTickets();
+                samples++;
+                fillSum += tickets;
+                full += tickets == MAX_CAPACITY ? 1 : 0;
+                empty += tickets == 0 ? 1 : 0;
+            }
+            printPhase(label, phase + 1, before, PoolMetrics.snapshot(), samples, fillSum, full, empty,
+                    releaseInterval.getAsInt());
+        }
+        if (controlled) {
+            controller.close();
+        }
+        executor.stop();
+    }
+
+    private static void printPhase(String label, int phase, MetricsSnapshot before, MetricsSnapshot after, long samples,
+                                   long fillSum, long full, long empty, int interval) {
+        double seconds = (after.getTimeMillis() - before.getTimeMillis()) / 1000.0;
+        long purchases = after.getPurchases() - before.getPurchases();
+        long failed = after.getFailedPurchases() - before.getFailedPurchases();
+        double blockedNanos = after.getVendorWait().getCount() * after.getVendorWait().getMean()
+                - before.getVendorWait().getCount() * before.getVendorWait().getMean();
+        System.out.printf("  %-10s %5d %9.0f %9.1f %9.1f %7.1f %7.1f %7.1f %9d%n", label, phase,
+                (after.getTicketsSold() - before.getTicketsSold()) / seconds,
+                purchases + failed > 0 ? 100.0 * failed / (purchases + failed) : 0,
+                100.0 * blockedNanos / (seconds * 1e9 * VENDORS),
+                100.0 * fillSum / (samples * (double) MAX_CAPACITY),
+                100.0 * full / samples, 100.0 * empty / samples, interval);
+    }
+
+    private static int maxCustomers() {
+        int max = 0;
+        for (int customers : CUSTOMERS_PER_PHASE) {
+            max = Math.max(max, customers);
+        }
+        return max;
+    }
+
+    private static String describePhases() {
+        StringBuilder text = new StringBuilder();
+        for (int customers : CUSTOMERS_PER_PHASE) {
+            text.append(text.length() > 0 ? " -> " : "").append(customers);
+        }
+        return text.toString();
+    }
+}
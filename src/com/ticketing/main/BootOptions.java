@@ -0,0 +1,134 @@
+package com.ticketing.main;
+
+import com.ticketing.remote.WireProtocol;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Settings of a non-interactive start, parsed from command-line flags and environment variables.
+ * If any of them is given, the system skips the configuration prompt and the menu: it loads and
+ * validates the configuration up front, refuses to start on any problem, and starts the simulation
+ * at once. This is meant for scripts that restart the simulator in a loop.
+ */
+public class BootOptions {
+    public static final String CONFIG_ENV = "TICKETING_CONFIG"; // Same as --config
+    public static final String DURATION_ENV = "TICKETING_DURATION"; // Same as --duration
+    public static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: TicketingSystem [--config <file>] [--set <key>=<value>]... [--duration <seconds>] [--serve <address>]",
+            "  --config <file>            Load this config.json-style file without prompting (env " + CONFIG_ENV + ")",
+            "  --set <key>=<value>        Override one setting, e.g. --set vendorCount=8; may be repeated",
+            "  --duration <seconds>       Stop after this many seconds instead of waiting for '2' (env " + DURATION_ENV + ")",
+            "  --serve <address>          Serve the ticket pool to other processes instead of simulating; <host>:<port>,",
+            "                             <port> or unix:<path>. Clients set poolServer to the same address",
+            "Without any of these, the configuration is entered interactively. See --headless for load runs.");
+
+    private static final String DEFAULT_CONFIG_FILE = "config.json";
+
+    private boolean fastBoot;
+    private String configFile; // null means settings from --set only
+    private final List<String> overrides = new ArrayList<>();
+    private int durationSeconds; // 0 means run until '2' is entered
+    private String serveAddress; // null means run the simulation
+
+    /**
+     * Parses command-line flags and environment variables; flags win.
+     *
+     * @param args        Command-line arguments.
+     * @param environment Environment variables, usually {@link System#getenv()}.
+     * @return The parsed options.
+     * @throws IllegalArgumentException If a flag is unknown or its value is invalid.
+     */
+    public static BootOptions parse(String[] args, Map<String, String> environment) {
+        BootOptions options = new BootOptions();
+        options.configFile = environment.get(CONFIG_ENV);
+        if (environment.get(DURATION_ENV) != null) {
+            options.durationSeconds = seconds(environment.get(DURATION_ENV), DURATION_ENV);
+        }
+        for (int i = 0; i < args.length; i++) {
+            String flag = args[i];
+            switch (flag) {
+                case "--config":
+                    options.configFile = value(args, ++i, flag);
+                    break;
+                case "--set":
+                    String setting = value(args, ++i, flag);
+                    if (setting.indexOf('=') <= 0) {
+                        throw new IllegalArgumentException("Expected key=value for --set: " + setting);
+                    }
+                    options.overrides.add(setting);
+                    break;
+                case "--duration":
+                    options.durationSeconds = seconds(value(args, ++i, flag), flag);
+                    break;
+                case "--serve":
+                    options.serveAddress = value(args, ++i, flag);
+                    WireProtocol.parseAddress(options.serveAddress); // Rejects a malformed address up front
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + flag);
+            }
+        }
+        options.fastBoot = options.configFile != null || !options.overrides.isEmpty() || options.durationSeconds > 0
+                || options.serveAddress != null;
+        if (options.fastBoot && options.configFile == null && new File(DEFAULT_CONFIG_FILE).isFile()) {
+            options.configFile = DEFAULT_CONFIG_FILE; // e.g. only --duration given
+        }
+        if (options.configFile != null && !new File(options.configFile).isFile()) {
+            throw new IllegalArgumentException("Config file not found: " + options.configFile);
+        }
+        return options;
+    }
+
+    private static String value(String[] args, int index, String flag) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + flag);
+        }
+        return args[index];
+    }
+
+    private static int seconds(String text, String name) {
+        try {
+            int seconds = Integer.parseInt(text.trim());
+            if (seconds < 1) {
+                throw new IllegalArgumentException(name + " must be at least 1");
+            }
+            return seconds;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for " + name + ": " + text);
+        }
+    }
+
+    /**
+     * Checks whether to start without prompts.
+     *
+     * @return true if any flag or environment variable was given.
+     */
+    public boolean isFastBoot() {
+        return fastBoot;
+    }
+
+    public String getConfigFile() {
+        return configFile;
+    }
+
+    public List<String> getOverrides() {
+        return Collections.unmodifiableList(overrides);
+    }
+
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    /**
+     * Retrieves the address to serve the ticket pool on.
+     *
+     * @return The address, or null to run the simulation.
+     */
+    public String getServeAddress() {
+        return serveAddress;
+    }
+}
@@ -0,0 +1,224 @@
+package com.ticketing.main;
+
+import com.ticketing.logging.Logger;
+import com.ticketing.model.SimulatedEntity;
+import com.ticketing.util.VirtualThreads;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs simulated vendors and customers using one of three execution modes:
+ * <ul>
+ *   <li>platform - one platform thread per entity (the original behaviour),</li>
+ *   <li>pool - a fixed pool of threads that schedules each entity's turns, which never block
+ *   in the ticket pool ({@link SimulatedEntity#runTurn}),</li>
+ *   <li>virtual - one virtual thread per entity (JDK 21+).</li>
+ * </ul>
+ * Entities can be launched and retired one at a time while the others keep running.
+ */
+public class EntityExecutor {
+    public static final String PLATFORM = "platform";
+    public static final String POOL = "pool";
+    public static final String VIRTUAL = "virtual";
+
+    private final String mode;
+    private final Map<SimulatedEntity, Thread> threads = new ConcurrentHashMap<>();
+    private final Map<SimulatedEntity, Future<?>> turns = new ConcurrentHashMap<>(); // Next turn of each entity in pool mode
+    private final ScheduledExecutorService scheduler;
+    private volatile int entityCount;
+
+    /**
+     * Initializes an executor for the given mode.
+     *
+     * @param mode     Execution mode ("platform", "pool" or "virtual").
+     * @param poolSize Number of threads, used only in pool mode.
+     */
+    public EntityExecutor(String mode, int poolSize) {
+        if (VIRTUAL.equals(mode) && !VirtualThreads.isSupported()) {
+            System.out.println("Virtual threads are not available on this JDK. Using platform threads.");
+            mode = PLATFORM;
+        }
+        this.mode = mode;
+        this.scheduler = POOL.equals(mode) ? Executors.newScheduledThreadPool(poolSize) : null;
+    }
+
+    /**
+     * Checks whether the given name refers to a known execution mode.
+     *
+     * @param mode Execution mode name.
+     * @return true if the name is supported.
+     */
+    public static boolean isSupported(String mode) {
+        return PLATFORM.equals(mode) || POOL.equals(mode) || VIRTUAL.equals(mode);
+    }
+
+    /**
+     * Starts running an entity.
+     *
+     * @param entity The vendor or customer to run.
+     */
+    public synchronized void launch(SimulatedEntity entity) {
+        entityCount++;
+        if (scheduler != null) {
+            // A pool thread runs one turn and is released until the entity's next turn.
+            // Turns are kept at a fixed rate so a slow turn does not lower the offered load.
+            // The interval is read again for every turn, so a reloaded configuration applies.
+            turns.put(entity, CompletableFuture.completedFuture(null)); // Replaced by the first turn
+            scheduleTurn(entity, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(entity.getInterval()));
+            return;
+        }
+        Thread thread = VIRTUAL.equals(mode)
+                ? VirtualThreads.newThread(entity, entity.getName())
+                : new Thread(entity, entity.getName());
+        threads.put(entity, thread);
+        thread.start();
+    }
+
+    /**
+     * Stops one entity. A vendor blocked on a full pool is interrupted and gives up its release.
+     * With platform or virtual threads, this waits until the entity's thread has ended.
+     *
+     * @param entity An entity started with {@link #launch}.
+     * @return false if the entity was not running.
+     */
+    public boolean retire(SimulatedEntity entity) {
+        Thread thread;
+        synchronized (this) {
+            if (scheduler != null) {
+                Future<?> turn = turns.remove(entity); // Its next turn is no longer scheduled
+                if (turn == null) {
+                    return false;
+                }
+                turn.cancel(true);
+                entityCount--;
+                return true;
+            }
+            thread = threads.remove(entity);
+            if (thread == null) {
+                return false;
+            }
+            entityCount--;
+        }
+        thread.interrupt();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupted while waiting for " + entity.getName() + " to stop.");
+        }
+        return true;
+    }
+
+    /**
+     * Stops all entities by interrupting them and waiting for completion.
+     */
+    public void stop() {
+        System.out.println("Stopping " + entityCount + " entities (" + mode + " mode)...");
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            try {
+                if (!scheduler.awaitTermination(10, TimeUnit.SECONDS)) {
+                    System.err.println("Scheduler did not terminate in time.");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                System.err.println("Interrupted while waiting for the scheduler to terminate.");
+            }
+        }
+        turns.clear();
+        for (Thread thread : threads.values()) {
+            thread.interrupt();
+        }
+        for (Thread thread : threads.values()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                System.err.println(thread.getName() + " thread interrupted during join.");
+            }
+        }
+        threads.clear();
+        entityCount = 0;
+        Logger.flush(); // Print the entities' last messages before continuing
+        System.out.println("All entities stopped.");
+    }
+
+    /**
+     * Retrieves the execution mode actually in use (after any fallback).
+     *
+     * @return Execution mode name.
+     */
+    public String getMode() {
+        return mode;
+    }
+
+    /**
+     * Retrieves the number of running entities.
+     *
+     * @return Entity count.
+     */
+    public int getEntityCount() {
+        return entityCount;
+    }
+
+    /**
+     * Measures the heap currently in use after requesting a garbage collection.
+     *
+     * @return Used heap in bytes.
+     */
+    public static long usedHeapBytes() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Prints how much heap the running entities occupy and how many of them
+     * one gigabyte of heap would sustain in the current mode.
+     *
+     * @param heapBefore Used heap measured before the entities were launched.
+     */
+    public void reportHeapFootprint(long heapBefore) {
+        long delta = Math.max(usedHeapBytes() - heapBefore, 1);
+        long perEntity = Math.max(delta / Math.max(entityCount, 1), 1);
+        System.out.println("Heap footprint (" + mode + " mode): " + (delta / 1024) + " KB for " + entityCount
+                + " entities, ~" + perEntity + " bytes each, ~" + ((1L << 30) / perEntity) + " entities per GB of heap.");
+    }
+
+    /**
+     * Schedules the entity's turn at the given time and, from it, the turn after. Turns keep
+     * their fixed times while the entity keeps up; a late turn runs at once, and the turns it
+     * missed are dropped rather than piled onto the pool after a stall.
+     */
+    private void scheduleTurn(SimulatedEntity entity, long turnNanos) {
+        try {
+            Future<?> turn = scheduler.schedule(() -> {
+                runTurn(entity);
+                if (turns.containsKey(entity)) { // Not retired meanwhile
+                    long interval = TimeUnit.MILLISECONDS.toNanos(entity.getInterval());
+                    scheduleTurn(entity, Math.max(turnNanos + interval, System.nanoTime()));
+                }
+            }, turnNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (turns.replace(entity, turn) == null) {
+                turn.cancel(false); // Retired while this turn was being scheduled
+            }
+        } catch (RejectedExecutionException e) {
+            // The executor is stopping
+        }
+    }
+
+    private static void runTurn(SimulatedEntity entity) {
+        try {
+            entity.runTurn();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
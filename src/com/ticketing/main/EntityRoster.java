@@ -0,0 +1,151 @@
+package com.ticketing.main;
+
+import com.ticketing.catalog.EventCatalog;
+import com.ticketing.consumer.Customer;
+import com.ticketing.model.SimulatedEntity;
+import com.ticketing.model.TicketPool;
+import com.ticketing.producer.Vendor;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.IntSupplier;
+
+/**
+ * The vendors and customers of a running simulation. Counts can be raised or lowered at any
+ * time: new entities are numbered after the running ones (Vendor-6, Vendor-7, ...) and the
+ * newest are retired first, so the names in use always run from 1 to the count.
+ */
+public class EntityRoster {
+    public static final String COMMAND_HELP = "Enter 'vendors <n>' or 'customers <n>' to change the counts, 2 to stop.";
+
+    private final EntityExecutor executor;
+    private final TicketPool ticketPool; // null when selling events
+    private final EventCatalog catalog;  // null with a single pool
+    private final IntSupplier releaseInterval;
+    private final IntSupplier retrievalInterval;
+    private final Deque<SimulatedEntity> vendors = new ArrayDeque<>();
+    private final Deque<SimulatedEntity> customers = new ArrayDeque<>();
+    private boolean started;
+
+    /**
+     * Initializes an empty roster.
+     *
+     * @param executor          Runs the entities.
+     * @param ticketPool        The single pool, or null when selling events.
+     * @param catalog           The events on sale, or null with a single pool.
+     * @param releaseInterval   Supplies the vendors' interval between releases, in milliseconds.
+     * @param retrievalInterval Supplies the customers' interval between purchases, in milliseconds.
+     */
+    public EntityRoster(EntityExecutor executor, TicketPool ticketPool, EventCatalog catalog,
+                        IntSupplier releaseInterval, IntSupplier retrievalInterval) {
+        this.executor = executor;
+        this.ticketPool = ticketPool;
+        this.catalog = catalog;
+        this.releaseInterval = releaseInterval;
+        this.retrievalInterval = retrievalInterval;
+    }
+
+    /**
+     * Launches the first vendors and customers.
+     *
+     * @param vendorCount   Number of vendors to start.
+     * @param customerCount Number of customers to start.
+     */
+    public synchronized void start(int vendorCount, int customerCount) {
+        started = true;
+        scaleVendors(vendorCount);
+        scaleCustomers(customerCount);
+    }
+
+    /**
+     * Moves a started roster to new counts, as read from a reloaded config file. Before
+     * {@link #start} this does nothing; the counts then apply when the simulation starts.
+     *
+     * @param vendorCount   Number of vendors wanted.
+     * @param customerCount Number of customers wanted.
+     */
+    public synchronized void resize(int vendorCount, int customerCount) {
+        if (!started || vendorCount == vendors.size() && customerCount == customers.size()) {
+            return;
+        }
+        scaleVendors(vendorCount);
+        scaleCustomers(customerCount);
+        System.out.println("Now running " + vendors.size() + " Vendors and " + customers.size() + " Customers.");
+    }
+
+    /**
+     * Starts or retires vendors until the given number are running.
+     *
+     * @param count Number of vendors wanted, at least 0.
+     */
+    public synchronized void scaleVendors(int count) {
+        while (vendors.size() < count) {
+            String name = "Vendor-" + (vendors.size() + 1);
+            SimulatedEntity vendor = catalog != null
+                    ? new Vendor(catalog, releaseInterval, name)
+                    : new Vendor(ticketPool, releaseInterval, name);
+            vendors.push(vendor);
+            executor.launch(vendor);
+        }
+        while (vendors.size() > count) {
+            executor.retire(vendors.pop());
+        }
+    }
+
+    /**
+     * Starts or retires customers until the given number are running.
+     *
+     * @param count Number of customers wanted, at least 0.
+     */
+    public synchronized void scaleCustomers(int count) {
+        while (customers.size() < count) {
+            String name = "Customer-" + (customers.size() + 1);
+            SimulatedEntity customer = catalog != null
+                    ? new Customer(catalog, retrievalInterval, name)
+                    : new Customer(ticketPool, retrievalInterval, name);
+            customers.push(customer);
+            executor.launch(customer);
+        }
+        while (customers.size() > count) {
+            executor.retire(customers.pop());
+        }
+    }
+
+    /**
+     * Applies a console command of the form "vendors &lt;n&gt;" or "customers &lt;n&gt;".
+     *
+     * @param command The line entered.
+     * @return false if the line is not such a command.
+     */
+    public boolean handleCommand(String command) {
+        String[] words = command.trim().split("\\s+");
+        if (words.length != 2 || !(words[0].equals("vendors") || words[0].equals("customers"))) {
+            return false;
+        }
+        int count;
+        try {
+            count = Integer.parseInt(words[1]);
+        } catch (NumberFormatException e) {
+            count = -1;
+        }
+        if (count < 0) {
+            System.out.println("Invalid count: " + words[1] + ". Enter a number of 0 or more.");
+            return true;
+        }
+        if (words[0].equals("vendors")) {
+            scaleVendors(count);
+        } else {
+            scaleCustomers(count);
+        }
+        System.out.println("Now running " + getVendorCount() + " Vendors and " + getCustomerCount() + " Customers.");
+        return true;
+    }
+
+    public synchronized int getVendorCount() {
+        return vendors.size();
+    }
+
+    public synchronized int getCustomerCount() {
+        return customers.size();
+    }
+}
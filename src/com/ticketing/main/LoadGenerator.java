@@ -0,0 +1,335 @@
+package com.ticketing.main;
+
+import com.ticketing.catalog.CatalogEvent;
+import com.ticketing.catalog.EventCatalog;
+import com.ticketing.config.Configuration;
+import com.ticketing.journal.TransactionLogFactory;
+import com.ticketing.logging.Logger;
+import com.ticketing.metrics.ContentionProfiler;
+import com.ticketing.metrics.LatencyHistogram;
+import com.ticketing.metrics.MetricsReporter;
+import com.ticketing.metrics.PoolMetrics;
+import com.ticketing.metrics.StartupTimer;
+import com.ticketing.model.TicketPool;
+import com.ticketing.model.TicketPoolFactory;
+import com.ticketing.model.TransactionLog;
+import com.ticketing.workload.ArrivalProfile;
+import com.ticketing.workload.ArrivalSchedule;
+import com.ticketing.workload.OpenLoopScheduler;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives a ticket pool with vendor and customer threads without the interactive menu
+ * and measures throughput and per-call latency.
+ * Workers either call the pool back to back (closed loop) or follow an open-loop arrival
+ * schedule, in which case latency is measured from each operation's intended start time so
+ * that time spent queued behind a slow call is not hidden (coordinated omission).
+ * Each worker records into its own histogram; they are merged once the run has stopped.
+ * With {@code --events}, every operation goes to an event picked by popularity, and purchases
+ * on the most popular event are also timed separately to show whether it slows the others down.
+ */
+public class LoadGenerator {
+    private final LoadOptions options;
+    private volatile boolean running = true;
+    private volatile boolean measuring = false;
+
+    /**
+     * Initializes a LoadGenerator object.
+     *
+     * @param options Settings of the run.
+     */
+    public LoadGenerator(LoadOptions options) {
+        this.options = options;
+    }
+
+    /**
+     * Runs the warmup and the measured phase, then stops all workers.
+     *
+     * @return The measured results.
+     */
+    public LoadReport run() {
+        Configuration config = options.getBaseConfiguration();
+        Logger.configure(options.getLogLevel(), config.getLogRateLimit(), config.getLogQueueCapacity());
+
+        TransactionLog transactionLog = TransactionLogFactory.create(config);
+        ContentionProfiler profiler = options.isContentionProfiling() ? ContentionProfiler.start() : null; // Before the pools
+        EventCatalog catalog = null;
+        TicketPool ticketPool = null;
+        if (options.getEventCount() > 0) {
+            catalog = EventCatalog.create(EventCatalog.withGeneratedEvents(config.getEvents(), options.getEventCount(),
+                            options.getInitialTickets(), options.getMaxCapacity(), options.getPoolType()),
+                    options.getPopularity(), config.getShardCount(), transactionLog);
+        } else {
+            ticketPool = TicketPoolFactory.coalesce(
+                    TicketPoolFactory.create(options.getPoolType(), options.getInitialTickets(),
+                            options.getMaxCapacity(), config.getShardCount(), transactionLog),
+                    options.getBatchSize(), options.getLingerMicros());
+        }
+        CatalogEvent hottest = catalog == null ? null : mostPopular(catalog);
+        if (ticketPool != null) {
+            PoolMetrics.registerGauge("pool.tickets", ticketPool::getTotalTickets);
+        }
+        StartupTimer.mark("transaction log and pools");
+        MetricsReporter metricsReporter = options.getMetricsIntervalMs() > 0
+                ? MetricsReporter.start(options.getMetricsIntervalMs(), options.getMetricsFile())
+                : null;
+
+        // Open-loop arrival times start from the same instant for every worker
+        long runStart = System.nanoTime();
+        ArrivalSchedule[] vendorSchedules = createSchedules(options.getVendorRate(), options.getSeed(),
+                options.getVendorCount(), runStart);
+        ArrivalSchedule[] customerSchedules = createSchedules(options.getCustomerRate(), options.getSeed() + 1,
+                options.getCustomerCount(), runStart);
+
+        Worker[] workers = new Worker[options.getVendorCount() + options.getCustomerCount()];
+        for (int i = 0; i < options.getVendorCount(); i++) {
+            workers[i] = new Worker(ticketPool, catalog, hottest, true, "Vendor-" + (i + 1),
+                    options.getVendorIntervalMs(), vendorSchedules == null ? null : vendorSchedules[i],
+                    options.getSeed() + i);
+        }
+        for (int i = 0; i < options.getCustomerCount(); i++) {
+            workers[options.getVendorCount() + i] = new Worker(ticketPool, catalog, hottest, false,
+                    "Customer-" + (i + 1), options.getCustomerIntervalMs(),
+                    customerSchedules == null ? null : customerSchedules[i], options.getSeed() + options.getVendorCount() + i);
+        }
+
+        Thread[] threads = new Thread[workers.length];
+        for (int i = 0; i < workers.length; i++) {
+            threads[i] = new Thread(workers[i], workers[i].name);
+            threads[i].start();
+        }
+        StartupTimer.mark("workers started");
+        PoolMetrics.registerMBean(); // During the warmup; it takes longer than the rest of startup
+
+        System.out.println("Load run: " + (catalog != null ? catalog.size() + " events with " : "")
+                + options.getPoolType() + " pool" + (catalog != null ? "s" : "") + ", " + options.getVendorCount()
+                + " vendors, " + options.getCustomerCount() + " customers, " + describePacing()
+                + ", warmup " + options.getWarmupSeconds() + " s.");
+        long start;
+        long end;
+        try {
+            TimeUnit.SECONDS.sleep(options.getWarmupSeconds());
+            measuring = true;
+            if (profiler != null) {
+                profiler.restart();
+            }
+            start = System.nanoTime();
+            if (options.getOperationCount() > 0) {
+                awaitOperations(workers, options.getOperationCount());
+            } else {
+                TimeUnit.SECONDS.sleep(options.getDurationSeconds());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            start = System.nanoTime();
+        }
+        measuring = false;
+        end = System.nanoTime();
+        if (profiler != null) {
+            profiler.stop();
+        }
+
+        // Stop workers; vendors blocked on a full pool give up when interrupted
+        running = false;
+        for (Thread thread : threads) {
+            thread.interrupt();
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (ticketPool != null) {
+            TicketPoolFactory.close(ticketPool);
+        }
+        transactionLog.close();
+        if (metricsReporter != null) {
+            metricsReporter.close();
+        }
+        Logger.flush();
+
+        LatencyHistogram retrieveLatency = new LatencyHistogram();
+        LatencyHistogram addLatency = new LatencyHistogram();
+        LatencyHistogram hottestLatency = new LatencyHistogram();
+        LatencyHistogram otherLatency = new LatencyHistogram();
+        long purchaseAttempts = 0;
+        long purchaseSuccesses = 0;
+        long additions = 0;
+        for (Worker worker : workers) {
+            if (worker.vendor) {
+                addLatency.add(worker.latency);
+                additions += worker.operations;
+            } else {
+                retrieveLatency.add(worker.latency);
+                hottestLatency.add(worker.hottestLatency);
+                otherLatency.add(worker.otherLatency);
+                purchaseAttempts += worker.operations;
+                purchaseSuccesses += worker.successes;
+            }
+        }
+        LoadReport report = new LoadReport(options.getPoolType(), options.getVendorCount(), options.getCustomerCount(),
+                describePacing(), (end - start) / 1e9, purchaseAttempts, purchaseSuccesses, additions, retrieveLatency, addLatency);
+        if (catalog != null) {
+            report.setEventBreakdown(catalog.size(), catalog.getPopularity(), hottest.getEventId(),
+                    catalog.getDemandShare(hottest), hottestLatency, otherLatency);
+        }
+        if (profiler != null) {
+            report.setContentionProfile(profiler);
+        }
+        report.setStartup(StartupTimer.report(), StartupTimer.getTimeToFirstTransactionMillis(),
+                StartupTimer.getPhaseMillis());
+        return report;
+    }
+
+    /**
+     * Finds the event customers pick most often.
+     */
+    private static CatalogEvent mostPopular(EventCatalog catalog) {
+        CatalogEvent best = null;
+        for (CatalogEvent event : catalog.getEvents()) {
+            if (best == null || catalog.getDemandShare(event) > catalog.getDemandShare(best)) {
+                best = event;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Creates open-loop schedules for one group of workers.
+     *
+     * @return The schedules, or null if the group runs closed loop.
+     */
+    private ArrivalSchedule[] createSchedules(double rate, long seed, int workerCount, long runStart) {
+        if (rate <= 0 || workerCount == 0) {
+            return null;
+        }
+        ArrivalProfile profile = ArrivalProfile.parse(options.getProfileSpec(), rate);
+        return new OpenLoopScheduler(profile, seed).createSchedules(workerCount, runStart);
+    }
+
+    private String describePacing() {
+        String batching = options.getBatchSize() > 1
+                ? ", batches of up to " + options.getBatchSize() + " (linger " + options.getLingerMicros() + " us)"
+                : "";
+        if (options.getCustomerRate() <= 0 && options.getVendorRate() <= 0) {
+            return "closed loop" + batching;
+        }
+        StringBuilder pacing = new StringBuilder("open loop");
+        if (options.getCustomerRate() > 0) {
+            pacing.append(", customers ")
+                    .append(ArrivalProfile.parse(options.getProfileSpec(), options.getCustomerRate()).describe());
+        }
+        if (options.getVendorRate() > 0) {
+            pacing.append(", vendors ")
+                    .append(ArrivalProfile.parse(options.getProfileSpec(), options.getVendorRate()).describe());
+        }
+        return pacing.append(batching).toString();
+    }
+
+    /**
+     * Waits until the workers have completed the requested number of measured operations.
+     */
+    private static void awaitOperations(Worker[] workers, long target) throws InterruptedException {
+        while (true) {
+            long completed = 0;
+            for (Worker worker : workers) {
+                completed += worker.operations;
+            }
+            if (completed >= target) {
+                return;
+            }
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+    }
+
+    /**
+     * A vendor or customer loop that times each pool call.
+     */
+    private final class Worker implements Runnable {
+        private final TicketPool ticketPool; // null when operations go to the catalog
+        private final EventCatalog catalog;
+        private final CatalogEvent hottest;
+        private final SplittableRandom eventRandom; // Picks events
+        private final boolean vendor;
+        private final String name;
+        private final int interval;
+        private final ArrivalSchedule schedule; // null for closed loop
+        private final LatencyHistogram latency = new LatencyHistogram(); // Written only by this worker
+        private final LatencyHistogram hottestLatency = new LatencyHistogram(); // Purchases on the most popular event
+        private final LatencyHistogram otherLatency = new LatencyHistogram(); // Purchases on every other event
+        private volatile long operations; // Read by the coordinator for --ops runs
+        private long successes;
+
+        Worker(TicketPool ticketPool, EventCatalog catalog, CatalogEvent hottest, boolean vendor, String name,
+               int interval, ArrivalSchedule schedule, long seed) {
+            this.ticketPool = ticketPool;
+            this.catalog = catalog;
+            this.hottest = hottest;
+            this.eventRandom = new SplittableRandom(seed);
+            this.vendor = vendor;
+            this.name = name;
+            this.interval = interval;
+            this.schedule = schedule;
+        }
+
+        @Override
+        public void run() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (running) {
+                long begin;
+                if (schedule != null) {
+                    begin = schedule.next(); // Intended start, not the (possibly later) actual start
+                    try {
+                        ArrivalSchedule.awaitArrival(begin);
+                    } catch (InterruptedException e) {
+                        break;
+                    }
+                } else {
+                    begin = System.nanoTime();
+                }
+
+                boolean success;
+                CatalogEvent event = null;
+                if (catalog != null) {
+                    event = vendor ? catalog.pickForRelease(eventRandom) : catalog.pickForPurchase(eventRandom);
+                    success = vendor
+                            ? event.release(random.nextInt(10) + 1, name) // Skipped if the event is full
+                            : event.purchase(random.nextInt(5) + 1, name);
+                } else if (vendor) {
+                    ticketPool.addTickets(random.nextInt(10) + 1, name); // 1-10 tickets, as Vendor does
+                    success = !Thread.currentThread().isInterrupted();
+                } else {
+                    success = ticketPool.retrieveTickets(random.nextInt(5) + 1, name); // 1-5 tickets, as Customer does
+                }
+                long elapsed = System.nanoTime() - begin;
+
+                if (vendor && Thread.currentThread().isInterrupted()) {
+                    break; // Interrupted while waiting for capacity; the add did not happen
+                }
+                if (measuring) {
+                    latency.record(elapsed);
+                    if (event != null && !vendor) {
+                        (event == hottest ? hottestLatency : otherLatency).record(elapsed);
+                    }
+                    if (success) {
+                        successes++;
+                    }
+                    operations++;
+                }
+                if (schedule == null && interval > 0) {
+                    try {
+                        Thread.sleep(interval);
+                    } catch (InterruptedException e) {
+                        break;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package com.ticketing.main;
+
+import com.ticketing.catalog.PopularityDistribution;
+import com.ticketing.config.Configuration;
+import com.ticketing.logging.LogLevel;
+import com.ticketing.model.TicketPoolFactory;
+import com.ticketing.workload.ArrivalProfile;
+
+import java.io.File;
+
+/**
+ * Settings of a headless load run, parsed from command-line flags.
+ * Values not given on the command line come from the configuration file
+ * passed with {@code --config}, or from the built-in defaults.
+ */
+public class LoadOptions {
+    public static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: TicketingSystem --headless [options]",
+            "  --config <file>            Read base settings from a config.json-style file",
+            "  --pool <type>              blocking, atomic or sharded (a seated venue sells out, so it is not load tested)",
+            "  --initial <n>              Tickets in the pool at start",
+            "  --capacity <n>             Max ticket capacity",
+            "  --events <n>               Sell n events, each with its own pool of --initial/--capacity tickets",
+            "  --popularity <spec>        How workers pick events: zipf (default), zipf:<exponent> or uniform",
+            "  --vendors <n>              Number of vendor threads",
+            "  --customers <n>            Number of customer threads",
+            "  --vendor-interval <ms>     Pause between vendor releases (0 = none)",
+            "  --customer-interval <ms>   Pause between customer purchases (0 = none)",
+            "  --rate <n/s>               Open loop: customer purchases per second in total (latency from intended start)",
+            "  --vendor-rate <n/s>        Open loop: vendor releases per second in total",
+            "  --profile <spec>           poisson (default), burst:<peakRate>:<periodSec>:<lengthSec> or ramp:<endRate>:<sec>",
+            "  --seed <n>                 Seed for the open-loop arrival times",
+            "  --batch-size <n>           Coalesce concurrent requests into batches of up to n (1 = off)",
+            "  --linger-us <n>            Longest wait for a batch to fill, in microseconds",
+            "  --warmup <seconds>         Run without measuring first",
+            "  --duration <seconds>       Measured run length",
+            "  --ops <n>                  Stop after n measured operations instead of a fixed duration",
+            "  --report <file>            Machine-readable JSON report (default load-report.json)",
+            "  --metrics <ms>             Print a metrics line every ms milliseconds (0 = off)",
+            "  --metrics-file <file>      Append metrics as JSON lines to a file instead of printing them",
+            "  --contention               Profile lock waits, awaits and hold times per entity (slows calls down)",
+            "  --log-level <level>        debug, info, warn, error or off (default off)");
+
+    private Configuration baseConfiguration = new Configuration();
+    private String poolType;
+    private int initialTickets;
+    private int maxCapacity;
+    private int eventCount; // 0 means a single pool
+    private String popularity;
+    private int vendorCount;
+    private int customerCount;
+    private int vendorIntervalMs;
+    private int customerIntervalMs;
+    private double customerRate; // 0 means closed loop (back to back or interval pauses)
+    private double vendorRate;
+    private String profileSpec = "poisson";
+    private long seed = 42;
+    private int batchSize;
+    private int lingerMicros;
+    private int warmupSeconds = 2;
+    private int durationSeconds = 10;
+    private long operationCount; // 0 means run for the duration
+    private String reportFile = "load-report.json";
+    private int metricsIntervalMs;
+    private String metricsFile;
+    private boolean contentionProfiling;
+    private LogLevel logLevel = LogLevel.OFF;
+
+    /**
+     * Parses command-line flags.
+     *
+     * @param args Command-line arguments; "--headless" itself is ignored.
+     * @return The parsed options.
+     * @throws IllegalArgumentException If a flag is unknown or its value is invalid.
+     */
+    public static LoadOptions parse(String[] args) {
+        LoadOptions options = new LoadOptions();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--config")) {
+                String file = value(args, ++i, "--config");
+                if (!new File(file).isFile()) {
+                    throw new IllegalArgumentException("Config file not found: " + file);
+                }
+                options.baseConfiguration.loadConfiguration(file);
+            }
+        }
+        options.applyDefaults();
+        for (int i = 0; i < args.length; i++) {
+            String flag = args[i];
+            switch (flag) {
+                case "--headless":
+                    break;
+                case "--config":
+                    i++; // Already applied
+                    break;
+                case "--pool":
+                    options.poolType = value(args, ++i, flag);
+                    if (!TicketPoolFactory.isSupported(options.poolType)) {
+                        throw new IllegalArgumentException("Unknown pool type: " + options.poolType);
+                    }
+                    break;
+                case "--initial":
+                    options.initialTickets = number(args, ++i, flag, 0);
+                    break;
+                case "--capacity":
+                    options.maxCapacity = number(args, ++i, flag, 1);
+                    break;
+                case "--events":
+                    options.eventCount = number(args, ++i, flag, 0);
+                    break;
+                case "--popularity":
+                    options.popularity = value(args, ++i, flag);
+                    PopularityDistribution.weightsFor(options.popularity, 1); // Validate before starting
+                    break;
+                case "--vendors":
+                    options.vendorCount = number(args, ++i, flag, 0);
+                    break;
+                case "--customers":
+                    options.customerCount = number(args, ++i, flag, 0);
+                    break;
+                case "--vendor-interval":
+                    options.vendorIntervalMs = number(args, ++i, flag, 0);
+                    break;
+                case "--customer-interval":
+                    options.customerIntervalMs = number(args, ++i, flag, 0);
+                    break;
+                case "--rate":
+                    options.customerRate = rate(args, ++i, flag);
+                    break;
+                case "--vendor-rate":
+                    options.vendorRate = rate(args, ++i, flag);
+                    break;
+                case "--profile":
+                    options.profileSpec = value(args, ++i, flag);
+                    break;
+                case "--seed":
+                    try {
+                        options.seed = Long.parseLong(value(args, ++i, flag));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Invalid number for " + flag + ": " + args[i]);
+                    }
+                    break;
+                case "--batch-size":
+                    options.batchSize = number(args, ++i, flag, 1);
+                    break;
+                case "--linger-us":
+                    options.lingerMicros = number(args, ++i, flag, 0);
+                    break;
+                case "--warmup":
+                    options.warmupSeconds = number(args, ++i, flag, 0);
+                    break;
+                case "--duration":
+                    options.durationSeconds = number(args, ++i, flag, 1);
+                    break;
+                case "--ops":
+                    options.operationCount = longNumber(args, ++i, flag);
+                    break;
+                case "--report":
+                    options.reportFile = value(args, ++i, flag);
+                    break;
+                case "--metrics":
+                    options.metricsIntervalMs = number(args, ++i, flag, 0);
+                    break;
+                case "--metrics-file":
+                    options.metricsFile = value(args, ++i, flag);
+                    break;
+                case "--contention":
+                    options.contentionProfiling = true;
+                    break;
+                case "--log-level":
+                    options.logLevel = LogLevel.fromName(value(args, ++i, flag));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + flag);
+            }
+        }
+        if (options.initialTickets > options.maxCapacity) {
+            throw new IllegalArgumentException("Initial tickets must not exceed the capacity.");
+        }
+        if (TicketPoolFactory.SEATED.equals(options.poolType)) {
+            throw new IllegalArgumentException("The seated pool cannot be load tested: its seats are released once, "
+                    + "so the venue sells out and every later purchase fails. Run it in the simulation instead.");
+        }
+        if (options.vendorCount + options.customerCount == 0) {
+            throw new IllegalArgumentException("At least one vendor or customer is required.");
+        }
+        if (options.customerRate > 0) {
+            ArrivalProfile.parse(options.profileSpec, options.customerRate); // Validate before starting
+        }
+        if (options.vendorRate > 0) {
+            ArrivalProfile.parse(options.profileSpec, options.vendorRate);
+        }
+        return options;
+    }
+
+    /**
+     * Checks whether the arguments ask for a headless run.
+     *
+     * @param args Command-line arguments.
+     * @return true if "--headless" is present.
+     */
+    public static boolean isHeadless(String[] args) {
+        for (String arg : args) {
+            if (arg.equals("--headless")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void applyDefaults() {
+        Configuration config = baseConfiguration;
+        poolType = config.getPoolType();
+        initialTickets = config.getTotalTickets() > 0 ? config.getTotalTickets() : 1_000;
+        maxCapacity = config.getMaxTicketCapacity() > 0 ? config.getMaxTicketCapacity() : 10_000;
+        eventCount = config.isCatalogEnabled() ? config.getEventCount() : 0;
+        popularity = config.getEventPopularity();
+        vendorCount = config.getVendorCount();
+        customerCount = config.getCustomerCount();
+        vendorIntervalMs = config.getTicketReleaseRate(); // 0 unless a config file was given
+        customerIntervalMs = config.getCustomerRetrievalRate();
+        batchSize = config.getCoalesceBatchSize();
+        lingerMicros = config.getCoalesceLingerMicros();
+        metricsIntervalMs = config.getMetricsIntervalMs();
+        metricsFile = config.getMetricsFile();
+        contentionProfiling = config.isContentionProfiling();
+    }
+
+    private static String value(String[] args, int index, String flag) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + flag);
+        }
+        return args[index];
+    }
+
+    private static int number(String[] args, int index, String flag, int minValue) {
+        String text = value(args, index, flag);
+        try {
+            int number = Integer.parseInt(text);
+            if (number < minValue) {
+                throw new IllegalArgumentException(flag + " must be at least " + minValue);
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for " + flag + ": " + text);
+        }
+    }
+
+    private static double rate(String[] args, int index, String flag) {
+        String text = value(args, index, flag);
+        try {
+            double rate = Double.parseDouble(text);
+            if (!(rate > 0) || Double.isInfinite(rate)) {
+                throw new IllegalArgumentException(flag + " must be a positive rate");
+            }
+            return rate;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for " + flag + ": " + text);
+        }
+    }
+
+    private static long longNumber(String[] args, int index, String flag) {
+        String text = value(args, index, flag);
+        try {
+            long number = Long.parseLong(text);
+            if (number < 1) {
+                throw new IllegalArgumentException(flag + " must be at least 1");
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for " + flag + ": " + text);
+        }
+    }
+
+    // Getters for the load settings
+    public Configuration getBaseConfiguration() {
+        return baseConfiguration;
+    }
+
+    public String getPoolType() {
+        return poolType;
+    }
+
+    public int getInitialTickets() {
+        return initialTickets;
+    }
+
+    public int getMaxCapacity() {
+        return maxCapacity;
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    public String getPopularity() {
+        return popularity;
+    }
+
+    public int getVendorCount() {
+        return vendorCount;
+    }
+
+    public int getCustomerCount() {
+        return customerCount;
+    }
+
+    public int getVendorIntervalMs() {
+        return vendorIntervalMs;
+    }
+
+    public int getCustomerIntervalMs() {
+        return customerIntervalMs;
+    }
+
+    public double getCustomerRate() {
+        return customerRate;
+    }
+
+    public double getVendorRate() {
+        return vendorRate;
+    }
+
+    public String getProfileSpec() {
+        return profileSpec;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getLingerMicros() {
+        return lingerMicros;
+    }
+
+    public int getWarmupSeconds() {
+        return warmupSeconds;
+    }
+
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public long getOperationCount() {
+        return operationCount;
+    }
+
+    public String getReportFile() {
+        return reportFile;
+    }
+
+    public int getMetricsIntervalMs() {
+        return metricsIntervalMs;
+    }
+
+    public String getMetricsFile() {
+        return metricsFile;
+    }
+
+    public boolean isContentionProfiling() {
+        return contentionProfiling;
+    }
+
+    public LogLevel getLogLevel() {
+        return logLevel;
+    }
+}
@@ -0,0 +1,254 @@
+package com.ticketing.main;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.ticketing.metrics.ContentionProfiler;
+import com.ticketing.metrics.ContentionStats;
+import com.ticketing.metrics.LatencyHistogram;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of a headless load run: throughput, purchase success ratio and
+ * latency percentiles of {@code retrieveTickets} and {@code addTickets}.
+ */
+public class LoadReport {
+    private static final int CONTENTION_ROWS = 20; // Entity rows in the contention profile
+    private final String poolType;
+    private final int vendors;
+    private final int customers;
+    private final String pacing;
+    private final double elapsedSeconds;
+    private final long purchaseAttempts;
+    private final long purchaseSuccesses;
+    private final long additions;
+    private final LatencyHistogram retrieveLatency;
+    private final LatencyHistogram addLatency;
+    private int eventCount; // 0 unless the run sold several events
+    private String popularity;
+    private String hottestEvent;
+    private double hottestShare;
+    private LatencyHistogram hottestLatency;
+    private LatencyHistogram otherLatency;
+    private ContentionProfiler contentionProfile; // null unless the run was profiled
+    private String startupSummary; // null unless startup was measured
+    private double timeToFirstTransactionMillis;
+    private Map<String, Double> startupPhaseMillis;
+
+    /**
+     * Initializes a report from the measured counters.
+     *
+     * @param poolType          Pool implementation that was tested.
+     * @param vendors           Number of vendor threads.
+     * @param customers         Number of customer threads.
+     * @param pacing            How arrivals were issued ("closed loop" or the open-loop profiles).
+     * @param elapsedSeconds    Length of the measured interval.
+     * @param purchaseAttempts  Calls to retrieveTickets.
+     * @param purchaseSuccesses Calls to retrieveTickets that bought tickets.
+     * @param additions         Completed calls to addTickets.
+     * @param retrieveLatency   Latency of retrieveTickets in nanoseconds (from the intended start when open loop).
+     * @param addLatency        Latency of addTickets in nanoseconds, including time blocked at capacity.
+     */
+    public LoadReport(String poolType, int vendors, int customers, String pacing, double elapsedSeconds,
+                      long purchaseAttempts, long purchaseSuccesses, long additions,
+                      LatencyHistogram retrieveLatency, LatencyHistogram addLatency) {
+        this.poolType = poolType;
+        this.vendors = vendors;
+        this.customers = customers;
+        this.pacing = pacing;
+        this.elapsedSeconds = elapsedSeconds;
+        this.purchaseAttempts = purchaseAttempts;
+        this.purchaseSuccesses = purchaseSuccesses;
+        this.additions = additions;
+        this.retrieveLatency = retrieveLatency;
+        this.addLatency = addLatency;
+    }
+
+    /**
+     * Adds the split between the most popular event and the others to a multi-event run.
+     *
+     * @param eventCount     Number of events on sale.
+     * @param popularity     How events were picked.
+     * @param hottestEvent   Id of the most popular event.
+     * @param hottestShare   Share of purchases directed at it.
+     * @param hottestLatency Latency of purchases on the most popular event, in nanoseconds.
+     * @param otherLatency   Latency of purchases on every other event, in nanoseconds.
+     */
+    public void setEventBreakdown(int eventCount, String popularity, String hottestEvent, double hottestShare,
+                                  LatencyHistogram hottestLatency, LatencyHistogram otherLatency) {
+        this.eventCount = eventCount;
+        this.popularity = popularity;
+        this.hottestEvent = hottestEvent;
+        this.hottestShare = hottestShare;
+        this.hottestLatency = hottestLatency;
+        this.otherLatency = otherLatency;
+    }
+
+    public long getTotalOperations() {
+        return purchaseAttempts + additions;
+    }
+
+    public double getOperationsPerSecond() {
+        return elapsedSeconds > 0 ? getTotalOperations() / elapsedSeconds : 0;
+    }
+
+    public double getPurchaseSuccessRatio() {
+        return purchaseAttempts > 0 ? (double) purchaseSuccesses / purchaseAttempts : 0;
+    }
+
+    /**
+     * Adds the contention profile of the measured interval.
+     *
+     * @param profiler The stopped profiler.
+     */
+    public void setContentionProfile(ContentionProfiler profiler) {
+        this.contentionProfile = profiler;
+    }
+
+    /**
+     * Adds how long startup took.
+     *
+     * @param summary                      One-line summary for the text report.
+     * @param timeToFirstTransactionMillis Milliseconds from JVM start to the first transaction, or -1 if none.
+     * @param phaseMillis                  Length of each startup phase, in order.
+     */
+    public void setStartup(String summary, double timeToFirstTransactionMillis, Map<String, Double> phaseMillis) {
+        this.startupSummary = summary;
+        this.timeToFirstTransactionMillis = timeToFirstTransactionMillis;
+        this.startupPhaseMillis = phaseMillis;
+    }
+
+    /**
+     * Formats the report for the console.
+     *
+     * @return Multi-line text report.
+     */
+    public String toText() {
+        StringBuilder text = new StringBuilder();
+        text.append("Load Report (").append(poolType).append(" pool, ").append(vendors).append(" vendors, ")
+                .append(customers).append(" customers)\n");
+        text.append("Pacing: ").append(pacing).append('\n');
+        text.append(String.format("Measured: %.2f s, %d operations, %.0f ops/sec%n",
+                elapsedSeconds, getTotalOperations(), getOperationsPerSecond()));
+        text.append(String.format("Purchases: %d attempted, %d succeeded (%.1f%%)%n",
+                purchaseAttempts, purchaseSuccesses, getPurchaseSuccessRatio() * 100));
+        text.append(String.format("Additions: %d%n", additions));
+        if (startupSummary != null) {
+            text.append(startupSummary).append('\n');
+        }
+        appendLatency(text, "retrieveTickets", retrieveLatency);
+        appendLatency(text, "addTickets", addLatency);
+        if (eventCount > 0) {
+            text.append(String.format("Events: %d (%s), %s draws %.1f%% of purchases%n",
+                    eventCount, popularity, hottestEvent, hottestShare * 100));
+            appendLatency(text, "hottest event", hottestLatency);
+            appendLatency(text, "other events", otherLatency);
+        }
+        if (contentionProfile != null) {
+            text.append(contentionProfile.report(CONTENTION_ROWS));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Builds the machine-readable form of the report.
+     *
+     * @return JSON object with the same figures as {@link #toText()}; latencies in microseconds.
+     */
+    public JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        json.addProperty("poolType", poolType);
+        json.addProperty("vendors", vendors);
+        json.addProperty("customers", customers);
+        json.addProperty("pacing", pacing);
+        json.addProperty("elapsedSeconds", elapsedSeconds);
+        json.addProperty("totalOperations", getTotalOperations());
+        json.addProperty("operationsPerSecond", getOperationsPerSecond());
+        json.addProperty("purchaseAttempts", purchaseAttempts);
+        json.addProperty("purchaseSuccesses", purchaseSuccesses);
+        json.addProperty("purchaseSuccessRatio", getPurchaseSuccessRatio());
+        json.addProperty("additions", additions);
+        json.add("retrieveTicketsLatencyMicros", latencyJson(retrieveLatency));
+        json.add("addTicketsLatencyMicros", latencyJson(addLatency));
+        if (startupSummary != null) {
+            JsonObject startup = new JsonObject();
+            startup.addProperty("timeToFirstTransactionMs", timeToFirstTransactionMillis);
+            JsonObject phases = new JsonObject();
+            for (Map.Entry<String, Double> phase : startupPhaseMillis.entrySet()) {
+                phases.addProperty(phase.getKey(), phase.getValue());
+            }
+            startup.add("phasesMs", phases);
+            json.add("startup", startup);
+        }
+        if (eventCount > 0) {
+            JsonObject events = new JsonObject();
+            events.addProperty("count", eventCount);
+            events.addProperty("popularity", popularity);
+            events.addProperty("hottestEvent", hottestEvent);
+            events.addProperty("hottestShare", hottestShare);
+            events.add("hottestLatencyMicros", latencyJson(hottestLatency));
+            events.add("otherLatencyMicros", latencyJson(otherLatency));
+            json.add("events", events);
+        }
+        if (contentionProfile != null) {
+            JsonObject contention = new JsonObject();
+            contention.addProperty("elapsedSeconds", contentionProfile.getElapsedSeconds());
+            JsonArray operations = new JsonArray();
+            for (ContentionStats total : contentionProfile.getTotals().values()) {
+                operations.add(contentionJson(total));
+            }
+            contention.add("operations", operations);
+            JsonArray entities = new JsonArray();
+            List<ContentionStats> rows = contentionProfile.getStats();
+            for (int i = 0; i < rows.size() && i < CONTENTION_ROWS; i++) {
+                entities.add(contentionJson(rows.get(i)));
+            }
+            contention.add("entities", entities);
+            json.add("contention", contention);
+        }
+        return json;
+    }
+
+    /**
+     * Converts one row of the contention profile; times in milliseconds.
+     */
+    private static JsonObject contentionJson(ContentionStats stats) {
+        JsonObject json = new JsonObject();
+        json.addProperty("entity", stats.getEntityName());
+        json.addProperty("operation", stats.getOperation().toString());
+        json.addProperty("calls", stats.getCalls());
+        json.addProperty("lockWaitMs", stats.getLockWaitNanos() / 1e6);
+        json.addProperty("maxLockWaitMs", stats.getMaxLockWaitNanos() / 1e6);
+        json.addProperty("awaitMs", stats.getAwaitNanos() / 1e6);
+        json.addProperty("awaits", stats.getAwaits());
+        json.addProperty("futileWakeups", stats.getFutileWakeups());
+        json.addProperty("holdMs", stats.getHoldNanos() / 1e6);
+        json.addProperty("maxHoldMs", stats.getMaxHoldNanos() / 1e6);
+        json.addProperty("signals", stats.getSignals());
+        json.addProperty("emptySignals", stats.getEmptySignals());
+        json.addProperty("wokenWaiters", stats.getWokenWaiters());
+        return json;
+    }
+
+    private static void appendLatency(StringBuilder text, String name, LatencyHistogram latency) {
+        text.append(String.format("%-16s latency (us): p50 %.1f  p99 %.1f  p99.9 %.1f  max %.1f  (%d samples)%n",
+                name, micros(latency.percentile(50)), micros(latency.percentile(99)),
+                micros(latency.percentile(99.9)), micros(latency.getMax()), latency.getCount()));
+    }
+
+    private static JsonObject latencyJson(LatencyHistogram latency) {
+        JsonObject json = new JsonObject();
+        json.addProperty("samples", latency.getCount());
+        json.addProperty("mean", latency.getMean() / 1000.0);
+        json.addProperty("p50", micros(latency.percentile(50)));
+        json.addProperty("p99", micros(latency.percentile(99)));
+        json.addProperty("p999", micros(latency.percentile(99.9)));
+        json.addProperty("max", micros(latency.getMax()));
+        return json;
+    }
+
+    private static double micros(long nanos) {
+        return nanos / 1000.0;
+    }
+}
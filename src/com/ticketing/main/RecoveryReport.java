@@ -0,0 +1,114 @@
+package com.ticketing.main;
+
+import com.ticketing.journal.JournalFormat;
+import com.ticketing.journal.JournalRecovery;
+import com.ticketing.journal.MappedRecordWriter;
+import com.ticketing.journal.PoolSnapshot;
+import com.ticketing.model.ActionType;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Measures how long crash recovery takes for a large journal: once from the latest snapshot
+ * (the worst case just before the next snapshot is due) and once by replaying the whole journal.
+ * Run with {@code java -cp <classpath> com.ticketing.main.RecoveryReport [records] [snapshotEvery] [binary|json]}.
+ * The journal is written to a temporary file and deleted afterwards.
+ */
+public class RecoveryReport {
+
+    public static void main(String[] args) throws IOException {
+        long records = args.length > 0 ? Long.parseLong(args[0]) : 100_000_000L;
+        long snapshotEvery = args.length > 1 ? Long.parseLong(args[1]) : 1_000_000L;
+        JournalFormat format = args.length > 2 ? JournalFormat.fromName(args[2]) : JournalFormat.BINARY;
+        long initialTickets = 1_000;
+
+        Path journal = Files.createTempFile("recovery-report", ".journal");
+        Files.delete(journal);
+        Path snapshotFile = PoolSnapshot.fileFor(journal.toString());
+        try {
+            // The snapshot covers all but the last snapshotEvery - 1 records
+            long snapshotAt = Math.max(0, records - snapshotEvery + 1);
+            long start = System.nanoTime();
+            long[] totals = format == JournalFormat.BINARY
+                    ? writeBinary(journal, records, snapshotAt, initialTickets)
+                    : writeJson(journal, records, snapshotAt, initialTickets);
+            System.out.printf("Wrote %d %s records (%d MB) in %.1f s.%n", records, format.name().toLowerCase(),
+                    Files.size(journal) >> 20, (System.nanoTime() - start) / 1e9);
+            new PoolSnapshot(snapshotAt, totals[2], totals[0], System.currentTimeMillis()).write(snapshotFile);
+
+            JournalRecovery fromSnapshot = JournalRecovery.recover(journal.toString(), format, initialTickets);
+            report("from snapshot", fromSnapshot, totals[1]);
+
+            Files.delete(snapshotFile);
+            JournalRecovery fullReplay = JournalRecovery.recover(journal.toString(), format, initialTickets);
+            report("full replay", fullReplay, totals[1]);
+            System.out.println("(The journal was just written, so it is read from the page cache; a cold start also pays for disk reads.)");
+        } finally {
+            Files.deleteIfExists(journal);
+            Files.deleteIfExists(Path.of(journal + ".dict"));
+            Files.deleteIfExists(snapshotFile);
+        }
+    }
+
+    private static void report(String name, JournalRecovery recovery, long expectedTotal) {
+        System.out.printf("  %-14s %,13d records replayed in %9.1f ms (%.1f ns/record), total %d%s%n", name,
+                recovery.getReplayedRecords(), recovery.getElapsedNanos() / 1e6,
+                recovery.getReplayedRecords() == 0 ? 0 : (double) recovery.getElapsedNanos() / recovery.getReplayedRecords(),
+                recovery.getTotalTickets(), recovery.getTotalTickets() == expectedTotal ? "" : " MISMATCH, expected " + expectedTotal);
+    }
+
+    /**
+     * Writes a random mix of releases and purchases.
+     *
+     * @return The total at the snapshot position, the final total and the journal length at the snapshot (0 for binary).
+     */
+    private static long[] writeBinary(Path journal, long records, long snapshotAt, long initialTickets) throws IOException {
+        SplittableRandom random = new SplittableRandom(1);
+        long total = initialTickets;
+        long atSnapshot = initialTickets;
+        long now = System.currentTimeMillis();
+        try (MappedRecordWriter writer = new MappedRecordWriter(journal)) {
+            for (long i = 0; i < records; i++) {
+                if (i == snapshotAt) {
+                    atSnapshot = total;
+                }
+                boolean add = random.nextInt(4) == 0 || total < 5; // Never sell more than is on sale
+                int count = add ? random.nextInt(1, 11) : random.nextInt(1, 6);
+                total += add ? count : -count;
+                writer.append(add ? ActionType.ADD.getCode() : ActionType.RETRIEVE.getCode(),
+                        add ? "Vendor-1" : "Customer-1", count, (int) total, now);
+            }
+        }
+        return new long[]{snapshotAt == records ? total : atSnapshot, total, 0};
+    }
+
+    private static long[] writeJson(Path journal, long records, long snapshotAt, long initialTickets) throws IOException {
+        SplittableRandom random = new SplittableRandom(1);
+        long total = initialTickets;
+        long atSnapshot = initialTickets;
+        long bytes = 0;
+        long bytesAtSnapshot = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(journal, StandardCharsets.UTF_8)) {
+            for (long i = 0; i < records; i++) {
+                if (i == snapshotAt) {
+                    atSnapshot = total;
+                    bytesAtSnapshot = bytes;
+                }
+                boolean add = random.nextInt(4) == 0 || total < 5; // Never sell more than is on sale
+                int count = add ? random.nextInt(1, 11) : random.nextInt(1, 6);
+                total += add ? count : -count;
+                String line = "{\"actionType\":\"" + (add ? "ADD" : "RETRIEVE") + "\",\"entityName\":\""
+                        + (add ? "Vendor-1" : "Customer-1") + "\",\"ticketCount\":" + count
+                        + ",\"remainingTickets\":" + total + "}\n";
+                writer.write(line);
+                bytes += line.length(); // ASCII only
+            }
+        }
+        return new long[]{snapshotAt == records ? total : atSnapshot, total, snapshotAt == records ? bytes : bytesAtSnapshot};
+    }
+}
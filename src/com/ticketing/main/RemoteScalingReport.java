@@ -0,0 +1,166 @@
+package com.ticketing.main;
+
+import com.ticketing.logging.LogLevel;
+import com.ticketing.logging.Logger;
+import com.ticketing.metrics.ConcurrentHistogram;
+import com.ticketing.metrics.LatencyHistogram;
+import com.ticketing.model.InMemoryTransactionLog;
+import com.ticketing.model.TicketPool;
+import com.ticketing.model.TicketPoolFactory;
+import com.ticketing.remote.PoolServer;
+import com.ticketing.remote.RemoteTicketPool;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the throughput of a pool server as client processes are added: 1, 2, 4, ... client
+ * JVMs, each with a few threads that alternately buy and release one ticket as fast as the
+ * server answers. Prints operations per second, client-side latency and how many requests the
+ * server applied per batch, and checks that the server's ticket count matches what the clients
+ * bought and released.
+ * Run with {@code java -cp <classpath> com.ticketing.main.RemoteScalingReport [maxClients] [seconds] [threadsPerClient] [unix|tcp]}.
+ */
+public class RemoteScalingReport {
+    private static final int INITIAL_TICKETS = 100_000; // Enough that no purchase fails
+    private static final int MAX_CAPACITY = 1_000_000;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length > 0 && args[0].equals("--client")) {
+            runClient(args[1], Integer.parseInt(args[2]), Integer.parseInt(args[3]));
+            return;
+        }
+        int maxClients = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        boolean unix = args.length <= 3 || args[3].equals("unix");
+        Logger.configure(LogLevel.OFF, 0, 1024); // Silent mode, as used for benchmarks
+
+        Path socket = Files.createTempFile("pool-server", ".sock");
+        Files.delete(socket);
+        System.out.println("Remote scaling report: " + threads + " threads per client process, " + seconds + " s per step, "
+                + (unix ? "Unix-domain socket" : "TCP") + ", " + Runtime.getRuntime().availableProcessors() + " CPUs");
+        System.out.printf("  %7s %12s %10s %10s %12s %s%n", "clients", "ops/s", "p50 us", "p99 us", "reqs/batch",
+                "tickets");
+        try {
+            for (int clients = 1; clients <= maxClients; clients *= 2) {
+                run(clients, seconds, threads, unix ? "unix:" + socket : "localhost:0");
+            }
+        } finally {
+            Files.deleteIfExists(socket);
+        }
+    }
+
+    /**
+     * Serves a fresh pool to the given number of client processes and prints one line.
+     */
+    private static void run(int clients, int seconds, int threads, String addressSpec)
+            throws IOException, InterruptedException {
+        TicketPool pool = TicketPoolFactory.create(TicketPoolFactory.BLOCKING, INITIAL_TICKETS, MAX_CAPACITY, 1);
+        try (PoolServer server = PoolServer.start(addressSpec, pool)) {
+            String java = ProcessHandle.current().info().command().orElse("java");
+            List<Process> processes = new ArrayList<>();
+            List<BufferedReader> outputs = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                        RemoteScalingReport.class.getName(), "--client", server.getAddress(),
+                        String.valueOf(seconds), String.valueOf(threads))
+                        .redirectError(ProcessBuilder.Redirect.INHERIT).start();
+                processes.add(process);
+                outputs.add(new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8)));
+            }
+            // Start measuring once every client has connected, so JVM startup is not counted
+            for (BufferedReader output : outputs) {
+                if (!"READY".equals(output.readLine())) {
+                    System.err.println("A client process failed to start.");
+                    processes.forEach(Process::destroy);
+                    return;
+                }
+            }
+            long requestsBefore = server.getRequestCount();
+            long batchesBefore = server.getBatchCount();
+            for (Process process : processes) {
+                OutputStream input = process.getOutputStream();
+                input.write('\n');
+                input.flush();
+            }
+
+            long ops = 0;
+            long purchased = 0;
+            long added = 0;
+            double p50Sum = 0;
+            long p99Max = 0;
+            for (int i = 0; i < clients; i++) {
+                String[] result = outputs.get(i).readLine().split(" "); // RESULT ops purchased added p50 p99
+                ops += Long.parseLong(result[1]);
+                purchased += Long.parseLong(result[2]);
+                added += Long.parseLong(result[3]);
+                p50Sum += Long.parseLong(result[4]);
+                p99Max = Math.max(p99Max, Long.parseLong(result[5]));
+                processes.get(i).waitFor();
+            }
+            long requests = server.getRequestCount() - requestsBefore;
+            long batches = server.getBatchCount() - batchesBefore;
+            long expected = INITIAL_TICKETS + added - purchased;
+            System.out.printf("  %7d %12.0f %10.1f %10.1f %12.1f %s%n", clients, (double) ops / seconds,
+                    p50Sum / clients / 1e3, p99Max / 1e3, batches == 0 ? 0.0 : (double) requests / batches,
+                    pool.getTotalTickets() == expected ? "conserved" : "MISMATCH " + pool.getTotalTickets() + " != " + expected);
+        }
+    }
+
+    /**
+     * Client process: connects, waits for the go signal, runs the threads and prints its result.
+     */
+    private static void runClient(String address, int seconds, int threads) throws IOException, InterruptedException {
+        Logger.configure(LogLevel.OFF, 0, 1024);
+        try (RemoteTicketPool pool = RemoteTicketPool.connect(address, new InMemoryTransactionLog())) {
+            System.out.println("READY");
+            System.out.flush();
+            new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)).readLine();
+
+            ConcurrentHistogram latencies = new ConcurrentHistogram();
+            AtomicLong purchased = new AtomicLong();
+            AtomicLong added = new AtomicLong();
+            long stopAt = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+            List<Thread> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                String name = "Client-" + ProcessHandle.current().pid() + "-" + t;
+                workers.add(new Thread(() -> {
+                    long bought = 0;
+                    long released = 0;
+                    while (System.nanoTime() < stopAt) {
+                        long start = System.nanoTime();
+                        if (pool.retrieveTickets(1, name)) {
+                            bought++;
+                        }
+                        long middle = System.nanoTime();
+                        pool.addTickets(1, name);
+                        released++;
+                        latencies.record(middle - start);
+                        latencies.record(System.nanoTime() - middle);
+                    }
+                    purchased.addAndGet(bought);
+                    added.addAndGet(released);
+                }, name));
+            }
+            for (Thread worker : workers) {
+                worker.start();
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            LatencyHistogram latency = latencies.snapshot();
+            System.out.println("RESULT " + latency.getCount() + " " + purchased.get() + " " + added.get() + " "
+                    + latency.percentile(50) + " " + latency.percentile(99));
+        }
+    }
+}
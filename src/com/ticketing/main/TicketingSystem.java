@@ -1,47 +1,194 @@
 package com.ticketing.main;
 
+import com.ticketing.analytics.AnalyticsOptions;
+import com.ticketing.analytics.AnalyticsReport;
+import com.ticketing.analytics.TransactionAnalyzer;
+import com.ticketing.analytics.TransactionStats;
+import com.ticketing.catalog.EventCatalog;
+import com.ticketing.catalog.EventStats;
+import com.ticketing.config.ConfigWatcher;
 import com.ticketing.config.Configuration;
+import com.ticketing.history.HistoryOptions;
+import com.ticketing.history.HistoryStore;
+import com.ticketing.history.TieredTransactionLog;
+import com.ticketing.journal.JournalRecovery;
+import com.ticketing.journal.TransactionLogFactory;
+import com.ticketing.logging.LogLevel;
+import com.ticketing.logging.Logger;
+import com.ticketing.metrics.ContentionProfiler;
+import com.ticketing.metrics.MetricsReporter;
+import com.ticketing.metrics.PoolMetrics;
+import com.ticketing.metrics.StartupTimer;
 import com.ticketing.model.TicketPool;
-import com.ticketing.producer.Vendor;
-import com.ticketing.consumer.Customer;
+import com.ticketing.model.TicketPoolFactory;
+import com.ticketing.model.TicketRecord;
+import com.ticketing.model.TicketRecordSource;
+import com.ticketing.model.TransactionLog;
+import com.ticketing.producer.ReleaseRateController;
+import com.ticketing.remote.PoolServer;
+import com.ticketing.remote.RemoteTicketPool;
+import com.ticketing.replay.RecordedLog;
+import com.ticketing.replay.ReplayEngine;
+import com.ticketing.replay.ReplayOptions;
+import com.ticketing.replay.ReplayReport;
+import com.ticketing.replay.SeededWorkload;
 import com.ticketing.util.JSONFileWriter;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
 
 /**
  * Main class for the Real-Time Ticketing System.
  * Handles simulation setup, thread management, and persistence.
  */
 public class TicketingSystem {
+    private static final String HISTORY_HELP = "Enter 'history <name> [seconds]' to list a vendor's or customer's recent transactions.";
+    private static final int HISTORY_LINES = 20;
+    private static final DateTimeFormatter HISTORY_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
     public static void main(String[] args) {
+        StartupTimer.start();
+
+        // Headless load-generator mode: no prompts, report throughput and latency
+        if (LoadOptions.isHeadless(args)) {
+            runHeadless(args);
+            return;
+        }
+
+        // Analytics mode: aggregate a transaction log in parallel and exit
+        if (AnalyticsOptions.isAnalyze(args)) {
+            runAnalytics(args);
+            return;
+        }
+
+        // Replay mode: drive a pool with a recorded or generated log and check every outcome
+        if (ReplayOptions.isReplay(args)) {
+            runReplay(args);
+            return;
+        }
+
+        // History mode: query the spilled history of a finished run
+        if (HistoryOptions.isHistory(args)) {
+            runHistory(args);
+            return;
+        }
+
+        // Flags or environment variables given: start without prompts
+        BootOptions boot;
+        try {
+            boot = BootOptions.parse(args, System.getenv());
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(BootOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+
         // Initialize configuration
         Configuration config = new Configuration();
 
-        // Configure system: Ask whether to load existing configuration or enter a new one
-        config.configureSystem();  // This will ask the user and configure accordingly
+        if (boot.isFastBoot()) {
+            // Validate everything before any thread or file is touched, and refuse to start on any problem
+            if (!config.loadConfiguration(boot.getConfigFile(), boot.getOverrides()) || !config.getProblems().isEmpty()) {
+                System.err.println("Invalid configuration (" + config.getProblems().size() + " problem(s)). Not starting.");
+                System.exit(2);
+                return;
+            }
+            config.displayConfiguration();
+        } else {
+            // Configure system: Ask whether to load existing configuration or enter a new one
+            config.configureSystem();  // This will ask the user and configure accordingly
+        }
+        StartupTimer.mark("configuration");
 
-        // Initialize ticket pool
-        TicketPool ticketPool = new TicketPool(config.getTotalTickets(), config.getMaxTicketCapacity());
+        // Route simulation messages through the asynchronous, rate-limited logger
+        Logger.configure(config.getLogLevel(), config.getLogRateLimit(), config.getLogQueueCapacity());
 
-        // Thread lists for vendors and customers
-        List<Thread> vendorThreads = new ArrayList<>();
-        List<Thread> customerThreads = new ArrayList<>();
+        // Initialize the transaction log (in memory or journal) and the ticket pool, or one pool per event
+        // After a crash or restart, the latest snapshot plus the journal tail restore the ticket count
+        // The profiler must be running before the pools are created, as they look it up once
+        ContentionProfiler profiler = config.isContentionProfiling() ? ContentionProfiler.start() : null;
+        JournalRecovery recovery = TransactionLogFactory.recover(config);
+        TransactionLog transactionLog = TransactionLogFactory.create(config, recovery);
+        EventCatalog catalog = config.isCatalogEnabled() ? EventCatalog.create(config, transactionLog) : null;
+        // With a pool server configured, the tickets live in the server process and this one only runs entities
+        RemoteTicketPool remotePool = catalog == null && !config.getPoolServer().isEmpty() && boot.getServeAddress() == null
+                ? connectToPoolServer(config, transactionLog) : null;
+        TicketPool ticketPool = catalog == null && remotePool == null
+                ? TicketPoolFactory.create(config,
+                        recovery != null ? (int) recovery.getTotalTickets() : config.getTotalTickets(), transactionLog)
+                : remotePool;
 
-        Scanner scanner = new Scanner(System.in);
+        // Counters are always collected and readable over JMX; the periodic report is optional
+        // A fast boot registers the MBean after the first transaction, as it takes longer than everything else
+        if (ticketPool != null) {
+            PoolMetrics.registerGauge("pool.tickets", ticketPool::getTotalTickets);
+        }
+        if (!boot.isFastBoot()) {
+            PoolMetrics.registerMBean();
+        }
+        StartupTimer.mark("transaction log and pools");
+        MetricsReporter metricsReporter = null;
+
+        // Serve mode: other processes run the vendors and customers against this pool
+        if (boot.getServeAddress() != null) {
+            runServer(config, boot, ticketPool, transactionLog);
+            return;
+        }
+
+        // Rates are read through suppliers, so that a watched config file can change them while running
+        ConfigWatcher configWatcher = config.isConfigReload() ? startConfigWatcher(config, boot, ticketPool) : null;
+        IntSupplier releaseInterval = configWatcher != null
+                ? () -> configWatcher.current().getTicketReleaseRate() : config::getTicketReleaseRate;
+
+        // The controller replaces the configured release rate with one that holds the pool at the target fill
+        ReleaseRateController controller = null;
+        if (config.getTargetFillPercent() > 0 && ticketPool != null) {
+            controller = new ReleaseRateController(ticketPool, config.getTargetFillPercent(), config.getTicketReleaseRate());
+            releaseInterval = controller::getReleaseInterval;
+        }
+        IntSupplier retrievalInterval = configWatcher != null
+                ? () -> configWatcher.current().getCustomerRetrievalRate() : config::getCustomerRetrievalRate;
+
+        // Runs vendors and customers on platform threads, a fixed pool or virtual threads
+        EntityExecutor executor = new EntityExecutor(config.getExecutorMode(), config.getThreadPoolSize());
+        EntityRoster roster = new EntityRoster(executor, ticketPool, catalog, releaseInterval, retrievalInterval);
+        if (configWatcher != null) {
+            configWatcher.addListener(snapshot -> {
+                roster.resize(snapshot.getVendorCount(), snapshot.getCustomerCount());
+                return snapshot;
+            });
+        }
+
+        // A timed fast boot never reads the console; skipping the Scanner saves loading the regex classes
+        Scanner scanner = boot.getDurationSeconds() > 0 ? null : new Scanner(System.in);
         boolean simulationRunning = false;
 
         // Loop for the menu until the simulation is stopped
         while (true) {
-            if (!simulationRunning) {
+            if (!simulationRunning && !boot.isFastBoot()) {
                 // Only show this menu if the simulation is not running
                 System.out.println("1. Start Simulation");
                 System.out.println("2. Exit Simulation");
                 System.out.print("Enter your choice: ");
             }
 
-            String choice = scanner.nextLine();
+            String choice = nextChoice(boot, simulationRunning, scanner);
+            if (simulationRunning && (roster.handleCommand(choice) || handleHistoryCommand(choice, transactionLog))) {
+                continue;
+            }
 
             switch (choice) {
                 case "1":
@@ -50,42 +197,94 @@ public class TicketingSystem {
                         break;
                     }
 
-                    // Start vendor threads
-                    createThreads(vendorThreads, 5, i -> {
-                        String vendorName = "Vendor-" + i;
-                        Vendor vendor = new Vendor(ticketPool, config.getTicketReleaseRate(), vendorName);
-                        return new Thread(vendor);
-                    });
+                    // The heap footprint needs two full collections, which a fast boot skips
+                    long heapBefore = boot.isFastBoot() ? 0 : EntityExecutor.usedHeapBytes();
+                    if (profiler != null) {
+                        profiler.restart(); // Measure the simulation, not the time spent in the menu
+                    }
 
-                    // Start customer threads
-                    createThreads(customerThreads, 3, i -> {
-                        String customerName = "Customer-" + i;
-                        Customer customer = new Customer(ticketPool, config.getCustomerRetrievalRate(), customerName);
-                        return new Thread(customer);
-                    });
+                    // Start vendors and customers; their counts can change while running
+                    roster.start(config.getVendorCount(), config.getCustomerCount());
+                    if (controller != null) {
+                        controller.start(config.getControlIntervalMs());
+                    }
 
                     simulationRunning = true;
-                    System.out.println("Simulation started with 5 Vendors and 3 Customers.\n");
+                    System.out.println("Simulation started with " + config.getVendorCount() + " Vendors and "
+                            + config.getCustomerCount() + " Customers (" + executor.getMode() + " mode).\n");
+                    if (boot.isFastBoot()) {
+                        StartupTimer.mark("entities started");
+                        reportStartup(config, boot);
+                    } else {
+                        executor.reportHeapFootprint(heapBefore);
+                    }
+                    if (config.getMetricsIntervalMs() > 0) {
+                        metricsReporter = MetricsReporter.start(config.getMetricsIntervalMs(), config.getMetricsFile());
+                    }
+                    if (boot.getDurationSeconds() == 0) {
+                        System.out.println(EntityRoster.COMMAND_HELP);
+                        if (transactionLog instanceof TieredTransactionLog) {
+                            System.out.println(HISTORY_HELP);
+                        }
+                    }
                     break;
 
                 case "2":
+                    if (configWatcher != null) {
+                        configWatcher.close();
+                    }
                     if (!simulationRunning) {
                         System.out.println("No simulation is running. Exiting application.");
+                        if (remotePool != null) {
+                            remotePool.close();
+                        } else if (ticketPool != null) {
+                            TicketPoolFactory.close(ticketPool);
+                        }
+                        transactionLog.close();
                         return;
                     }
 
                     // Stop simulation
-                    stopThreads(vendorThreads, "Vendor");
-                    stopThreads(customerThreads, "Customer");
+                    if (controller != null) {
+                        controller.close();
+                    }
+                    executor.stop();
+
+                    if (profiler != null) {
+                        profiler.stop();
+                        System.out.print(profiler.report(20));
+                    }
+
+                    if (remotePool != null) {
+                        remotePool.close();
+                    } else if (ticketPool != null) {
+                        TicketPoolFactory.close(ticketPool); // Applies the requests still queued for a batch
+                    }
+
+                    // Flush any buffered transactions before exporting them
+                    transactionLog.close();
+                    if (transactionLog instanceof TieredTransactionLog) {
+                        HistoryStore store = ((TieredTransactionLog) transactionLog).getStore();
+                        System.out.println("Transaction history kept in " + store.getDirectory() + " ("
+                                + store.getSegmentCount() + " segments). Query it with --history " + store.getDirectory() + ".");
+                    }
+                    if (metricsReporter != null) {
+                        metricsReporter.close();
+                    }
+
+                    if (catalog != null) {
+                        System.out.println("Best-selling events:");
+                        for (EventStats stats : catalog.topEvents(10)) {
+                            System.out.println("  " + stats);
+                        }
+                    }
 
-                    // Write transactions to file (or any other data you need to save)
+                    // Stream transactions to file one record at a time
                     System.out.println("Saving transaction data...");
-                    try {
-                        // Assuming you want to save ticket transactions to a file
-                        JSONFileWriter.writeTicketRecordsToJSON(ticketPool.getTransactions(), "transactions.json");
-                        System.out.println("Transactions saved to transactions.json.");
-                    } catch (Exception e) {
-                        System.err.println("Failed to save transactions: " + e.getMessage());
+                    String exportFile = config.isExportGzip() ? "transactions.json.gz" : "transactions.json";
+                    if (JSONFileWriter.writeTicketRecordsStreaming(transactionLog, exportFile,
+                            config.isExportCompact(), config.isExportGzip()) >= 0) {
+                        System.out.println("Transactions saved to " + exportFile + ".");
                     }
 
                     simulationRunning = false;
@@ -98,48 +297,336 @@ public class TicketingSystem {
     }
 
     /**
-     * Creates and starts threads for entities (e.g., vendors and customers).
-     *
-     * @param threads  List to store threads.
-     * @param count    Number of threads to create.
-     * @param factory  Function to generate threads.
+     * Connects to the configured pool server, or exits if it cannot be reached.
+     */
+    private static RemoteTicketPool connectToPoolServer(Configuration config, TransactionLog transactionLog) {
+        try {
+            RemoteTicketPool pool = RemoteTicketPool.connect(config.getPoolServer(), transactionLog);
+            pool.setFailureRecording(config.isRecordFailedPurchases());
+            System.out.println("Connected to the pool server at " + pool.getAddress() + ".");
+            return pool;
+        } catch (IOException e) {
+            System.err.println("Failed to connect to the pool server at " + config.getPoolServer() + ": " + e.getMessage());
+            System.exit(1);
+            return null;
+        }
+    }
+
+    /**
+     * Serves the ticket pool to other processes until the duration passes or '2' is entered, then
+     * saves the transactions of every client, as the server applied them all.
      */
-    private static void createThreads(List<Thread> threads, int count, ThreadFactory factory) {
-        for (int i = 1; i <= count; i++) {
-            Thread thread = factory.createThread(i);
-            threads.add(thread);
-            thread.start();
+    private static void runServer(Configuration config, BootOptions boot, TicketPool ticketPool,
+                                  TransactionLog transactionLog) {
+        if (ticketPool == null) {
+            System.err.println("A pool server serves a single pool. Set eventCount to 0 to serve one.");
+            transactionLog.close();
+            System.exit(2);
+            return;
+        }
+        PoolServer server;
+        try {
+            server = PoolServer.start(boot.getServeAddress(), ticketPool);
+        } catch (IOException e) {
+            System.err.println("Failed to serve the ticket pool on " + boot.getServeAddress() + ": " + e.getMessage());
+            transactionLog.close();
+            System.exit(1);
+            return;
+        }
+        PoolMetrics.registerGauge("server.connections", server::getConnectionCount);
+        PoolMetrics.registerMBean();
+        MetricsReporter metricsReporter = config.getMetricsIntervalMs() > 0
+                ? MetricsReporter.start(config.getMetricsIntervalMs(), config.getMetricsFile()) : null;
+        System.out.println("Serving the ticket pool on " + server.getAddress() + ". Clients set poolServer to this address.");
+
+        Scanner scanner = boot.getDurationSeconds() > 0 ? null : new Scanner(System.in);
+        if (scanner != null) {
+            System.out.println("Enter 2 to stop the server.");
+        }
+        while (!"2".equals(nextChoice(boot, true, scanner))) {
+            System.out.println("Enter 2 to stop the server.");
+        }
+
+        server.close();
+        TicketPoolFactory.close(ticketPool);
+        transactionLog.close();
+        if (metricsReporter != null) {
+            metricsReporter.close();
+        }
+        long requests = server.getRequestCount();
+        long batches = server.getBatchCount();
+        System.out.printf("Served %d requests in %d batches (%.1f per batch). Tickets left: %d%n", requests, batches,
+                batches == 0 ? 0.0 : (double) requests / batches, ticketPool.getTotalTickets());
+
+        System.out.println("Saving transaction data...");
+        String exportFile = config.isExportGzip() ? "transactions.json.gz" : "transactions.json";
+        if (JSONFileWriter.writeTicketRecordsStreaming(transactionLog, exportFile,
+                config.isExportCompact(), config.isExportGzip()) >= 0) {
+            System.out.println("Transactions saved to " + exportFile + ".");
         }
     }
 
     /**
-     * Stops threads by interrupting them and waiting for completion.
+     * Watches the file the configuration came from (config.json after the prompts) and applies
+     * a changed capacity to the pool. With an event catalog, each event keeps its own capacity.
      *
-     * @param threads List of threads to stop.
-     * @param entity  Entity type (Vendor or Customer) for messages.
+     * @return The running watcher, or null if there is no file to watch.
      */
-    private static void stopThreads(List<Thread> threads, String entity) {
-        System.out.println("Stopping " + entity + " threads...");
-        for (Thread thread : threads) {
-            thread.interrupt();
+    private static ConfigWatcher startConfigWatcher(Configuration config, BootOptions boot, TicketPool ticketPool) {
+        String file = boot.isFastBoot() ? boot.getConfigFile() : "config.json";
+        if (file == null) {
+            System.out.println("Config reload needs a config file; settings given with --set only are not watched.");
+            return null;
+        }
+        ConfigWatcher watcher = ConfigWatcher.start(file, boot.isFastBoot() ? boot.getOverrides() : List.of(), config);
+        if (watcher != null) {
+            watcher.addListener(snapshot -> {
+                if (ticketPool == null) {
+                    if (snapshot.getMaxTicketCapacity() != config.getMaxTicketCapacity()) {
+                        System.out.println("Events keep their own max capacity; the new one applies after a restart.");
+                    }
+                    return snapshot.withMaxTicketCapacity(config.getMaxTicketCapacity());
+                }
+                if (snapshot.getMaxTicketCapacity() != ticketPool.getMaxCapacity()) {
+                    try {
+                        ticketPool.setMaxCapacity(snapshot.getMaxTicketCapacity());
+                    } catch (UnsupportedOperationException e) {
+                        System.err.println(e.getMessage() + " Keeping the max capacity at " + ticketPool.getMaxCapacity() + ".");
+                    }
+                }
+                return snapshot.withMaxTicketCapacity(ticketPool.getMaxCapacity());
+            });
         }
-        for (Thread thread : threads) {
+        return watcher;
+    }
+
+    /**
+     * Reads the next menu choice. A fast boot starts the simulation without asking and, if a
+     * duration was given, stops it after that time instead of reading the console.
+     */
+    private static String nextChoice(BootOptions boot, boolean simulationRunning, Scanner scanner) {
+        if (boot.isFastBoot() && !simulationRunning) {
+            return "1";
+        }
+        if (boot.getDurationSeconds() > 0) {
             try {
-                thread.join();
+                TimeUnit.SECONDS.sleep(boot.getDurationSeconds());
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
-                System.err.println(entity + " thread interrupted during join.");
             }
+            return "2";
         }
-        threads.clear();
-        System.out.println(entity + " threads stopped.");
+        return scanner.nextLine();
     }
 
     /**
-     * Functional interface for creating threads.
+     * Waits for the first ticket to be added or sold, prints how long startup took, and then
+     * registers the metrics MBean that a fast boot skipped.
      */
-    @FunctionalInterface
-    private interface ThreadFactory {
-        Thread createThread(int index);
+    private static void reportStartup(Configuration config, BootOptions boot) {
+        // The first turns come one release or retrieval interval after the entities start
+        long timeout = Math.max(config.getTicketReleaseRate(), config.getCustomerRetrievalRate()) + 1_000L;
+        if (boot.getDurationSeconds() > 0) {
+            timeout = Math.min(timeout, TimeUnit.SECONDS.toMillis(boot.getDurationSeconds()));
+        }
+        try {
+            StartupTimer.awaitFirstTransaction(timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        System.out.println(StartupTimer.report());
+        PoolMetrics.registerMBean();
+    }
+
+    /**
+     * Runs a load test from command-line flags and writes the text and JSON reports.
+     *
+     * @param args Command-line arguments including "--headless".
+     */
+    private static void runHeadless(String[] args) {
+        LoadOptions options;
+        try {
+            options = LoadOptions.parse(args);
+            StartupTimer.mark("configuration");
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LoadOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        LoadReport report = new LoadGenerator(options).run();
+        System.out.println(report.toText());
+        JSONFileWriter.writeReportToJSON(report.toJson(), options.getReportFile());
+    }
+
+    /**
+     * Analyzes a transaction log on a fork/join pool and writes the text and JSON reports.
+     *
+     * @param args Command-line arguments including "--analyze".
+     */
+    private static void runAnalytics(String[] args) {
+        AnalyticsOptions options;
+        try {
+            options = AnalyticsOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(AnalyticsOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        Path file = Paths.get(options.getLogFile());
+        ForkJoinPool pool = new ForkJoinPool(options.getThreads());
+        try {
+            TransactionAnalyzer.LogFormat format = TransactionAnalyzer.detectFormat(file);
+            long start = System.nanoTime();
+            TransactionStats stats = TransactionAnalyzer.analyze(file, format, options.getBucketMillis(), pool);
+            double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+            AnalyticsReport report = new AnalyticsReport(options.getLogFile(), format, Files.size(file),
+                    options.getThreads(), elapsedSeconds, stats);
+            System.out.println(report.toText(options.getTopEntities()));
+            JSONFileWriter.writeReportToJSON(report.toJson(), options.getReportFile());
+        } catch (IOException e) {
+            System.err.println("Failed to analyze " + options.getLogFile() + ": " + e.getMessage());
+            System.exit(1);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Applies a console command of the form "history &lt;name&gt; [seconds]" by querying the
+     * tiered history, which reads the disk and the unspilled records without stopping the pools.
+     *
+     * @return false if the line is not such a command or the history is kept in another log.
+     */
+    private static boolean handleHistoryCommand(String command, TransactionLog transactionLog) {
+        String[] words = command.trim().split("\\s+");
+        if (!(transactionLog instanceof TieredTransactionLog) || words.length < 2 || words.length > 3
+                || !words[0].equals("history")) {
+            return false;
+        }
+        int seconds;
+        try {
+            seconds = words.length == 3 ? Integer.parseInt(words[2]) : 10;
+        } catch (NumberFormatException e) {
+            seconds = -1;
+        }
+        if (seconds < 1) {
+            System.out.println("Invalid number of seconds: " + words[2] + ". Enter a number of 1 or more.");
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        Deque<TicketRecord> last = new ArrayDeque<>();
+        long[] matched = new long[1];
+        long start = System.nanoTime();
+        try {
+            ((TieredTransactionLog) transactionLog).query(words[1], now - seconds * 1000L, now, record -> {
+                matched[0]++;
+                last.addLast(record);
+                if (last.size() > HISTORY_LINES) {
+                    last.removeFirst();
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("Failed to query the transaction history: " + e.getMessage());
+            return true;
+        }
+        System.out.printf("%d transactions of %s in the last %d s (query took %.1f ms)%s%n", matched[0], words[1],
+                seconds, (System.nanoTime() - start) / 1e6, matched[0] > last.size() ? ", the last " + last.size() + ":" : ":");
+        for (TicketRecord record : last) {
+            System.out.println("  " + formatHistoryTime(record.getTimestamp()) + "  " + record);
+        }
+        return true;
+    }
+
+    private static String formatHistoryTime(long millis) {
+        return HISTORY_TIME.format(Instant.ofEpochMilli(millis).atZone(ZoneId.systemDefault()));
+    }
+
+    /**
+     * Queries the spilled history of a finished run and prints the matching records.
+     *
+     * @param args Command-line arguments including "--history".
+     */
+    private static void runHistory(String[] args) {
+        HistoryOptions options;
+        try {
+            options = HistoryOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(HistoryOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+        try {
+            HistoryStore store = HistoryStore.open(Paths.get(options.getDirectory()));
+            System.out.printf("History in %s: %d records in %d segments, %.1f MB%n", options.getDirectory(),
+                    store.getSealedEndSequence() - 1, store.getSegmentCount(), store.getDiskBytes() / 1e6);
+            long[] matched = new long[1];
+            long start = System.nanoTime();
+            store.query(options.getEntityName(), options.getFromMillis(), options.getToMillis(), 1, Long.MAX_VALUE,
+                    record -> {
+                        if (matched[0]++ < options.getLimit()) {
+                            System.out.println("  " + formatHistoryTime(record.getTimestamp()) + "  " + record);
+                        }
+                    });
+            System.out.printf("Matched %d records in %.1f ms%s%n", matched[0], (System.nanoTime() - start) / 1e6,
+                    matched[0] > options.getLimit() ? " (first " + options.getLimit() + " shown)" : "");
+        } catch (IOException e) {
+            System.err.println("Failed to query " + options.getDirectory() + ": " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Replays a recorded or generated log against a fresh pool and writes the text and JSON reports.
+     * Exits with status 1 if the pool did not reproduce the log.
+     *
+     * @param args Command-line arguments including "--replay".
+     */
+    private static void runReplay(String[] args) {
+        ReplayOptions options;
+        TicketRecordSource source;
+        String input;
+        try {
+            options = ReplayOptions.parse(args);
+            if (options.isSeeded()) {
+                SeededWorkload workload = options.toWorkload();
+                source = workload;
+                input = workload.describe();
+            } else {
+                input = options.getLogFile();
+                source = RecordedLog.open(Paths.get(input));
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(ReplayOptions.USAGE);
+            System.exit(2);
+            return;
+        } catch (IOException e) {
+            System.err.println("Failed to open the log to replay: " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        Logger.configure(LogLevel.OFF, 0, 1024); // Per-request messages would dominate the timings
+        ReplayEngine engine = new ReplayEngine(initialTickets -> TicketPoolFactory.create(options.getPoolType(),
+                initialTickets, options.getMaxCapacity(), options.getShardCount()), options.getSpeed(),
+                options.getInitialTickets());
+        try {
+            source.forEachRecord(engine);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Failed to replay " + input + " after " + engine.getRecords() + " records: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        ReplayReport report = new ReplayReport(input, options.getPoolType(), engine);
+        System.out.println(report.toText());
+        JSONFileWriter.writeReportToJSON(report.toJson(), options.getReportFile());
+        if (!report.isMatch()) {
+            System.exit(1);
+        }
     }
 }
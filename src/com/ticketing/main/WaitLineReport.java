@@ -0,0 +1,152 @@
+package com.ticketing.main;
+
+import com.ticketing.logging.LogLevel;
+import com.ticketing.logging.Logger;
+import com.ticketing.metrics.ConcurrentHistogram;
+import com.ticketing.metrics.LatencyHistogram;
+import com.ticketing.model.TicketPool;
+import com.ticketing.model.TicketPoolFactory;
+import com.ticketing.model.WaitingTicketPool;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Compares customers that retry a failed purchase with customers that wait in line, when demand
+ * outruns supply: CPU used by the process, purchase calls made, and how long and how evenly the
+ * customers waited for their tickets. Every customer buys 1-5 tickets back to back; one vendor
+ * releases 1-10 tickets every few milliseconds.
+ * Run with {@code java -cp <classpath> com.ticketing.main.WaitLineReport [customers] [seconds] [retryMs] [poolType]}.
+ */
+public class WaitLineReport {
+    private static final int PRIORITY_TIERS = 3;
+    private static final long RELEASE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    public static void main(String[] args) throws InterruptedException {
+        int customers = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int retryMs = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        String poolType = args.length > 3 ? args[3] : TicketPoolFactory.BLOCKING;
+        Logger.configure(LogLevel.OFF, 0, 1024); // Silent mode, as used for benchmarks
+        if (!(ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean)) {
+            System.err.println("This JVM does not report process CPU time.");
+            return;
+        }
+
+        System.out.println("Wait line report: " + customers + " customers, 1 vendor releasing every "
+                + TimeUnit.NANOSECONDS.toMillis(RELEASE_INTERVAL_NANOS) + " ms, " + poolType + " pool, "
+                + seconds + " s per mode, retry pause " + retryMs + " ms");
+        System.out.printf("  %-9s %7s %10s %12s %9s %9s %9s %9s %7s%n", "mode", "CPU %", "calls/s", "CPU us/ticket",
+                "wait p50", "wait p99", "wait max", "tickets", "Jain");
+        for (String mode : new String[]{WaitingTicketPool.RETRY, WaitingTicketPool.FIFO, WaitingTicketPool.PRIORITY}) {
+            run(mode, customers, seconds, retryMs, poolType);
+        }
+        System.out.println("  (wait in ms from a purchase's first attempt to its tickets; Jain's index of tickets per"
+                + " customer, 1.0 = perfectly even)");
+    }
+
+    /**
+     * Runs one mode for the given time and prints its line.
+     */
+    private static void run(String mode, int customers, int seconds, int retryMs, String poolType)
+            throws InterruptedException {
+        TicketPool pool = TicketPoolFactory.waitInLine(TicketPoolFactory.create(poolType, 0, 1_000, 4),
+                mode, PRIORITY_TIERS, 60_000);
+        boolean retrying = WaitingTicketPool.RETRY.equals(mode);
+        long retryNanos = TimeUnit.MILLISECONDS.toNanos(retryMs);
+        ConcurrentHistogram waits = new ConcurrentHistogram();
+        ConcurrentHistogram[] tierWaits = new ConcurrentHistogram[PRIORITY_TIERS];
+        for (int i = 0; i < tierWaits.length; i++) {
+            tierWaits[i] = new ConcurrentHistogram();
+        }
+        AtomicLong calls = new AtomicLong();
+        long[] tickets = new long[customers];
+        long stopAt = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<Thread> threads = new ArrayList<>();
+
+        for (int c = 0; c < customers; c++) {
+            int index = c;
+            String name = "Customer-" + (c + 1);
+            threads.add(new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(index);
+                long callCount = 0;
+                while (System.nanoTime() < stopAt) {
+                    int count = random.nextInt(1, 6);
+                    long start = System.nanoTime();
+                    boolean bought;
+                    do {
+                        callCount++;
+                        bought = pool.retrieveTickets(count, name);
+                        if (!bought && retrying) {
+                            LockSupport.parkNanos(retryNanos);
+                        }
+                    } while (!bought && System.nanoTime() < stopAt);
+                    if (bought) {
+                        long wait = System.nanoTime() - start;
+                        waits.record(wait);
+                        tierWaits[index % PRIORITY_TIERS].record(wait);
+                        tickets[index] += count;
+                    }
+                }
+                calls.addAndGet(callCount);
+            }, name));
+        }
+        Thread vendor = new Thread(() -> {
+            SplittableRandom random = new SplittableRandom(-1);
+            long next = System.nanoTime();
+            while (next < stopAt) {
+                pool.addTickets(random.nextInt(1, 11), "Vendor-1");
+                next += RELEASE_INTERVAL_NANOS;
+                LockSupport.parkNanos(next - System.nanoTime());
+            }
+        }, "Vendor-1");
+        threads.add(0, vendor); // Started first, so a retry storm cannot delay its start
+
+        com.sun.management.OperatingSystemMXBean os =
+                (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        long cpuBefore = os.getProcessCpuTime();
+        long wallBefore = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        vendor.join();
+        double wallSeconds = (System.nanoTime() - wallBefore) / 1e9;
+        double cpuSeconds = (os.getProcessCpuTime() - cpuBefore) / 1e9;
+        for (Thread thread : threads) {
+            thread.interrupt(); // Customers still in line stop waiting
+            thread.join();
+        }
+
+        long sold = 0;
+        double sum = 0;
+        double sumOfSquares = 0;
+        for (long t : tickets) {
+            sold += t;
+            sum += t;
+            sumOfSquares += (double) t * t;
+        }
+        double jain = sumOfSquares == 0 ? 0 : sum * sum / (customers * sumOfSquares);
+        LatencyHistogram wait = waits.snapshot();
+        System.out.printf("  %-9s %6.1f%% %10.0f %12.1f %9.1f %9.1f %9.1f %9d %7.3f%n", mode,
+                cpuSeconds / wallSeconds / Runtime.getRuntime().availableProcessors() * 100, calls.get() / wallSeconds,
+                sold == 0 ? 0 : cpuSeconds * 1e6 / sold, millis(wait.percentile(50)), millis(wait.percentile(99)),
+                millis(wait.getMax()), sold, jain);
+        if (WaitingTicketPool.PRIORITY.equals(mode) || retrying) {
+            StringBuilder line = new StringBuilder("            mean wait by tier (Customer-1, -2, -3, ...):");
+            for (ConcurrentHistogram tier : tierWaits) {
+                LatencyHistogram tierWait = tier.snapshot();
+                line.append(tierWait.getCount() == 0 ? " never served" : String.format(" %.1f ms", tierWait.getMean() / 1e6));
+            }
+            System.out.println(line);
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,52 @@
+package com.ticketing.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe variant of {@link LatencyHistogram} with the same buckets, for values recorded
+ * by many threads and read while they keep recording. Each value costs a few atomic updates,
+ * so it is meant for slow paths such as a vendor waiting at capacity, not for every operation.
+ * Readers take a {@link #snapshot()}; a snapshot taken during recording may miss values
+ * recorded concurrently but never sees a torn bucket.
+ */
+public class ConcurrentHistogram {
+    private final AtomicLongArray counts = new AtomicLongArray(LatencyHistogram.BUCKET_COUNT);
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records one value.
+     *
+     * @param value Value to record; negative values are recorded as 0.
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        counts.incrementAndGet(LatencyHistogram.indexOf(v));
+        sum.addAndGet(v);
+        if (v < min.get()) {
+            min.accumulateAndGet(v, Math::min);
+        }
+        if (v > max.get()) {
+            max.accumulateAndGet(v, Math::max);
+        }
+    }
+
+    /**
+     * Copies the values recorded so far.
+     *
+     * @return A new histogram that is not affected by later recording.
+     */
+    public LatencyHistogram snapshot() {
+        long[] copy = new long[LatencyHistogram.BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.add(copy, count, sum.get(), min.get(), max.get());
+        return histogram;
+    }
+}
@@ -0,0 +1,233 @@
+package com.ticketing.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Opt-in profiler of where pool calls spend their time: waiting for the pool lock,
+ * parked in {@code await()} at max capacity, and holding the lock. It also counts wakeups
+ * that found nothing to do and how many waiters every {@code signalAll()} woke.
+ * Figures are kept per entity and per operation and ranked by time blocked at the end of a run.
+ *
+ * <p>Pools look up the profiler once, when they are constructed; start it before creating
+ * them. When it is off, the pools only test a null field. When it is on, every call reads
+ * the clock two or three times and updates a per-entity record, which slows an uncontended
+ * call down noticeably, so only compare profiled runs with profiled runs.
+ */
+public final class ContentionProfiler {
+    /**
+     * Pool operations that are profiled separately.
+     */
+    public enum Operation {
+        ADD, RETRIEVE, BATCH;
+
+        @Override
+        public String toString() {
+            return name().toLowerCase();
+        }
+    }
+
+    private static final long LONG_WAIT_NANOS = 1_000_000; // Waits this long may have begun before a restart
+
+    private static volatile ContentionProfiler active; // null unless profiling was started
+
+    private final ConcurrentHashMap<String, ContentionStats[]> entities = new ConcurrentHashMap<>();
+    private volatile long startNanos = System.nanoTime();
+    private volatile long stopNanos; // 0 while recording
+
+    private ContentionProfiler() {
+    }
+
+    /**
+     * Turns profiling on for the pools created from now on.
+     *
+     * @return The profiler.
+     */
+    public static synchronized ContentionProfiler start() {
+        if (active == null) {
+            active = new ContentionProfiler();
+        }
+        return active;
+    }
+
+    /**
+     * Retrieves the running profiler.
+     *
+     * @return The profiler, or null if profiling is off.
+     */
+    public static ContentionProfiler active() {
+        return active;
+    }
+
+    /**
+     * Discards everything recorded so far and starts a new measurement, e.g. after a warmup.
+     */
+    public void restart() {
+        entities.clear();
+        startNanos = System.nanoTime();
+        stopNanos = 0;
+    }
+
+    /**
+     * Ends the measurement; later calls are not recorded.
+     */
+    public void stop() {
+        if (stopNanos == 0) {
+            stopNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Records one completed (or interrupted) pool call.
+     *
+     * @param entityName    Vendor or customer that made the call.
+     * @param operation     The operation.
+     * @param lockWaitNanos Time until the pool lock was acquired.
+     * @param awaitNanos    Time parked on a condition.
+     * @param awaits        Number of times the caller parked.
+     * @param futile        Wakeups that found the condition still unmet.
+     * @param holdNanos     Time the lock was held, excluding await time.
+     */
+    public void record(String entityName, Operation operation, long lockWaitNanos, long awaitNanos, int awaits,
+                       int futile, long holdNanos) {
+        if (stopNanos == 0) {
+            add(entityName, operation, 1, lockWaitNanos, awaitNanos, awaits, futile, holdNanos);
+        }
+    }
+
+    /**
+     * Records time a call spent waiting in a separate step, without counting another call,
+     * e.g. a lock-free pool's vendor parking until capacity frees up.
+     */
+    public void recordWait(String entityName, Operation operation, long lockWaitNanos, long awaitNanos, int awaits,
+                           int futile, long holdNanos) {
+        if (stopNanos == 0) {
+            add(entityName, operation, 0, lockWaitNanos, awaitNanos, awaits, futile, holdNanos);
+        }
+    }
+
+    private void add(String entityName, Operation operation, int calls, long lockWaitNanos, long awaitNanos,
+                     int awaits, int futile, long holdNanos) {
+        if (lockWaitNanos + awaitNanos > LONG_WAIT_NANOS) {
+            // Only count the part of a long wait that falls into the measurement, e.g. after a restart
+            long window = System.nanoTime() - startNanos;
+            awaitNanos = Math.min(awaitNanos, window);
+            lockWaitNanos = Math.min(lockWaitNanos, window - awaitNanos);
+        }
+        stats(entityName, operation).record(calls, lockWaitNanos, awaitNanos, awaits, futile, holdNanos);
+    }
+
+    /**
+     * Records a {@code signalAll()}.
+     *
+     * @param entityName Entity whose call signalled.
+     * @param operation  The operation that signalled.
+     * @param waiters    Threads waiting on the condition when it was signalled.
+     */
+    public void recordSignal(String entityName, Operation operation, int waiters) {
+        if (stopNanos == 0) {
+            stats(entityName, operation).recordSignal(waiters);
+        }
+    }
+
+    private ContentionStats stats(String entityName, Operation operation) {
+        ContentionStats[] stats = entities.get(entityName);
+        if (stats == null) {
+            stats = entities.computeIfAbsent(entityName, name -> {
+                ContentionStats[] created = new ContentionStats[Operation.values().length];
+                for (Operation op : Operation.values()) {
+                    created[op.ordinal()] = new ContentionStats(name, op);
+                }
+                return created;
+            });
+        }
+        return stats[operation.ordinal()];
+    }
+
+    /**
+     * Lists the recorded entity/operation pairs, most time blocked first.
+     *
+     * @return Figures of every pair that made or signalled a call.
+     */
+    public List<ContentionStats> getStats() {
+        List<ContentionStats> rows = new ArrayList<>();
+        for (ContentionStats[] stats : entities.values()) {
+            for (ContentionStats row : stats) {
+                if (row.getCalls() > 0 || row.getSignals() > 0 || row.getAwaits() > 0) {
+                    rows.add(row);
+                }
+            }
+        }
+        rows.sort(Comparator.comparingLong(ContentionStats::getBlockedNanos).reversed()
+                .thenComparing(Comparator.comparingLong(ContentionStats::getHoldNanos).reversed()));
+        return rows;
+    }
+
+    /**
+     * Sums the figures of all entities per operation.
+     *
+     * @return Totals of the operations that were called.
+     */
+    public Map<Operation, ContentionStats> getTotals() {
+        Map<Operation, ContentionStats> totals = new EnumMap<>(Operation.class);
+        for (ContentionStats row : getStats()) {
+            totals.computeIfAbsent(row.getOperation(), op -> new ContentionStats("all", op)).add(row);
+        }
+        return totals;
+    }
+
+    /**
+     * Retrieves the length of the measurement.
+     *
+     * @return Seconds from the start (or restart) until stop, or until now if still recording.
+     */
+    public double getElapsedSeconds() {
+        long end = stopNanos != 0 ? stopNanos : System.nanoTime();
+        return (end - startNanos) / 1e9;
+    }
+
+    /**
+     * Formats the per-operation totals and the entities that were blocked longest.
+     *
+     * @param limit Maximum number of entity rows.
+     * @return Multi-line report.
+     */
+    public String report(int limit) {
+        double elapsed = getElapsedSeconds();
+        List<ContentionStats> rows = getStats();
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("Contention profile: %d entities over %.1f s (blocked = lock wait + await, "
+                + "as a share of the wall time)%n", entities.size(), elapsed));
+        text.append(String.format("  %-10s %10s %12s %12s %9s %9s %12s %9s %9s %9s%n", "operation", "calls",
+                "lock wait ms", "await ms", "awaits", "futile", "hold ms", "signals", "empty", "woken"));
+        for (ContentionStats total : getTotals().values()) {
+            text.append(String.format("  %-10s %10d %12.1f %12.1f %9d %9d %12.1f %9d %9d %9d%n", total.getOperation(),
+                    total.getCalls(), millis(total.getLockWaitNanos()), millis(total.getAwaitNanos()),
+                    total.getAwaits(), total.getFutileWakeups(), millis(total.getHoldNanos()),
+                    total.getSignals(), total.getEmptySignals(), total.getWokenWaiters()));
+        }
+        text.append(String.format("Top %d of %d entity/operation pairs by time blocked:%n",
+                Math.min(limit, rows.size()), rows.size()));
+        text.append(String.format("  %3s  %-24s %-9s %9s %8s %20s %10s %14s %18s %9s%n", "#", "entity", "op",
+                "calls", "blocked", "lock wait ms (max)", "await ms", "futile/awaits", "hold ms (max us)", "woken"));
+        for (int i = 0; i < rows.size() && i < limit; i++) {
+            ContentionStats row = rows.get(i);
+            text.append(String.format("  %3d  %-24s %-9s %9d %7.1f%% %20s %10.1f %14s %18s %9d%n", i + 1,
+                    row.getEntityName(), row.getOperation(), row.getCalls(),
+                    elapsed > 0 ? 100.0 * row.getBlockedNanos() / (elapsed * 1e9) : 0,
+                    String.format("%.1f (%.1f)", millis(row.getLockWaitNanos()), millis(row.getMaxLockWaitNanos())),
+                    millis(row.getAwaitNanos()), row.getFutileWakeups() + "/" + row.getAwaits(),
+                    String.format("%.1f (%.1f)", millis(row.getHoldNanos()), row.getMaxHoldNanos() / 1e3),
+                    row.getWokenWaiters()));
+        }
+        return text.toString();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,142 @@
+package com.ticketing.metrics;
+
+/**
+ * Blocking time of one entity in one pool operation, accumulated by the {@link ContentionProfiler}.
+ * Lock wait is the time until the pool lock was acquired; await time is the time parked on a
+ * condition (including re-acquiring the lock afterwards); hold time is the time the lock was held
+ * otherwise. A futile wakeup is a return from await that found the condition still unmet.
+ */
+public final class ContentionStats {
+    private final String entityName;
+    private final ContentionProfiler.Operation operation;
+    private long calls;
+    private long lockWaitNanos;
+    private long maxLockWaitNanos;
+    private long awaitNanos;
+    private long awaits;
+    private long futileWakeups;
+    private long holdNanos;
+    private long maxHoldNanos;
+    private long signals;
+    private long emptySignals;
+    private long wokenWaiters;
+
+    ContentionStats(String entityName, ContentionProfiler.Operation operation) {
+        this.entityName = entityName;
+        this.operation = operation;
+    }
+
+    synchronized void record(int callCount, long lockWait, long await, int awaitCount, int futile, long hold) {
+        calls += callCount;
+        lockWaitNanos += lockWait;
+        maxLockWaitNanos = Math.max(maxLockWaitNanos, lockWait);
+        awaitNanos += await;
+        awaits += awaitCount;
+        futileWakeups += futile;
+        holdNanos += hold;
+        maxHoldNanos = Math.max(maxHoldNanos, hold);
+    }
+
+    synchronized void recordSignal(int waiters) {
+        signals++;
+        if (waiters == 0) {
+            emptySignals++;
+        }
+        wokenWaiters += waiters;
+    }
+
+    /**
+     * Adds another entity's figures, for per-operation totals.
+     */
+    synchronized void add(ContentionStats other) {
+        synchronized (other) {
+            calls += other.calls;
+            lockWaitNanos += other.lockWaitNanos;
+            maxLockWaitNanos = Math.max(maxLockWaitNanos, other.maxLockWaitNanos);
+            awaitNanos += other.awaitNanos;
+            awaits += other.awaits;
+            futileWakeups += other.futileWakeups;
+            holdNanos += other.holdNanos;
+            maxHoldNanos = Math.max(maxHoldNanos, other.maxHoldNanos);
+            signals += other.signals;
+            emptySignals += other.emptySignals;
+            wokenWaiters += other.wokenWaiters;
+        }
+    }
+
+    /**
+     * Retrieves the time spent not running: waiting for the lock plus parked on a condition.
+     *
+     * @return Blocked time in nanoseconds.
+     */
+    public synchronized long getBlockedNanos() {
+        return lockWaitNanos + awaitNanos;
+    }
+
+    public String getEntityName() {
+        return entityName;
+    }
+
+    public ContentionProfiler.Operation getOperation() {
+        return operation;
+    }
+
+    public synchronized long getCalls() {
+        return calls;
+    }
+
+    public synchronized long getLockWaitNanos() {
+        return lockWaitNanos;
+    }
+
+    public synchronized long getMaxLockWaitNanos() {
+        return maxLockWaitNanos;
+    }
+
+    public synchronized long getAwaitNanos() {
+        return awaitNanos;
+    }
+
+    public synchronized long getAwaits() {
+        return awaits;
+    }
+
+    public synchronized long getFutileWakeups() {
+        return futileWakeups;
+    }
+
+    public synchronized long getHoldNanos() {
+        return holdNanos;
+    }
+
+    public synchronized long getMaxHoldNanos() {
+        return maxHoldNanos;
+    }
+
+    /**
+     * Retrieves the number of times this entity woke the waiters of a condition.
+     *
+     * @return Signal count.
+     */
+    public synchronized long getSignals() {
+        return signals;
+    }
+
+    /**
+     * Retrieves the number of signals that found nobody waiting.
+     *
+     * @return Empty signal count.
+     */
+    public synchronized long getEmptySignals() {
+        return emptySignals;
+    }
+
+    /**
+     * Retrieves the number of waiters woken by this entity's signals.
+     *
+     * @return Woken waiter count.
+     */
+    public synchronized long getWokenWaiters() {
+        return wokenWaiters;
+    }
+}
@@ -0,0 +1,149 @@
+package com.ticketing.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Compact log-linear histogram of latencies (or any non-negative long values),
+ * in the spirit of HdrHistogram. Values below 128 are counted exactly; larger values
+ * fall into buckets that keep the top 7 significant bits, so every percentile is
+ * reported within 1% of the true value while the whole range of a long fits in ~30 KB.
+ * Not thread-safe: give each thread its own histogram and {@link #add} them afterwards.
+ */
+public class LatencyHistogram {
+    private static final int EXACT_LIMIT = 128;
+    private static final int SUB_BUCKETS = 64;
+    static final int BUCKET_COUNT = EXACT_LIMIT + 57 * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    /**
+     * Records one value.
+     *
+     * @param value Value to record; negative values are recorded as 0.
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        counts[indexOf(v)]++;
+        totalCount++;
+        sum += v;
+        min = Math.min(min, v);
+        max = Math.max(max, v);
+    }
+
+    /**
+     * Adds all values recorded by another histogram to this one.
+     *
+     * @param other Histogram to merge in.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Adds raw bucket counts, as collected by {@link ConcurrentHistogram}.
+     */
+    void add(long[] bucketCounts, long count, long valueSum, long minValue, long maxValue) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += bucketCounts[i];
+        }
+        totalCount += count;
+        sum += valueSum;
+        if (count > 0) {
+            min = Math.min(min, minValue);
+            max = Math.max(max, maxValue);
+        }
+    }
+
+    /**
+     * Derives the values recorded after an earlier copy of the same histogram was taken.
+     * The maximum of the result is this histogram's maximum, an upper bound.
+     */
+    LatencyHistogram since(LatencyHistogram earlier) {
+        LatencyHistogram delta = new LatencyHistogram();
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            delta.counts[i] = counts[i] - earlier.counts[i];
+        }
+        delta.totalCount = totalCount - earlier.totalCount;
+        delta.sum = sum - earlier.sum;
+        delta.min = min;
+        delta.max = max;
+        return delta;
+    }
+
+    /**
+     * Clears all recorded values.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    /**
+     * Returns the value at a percentile.
+     *
+     * @param percentile Percentile between 0 and 100 (e.g. 99.9).
+     * @return Upper bound of the bucket holding the percentile, or 0 if nothing was recorded.
+     */
+    public long percentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestEquivalentValue(i), max);
+            }
+        }
+        return max;
+    }
+
+    // Summary statistics
+    public long getCount() {
+        return totalCount;
+    }
+
+    public long getMin() {
+        return totalCount == 0 ? 0 : min;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return totalCount == 0 ? 0 : (double) sum / totalCount;
+    }
+
+    static int indexOf(long value) {
+        if (value < EXACT_LIMIT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - 6; // Keep the top 7 bits
+        int top = (int) (value >>> shift); // In [64, 127]
+        return EXACT_LIMIT + (shift - 1) * SUB_BUCKETS + (top - SUB_BUCKETS);
+    }
+
+    private static long highestEquivalentValue(int index) {
+        if (index < EXACT_LIMIT) {
+            return index;
+        }
+        int shift = (index - EXACT_LIMIT) / SUB_BUCKETS + 1;
+        long top = (index - EXACT_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+        return shift >= 56 ? Long.MAX_VALUE : ((top + 1) << shift) - 1;
+    }
+}
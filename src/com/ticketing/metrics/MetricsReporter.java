@@ -0,0 +1,109 @@
+package com.ticketing.metrics;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Background thread that takes a {@link PoolMetrics} snapshot at a fixed interval and either
+ * prints a one-line summary of the interval to the console or appends the totals to a
+ * metrics file as one JSON object per line. The pools never wait for it: it only reads
+ * the counters.
+ */
+public class MetricsReporter implements AutoCloseable {
+    private static final PrintStream out = System.out;
+
+    private final long intervalNanos;
+    private final BufferedWriter file; // null means print to the console
+    private final Thread thread;
+    private volatile boolean closed;
+    private MetricsSnapshot previous;
+
+    private MetricsReporter(long intervalMillis, BufferedWriter file) {
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        this.file = file;
+        this.previous = PoolMetrics.snapshot();
+        this.thread = new Thread(this::reportLoop, "metrics-reporter");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Starts reporting.
+     *
+     * @param intervalMillis Time between two reports, in milliseconds.
+     * @param metricsFile    File to append JSON lines to, or null/empty to print to the console.
+     * @return The running reporter.
+     */
+    public static MetricsReporter start(long intervalMillis, String metricsFile) {
+        BufferedWriter writer = null;
+        if (metricsFile != null && !metricsFile.isEmpty()) {
+            try {
+                writer = Files.newBufferedWriter(Paths.get(metricsFile), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                System.err.println("Failed to open metrics file " + metricsFile + ": " + e.getMessage()
+                        + ". Printing metrics to the console.");
+            }
+        }
+        MetricsReporter reporter = new MetricsReporter(intervalMillis, writer);
+        reporter.thread.start();
+        return reporter;
+    }
+
+    /**
+     * Stops the reporter after one last report covering the time since the previous one.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (file != null) {
+            try {
+                file.close();
+            } catch (IOException e) {
+                System.err.println("Failed to close metrics file: " + e.getMessage());
+            }
+        }
+    }
+
+    private void reportLoop() {
+        long next = System.nanoTime() + intervalNanos;
+        while (!closed) {
+            long delay = next - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+                continue; // Re-checks closed and absorbs spurious wake-ups
+            }
+            report();
+            next += intervalNanos;
+        }
+        report();
+    }
+
+    private void report() {
+        MetricsSnapshot current = PoolMetrics.snapshot();
+        if (file == null) {
+            out.println("[metrics] " + current.toLine(previous));
+        } else {
+            try {
+                file.write(current.toJson());
+                file.newLine();
+                file.flush();
+            } catch (IOException e) {
+                System.err.println("Failed to write metrics: " + e.getMessage());
+            }
+        }
+        previous = current;
+    }
+}
@@ -0,0 +1,149 @@
+package com.ticketing.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Values of all {@link PoolMetrics} counters and gauges at one instant.
+ * Two snapshots give the rates over the time between them.
+ */
+public final class MetricsSnapshot {
+    private final long timeMillis;
+    private final long nanoTime;
+    private final long purchases;
+    private final long failedPurchases;
+    private final long ticketsSold;
+    private final long releases;
+    private final long ticketsReleased;
+    private final long lockContentions;
+    private final long casRetries;
+    private final LatencyHistogram vendorWait;
+    private final Map<String, Long> gauges;
+
+    MetricsSnapshot(long timeMillis, long nanoTime, long purchases, long failedPurchases, long ticketsSold,
+                    long releases, long ticketsReleased, long lockContentions, long casRetries,
+                    LatencyHistogram vendorWait, Map<String, Long> gauges) {
+        this.timeMillis = timeMillis;
+        this.nanoTime = nanoTime;
+        this.purchases = purchases;
+        this.failedPurchases = failedPurchases;
+        this.ticketsSold = ticketsSold;
+        this.releases = releases;
+        this.ticketsReleased = ticketsReleased;
+        this.lockContentions = lockContentions;
+        this.casRetries = casRetries;
+        this.vendorWait = vendorWait;
+        this.gauges = Collections.unmodifiableMap(gauges);
+    }
+
+    /**
+     * Summarizes the interval since an earlier snapshot on one line, e.g.
+     * {@code purchases 812.3k/s (96.2% ok), releases 201.0k/s, vendor waits 3 (p99 1.2 ms), contention lock 34 cas 0, journal.lag 120, ...}.
+     *
+     * @param previous Snapshot at the start of the interval.
+     * @return The summary.
+     */
+    public String toLine(MetricsSnapshot previous) {
+        double seconds = Math.max(1e-9, (nanoTime - previous.nanoTime) / 1e9);
+        long bought = purchases - previous.purchases;
+        long attempts = bought + failedPurchases - previous.failedPurchases;
+        LatencyHistogram waits = vendorWait.since(previous.vendorWait);
+        StringBuilder line = new StringBuilder(160);
+        line.append("purchases ").append(rate(attempts / seconds))
+                .append(String.format(" (%.1f%% ok)", attempts == 0 ? 100.0 : 100.0 * bought / attempts))
+                .append(", releases ").append(rate((releases - previous.releases) / seconds))
+                .append(", vendor waits ").append(waits.getCount())
+                .append(String.format(" (p99 %.1f ms)", waits.percentile(99) / 1e6))
+                .append(", contention lock ").append(lockContentions - previous.lockContentions)
+                .append(" cas ").append(casRetries - previous.casRetries);
+        for (Map.Entry<String, Long> gauge : gauges.entrySet()) {
+            line.append(", ").append(gauge.getKey()).append(' ').append(gauge.getValue());
+        }
+        return line.toString();
+    }
+
+    /**
+     * Formats the totals as one JSON object, for a metrics file with one snapshot per line.
+     *
+     * @return The JSON object, without a trailing newline.
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder(320);
+        json.append("{\"time\":").append(timeMillis)
+                .append(",\"purchaseAttempts\":").append(getPurchaseAttempts())
+                .append(",\"purchases\":").append(purchases)
+                .append(",\"failedPurchases\":").append(failedPurchases)
+                .append(",\"ticketsSold\":").append(ticketsSold)
+                .append(",\"releases\":").append(releases)
+                .append(",\"ticketsReleased\":").append(ticketsReleased)
+                .append(",\"vendorWaits\":").append(vendorWait.getCount())
+                .append(",\"vendorWaitP50Micros\":").append(vendorWait.percentile(50) / 1000)
+                .append(",\"vendorWaitP99Micros\":").append(vendorWait.percentile(99) / 1000)
+                .append(",\"vendorWaitMaxMicros\":").append(vendorWait.getMax() / 1000)
+                .append(",\"lockContentions\":").append(lockContentions)
+                .append(",\"casRetries\":").append(casRetries);
+        for (Map.Entry<String, Long> gauge : gauges.entrySet()) {
+            json.append(",\"").append(gauge.getKey()).append("\":").append(gauge.getValue());
+        }
+        return json.append('}').toString();
+    }
+
+    private static String rate(double perSecond) {
+        if (perSecond >= 1e6) {
+            return String.format("%.2fM/s", perSecond / 1e6);
+        }
+        if (perSecond >= 1e3) {
+            return String.format("%.1fk/s", perSecond / 1e3);
+        }
+        return String.format("%.0f/s", perSecond);
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public long getPurchaseAttempts() {
+        return purchases + failedPurchases;
+    }
+
+    public long getPurchases() {
+        return purchases;
+    }
+
+    public long getFailedPurchases() {
+        return failedPurchases;
+    }
+
+    public long getTicketsSold() {
+        return ticketsSold;
+    }
+
+    public long getReleases() {
+        return releases;
+    }
+
+    public long getTicketsReleased() {
+        return ticketsReleased;
+    }
+
+    public long getLockContentions() {
+        return lockContentions;
+    }
+
+    public long getCasRetries() {
+        return casRetries;
+    }
+
+    /**
+     * Retrieves the times vendors spent blocked at max capacity, in nanoseconds, since the process started.
+     *
+     * @return Histogram of the waits.
+     */
+    public LatencyHistogram getVendorWait() {
+        return vendorWait;
+    }
+
+    public Map<String, Long> getGauges() {
+        return gauges;
+    }
+}
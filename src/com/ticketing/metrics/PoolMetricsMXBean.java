@@ -0,0 +1,39 @@
+package com.ticketing.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX attributes of {@link PoolMetrics}. Counters are totals since the process started.
+ */
+public interface PoolMetricsMXBean {
+    long getPurchaseAttempts();
+
+    long getPurchases();
+
+    long getFailedPurchases();
+
+    long getTicketsSold();
+
+    long getReleases();
+
+    long getTicketsReleased();
+
+    long getVendorWaits();
+
+    double getVendorWaitMeanMillis();
+
+    double getVendorWaitP99Millis();
+
+    double getVendorWaitMaxMillis();
+
+    long getLockContentions();
+
+    long getCasRetries();
+
+    /**
+     * Current queue depths, journal lag and other gauges by name.
+     *
+     * @return Gauge values, sorted by name.
+     */
+    Map<String, Long> getGauges();
+}
@@ -0,0 +1,131 @@
+package com.ticketing.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time from JVM start to the first ticket added or sold, split into the
+ * startup phases that the main thread marks. The pools report their first transaction
+ * through {@link PoolMetrics}; after that, the check costs one volatile read per call.
+ * The JVM start time is only looked up when the report is built, because loading the
+ * management classes would itself add tens of milliseconds to startup.
+ */
+public final class StartupTimer {
+    private static final Map<String, Long> phases = new LinkedHashMap<>(); // Phase name -> end, in nanoTime
+    private static final CountDownLatch firstTransaction = new CountDownLatch(1);
+    private static long startNanos;
+    private static long startMillis;
+    private static long lastMarkNanos;
+    private static volatile long firstTransactionNanos; // 0 until the first ticket is added or sold
+
+    private StartupTimer() {
+    }
+
+    /**
+     * Starts the measurement; call first thing in {@code main}.
+     */
+    public static synchronized void start() {
+        startNanos = System.nanoTime();
+        startMillis = System.currentTimeMillis();
+        lastMarkNanos = startNanos;
+        phases.clear();
+    }
+
+    /**
+     * Ends a startup phase that began at the previous mark (or at {@link #start()}).
+     *
+     * @param phase Name shown in the report, e.g. "configuration".
+     */
+    public static synchronized void mark(String phase) {
+        lastMarkNanos = System.nanoTime();
+        phases.put(phase, lastMarkNanos);
+    }
+
+    /**
+     * Notes that a ticket was added or sold; only the first call of the process counts.
+     */
+    static void transactionRecorded() {
+        if (firstTransactionNanos == 0) {
+            recordFirstTransaction();
+        }
+    }
+
+    private static synchronized void recordFirstTransaction() {
+        if (firstTransactionNanos == 0) {
+            firstTransactionNanos = System.nanoTime();
+            firstTransaction.countDown();
+        }
+    }
+
+    /**
+     * Waits until the first transaction has been recorded.
+     *
+     * @param timeoutMillis Longest time to wait.
+     * @return true if there has been a transaction.
+     * @throws InterruptedException If the waiting thread is interrupted.
+     */
+    public static boolean awaitFirstTransaction(long timeoutMillis) throws InterruptedException {
+        return firstTransaction.await(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Retrieves the time the JVM took to reach {@link #start()}: launching, loading the
+     * first classes and initializing the main class.
+     *
+     * @return Milliseconds from JVM start to the start of the measurement.
+     */
+    public static synchronized long getJvmStartupMillis() {
+        return Math.max(0, startMillis - ManagementFactory.getRuntimeMXBean().getStartTime());
+    }
+
+    /**
+     * Retrieves the length of every startup phase, in order: the JVM's own startup, the marked
+     * phases and, once there has been a transaction, the wait for the first scheduled turn.
+     *
+     * @return Phase name -> milliseconds.
+     */
+    public static synchronized Map<String, Double> getPhaseMillis() {
+        Map<String, Double> millis = new LinkedHashMap<>();
+        millis.put("JVM", (double) getJvmStartupMillis());
+        long previous = startNanos;
+        for (Map.Entry<String, Long> phase : phases.entrySet()) {
+            millis.put(phase.getKey(), (phase.getValue() - previous) / 1e6);
+            previous = phase.getValue();
+        }
+        if (firstTransactionNanos != 0) {
+            millis.put("first turn", Math.max(0, firstTransactionNanos - lastMarkNanos) / 1e6);
+        }
+        return millis;
+    }
+
+    /**
+     * Retrieves the time from JVM start to the first transaction.
+     *
+     * @return Milliseconds, or -1 if there has not been a transaction yet.
+     */
+    public static synchronized double getTimeToFirstTransactionMillis() {
+        long first = firstTransactionNanos;
+        return first == 0 ? -1 : getJvmStartupMillis() + (first - startNanos) / 1e6;
+    }
+
+    /**
+     * Summarizes startup on one line, e.g.
+     * {@code Startup: first transaction 98.4 ms after JVM start (JVM 41.0 ms, configuration 2.1 ms, ..., first turn 50.2 ms)}.
+     *
+     * @return The summary.
+     */
+    public static synchronized String report() {
+        StringBuilder line = new StringBuilder("Startup: ");
+        double total = getTimeToFirstTransactionMillis();
+        line.append(total < 0 ? "no transaction yet" : String.format("first transaction %.1f ms after JVM start", total));
+        String separator = " (";
+        for (Map.Entry<String, Double> phase : getPhaseMillis().entrySet()) {
+            line.append(separator).append(String.format("%s %.1f ms", phase.getKey(), phase.getValue()));
+            separator = ", ";
+        }
+        return line.append(')').toString();
+    }
+}
@@ -0,0 +1,210 @@
+package com.ticketing.model;
+
+import com.ticketing.logging.Logger;
+import com.ticketing.metrics.ContentionProfiler;
+import com.ticketing.metrics.PoolMetrics;
+
+import java.util.List;
+
+/**
+ * Common state shared by the ticket pool implementations: the capacity limit
+ * and the transaction log. Recording a transaction also counts it in {@link PoolMetrics}.
+ */
+public abstract class AbstractTicketPool implements TicketPool {
+    protected volatile int maxCapacity; // Changed by setMaxCapacity() while the pool is in use
+    protected final ContentionProfiler profiler = ContentionProfiler.active(); // null unless contention profiling is on
+    private final TransactionLog transactionLog;
+    private volatile boolean failureRecording; // Log failed purchases too, for failure rates in the analytics
+
+    /**
+     * Initializes the common pool state.
+     *
+     * @param maxCapacity    Maximum ticket capacity for the pool.
+     * @param transactionLog Destination for completed transactions.
+     */
+    protected AbstractTicketPool(int maxCapacity, TransactionLog transactionLog) {
+        this.maxCapacity = maxCapacity;
+        this.transactionLog = transactionLog;
+    }
+
+    /**
+     * Records a completed transaction.
+     *
+     * @param actionType       Type of action (ADD or RETRIEVE).
+     * @param entityName       Name of the entity performing the action.
+     * @param ticketCount      Number of tickets involved.
+     * @param remainingTickets Tickets remaining after the action.
+     */
+    protected void recordTransaction(ActionType actionType, String entityName, int ticketCount, int remainingTickets) {
+        countTransaction(actionType, ticketCount);
+        transactionLog.append(actionType, entityName, ticketCount, remainingTickets);
+    }
+
+    /**
+     * Records a completed transaction on a range of consecutive seats.
+     *
+     * @param actionType       Type of action (ADD or RETRIEVE).
+     * @param entityName       Name of the entity performing the action.
+     * @param ticketCount      Number of seats involved.
+     * @param remainingTickets Seats on sale after the action.
+     * @param firstSeat        Id of the first seat.
+     */
+    protected void recordTransaction(ActionType actionType, String entityName, int ticketCount, int remainingTickets,
+                                     int firstSeat) {
+        countTransaction(actionType, ticketCount);
+        transactionLog.append(actionType, entityName, ticketCount, remainingTickets, firstSeat);
+    }
+
+    /**
+     * Counts a purchase that found too few tickets and, if failure recording is on,
+     * records it as a {@link ActionType#RETRIEVE_FAILED} transaction.
+     *
+     * @param customerName     Name of the customer.
+     * @param ticketCount      Number of tickets asked for.
+     * @param remainingTickets Tickets in the pool when the purchase failed.
+     */
+    protected void recordFailedPurchase(String customerName, int ticketCount, int remainingTickets) {
+        PoolMetrics.purchaseFailed();
+        if (failureRecording) {
+            transactionLog.append(ActionType.RETRIEVE_FAILED, customerName, ticketCount, remainingTickets);
+        }
+    }
+
+    /**
+     * Counts a call that never takes a lock in the contention profile, if it is on,
+     * so that lock-free pools can be compared call for call with the blocking one.
+     */
+    protected void profileCall(String entityName, ContentionProfiler.Operation operation) {
+        if (profiler != null) {
+            profiler.record(entityName, operation, 0, 0, 0, 0, 0);
+        }
+    }
+
+    /**
+     * Records the applied requests of a batch with a single log append. If failure recording is on
+     * and a purchase failed, the records are appended one by one instead, so that the failures
+     * keep their place between the applied requests.
+     *
+     * @param requests  The batch, in the order it was applied.
+     * @param results   Which requests were applied.
+     * @param remaining Tickets remaining after each request.
+     */
+    protected void recordBatch(List<TicketRequest> requests, boolean[] results, int[] remaining) {
+        boolean failedPurchase = false;
+        for (int i = 0; i < results.length; i++) {
+            TicketRequest request = requests.get(i);
+            if (results[i]) {
+                countTransaction(request.getActionType(), request.getCount());
+            } else if (request.getActionType() == ActionType.RETRIEVE && request.reportsFailure()) {
+                PoolMetrics.purchaseFailed();
+                failedPurchase = true;
+            }
+        }
+        if (!failedPurchase || !failureRecording) {
+            transactionLog.appendBatch(requests, results, remaining);
+            return;
+        }
+        for (int i = 0; i < results.length; i++) {
+            TicketRequest request = requests.get(i);
+            if (results[i]) {
+                transactionLog.append(request.getActionType(), request.getEntityName(), request.getCount(),
+                        remaining[i]);
+            } else if (request.getActionType() == ActionType.RETRIEVE && request.reportsFailure()) {
+                transactionLog.append(ActionType.RETRIEVE_FAILED, request.getEntityName(), request.getCount(),
+                        remaining[i]);
+            }
+        }
+    }
+
+    private static void countTransaction(ActionType actionType, int ticketCount) {
+        if (actionType == ActionType.ADD) {
+            PoolMetrics.released(ticketCount);
+        } else {
+            PoolMetrics.purchased(ticketCount);
+        }
+    }
+
+    /**
+     * Logs the outcome of one request of a batch, with the same messages as the single-request methods.
+     */
+    protected static void logBatchResult(TicketRequest request, boolean applied, int remaining) {
+        String name = request.getEntityName();
+        if (request.getActionType() == ActionType.ADD) {
+            if (applied) {
+                Logger.info("{} added {} tickets. Current Pool: {}", name, request.getCount(), remaining);
+            } else {
+                Logger.info("{} could not add {} tickets. Pool is at max capacity.", name, request.getCount());
+            }
+        } else if (applied) {
+            Logger.info("{} purchased {} tickets. Current Pool: {}", name, request.getCount(), remaining);
+        } else if (request.reportsFailure()) {
+            Logger.info("{} failed to purchase {} tickets. Not enough tickets.", name, request.getCount());
+        }
+    }
+
+    @Override
+    public int getMaxCapacity() {
+        return maxCapacity;
+    }
+
+    @Override
+    public boolean retrieveTickets(int count, String customerName) {
+        return purchase(count, customerName, true);
+    }
+
+    @Override
+    public boolean tryRetrieveTickets(int count, String customerName) {
+        return purchase(count, customerName, false);
+    }
+
+    /**
+     * Purchases tickets if available.
+     *
+     * @param count         Number of tickets to purchase.
+     * @param customerName  Name of the customer attempting to purchase.
+     * @param reportFailure true to log, count and record a purchase that finds too few tickets.
+     * @return true if tickets were purchased, false otherwise.
+     */
+    protected abstract boolean purchase(int count, String customerName, boolean reportFailure);
+
+    @Override
+    public void setFailureRecording(boolean enabled) {
+        failureRecording = enabled;
+    }
+
+    /**
+     * Checks whether failed purchases are written to the transaction log.
+     *
+     * @return true if failure recording is on.
+     */
+    protected boolean isFailureRecording() {
+        return failureRecording;
+    }
+
+    @Override
+    public void setMaxCapacity(int maxCapacity) {
+        if (maxCapacity < 1) {
+            throw new IllegalArgumentException("Max capacity must be at least 1.");
+        }
+        int previous = this.maxCapacity;
+        applyMaxCapacity(maxCapacity);
+        Logger.info("Max capacity changed from {} to {}. Current Pool: {}", previous, maxCapacity, getTotalTickets());
+    }
+
+    /**
+     * Stores a new maximum capacity and wakes the vendors that may now have room.
+     *
+     * @param maxCapacity New maximum capacity, at least 1.
+     */
+    protected abstract void applyMaxCapacity(int maxCapacity);
+
+    @Override
+    public List<TicketRecord> getTransactions() {
+        return transactionLog.getTransactions();
+    }
+
+    @Override
+    public TransactionLog getTransactionLog() {
+        return transactionLog;
+    }
+}
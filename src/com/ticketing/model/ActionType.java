@@ -0,0 +1,59 @@
+package com.ticketing.model;
+
+/**
+ * Kind of action recorded in a transaction, with a compact one-byte code for binary logs.
+ */
+public enum ActionType {
+    ADD((byte) 0),
+    RETRIEVE((byte) 1),
+    /** A purchase that found too few tickets; only recorded if failure recording is on. */
+    RETRIEVE_FAILED((byte) 2);
+
+    private static final ActionType[] BY_CODE = values();
+
+    private final byte code;
+
+    ActionType(byte code) {
+        this.code = code;
+    }
+
+    /**
+     * Retrieves the one-byte code used in binary logs.
+     *
+     * @return Action code.
+     */
+    public byte getCode() {
+        return code;
+    }
+
+    /**
+     * Computes how an action of this type changes the pool's ticket total.
+     *
+     * @param ticketCount Tickets involved in the action.
+     * @return Tickets added (positive) or removed (negative); 0 for a failed purchase.
+     */
+    public int ticketDelta(int ticketCount) {
+        switch (this) {
+            case ADD:
+                return ticketCount;
+            case RETRIEVE:
+                return -ticketCount;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Looks up an action by its binary code.
+     *
+     * @param code Action code.
+     * @return The matching action.
+     * @throws IllegalArgumentException If the code is unknown.
+     */
+    public static ActionType fromCode(byte code) {
+        if (code < 0 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException("Unknown action code: " + code);
+        }
+        return BY_CODE[code];
+    }
+}
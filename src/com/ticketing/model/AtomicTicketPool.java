@@ -0,0 +1,282 @@
+package com.ticketing.model;
+
+import com.ticketing.logging.Logger;
+import com.ticketing.metrics.ContentionProfiler;
+import com.ticketing.metrics.PoolMetrics;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Lock-free ticket pool built on an atomic inventory counter.
+ * Purchases and additions update the counter with compare-and-set; only vendors
+ * that would push the pool past its maximum capacity block, and they are
+ * signalled only when a purchase actually frees space while someone is waiting.
+ * <p>
+ * The counter word also carries a log sequence: each compare-and-set that changes the count
+ * claims the next sequence, and a {@link RecordSequencer} appends the records in sequence order.
+ * The log therefore lists the transactions in the order the count changed, and each record's
+ * remaining tickets follow from the record before it, as with the blocking pool.
+ */
+public class AtomicTicketPool extends AbstractTicketPool {
+    private static final long NO_ROOM = -1; // Its ticket half is -1, which no state has
+
+    private final AtomicLong state; // log sequence (high 32 bits) | tickets (low 32 bits)
+    private final RecordSequencer sequencer = new RecordSequencer(this);
+    private final AtomicInteger waitingVendors = new AtomicInteger();
+    private final ReentrantLock capacityLock = new ReentrantLock();
+    private final Condition notFull = capacityLock.newCondition();
+
+    /**
+     * Initializes the pool with initial tickets and maximum capacity.
+     *
+     * @param initialTickets Initial number of tickets in the pool.
+     * @param maxCapacity    Maximum ticket capacity for the pool.
+     */
+    public AtomicTicketPool(int initialTickets, int maxCapacity) {
+        this(initialTickets, maxCapacity, new InMemoryTransactionLog());
+    }
+
+    /**
+     * Initializes the pool with initial tickets and maximum capacity.
+     *
+     * @param initialTickets Initial number of tickets in the pool.
+     * @param maxCapacity    Maximum ticket capacity for the pool.
+     * @param transactionLog Destination for completed transactions.
+     */
+    public AtomicTicketPool(int initialTickets, int maxCapacity, TransactionLog transactionLog) {
+        super(maxCapacity, transactionLog);
+        this.state = new AtomicLong(initialTickets);
+    }
+
+    @Override
+    public void addTickets(int count, String vendorName) {
+        long added;
+        while ((added = tryAdd(count)) == NO_ROOM) {
+            if (!awaitCapacity(count, vendorName)) {
+                return;
+            }
+        }
+        int remaining = tickets(added);
+        int sequence = sequence(added) - 1;
+        Logger.info("{} added {} tickets. Current Pool: {}", vendorName, count, remaining);
+        sequencer.transaction(sequence, ActionType.ADD, vendorName, count, remaining);
+        profileCall(vendorName, ContentionProfiler.Operation.ADD);
+    }
+
+    @Override
+    protected boolean purchase(int count, String customerName, boolean reportFailure) {
+        long current;
+        while (true) {
+            current = state.get();
+            if (tickets(current) < count) {
+                boolean logged = reportFailure && isFailureRecording(); // A logged failure needs a sequence of its own
+                if (logged && !claim(current, next(current, tickets(current)))) {
+                    continue;
+                }
+                if (logged) {
+                    Logger.info("{} failed to purchase {} tickets. Not enough tickets.", customerName, count);
+                    sequencer.failedPurchase(sequence(current), customerName, count, tickets(current));
+                } else if (reportFailure) {
+                    Logger.info("{} failed to purchase {} tickets. Not enough tickets.", customerName, count);
+                    recordFailedPurchase(customerName, count, tickets(current));
+                }
+                profileCall(customerName, ContentionProfiler.Operation.RETRIEVE);
+                return false;
+            }
+            if (claim(current, next(current, tickets(current) - count))) {
+                break;
+            }
+        }
+
+        int remaining = tickets(current) - count;
+        Logger.info("{} purchased {} tickets. Current Pool: {}", customerName, count, remaining);
+        sequencer.transaction(sequence(current), ActionType.RETRIEVE, customerName, count, remaining);
+        signalVendors(customerName, ContentionProfiler.Operation.RETRIEVE);
+        profileCall(customerName, ContentionProfiler.Operation.RETRIEVE);
+        return true;
+    }
+
+    /**
+     * Applies the batch to a snapshot of the counter and publishes the net result
+     * with one compare-and-set, retrying the whole batch if another thread got in first.
+     * The batch takes one log sequence, so its records stay together in the log.
+     */
+    @Override
+    public boolean[] processBatch(List<TicketRequest> requests) {
+        boolean[] results = new boolean[requests.size()];
+        int[] remaining = new int[requests.size()];
+        long start;
+        int total;
+        boolean freedSpace;
+        do {
+            start = state.get();
+            total = tickets(start);
+            freedSpace = false;
+            for (int i = 0; i < results.length; i++) {
+                TicketRequest request = requests.get(i);
+                int count = request.getCount();
+                if (request.getActionType() == ActionType.ADD) {
+                    results[i] = total + count <= maxCapacity;
+                    if (results[i]) {
+                        total += count;
+                    }
+                } else {
+                    results[i] = total >= count;
+                    if (results[i]) {
+                        total -= count;
+                        freedSpace = true;
+                    }
+                }
+                remaining[i] = total;
+            }
+        } while (!claim(start, next(start, total)));
+
+        for (int i = 0; i < results.length; i++) {
+            logBatchResult(requests.get(i), results[i], remaining[i]);
+        }
+        sequencer.batch(sequence(start), requests, results, remaining);
+        if (freedSpace) {
+            signalVendors(Thread.currentThread().getName(), ContentionProfiler.Operation.BATCH);
+        }
+        profileCall(Thread.currentThread().getName(), ContentionProfiler.Operation.BATCH);
+        return results;
+    }
+
+    @Override
+    public int getTotalTickets() {
+        return tickets(state.get());
+    }
+
+    /**
+     * Publishes the new limit before taking the capacity lock, so a vendor either sees it
+     * when it re-checks under the lock or is already parked and gets woken.
+     */
+    @Override
+    protected void applyMaxCapacity(int maxCapacity) {
+        this.maxCapacity = maxCapacity;
+        capacityLock.lock();
+        try {
+            notFull.signalAll();
+        } finally {
+            capacityLock.unlock();
+        }
+    }
+
+    /**
+     * Attempts to add tickets without exceeding the maximum capacity.
+     *
+     * @param count Number of tickets to add.
+     * @return The new state, or {@link #NO_ROOM} if the pool has no room for the tickets.
+     */
+    private long tryAdd(int count) {
+        while (true) {
+            long current = state.get();
+            if (tickets(current) + count > maxCapacity) {
+                return NO_ROOM;
+            }
+            long added = next(current, tickets(current) + count);
+            if (claim(current, added)) {
+                return added;
+            }
+        }
+    }
+
+    /**
+     * Publishes a new state, claiming the current state's log sequence. Counts lost races.
+     *
+     * @param current The state the new one was computed from.
+     * @param next    The new state.
+     * @return false if another thread changed the state first.
+     */
+    private boolean claim(long current, long next) {
+        if (state.compareAndSet(current, next)) {
+            return true;
+        }
+        PoolMetrics.casRetried();
+        return false;
+    }
+
+    /**
+     * Builds the state that follows {@code current}: the next log sequence with a new ticket count.
+     */
+    private static long next(long current, int tickets) {
+        return ((long) (sequence(current) + 1) << 32) | tickets;
+    }
+
+    private static int tickets(long state) {
+        return (int) state;
+    }
+
+    private static int sequence(long state) {
+        return (int) (state >>> 32);
+    }
+
+    /**
+     * Parks the calling vendor until a purchase frees enough space.
+     * The waiter count is published before re-checking the counter under the lock,
+     * so a purchase that lands in between always sees the waiter and signals it.
+     *
+     * @return false if the vendor was interrupted while waiting.
+     */
+    private boolean awaitCapacity(int count, String vendorName) {
+        waitingVendors.incrementAndGet();
+        long waitStart = System.nanoTime();
+        capacityLock.lock();
+        long acquired = profiler != null ? System.nanoTime() : 0;
+        long awaitNanos = 0;
+        int awaits = 0;
+        int futile = 0;
+        try {
+            while (getTotalTickets() + count > maxCapacity) {
+                if (awaits > 0) {
+                    futile++; // Woken up, but there is still no room
+                }
+                Logger.info("{} waiting to add tickets. Pool is at max capacity.", vendorName);
+                long parked = profiler != null ? System.nanoTime() : 0;
+                awaits++;
+                try {
+                    notFull.await();
+                } finally {
+                    if (profiler != null) {
+                        awaitNanos += System.nanoTime() - parked; // Also when interrupted, so it is not counted as hold time
+                    }
+                }
+            }
+            PoolMetrics.vendorWaited(System.nanoTime() - waitStart);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            long released = profiler != null ? System.nanoTime() : 0;
+            capacityLock.unlock();
+            waitingVendors.decrementAndGet();
+            if (profiler != null) {
+                profiler.recordWait(vendorName, ContentionProfiler.Operation.ADD, acquired - waitStart, awaitNanos,
+                        awaits, futile, released - acquired - awaitNanos);
+            }
+        }
+    }
+
+    /**
+     * Wakes vendors blocked at max capacity. Skips the lock entirely when nobody waits.
+     */
+    private void signalVendors(String entityName, ContentionProfiler.Operation operation) {
+        if (waitingVendors.get() == 0) {
+            return;
+        }
+        capacityLock.lock();
+        try {
+            if (profiler != null) {
+                profiler.recordSignal(entityName, operation, capacityLock.getWaitQueueLength(notFull));
+            }
+            notFull.signalAll();
+        } finally {
+            capacityLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.ticketing.model;
+
+import com.ticketing.logging.Logger;
+import com.ticketing.metrics.ContentionProfiler;
+import com.ticketing.metrics.PoolMetrics;
+
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Manages ticket additions and purchases in a locked, thread-safe manner.
+ * Every operation takes the single pool lock; vendors wait on it while the pool is full.
+ * A {@link ReentrantLock} is used instead of {@code synchronized}/{@code wait()} so that
+ * virtual threads blocked at max capacity unmount from their carrier instead of pinning it.
+ */
+public class BlockingTicketPool extends AbstractTicketPool {
+    private int totalTickets;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition poolChanged = lock.newCondition();
+
+    /**
+     * Initializes the TicketPool with initial tickets and maximum capacity.
+     *
+     * @param initialTickets  Initial number of tickets in the pool.
+     * @param maxCapacity     Maximum ticket capacity for the pool.
+     */
+    public BlockingTicketPool(int initialTickets, int maxCapacity) {
+        this(initialTickets, maxCapacity, new InMemoryTransactionLog());
+    }
+
+    /**
+     * Initializes the TicketPool with initial tickets and maximum capacity.
+     *
+     * @param initialTickets  Initial number of tickets in the pool.
+     * @param maxCapacity     Maximum ticket capacity for the pool.
+     * @param transactionLog Destination for completed transactions.
+     */
+    public BlockingTicketPool(int initialTickets, int maxCapacity, TransactionLog transactionLog) {
+        super(maxCapacity, transactionLog);
+        this.totalTickets = initialTickets;
+    }
+
+    @Override
+    public void addTickets(int count, String vendorName) {
+        long requested = profiler != null ? System.nanoTime() : 0;
+        acquire();
+        long acquired = profiler != null ? System.nanoTime() : 0;
+        long awaitNanos = 0;
+        int awaits = 0;
+        int futile = 0;
+        try {
+            long waitStart = 0;
+            while (totalTickets + count > maxCapacity) {
+                if (awaits > 0) {
+                    futile++; // Woken up, but there is still no room
+                }
+                try {
+                    Logger.info("{} waiting to add tickets. Pool is at max capacity.", vendorName);
+                    long parked = System.nanoTime();
+                    if (waitStart == 0) {
+                        waitStart = parked;
+                    }
+                    awaits++;
+                    try {
+                        poolChanged.await();
+                    } finally {
+                        awaitNanos += System.nanoTime() - parked; // Also when interrupted, so it is not counted as hold time
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            if (waitStart != 0) {
+                PoolMetrics.vendorWaited(System.nanoTime() - waitStart);
+            }
+            totalTickets += count;
+            Logger.info("{} added {} tickets. Current Pool: {}", vendorName, count, totalTickets);
+            recordTransaction(ActionType.ADD, vendorName, count, totalTickets);
+            signalAll(vendorName, ContentionProfiler.Operation.ADD);
+        } finally {
+            long released = profiler != null ? System.nanoTime() : 0;
+            lock.unlock();
+            if (profiler != null) {
+                profiler.record(vendorName, ContentionProfiler.Operation.ADD, acquired - requested, awaitNanos, awaits,
+                        futile, released - acquired - awaitNanos);
+            }
+        }
+    }
+
+    @Override
+    protected boolean purchase(int count, String customerName, boolean reportFailure) {
+        long requested = profiler != null ? System.nanoTime() : 0;
+        acquire();
+        long acquired = profiler != null ? System.nanoTime() : 0;
+        try {
+            if (totalTickets >= count) {
+                totalTickets -= count;
+                Logger.info("{} purchased {} tickets. Current Pool: {}", customerName, count, totalTickets);
+                recordTransaction(ActionType.RETRIEVE, customerName, count, totalTickets);
+                signalAll(customerName, ContentionProfiler.Operation.RETRIEVE);
+                return true;
+            } else {
+                if (reportFailure) {
+                    Logger.info("{} failed to purchase {} tickets. Not enough tickets.", customerName, count);
+                    recordFailedPurchase(customerName, count, totalTickets);
+                }
+                signalAll(customerName, ContentionProfiler.Operation.RETRIEVE);
+                return false;
+            }
+        } finally {
+            long released = profiler != null ? System.nanoTime() : 0;
+            lock.unlock();
+            if (profiler != null) {
+                profiler.record(customerName, ContentionProfiler.Operation.RETRIEVE, acquired - requested, 0, 0, 0,
+                        released - acquired);
+            }
+        }
+    }
+
+    @Override
+    public boolean[] processBatch(List<TicketRequest> requests) {
+        boolean[] results = new boolean[requests.size()];
+        int[] remaining = new int[requests.size()];
+        long requested = profiler != null ? System.nanoTime() : 0;
+        acquire();
+        long acquired = profiler != null ? System.nanoTime() : 0;
+        try {
+            for (int i = 0; i < results.length; i++) {
+                TicketRequest request = requests.get(i);
+                int count = request.getCount();
+                if (request.getActionType() == ActionType.ADD) {
+                    results[i] = totalTickets + count <= maxCapacity;
+                    if (results[i]) {
+                        totalTickets += count;
+                    }
+                } else {
+                    results[i] = totalTickets >= count;
+                    if (results[i]) {
+                        totalTickets -= count;
+                    }
+                }
+                remaining[i] = totalTickets;
+                logBatchResult(request, results[i], totalTickets);
+            }
+            recordBatch(requests, results, remaining);
+            signalAll(Thread.currentThread().getName(), ContentionProfiler.Operation.BATCH); // One wake-up for the whole batch
+        } finally {
+            long released = profiler != null ? System.nanoTime() : 0;
+            lock.unlock();
+            if (profiler != null) {
+                profiler.record(Thread.currentThread().getName(), ContentionProfiler.Operation.BATCH,
+                        acquired - requested, 0, 0, 0, released - acquired);
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public int getTotalTickets() {
+        lock.lock();
+        try {
+            return totalTickets;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    protected void applyMaxCapacity(int maxCapacity) {
+        acquire();
+        try {
+            this.maxCapacity = maxCapacity;
+            poolChanged.signalAll(); // Waiting vendors re-check the new limit
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wakes every thread waiting for the pool to change. Call with the lock held.
+     */
+    private void signalAll(String entityName, ContentionProfiler.Operation operation) {
+        if (profiler != null) {
+            profiler.recordSignal(entityName, operation, lock.getWaitQueueLength(poolChanged));
+        }
+        poolChanged.signalAll();
+    }
+
+    /**
+     * Takes the pool lock, counting the acquisitions that found it held by another thread.
+     */
+    private void acquire() {
+        if (!lock.tryLock()) {
+            PoolMetrics.lockContended();
+            lock.lock();
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.ticketing.model;
+
+import com.ticketing.util.BoundedMpscQueue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Front end that coalesces concurrent purchases and releases into batches (group commit).
+ * Callers place their request on a lock-free queue and wait; a committer thread takes the
+ * first waiting request, lingers up to the configured time for more (or until the batch is
+ * full) and applies them all with one {@link TicketPool#processBatch} call, so the pool is
+ * entered once and the log receives one append per batch.
+ * Lingering trades latency for throughput: each request waits up to the linger time in
+ * exchange for sharing the per-call overhead with the rest of its batch.
+ * A release that does not fit in the pool falls back to the blocking {@link #addTickets}
+ * of the underlying pool, so vendors still wait for capacity as before.
+ */
+public class CoalescingTicketPool implements TicketPool {
+    private static final int PENDING = 0;
+    private static final int APPLIED = 1;
+    private static final int REJECTED = 2;
+    private static final int SPINS_BEFORE_PARK = 128;
+
+    private final TicketPool delegate;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final BoundedMpscQueue<PendingRequest> queue;
+    private final Thread committer;
+    private volatile boolean committerParked;
+    private volatile boolean closed;
+
+    /**
+     * A submitted request and the thread waiting for its result.
+     */
+    private static final class PendingRequest {
+        final TicketRequest request;
+        final Thread caller;
+        volatile int state = PENDING;
+
+        PendingRequest(TicketRequest request, Thread caller) {
+            this.request = request;
+            this.caller = caller;
+        }
+    }
+
+    /**
+     * Initializes the front end and starts its committer thread.
+     *
+     * @param delegate      The pool that applies the batches.
+     * @param batchSize     Maximum requests per batch.
+     * @param lingerMicros  Longest time the committer waits for a batch to fill, in microseconds.
+     */
+    public CoalescingTicketPool(TicketPool delegate, int batchSize, int lingerMicros) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1.");
+        }
+        this.delegate = delegate;
+        this.batchSize = batchSize;
+        this.lingerNanos = TimeUnit.MICROSECONDS.toNanos(lingerMicros);
+        this.queue = new BoundedMpscQueue<>(Math.max(1024, batchSize * 16));
+        this.committer = new Thread(this::commitLoop, "ticket-pool-committer");
+        this.committer.setDaemon(true);
+        this.committer.start();
+    }
+
+    @Override
+    public void addTickets(int count, String vendorName) {
+        if (submit(TicketRequest.add(count, vendorName)) != APPLIED) {
+            delegate.addTickets(count, vendorName); // No room yet: wait for capacity the usual way
+        }
+    }
+
+    @Override
+    public boolean retrieveTickets(int count, String customerName) {
+        int state = submit(TicketRequest.purchase(count, customerName));
+        if (state == PENDING) {
+            return delegate.retrieveTickets(count, customerName); // Front end closed or full
+        }
+        return state == APPLIED;
+    }
+
+    @Override
+    public boolean tryRetrieveTickets(int count, String customerName) {
+        int state = submit(TicketRequest.tryPurchase(count, customerName));
+        if (state == PENDING) {
+            return delegate.tryRetrieveTickets(count, customerName); // Front end closed or full
+        }
+        return state == APPLIED;
+    }
+
+    @Override
+    public boolean[] processBatch(List<TicketRequest> requests) {
+        return delegate.processBatch(requests);
+    }
+
+    @Override
+    public boolean acceptsReleases() {
+        return delegate.acceptsReleases();
+    }
+
+    @Override
+    public int getTotalTickets() {
+        return delegate.getTotalTickets();
+    }
+
+    @Override
+    public int getMaxCapacity() {
+        return delegate.getMaxCapacity();
+    }
+
+    @Override
+    public void setMaxCapacity(int maxCapacity) {
+        delegate.setMaxCapacity(maxCapacity);
+    }
+
+    @Override
+    public void setFailureRecording(boolean enabled) {
+        delegate.setFailureRecording(enabled);
+    }
+
+    @Override
+    public List<TicketRecord> getTransactions() {
+        return delegate.getTransactions();
+    }
+
+    @Override
+    public TransactionLog getTransactionLog() {
+        return delegate.getTransactionLog();
+    }
+
+    /**
+     * Retrieves the number of requests waiting for the committer.
+     *
+     * @return Queued request count.
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Stops the committer after it has applied the requests already queued.
+     * Call once vendors and customers have stopped; later calls go straight to the underlying pool.
+     */
+    public void close() {
+        closed = true;
+        LockSupport.unpark(committer);
+        try {
+            committer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Queues a request and waits for the committer to apply it.
+     *
+     * @return APPLIED or REJECTED, or PENDING if the request could not be queued.
+     */
+    private int submit(TicketRequest request) {
+        if (closed) {
+            return PENDING;
+        }
+        PendingRequest pending = new PendingRequest(request, Thread.currentThread());
+        if (!queue.offer(pending)) {
+            return PENDING;
+        }
+        if (committerParked) {
+            LockSupport.unpark(committer);
+        }
+        // The request is applied whether or not the caller is interrupted, so wait for its result;
+        // park returns at once while the interrupt flag is set, so clear it and restore it after
+        int spins = 0;
+        int state;
+        boolean interrupted = false;
+        while ((state = pending.state) == PENDING) {
+            if (spins++ < SPINS_BEFORE_PARK) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.park(this);
+                interrupted |= Thread.interrupted();
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return state;
+    }
+
+    private void commitLoop() {
+        List<PendingRequest> batch = new ArrayList<>(batchSize);
+        List<TicketRequest> requests = new ArrayList<>(batchSize);
+        while (true) {
+            if (queue.drain(batch::add, batchSize) == 0) {
+                if (closed) {
+                    return;
+                }
+                // Publish the parked flag before the final check, so a caller that
+                // queues a request in between always sees it and unparks us
+                committerParked = true;
+                if (queue.size() == 0 && !closed) {
+                    LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(1));
+                }
+                committerParked = false;
+                continue;
+            }
+
+            // Linger for more requests, measured from when the first one was picked up
+            long deadline = System.nanoTime() + lingerNanos;
+            while (batch.size() < batchSize && System.nanoTime() < deadline) {
+                if (queue.drain(batch::add, batchSize - batch.size()) == 0) {
+                    Thread.yield(); // Let callers on the same core submit
+                }
+            }
+
+            for (PendingRequest pending : batch) {
+                requests.add(pending.request);
+            }
+            boolean[] results = delegate.processBatch(requests);
+            for (int i = 0; i < results.length; i++) {
+                PendingRequest pending = batch.get(i);
+                pending.state = results[i] ? APPLIED : REJECTED;
+                LockSupport.unpark(pending.caller);
+            }
+            batch.clear();
+            requests.clear();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.ticketing.model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns entity names ("Vendor-1", "Customer-3", ...) as dense int ids so that
+ * records store four bytes instead of the name. Each name is registered once,
+ * under a short lock; afterwards lookups in both directions are lock-free and
+ * allocation-free.
+ */
+public class EntityDictionary {
+    private static final EntityDictionary SHARED = new EntityDictionary();
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[16]; // Copy-on-grow; slots below size are never rewritten
+    private volatile int size;
+
+    /**
+     * Retrieves the process-wide dictionary used by the transaction logs.
+     *
+     * @return Shared entity dictionary.
+     */
+    public static EntityDictionary shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the id of a name, registering it if it has not been seen before.
+     *
+     * @param name Entity name.
+     * @return The entity id.
+     */
+    public int idOf(String name) {
+        Integer id = ids.get(name);
+        return id != null ? id : register(name);
+    }
+
+    /**
+     * Returns the name registered under an id.
+     *
+     * @param id Entity id.
+     * @return The entity name.
+     * @throws IllegalArgumentException If no name has that id.
+     */
+    public String nameOf(int id) {
+        if (id < 0 || id >= size) {
+            throw new IllegalArgumentException("Unknown entity id: " + id);
+        }
+        return names[id];
+    }
+
+    /**
+     * Retrieves the number of registered names.
+     *
+     * @return Dictionary size.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Retrieves the names registered from a given id onwards, e.g. to persist new entries.
+     *
+     * @param fromId First id to include.
+     * @return Names in id order.
+     */
+    public List<String> namesFrom(int fromId) {
+        int end = size;
+        return Arrays.asList(Arrays.copyOfRange(names, Math.min(fromId, end), end));
+    }
+
+    /**
+     * Loads a dictionary file written one name per line in id order.
+     *
+     * @param file Dictionary file.
+     * @return The loaded dictionary, or an empty one if the file does not exist.
+     * @throws IOException If the file cannot be read.
+     */
+    public static EntityDictionary load(Path file) throws IOException {
+        EntityDictionary dictionary = new EntityDictionary();
+        if (Files.exists(file)) {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    dictionary.register(line);
+                }
+            }
+        }
+        return dictionary;
+    }
+
+    private synchronized int register(String name) {
+        Integer existing = ids.get(name);
+        if (existing != null) {
+            return existing;
+        }
+        int id = size;
+        String[] current = names;
+        if (id == current.length) {
+            current = Arrays.copyOf(current, id * 2);
+        }
+        current[id] = name;
+        names = current;
+        size = id + 1; // Publishes the name before the id becomes visible through the map
+        ids.put(name, id);
+        return id;
+    }
+}
@@ -0,0 +1,152 @@
+package com.ticketing.model;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Keeps every transaction in memory, packed into primitive long arrays.
+ * Appending claims a slot with one atomic increment and writes two longs
+ * (see {@link RecordCodec}); no object is allocated per transaction and no lock
+ * is taken except once per 65,536 records, when a new chunk is added.
+ * {@link TicketRecord} objects are only created when a caller reads the history.
+ * Memory still grows with the length of the run, at 16 bytes per transaction.
+ */
+public class InMemoryTransactionLog implements TransactionLog {
+    private static final int CHUNK_SHIFT = 16;
+    private static final int CHUNK_RECORDS = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_RECORDS - 1;
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final EntityDictionary dictionary;
+    private final long baseTime = System.currentTimeMillis();
+    private final AtomicLong nextIndex = new AtomicLong();
+    private volatile long[][] chunks = new long[16][];
+
+    /**
+     * Initializes an empty log that interns names in the shared dictionary.
+     */
+    public InMemoryTransactionLog() {
+        this(EntityDictionary.shared());
+    }
+
+    /**
+     * Initializes an empty log.
+     *
+     * @param dictionary Dictionary used to intern entity names.
+     */
+    public InMemoryTransactionLog(EntityDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public void append(ActionType actionType, String entityName, int ticketCount, int remainingTickets) {
+        long meta = RecordCodec.encodeMeta(actionType, dictionary.idOf(entityName), ticketCount);
+        long state = RecordCodec.encodeState(remainingTickets, System.currentTimeMillis(), baseTime);
+        store(nextIndex.getAndIncrement(), meta, state);
+    }
+
+    @Override
+    public void append(ActionType actionType, String entityName, int ticketCount, int remainingTickets, int firstSeat) {
+        long meta = RecordCodec.encodeSeatedMeta(actionType, dictionary.idOf(entityName), ticketCount, firstSeat);
+        long state = RecordCodec.encodeState(remainingTickets, System.currentTimeMillis(), baseTime);
+        store(nextIndex.getAndIncrement(), meta, state);
+    }
+
+    /**
+     * Claims slots for all applied requests of a batch with one atomic add.
+     */
+    @Override
+    public void appendBatch(List<TicketRequest> requests, boolean[] results, int[] remaining) {
+        int applied = 0;
+        for (boolean result : results) {
+            if (result) {
+                applied++;
+            }
+        }
+        if (applied == 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long index = nextIndex.getAndAdd(applied);
+        for (int i = 0; i < results.length; i++) {
+            if (results[i]) {
+                TicketRequest request = requests.get(i);
+                long meta = RecordCodec.encodeMeta(request.getActionType(),
+                        dictionary.idOf(request.getEntityName()), request.getCount());
+                store(index++, meta, RecordCodec.encodeState(remaining[i], now, baseTime));
+            }
+        }
+    }
+
+    private void store(long index, long meta, long state) {
+        long[] chunk = chunkFor(index);
+        int slot = (int) (index & CHUNK_MASK) << 1;
+        chunk[slot + 1] = state;
+        SLOTS.setRelease(chunk, slot, meta); // Readers treat a non-zero meta word as a complete record
+    }
+
+    @Override
+    public List<TicketRecord> getTransactions() {
+        List<TicketRecord> records = new ArrayList<>((int) Math.min(size(), Integer.MAX_VALUE - 8));
+        forEachRecord(records::add);
+        return records;
+    }
+
+    /**
+     * Visits the records appended so far, decoding each one on demand.
+     * Pools keep appending while the history is read; no copy is made.
+     */
+    @Override
+    public void forEachRecord(Consumer<? super TicketRecord> action) {
+        long count = nextIndex.get();
+        for (long index = 0; index < count; index++) {
+            long[] chunk = chunks[(int) (index >>> CHUNK_SHIFT)];
+            int slot = (int) (index & CHUNK_MASK) << 1;
+            long meta;
+            while ((meta = (long) SLOTS.getAcquire(chunk, slot)) == 0) {
+                Thread.onSpinWait(); // Slot claimed, writer is between claiming and publishing
+            }
+            action.accept(RecordCodec.decode(meta, chunk[slot + 1], baseTime, dictionary));
+        }
+    }
+
+    /**
+     * Retrieves the number of transactions appended so far.
+     *
+     * @return Transaction count.
+     */
+    public long size() {
+        return nextIndex.get();
+    }
+
+    @Override
+    public void close() {
+        // Nothing to flush
+    }
+
+    private long[] chunkFor(long index) {
+        int chunkIndex = (int) (index >>> CHUNK_SHIFT);
+        long[][] current = chunks;
+        if (chunkIndex < current.length && current[chunkIndex] != null) {
+            return current[chunkIndex];
+        }
+        return addChunk(chunkIndex);
+    }
+
+    private synchronized long[] addChunk(int chunkIndex) {
+        long[][] current = chunks;
+        if (chunkIndex >= current.length) {
+            current = Arrays.copyOf(current, Math.max(chunkIndex + 1, current.length * 2));
+        }
+        if (current[chunkIndex] == null) {
+            current[chunkIndex] = new long[CHUNK_RECORDS << 1];
+        }
+        chunks = current; // Volatile write publishes the new chunk
+        return current[chunkIndex];
+    }
+}
@@ -0,0 +1,120 @@
+package com.ticketing.model;
+
+/**
+ * Packs a transaction into two longs so that it can be stored and queued without
+ * allocating a {@link TicketRecord}.
+ * <pre>
+ * meta  = committed (1 bit) | action code (7 bits) | entity id (24 bits) | ticket count (32 bits)
+ * state = remaining tickets (32 bits) | milliseconds since the store's base time (32 bits)
+ * </pre>
+ * The committed bit keeps an encoded meta word non-zero, so zero can mean "not yet written".
+ * Records of seated pools set the seated flag (the top bit of the action code) and split the
+ * ticket count field into the count (12 bits) and the first of its consecutive seat ids (20 bits).
+ */
+public final class RecordCodec {
+    public static final int MAX_ENTITY_ID = (1 << 24) - 1;
+    public static final int MAX_SEAT_ID = (1 << 20) - 1;
+    public static final int MAX_SEATED_COUNT = (1 << 12) - 1;
+    public static final byte SEATED = 0x40; // Flag in the action code
+    private static final long COMMITTED = 1L << 63;
+
+    private RecordCodec() {
+    }
+
+    /**
+     * Encodes the action, entity and ticket count.
+     *
+     * @param action      Action type.
+     * @param entityId    Entity id from an {@link EntityDictionary}.
+     * @param ticketCount Number of tickets involved.
+     * @return Encoded meta word.
+     */
+    public static long encodeMeta(ActionType action, int entityId, int ticketCount) {
+        if (entityId > MAX_ENTITY_ID) {
+            throw new IllegalArgumentException("Entity id does not fit in 24 bits: " + entityId);
+        }
+        return COMMITTED | ((long) action.getCode() << 56) | ((long) entityId << 32) | (ticketCount & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Encodes the action, entity and a range of consecutive seats.
+     *
+     * @param action      Action type.
+     * @param entityId    Entity id from an {@link EntityDictionary}.
+     * @param ticketCount Number of seats, at most {@link #MAX_SEATED_COUNT}.
+     * @param firstSeat   First seat id, at most {@link #MAX_SEAT_ID}.
+     * @return Encoded meta word.
+     */
+    public static long encodeSeatedMeta(ActionType action, int entityId, int ticketCount, int firstSeat) {
+        if (ticketCount > MAX_SEATED_COUNT || firstSeat > MAX_SEAT_ID) {
+            throw new IllegalArgumentException("Seat range does not fit: " + ticketCount + " from " + firstSeat);
+        }
+        long seats = ((long) ticketCount << 20) | firstSeat;
+        return encodeMeta(action, entityId, 0) | ((long) SEATED << 56) | seats;
+    }
+
+    /**
+     * Encodes the remaining tickets and the time of the action.
+     *
+     * @param remainingTickets Tickets remaining after the action.
+     * @param timestamp        Time of the action in epoch milliseconds.
+     * @param baseTime         Epoch milliseconds the offsets are relative to (about 49 days of range).
+     * @return Encoded state word.
+     */
+    public static long encodeState(int remainingTickets, long timestamp, long baseTime) {
+        return ((long) remainingTickets << 32) | ((timestamp - baseTime) & 0xFFFFFFFFL);
+    }
+
+    // Field accessors for encoded words
+    public static byte actionCode(long meta) {
+        return (byte) ((meta >>> 56) & 0x3F);
+    }
+
+    public static boolean isSeated(long meta) {
+        return ((meta >>> 56) & SEATED) != 0;
+    }
+
+    public static ActionType action(long meta) {
+        return ActionType.fromCode(actionCode(meta));
+    }
+
+    public static int entityId(long meta) {
+        return (int) ((meta >>> 32) & MAX_ENTITY_ID);
+    }
+
+    public static int ticketCount(long meta) {
+        return isSeated(meta) ? (int) (meta >>> 20) & MAX_SEATED_COUNT : (int) meta;
+    }
+
+    /**
+     * Retrieves the first seat of a seated record.
+     *
+     * @param meta Encoded meta word.
+     * @return First seat id, or -1 if the record has no seats.
+     */
+    public static int firstSeat(long meta) {
+        return isSeated(meta) ? (int) meta & MAX_SEAT_ID : -1;
+    }
+
+    public static int remainingTickets(long state) {
+        return (int) (state >> 32);
+    }
+
+    public static long timestamp(long state, long baseTime) {
+        return baseTime + (state & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Materializes an encoded transaction as a {@link TicketRecord}.
+     *
+     * @param meta       Encoded meta word.
+     * @param state      Encoded state word.
+     * @param baseTime   Base time used when encoding the state.
+     * @param dictionary Dictionary that issued the entity id.
+     * @return The decoded record.
+     */
+    public static TicketRecord decode(long meta, long state, long baseTime, EntityDictionary dictionary) {
+        return new TicketRecord(action(meta), dictionary.nameOf(entityId(meta)), ticketCount(meta),
+                remainingTickets(state), timestamp(state, baseTime), firstSeat(meta));
+    }
+}
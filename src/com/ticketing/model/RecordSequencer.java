@@ -0,0 +1,164 @@
+package com.ticketing.model;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Writes a lock-free pool's records to its transaction log in the order of their sequence
+ * numbers, which the pool hands out with the compare-and-set that changes its count.
+ * A thread puts its record in the slot of its sequence and then drains: whichever thread finds
+ * the next slot filled appends the records in order until it reaches a gap. Nobody waits for
+ * a thread that was preempted between its compare-and-set and its record; that thread's record,
+ * and those queued behind it, are appended when it fills its slot.
+ * <p>
+ * Records reach the log shortly after the calls that made them return, and all of them once
+ * the pool is idle. A thread only waits if a whole ring of records is queued behind a gap.
+ */
+class RecordSequencer {
+    private static final int CAPACITY = 1024; // Power of two
+    private static final int MASK = CAPACITY - 1;
+
+    private static final byte TRANSACTION = 0;
+    private static final byte FAILED_PURCHASE = 1;
+    private static final byte BATCH = 2;
+
+    /**
+     * The records of one batch, as passed to {@link AbstractTicketPool#recordBatch}.
+     */
+    private static final class Batch {
+        final List<TicketRequest> requests;
+        final boolean[] results;
+        final int[] remaining;
+
+        Batch(List<TicketRequest> requests, boolean[] results, int[] remaining) {
+            this.requests = requests;
+            this.results = results;
+            this.remaining = remaining;
+        }
+    }
+
+    private final AbstractTicketPool pool;
+    private final AtomicIntegerArray filled = new AtomicIntegerArray(CAPACITY); // Sequence + 1 once a slot holds it
+    private final byte[] kinds = new byte[CAPACITY];
+    private final ActionType[] actions = new ActionType[CAPACITY];
+    private final String[] names = new String[CAPACITY];
+    private final int[] counts = new int[CAPACITY];
+    private final int[] remaining = new int[CAPACITY];
+    private final Batch[] batches = new Batch[CAPACITY];
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile int next; // Sequence of the next record to append; written by the draining thread
+
+    /**
+     * Creates a sequencer for a pool whose first state has sequence 0.
+     *
+     * @param pool Pool whose recording methods append to the log.
+     */
+    RecordSequencer(AbstractTicketPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Queues a completed transaction.
+     *
+     * @param sequence         Sequence claimed with the count change.
+     * @param actionType       Type of action.
+     * @param entityName       Name of the entity performing the action.
+     * @param ticketCount      Number of tickets involved.
+     * @param remainingTickets Tickets remaining after the action.
+     */
+    void transaction(int sequence, ActionType actionType, String entityName, int ticketCount, int remainingTickets) {
+        int slot = reserve(sequence);
+        kinds[slot] = TRANSACTION;
+        actions[slot] = actionType;
+        names[slot] = entityName;
+        counts[slot] = ticketCount;
+        remaining[slot] = remainingTickets;
+        publish(sequence, slot);
+    }
+
+    /**
+     * Queues a failed purchase.
+     *
+     * @param sequence         Sequence claimed without changing the count.
+     * @param customerName     Name of the customer.
+     * @param ticketCount      Number of tickets asked for.
+     * @param remainingTickets Tickets in the pool when the purchase failed.
+     */
+    void failedPurchase(int sequence, String customerName, int ticketCount, int remainingTickets) {
+        int slot = reserve(sequence);
+        kinds[slot] = FAILED_PURCHASE;
+        names[slot] = customerName;
+        counts[slot] = ticketCount;
+        remaining[slot] = remainingTickets;
+        publish(sequence, slot);
+    }
+
+    /**
+     * Queues the records of a batch, which share one sequence.
+     *
+     * @param sequence  Sequence claimed with the batch's count change.
+     * @param requests  The batch, in the order it was applied.
+     * @param results   Which requests were applied.
+     * @param remaining Tickets remaining after each request.
+     */
+    void batch(int sequence, List<TicketRequest> requests, boolean[] results, int[] remaining) {
+        int slot = reserve(sequence);
+        kinds[slot] = BATCH;
+        batches[slot] = new Batch(requests, results, remaining);
+        publish(sequence, slot);
+    }
+
+    /**
+     * Waits, rarely, until the slot of a sequence is free.
+     */
+    private int reserve(int sequence) {
+        while (sequence - next >= CAPACITY) {
+            Thread.yield(); // A whole ring is queued behind a thread that has not filled its slot yet
+        }
+        return sequence & MASK;
+    }
+
+    private void publish(int sequence, int slot) {
+        filled.set(slot, sequence + 1);
+        drain();
+    }
+
+    /**
+     * Appends the filled slots in sequence order. A thread that finds another one draining
+     * leaves its record to it; the draining thread looks once more after it stops.
+     */
+    private void drain() {
+        while (draining.compareAndSet(false, true)) {
+            int sequence = next;
+            try {
+                int slot;
+                while (filled.get(slot = sequence & MASK) == sequence + 1) {
+                    append(slot);
+                    next = ++sequence;
+                }
+            } finally {
+                draining.set(false);
+            }
+            if (filled.get(sequence & MASK) != sequence + 1) {
+                return;
+            }
+        }
+    }
+
+    private void append(int slot) {
+        switch (kinds[slot]) {
+            case TRANSACTION:
+                pool.recordTransaction(actions[slot], names[slot], counts[slot], remaining[slot]);
+                break;
+            case FAILED_PURCHASE:
+                pool.recordFailedPurchase(names[slot], counts[slot], remaining[slot]);
+                break;
+            default:
+                Batch batch = batches[slot];
+                batches[slot] = null;
+                pool.recordBatch(batch.requests, batch.results, batch.remaining);
+        }
+        names[slot] = null;
+    }
+}
@@ -0,0 +1,455 @@
+package com.ticketing.model;
+
+import com.ticketing.logging.Logger;
+import com.ticketing.metrics.ContentionProfiler;
+import com.ticketing.metrics.PoolMetrics;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped ticket pool that spreads the inventory across independent shards.
+ * Each shard owns part of the tickets and part of the maximum capacity, and each
+ * vendor or customer hashes to a home shard. Operations only touch the home
+ * shard while it can serve them, stealing from neighbouring shards when it cannot,
+ * so threads on different cores mostly update different cache lines.
+ * <p>
+ * No operation sees the pool's total, so records carry {@link TicketRecord#UNKNOWN_REMAINING}
+ * instead of the tickets left; their order in the log is only roughly the order of the changes.
+ * Purchases and releases that have to be assembled from several shards take a lock, so that two
+ * of them never hold parts of the inventory that would have been enough for one.
+ * <p>
+ * Each shard's capacity is kept in the same word as its tickets, and the capacities add up to the
+ * pool's maximum capacity, so the pool never holds more than that. When the maximum is lowered
+ * below the tickets on sale, the excess becomes a capacity debt: no tickets are added until
+ * purchases have paid it off.
+ */
+public class ShardedTicketPool extends AbstractTicketPool {
+    // Shard words are spaced one cache line (8 longs) apart to avoid false sharing
+    private static final int STRIDE = 8;
+    private static final int GATHER_ATTEMPTS = 4;
+
+    private final int shardCount;
+    private final AtomicLongArray shards; // Per shard: capacity (high 32 bits) | tickets (low 32 bits)
+    private volatile int capacityDebt; // Capacity still to be removed from shards; changed under both locks
+    private final AtomicInteger waitingVendors = new AtomicInteger();
+    private final ReentrantLock capacityLock = new ReentrantLock();
+    private final Condition notFull = capacityLock.newCondition();
+    private final ReentrantLock gatherLock = new ReentrantLock(); // Held while tickets are assembled from several shards
+
+    /**
+     * Initializes the pool, dividing tickets and capacity evenly between shards.
+     *
+     * @param initialTickets Initial number of tickets in the pool.
+     * @param maxCapacity    Maximum ticket capacity for the pool.
+     * @param shardCount     Number of shards to stripe the inventory across.
+     */
+    public ShardedTicketPool(int initialTickets, int maxCapacity, int shardCount) {
+        this(initialTickets, maxCapacity, shardCount, new InMemoryTransactionLog());
+    }
+
+    /**
+     * Initializes the pool, dividing tickets and capacity evenly between shards.
+     *
+     * @param initialTickets Initial number of tickets in the pool.
+     * @param maxCapacity    Maximum ticket capacity for the pool.
+     * @param shardCount     Number of shards to stripe the inventory across.
+     * @param transactionLog Destination for completed transactions.
+     */
+    public ShardedTicketPool(int initialTickets, int maxCapacity, int shardCount, TransactionLog transactionLog) {
+        super(maxCapacity, transactionLog);
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be at least 1.");
+        }
+        this.shardCount = shardCount;
+        this.shards = new AtomicLongArray(shardCount * STRIDE);
+        for (int i = 0; i < shardCount; i++) {
+            shards.set(i * STRIDE, share(initialTickets, i));
+        }
+        applyMaxCapacity(maxCapacity);
+    }
+
+    @Override
+    public void addTickets(int count, String vendorName) {
+        int home = homeShard(vendorName);
+        while (!tryAdd(home, count)) {
+            if (!awaitCapacity(count, vendorName)) {
+                return;
+            }
+        }
+        Logger.info("{} added {} tickets. Current Pool: {}", vendorName, count, getTotalTickets());
+        recordTransaction(ActionType.ADD, vendorName, count, TicketRecord.UNKNOWN_REMAINING);
+        profileCall(vendorName, ContentionProfiler.Operation.ADD);
+    }
+
+    @Override
+    protected boolean purchase(int count, String customerName, boolean reportFailure) {
+        if (!tryRetrieve(homeShard(customerName), count, customerName)) {
+            if (reportFailure) {
+                Logger.info("{} failed to purchase {} tickets. Not enough tickets.", customerName, count);
+                recordFailedPurchase(customerName, count, TicketRecord.UNKNOWN_REMAINING);
+            }
+            profileCall(customerName, ContentionProfiler.Operation.RETRIEVE);
+            return false;
+        }
+        Logger.info("{} purchased {} tickets. Current Pool: {}", customerName, count, getTotalTickets());
+        recordTransaction(ActionType.RETRIEVE, customerName, count, TicketRecord.UNKNOWN_REMAINING);
+        signalVendors(customerName, ContentionProfiler.Operation.RETRIEVE);
+        profileCall(customerName, ContentionProfiler.Operation.RETRIEVE);
+        return true;
+    }
+
+    /**
+     * Applies each request on its entity's home shard (stealing as usual); the batch
+     * shares one log append and at most one wake-up of waiting vendors.
+     */
+    @Override
+    public boolean[] processBatch(List<TicketRequest> requests) {
+        boolean[] results = new boolean[requests.size()];
+        int[] remaining = new int[requests.size()];
+        boolean freedSpace = false;
+        for (int i = 0; i < results.length; i++) {
+            TicketRequest request = requests.get(i);
+            int home = homeShard(request.getEntityName());
+            if (request.getActionType() == ActionType.ADD) {
+                results[i] = tryAdd(home, request.getCount());
+            } else {
+                results[i] = tryRetrieve(home, request.getCount(), request.getEntityName());
+                freedSpace |= results[i];
+            }
+            remaining[i] = TicketRecord.UNKNOWN_REMAINING;
+            logBatchResult(request, results[i], getTotalTickets());
+        }
+        recordBatch(requests, results, remaining);
+        if (freedSpace) {
+            signalVendors(Thread.currentThread().getName(), ContentionProfiler.Operation.BATCH);
+        }
+        profileCall(Thread.currentThread().getName(), ContentionProfiler.Operation.BATCH);
+        return results;
+    }
+
+    /**
+     * Sums the shards. The result is exact when the pool is quiescent and a
+     * close approximation while operations are in flight, which is enough for reporting.
+     *
+     * @return Total tickets available in the pool.
+     */
+    @Override
+    public int getTotalTickets() {
+        int total = 0;
+        for (int i = 0; i < shardCount; i++) {
+            total += tickets(shards.get(i * STRIDE));
+        }
+        return total;
+    }
+
+    /**
+     * Re-divides the new capacity between the shards. Each shard's capacity is first cut to the
+     * tickets it holds, then the room left under the new maximum is handed out, topping shards up
+     * towards their even share. If the shards already hold more than the new maximum, nothing is
+     * handed out and the excess is owed until purchases have freed that much space.
+     * <p>
+     * Runs under the gather lock, so no shard is missing tickets that a gather would put back.
+     */
+    @Override
+    protected void applyMaxCapacity(int maxCapacity) {
+        gatherLock.lock();
+        capacityLock.lock();
+        try {
+            long held = 0;
+            for (int i = 0; i < shardCount; i++) {
+                int slot = i * STRIDE;
+                long word;
+                do {
+                    word = shards.get(slot);
+                } while (!shards.compareAndSet(slot, word, word(tickets(word), tickets(word))));
+                held += tickets(word);
+            }
+            long room = maxCapacity - held;
+            capacityDebt = (int) Math.max(0, -room);
+            repayDebt(); // Purchases during the cut may have freed space already
+            for (int i = 0; i < shardCount && room > 0; i++) {
+                int slot = i * STRIDE;
+                int topUp = (int) Math.min(room, Math.max(0, share(maxCapacity, i) - capacity(shards.get(slot))));
+                shards.addAndGet(slot, (long) topUp << 32);
+                room -= topUp;
+            }
+            int rest = (int) room;
+            for (int i = 0; i < shardCount && rest > 0; i++) {
+                shards.addAndGet(i * STRIDE, (long) share(rest, i) << 32);
+            }
+            this.maxCapacity = maxCapacity;
+            notFull.signalAll();
+        } finally {
+            capacityLock.unlock();
+            gatherLock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves the number of shards the inventory is striped across.
+     *
+     * @return Shard count.
+     */
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * Takes tickets from the home shard, then from its neighbours. If no single
+     * shard holds enough, the purchase is assembled from several shards under the
+     * gather lock and rolled back if the whole pool cannot cover it. A shard that
+     * received tickets after it was passed can make the whole pool enough again,
+     * so the gather is repeated a few times while the shards add up to the count.
+     */
+    private boolean tryRetrieve(int home, int count, String customerName) {
+        for (int step = 0; step < shardCount; step++) {
+            if (takeUpTo(shard(home, step), count, true) == count) {
+                if (capacityDebt > 0) {
+                    repayDebt();
+                }
+                return true;
+            }
+        }
+        int[] takenPerShard = new int[shardCount];
+        boolean rolledBack = false;
+        gatherLock.lock();
+        try {
+            for (int attempt = 0; attempt < GATHER_ATTEMPTS; attempt++) {
+                int taken = 0;
+                for (int step = 0; step < shardCount && taken < count; step++) {
+                    int index = shard(home, step);
+                    int got = takeUpTo(index, count - taken, false);
+                    takenPerShard[index] = got;
+                    taken += got;
+                }
+                if (taken == count) {
+                    if (capacityDebt > 0) {
+                        repayDebt();
+                    }
+                    return true;
+                }
+                for (int i = 0; i < shardCount; i++) {
+                    if (takenPerShard[i] > 0) {
+                        shards.addAndGet(i * STRIDE, takenPerShard[i]);
+                        takenPerShard[i] = 0;
+                        rolledBack = true;
+                    }
+                }
+                if (getTotalTickets() < count) {
+                    break;
+                }
+            }
+        } finally {
+            gatherLock.unlock();
+            if (rolledBack) {
+                signalVendors(customerName, ContentionProfiler.Operation.RETRIEVE); // Rolled-back tickets briefly occupied capacity a vendor may be waiting for
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Places tickets in the home shard, then its neighbours, splitting the batch
+     * across shards under the gather lock if no single one has room. Returns false
+     * when the whole pool is full.
+     */
+    private boolean tryAdd(int home, int count) {
+        for (int step = 0; step < shardCount; step++) {
+            if (putUpTo(shard(home, step), count, true) == count) {
+                return true;
+            }
+        }
+        gatherLock.lock();
+        try {
+            int placed = 0;
+            int[] placedPerShard = new int[shardCount];
+            for (int step = 0; step < shardCount && placed < count; step++) {
+                int index = shard(home, step);
+                int put = putUpTo(index, count - placed, false);
+                placedPerShard[index] = put;
+                placed += put;
+            }
+            if (placed == count) {
+                return true;
+            }
+            for (int i = 0; i < shardCount; i++) {
+                if (placedPerShard[i] > 0) {
+                    shards.addAndGet(i * STRIDE, -placedPerShard[i]);
+                }
+            }
+            return false;
+        } finally {
+            gatherLock.unlock();
+        }
+    }
+
+    /**
+     * Removes up to {@code count} tickets from one shard.
+     *
+     * @param allOrNothing If true, take nothing unless the shard holds the full count.
+     * @return Number of tickets taken.
+     */
+    private int takeUpTo(int index, int count, boolean allOrNothing) {
+        int slot = index * STRIDE;
+        while (true) {
+            long current = shards.get(slot);
+            int take = Math.min(tickets(current), count);
+            if (take <= 0 || (allOrNothing && take < count)) {
+                return 0;
+            }
+            if (shards.compareAndSet(slot, current, current - take)) {
+                return take;
+            }
+            PoolMetrics.casRetried();
+        }
+    }
+
+    /**
+     * Pays off capacity debt with the space purchases have freed: lowers each shard's capacity
+     * towards the tickets it holds until the debt is paid, then wakes the vendors. No tickets
+     * are added while there is debt, so freed space stays free until it is used for this.
+     * Holds the gather lock, so no gather is about to put tickets back into that space.
+     */
+    private void repayDebt() {
+        gatherLock.lock();
+        capacityLock.lock();
+        try {
+            for (int i = 0; i < shardCount && capacityDebt > 0; i++) {
+                int slot = i * STRIDE;
+                while (true) {
+                    long current = shards.get(slot);
+                    int repaid = Math.min(capacityDebt, capacity(current) - tickets(current));
+                    if (repaid <= 0 || shards.compareAndSet(slot, current, current - ((long) repaid << 32))) {
+                        capacityDebt -= Math.max(0, repaid);
+                        break;
+                    }
+                }
+            }
+            if (capacityDebt == 0) {
+                notFull.signalAll();
+            }
+        } finally {
+            capacityLock.unlock();
+            gatherLock.unlock();
+        }
+    }
+
+    /**
+     * Adds up to {@code count} tickets to one shard without exceeding its capacity.
+     *
+     * @param allOrNothing If true, add nothing unless the shard has room for the full count.
+     * @return Number of tickets added.
+     */
+    private int putUpTo(int index, int count, boolean allOrNothing) {
+        if (capacityDebt > 0) {
+            return 0;
+        }
+        int slot = index * STRIDE;
+        while (true) {
+            long current = shards.get(slot);
+            int put = Math.min(capacity(current) - tickets(current), count);
+            if (put <= 0 || (allOrNothing && put < count)) {
+                return 0;
+            }
+            if (shards.compareAndSet(slot, current, current + put)) {
+                return put;
+            }
+            PoolMetrics.casRetried();
+        }
+    }
+
+    /**
+     * Parks the calling vendor until purchases free enough space anywhere in the pool.
+     *
+     * @return false if the vendor was interrupted while waiting.
+     */
+    private boolean awaitCapacity(int count, String vendorName) {
+        waitingVendors.incrementAndGet();
+        long waitStart = System.nanoTime();
+        capacityLock.lock();
+        long acquired = profiler != null ? System.nanoTime() : 0;
+        long awaitNanos = 0;
+        int awaits = 0;
+        int futile = 0;
+        try {
+            while (capacityDebt > 0 || getTotalTickets() + count > maxCapacity) {
+                if (awaits > 0) {
+                    futile++; // Woken up, but there is still no room
+                }
+                Logger.info("{} waiting to add tickets. Pool is at max capacity.", vendorName);
+                long parked = profiler != null ? System.nanoTime() : 0;
+                awaits++;
+                try {
+                    notFull.await();
+                } finally {
+                    if (profiler != null) {
+                        awaitNanos += System.nanoTime() - parked; // Also when interrupted, so it is not counted as hold time
+                    }
+                }
+            }
+            PoolMetrics.vendorWaited(System.nanoTime() - waitStart);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            long released = profiler != null ? System.nanoTime() : 0;
+            capacityLock.unlock();
+            waitingVendors.decrementAndGet();
+            if (profiler != null) {
+                profiler.recordWait(vendorName, ContentionProfiler.Operation.ADD, acquired - waitStart, awaitNanos,
+                        awaits, futile, released - acquired - awaitNanos);
+            }
+        }
+    }
+
+    /**
+     * Wakes vendors blocked at max capacity. Skips the lock entirely when nobody waits.
+     */
+    private void signalVendors(String entityName, ContentionProfiler.Operation operation) {
+        if (waitingVendors.get() == 0) {
+            return;
+        }
+        capacityLock.lock();
+        try {
+            if (profiler != null) {
+                profiler.recordSignal(entityName, operation, capacityLock.getWaitQueueLength(notFull));
+            }
+            notFull.signalAll();
+        } finally {
+            capacityLock.unlock();
+        }
+    }
+
+    private int homeShard(String entityName) {
+        return (entityName.hashCode() & Integer.MAX_VALUE) % shardCount;
+    }
+
+    private int shard(int home, int step) {
+        int index = home + step;
+        return index >= shardCount ? index - shardCount : index;
+    }
+
+    private static long word(int capacity, int tickets) {
+        return ((long) capacity << 32) | tickets;
+    }
+
+    private static int capacity(long word) {
+        return (int) (word >>> 32);
+    }
+
+    private static int tickets(long word) {
+        return (int) word;
+    }
+
+    /**
+     * Even share of a total for one shard; the remainder goes to the lowest shards.
+     */
+    private int share(int total, int index) {
+        return total / shardCount + (index < total % shardCount ? 1 : 0);
+    }
+}
@@ -0,0 +1,42 @@
+package com.ticketing.model;
+
+/**
+ * A vendor or customer taking part in the simulation.
+ * Entities can either drive themselves in a loop (one thread each) or expose
+ * a single cycle so that a shared scheduler can run many of them on a few threads.
+ */
+public interface SimulatedEntity extends Runnable {
+
+    /**
+     * Performs one action against the ticket pool (one release or one purchase attempt).
+     *
+     * @throws InterruptedException If the entity is interrupted while blocked in the pool.
+     */
+    void runCycle() throws InterruptedException;
+
+    /**
+     * Performs one action on a thread shared with other entities. It must not block in the pool:
+     * a parked thread is one fewer for everybody else, and vendors waiting for room would end up
+     * holding every thread while the customers who make room never get a turn.
+     * The default runs {@link #runCycle}, for entities whose cycle never waits.
+     *
+     * @throws InterruptedException If the entity is interrupted.
+     */
+    default void runTurn() throws InterruptedException {
+        runCycle();
+    }
+
+    /**
+     * Retrieves the pause between two cycles.
+     *
+     * @return Interval in milliseconds.
+     */
+    int getInterval();
+
+    /**
+     * Retrieves the entity's display name (e.g. "Vendor-1").
+     *
+     * @return Entity name.
+     */
+    String getName();
+}
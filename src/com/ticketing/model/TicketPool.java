@@ -1,48 +1,40 @@
 package com.ticketing.model;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 /**
- * Manages ticket additions and purchases in a synchronized, thread-safe manner.
+ * Shared pool of tickets that vendors add to and customers purchase from.
+ * Implementations must be thread-safe and enforce the maximum capacity.
  */
-public class TicketPool {
-    private int totalTickets;
-    private final int maxCapacity;
-    private final List<TicketRecord> transactions = Collections.synchronizedList(new ArrayList<>());
+public interface TicketPool {
 
     /**
-     * Initializes the TicketPool with initial tickets and maximum capacity.
+     * Adds tickets to the pool. Blocks if adding tickets would exceed max capacity.
      *
-     * @param initialTickets  Initial number of tickets in the pool.
-     * @param maxCapacity     Maximum ticket capacity for the pool.
+     * @param count      Number of tickets to add.
+     * @param vendorName Name of the vendor adding tickets.
      */
-    public TicketPool(int initialTickets, int maxCapacity) {
-        this.totalTickets = initialTickets;
-        this.maxCapacity = maxCapacity;
-    }
+    void addTickets(int count, String vendorName);
 
     /**
-     * Adds tickets to the pool. Blocks if adding tickets would exceed max capacity.
+     * Adds tickets to the pool if they fit, without blocking. The default applies a batch of one.
      *
      * @param count      Number of tickets to add.
      * @param vendorName Name of the vendor adding tickets.
+     * @return true if the tickets were added, false if they would exceed max capacity.
+     */
+    default boolean tryAddTickets(int count, String vendorName) {
+        return processBatch(List.of(TicketRequest.add(count, vendorName)))[0];
+    }
+
+    /**
+     * Checks whether tickets can still be added. A pool with a fixed stock, such as the seats of
+     * a venue, stops accepting releases once all of it has been put on sale.
+     *
+     * @return false once {@link #addTickets} can never add tickets again.
      */
-    public synchronized void addTickets(int count, String vendorName) {
-        while (totalTickets + count > maxCapacity) {
-            try {
-                System.out.println(vendorName + " waiting to add tickets. Pool is at max capacity.");
-                wait();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                return;
-            }
-        }
-        totalTickets += count;
-        System.out.println(vendorName + " added " + count + " tickets. Current Pool: " + totalTickets);
-        transactions.add(new TicketRecord("ADD", vendorName, count, totalTickets));
-        notifyAll();
+    default boolean acceptsReleases() {
+        return true;
     }
 
     /**
@@ -52,35 +44,74 @@ public class TicketPool {
      * @param customerName  Name of the customer attempting to purchase.
      * @return true if tickets were purchased, false otherwise.
      */
-    public synchronized boolean retrieveTickets(int count, String customerName) {
-        if (totalTickets >= count) {
-            totalTickets -= count;
-            System.out.println(customerName + " purchased " + count + " tickets. Current Pool: " + totalTickets);
-            transactions.add(new TicketRecord("RETRIEVE", customerName, count, totalTickets));
-            notifyAll();
-            return true;
-        } else {
-            System.out.println(customerName + " failed to purchase " + count + " tickets. Not enough tickets.");
-            notifyAll();
-            return false;
-        }
-    }
+    boolean retrieveTickets(int count, String customerName);
+
+    /**
+     * Purchases tickets if available, like {@link #retrieveTickets}, but a purchase that finds too
+     * few tickets leaves no trace: it is not logged, counted as failed or recorded as
+     * {@link ActionType#RETRIEVE_FAILED}. For callers that try again or report the failure themselves.
+     *
+     * @param count         Number of tickets to purchase.
+     * @param customerName  Name of the customer attempting to purchase.
+     * @return true if tickets were purchased, false otherwise.
+     */
+    boolean tryRetrieveTickets(int count, String customerName);
+
+    /**
+     * Applies a batch of purchases and releases in order, as one unit of work:
+     * the pool is entered once, the successful requests are recorded with a single
+     * log append and waiting vendors are woken at most once.
+     * Unlike {@link #addTickets}, a release that does not fit fails instead of blocking.
+     *
+     * @param requests Purchases and releases to apply, in order.
+     * @return Per-request results; true if the request was applied.
+     */
+    boolean[] processBatch(List<TicketRequest> requests);
 
     /**
      * Retrieves the current total number of tickets.
      *
      * @return Total tickets available in the pool.
      */
-    public synchronized int getTotalTickets() {
-        return totalTickets;
-    }
+    int getTotalTickets();
+
+    /**
+     * Retrieves the maximum ticket capacity of the pool.
+     *
+     * @return Maximum number of tickets the pool can hold.
+     */
+    int getMaxCapacity();
+
+    /**
+     * Changes the maximum capacity while the pool is in use. Vendors waiting for room are woken
+     * if it grows. If it shrinks below the tickets on sale, no tickets are taken away; vendors
+     * block until purchases bring the pool under the new capacity.
+     *
+     * @param maxCapacity New maximum capacity, at least 1.
+     * @throws UnsupportedOperationException If the pool's capacity is fixed.
+     */
+    void setMaxCapacity(int maxCapacity);
+
+    /**
+     * Turns recording of failed purchases on or off. When on, every purchase that finds too few
+     * tickets is also written to the transaction log as a {@link ActionType#RETRIEVE_FAILED} record,
+     * so that failure rates can be computed from the log. Off by default.
+     *
+     * @param enabled true to record failed purchases.
+     */
+    void setFailureRecording(boolean enabled);
 
     /**
      * Retrieves a copy of all transactions for safe external use.
      *
      * @return List of transactions.
      */
-    public synchronized List<TicketRecord> getTransactions() {
-        return new ArrayList<>(transactions);
-    }
-}
\ No newline at end of file
+    List<TicketRecord> getTransactions();
+
+    /**
+     * Retrieves the log that receives this pool's transactions.
+     *
+     * @return The transaction log.
+     */
+    TransactionLog getTransactionLog();
+}
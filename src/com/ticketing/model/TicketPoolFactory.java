@@ -0,0 +1,151 @@
+package com.ticketing.model;
+
+import com.ticketing.config.Configuration;
+import com.ticketing.metrics.PoolMetrics;
+import com.ticketing.seating.SeatInventory;
+import com.ticketing.seating.SeatedTicketPool;
+
+/**
+ * Creates the ticket pool implementation selected in the configuration.
+ */
+public final class TicketPoolFactory {
+    public static final String BLOCKING = "blocking"; // Single ReentrantLock, vendors await a Condition
+    public static final String ATOMIC = "atomic";     // CAS on an atomic inventory counter
+    public static final String SHARDED = "sharded";   // Inventory striped across per-core shards
+    public static final String SEATED = "seated";     // Individual seats in sections, with timed holds
+
+    private TicketPoolFactory() {
+    }
+
+    /**
+     * Builds a ticket pool from the given configuration, behind a coalescing
+     * front end if request batching is configured and a wait line if purchases wait for tickets.
+     *
+     * @param config         The system configuration.
+     * @param transactionLog Destination for the pool's transactions.
+     * @return A new ticket pool of the configured type.
+     */
+    public static TicketPool create(Configuration config, TransactionLog transactionLog) {
+        return create(config, config.getTotalTickets(), transactionLog);
+    }
+
+    /**
+     * Builds a ticket pool from the given configuration with a different starting ticket count,
+     * e.g. the count recovered from the transaction journal.
+     *
+     * @param config         The system configuration.
+     * @param initialTickets Tickets in the pool at start.
+     * @param transactionLog Destination for the pool's transactions.
+     * @return A new ticket pool of the configured type.
+     */
+    public static TicketPool create(Configuration config, int initialTickets, TransactionLog transactionLog) {
+        TicketPool pool = SEATED.equals(config.getPoolType())
+                ? new SeatedTicketPool(initialTickets, config.getMaxTicketCapacity(),
+                        config.getSeatSectionSize(), transactionLog)
+                : create(config.getPoolType(), initialTickets, config.getMaxTicketCapacity(),
+                        config.getShardCount(), transactionLog);
+        TicketPool front = waitInLine(coalesce(pool, config.getCoalesceBatchSize(), config.getCoalesceLingerMicros()),
+                config.getPurchaseWaitMode(), config.getPriorityTiers(), config.getPurchaseWaitTimeoutMs());
+        front.setFailureRecording(config.isRecordFailedPurchases());
+        return front;
+    }
+
+    /**
+     * Places a wait line in front of a pool, so customers wait for tickets instead of retrying.
+     *
+     * @param pool          The pool that holds the tickets.
+     * @param mode          "retry" returns the pool unchanged; "fifo" or "priority" adds the line.
+     * @param priorityTiers Number of tiers in "priority" mode.
+     * @param timeoutMs     Longest time a customer waits in line, in milliseconds.
+     * @return The front end, or the pool itself in "retry" mode.
+     */
+    public static TicketPool waitInLine(TicketPool pool, String mode, int priorityTiers, int timeoutMs) {
+        if (WaitingTicketPool.RETRY.equals(mode)) {
+            return pool;
+        }
+        WaitingTicketPool waiting = new WaitingTicketPool(pool, mode, priorityTiers, timeoutMs);
+        PoolMetrics.registerGauge("waitline.customers", waiting::getWaitingCount);
+        return waiting;
+    }
+
+    /**
+     * Places a coalescing front end in front of a pool.
+     *
+     * @param pool         The pool that applies the batches.
+     * @param batchSize    Maximum requests per batch; 1 returns the pool unchanged.
+     * @param lingerMicros Longest wait for a batch to fill, in microseconds.
+     * @return The front end, or the pool itself if batching is disabled.
+     */
+    public static TicketPool coalesce(TicketPool pool, int batchSize, int lingerMicros) {
+        if (batchSize <= 1) {
+            return pool;
+        }
+        CoalescingTicketPool coalescing = new CoalescingTicketPool(pool, batchSize, lingerMicros);
+        PoolMetrics.registerGauge("coalescer.queue", coalescing::getQueueDepth);
+        return coalescing;
+    }
+
+    /**
+     * Builds a ticket pool of the given type.
+     *
+     * @param poolType       Pool implementation name ("blocking", "atomic", "sharded" or "seated").
+     * @param initialTickets Initial number of tickets in the pool.
+     * @param maxCapacity    Maximum ticket capacity for the pool.
+     * @param shardCount     Number of shards, used only by the sharded pool.
+     * @return A new ticket pool that keeps its transactions in memory.
+     */
+    public static TicketPool create(String poolType, int initialTickets, int maxCapacity, int shardCount) {
+        return create(poolType, initialTickets, maxCapacity, shardCount, new InMemoryTransactionLog());
+    }
+
+    /**
+     * Builds a ticket pool of the given type that records to the given log.
+     *
+     * @param poolType       Pool implementation name ("blocking", "atomic", "sharded" or "seated").
+     * @param initialTickets Initial number of tickets in the pool.
+     * @param maxCapacity    Maximum ticket capacity for the pool.
+     * @param shardCount     Number of shards, used only by the sharded pool.
+     * @param transactionLog Destination for the pool's transactions.
+     * @return A new ticket pool.
+     */
+    public static TicketPool create(String poolType, int initialTickets, int maxCapacity, int shardCount,
+                                    TransactionLog transactionLog) {
+        switch (poolType) {
+            case ATOMIC:
+                return new AtomicTicketPool(initialTickets, maxCapacity, transactionLog);
+            case SHARDED:
+                return new ShardedTicketPool(initialTickets, maxCapacity, shardCount, transactionLog);
+            case SEATED:
+                return new SeatedTicketPool(initialTickets, maxCapacity, SeatInventory.DEFAULT_SECTION_SIZE,
+                        transactionLog);
+            case BLOCKING:
+                return new BlockingTicketPool(initialTickets, maxCapacity, transactionLog);
+            default:
+                throw new IllegalArgumentException("Unknown pool type: " + poolType);
+        }
+    }
+
+    /**
+     * Stops the committer of a coalescing front end built here, behind a wait line or not.
+     * Does nothing for other pools. Call once vendors and customers have stopped.
+     *
+     * @param pool A pool built by this factory.
+     */
+    public static void close(TicketPool pool) {
+        TicketPool front = pool instanceof WaitingTicketPool ? ((WaitingTicketPool) pool).getDelegate() : pool;
+        if (front instanceof CoalescingTicketPool) {
+            ((CoalescingTicketPool) front).close();
+        }
+    }
+
+    /**
+     * Checks whether the given name refers to a known pool implementation.
+     *
+     * @param poolType Pool implementation name.
+     * @return true if the name is supported.
+     */
+    public static boolean isSupported(String poolType) {
+        return BLOCKING.equals(poolType) || ATOMIC.equals(poolType) || SHARDED.equals(poolType)
+                || SEATED.equals(poolType);
+    }
+}
@@ -3,28 +3,63 @@ package com.ticketing.model;
  * Represents a record of an action in the com.com.ticketing system.
  */
 public class TicketRecord {
-    private final String actionType; // "ADD" or "RETRIEVE"
+    /** Remaining tickets of a record whose pool does not track the total per transaction (sharded pool). */
+    public static final int UNKNOWN_REMAINING = -1;
+
+    private final ActionType actionType; // ADD or RETRIEVE
     private final String entityName; // Name of the vendor or customer
     private final int ticketCount; // Number of tickets involved in the action
     private final int remainingTickets; // Tickets remaining in the pool after the action
+    private final long timestamp; // Epoch millis of the action
+    private final Integer firstSeat; // First of ticketCount consecutive seat ids; null (omitted from JSON) without seats
 
     /**
      * Initializes a TicketRecord object.
      *
-     * @param actionType       Type of action ("ADD" or "RETRIEVE").
+     * @param actionType       Type of action (ADD or RETRIEVE).
+     * @param entityName       Name of the entity performing the action.
+     * @param ticketCount      Number of tickets involved.
+     * @param remainingTickets Tickets remaining after the action.
+     */
+    public TicketRecord(ActionType actionType, String entityName, int ticketCount, int remainingTickets) {
+        this(actionType, entityName, ticketCount, remainingTickets, System.currentTimeMillis());
+    }
+
+    /**
+     * Initializes a TicketRecord object with an explicit timestamp.
+     *
+     * @param actionType       Type of action (ADD or RETRIEVE).
      * @param entityName       Name of the entity performing the action.
      * @param ticketCount      Number of tickets involved.
      * @param remainingTickets Tickets remaining after the action.
+     * @param timestamp        Time of the action in epoch milliseconds.
      */
-    public TicketRecord(String actionType, String entityName, int ticketCount, int remainingTickets) {
+    public TicketRecord(ActionType actionType, String entityName, int ticketCount, int remainingTickets, long timestamp) {
+        this(actionType, entityName, ticketCount, remainingTickets, timestamp, -1);
+    }
+
+    /**
+     * Initializes a TicketRecord object for a range of consecutive seats.
+     *
+     * @param actionType       Type of action (ADD or RETRIEVE).
+     * @param entityName       Name of the entity performing the action.
+     * @param ticketCount      Number of seats involved.
+     * @param remainingTickets Seats on sale after the action.
+     * @param timestamp        Time of the action in epoch milliseconds.
+     * @param firstSeat        Id of the first seat, or -1 if the record has no seats.
+     */
+    public TicketRecord(ActionType actionType, String entityName, int ticketCount, int remainingTickets, long timestamp,
+                        int firstSeat) {
         this.actionType = actionType;
         this.entityName = entityName;
         this.ticketCount = ticketCount;
         this.remainingTickets = remainingTickets;
+        this.timestamp = timestamp;
+        this.firstSeat = firstSeat >= 0 ? firstSeat : null;
     }
 
     // Getters for ticket record details
-    public String getActionType() {
+    public ActionType getActionType() {
         return actionType;
     }
 
@@ -36,15 +71,45 @@ public class TicketRecord {
         return ticketCount;
     }
 
+    /**
+     * Retrieves the tickets left in the pool after the action.
+     *
+     * @return Ticket count, or {@link #UNKNOWN_REMAINING} if the pool did not record it.
+     */
     public int getRemainingTickets() {
         return remainingTickets;
     }
 
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public int getFirstSeat() {
+        return firstSeat != null ? firstSeat : -1;
+    }
+
+    /**
+     * Retrieves the ids of the seats involved in the action.
+     *
+     * @return Seat ids, or an empty array if the record has no seats.
+     */
+    public int[] getSeatIds() {
+        if (firstSeat == null) {
+            return new int[0];
+        }
+        int[] seats = new int[ticketCount];
+        for (int i = 0; i < ticketCount; i++) {
+            seats[i] = firstSeat + i;
+        }
+        return seats;
+    }
+
     @Override
     public String toString() {
         return "TicketRecord[actionType=" + actionType +
                 ", entityName=" + entityName +
                 ", ticketCount=" + ticketCount +
-                ", remainingTickets=" + remainingTickets + "]";
+                ", remainingTickets=" + remainingTickets +
+                (firstSeat != null ? ", seats=" + firstSeat + "-" + (firstSeat + ticketCount - 1) : "") + "]";
     }
 }
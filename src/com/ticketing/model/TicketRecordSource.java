@@ -0,0 +1,20 @@
+package com.ticketing.model;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Sequence of ticket records that can be visited one at a time, without
+ * materializing the whole history in memory.
+ */
+@FunctionalInterface
+public interface TicketRecordSource {
+
+    /**
+     * Visits every record in order.
+     *
+     * @param action Receives each record.
+     * @throws IOException If the records have to be read from storage and reading fails.
+     */
+    void forEachRecord(Consumer<? super TicketRecord> action) throws IOException;
+}
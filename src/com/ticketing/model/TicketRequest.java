@@ -0,0 +1,79 @@
+package com.ticketing.model;
+
+/**
+ * One purchase or release in a batch submitted to {@link TicketPool#processBatch}.
+ */
+public final class TicketRequest {
+    private final ActionType actionType;
+    private final int count;
+    private final String entityName;
+    private final boolean reportsFailure;
+
+    /**
+     * Initializes a request.
+     *
+     * @param actionType ADD for a vendor release, RETRIEVE for a customer purchase.
+     * @param count      Number of tickets.
+     * @param entityName Name of the vendor or customer.
+     */
+    public TicketRequest(ActionType actionType, int count, String entityName) {
+        this(actionType, count, entityName, true);
+    }
+
+    private TicketRequest(ActionType actionType, int count, String entityName, boolean reportsFailure) {
+        this.actionType = actionType;
+        this.count = count;
+        this.entityName = entityName;
+        this.reportsFailure = reportsFailure;
+    }
+
+    /**
+     * Creates a purchase request.
+     *
+     * @param count        Number of tickets to purchase.
+     * @param customerName Name of the customer.
+     * @return The request.
+     */
+    public static TicketRequest purchase(int count, String customerName) {
+        return new TicketRequest(ActionType.RETRIEVE, count, customerName);
+    }
+
+    /**
+     * Creates a purchase request that, like {@link TicketPool#tryRetrieveTickets}, is not logged,
+     * counted or recorded if it finds too few tickets.
+     *
+     * @param count        Number of tickets to purchase.
+     * @param customerName Name of the customer.
+     * @return The request.
+     */
+    public static TicketRequest tryPurchase(int count, String customerName) {
+        return new TicketRequest(ActionType.RETRIEVE, count, customerName, false);
+    }
+
+    /**
+     * Creates a release request.
+     *
+     * @param count      Number of tickets to add.
+     * @param vendorName Name of the vendor.
+     * @return The request.
+     */
+    public static TicketRequest add(int count, String vendorName) {
+        return new TicketRequest(ActionType.ADD, count, vendorName);
+    }
+
+    public ActionType getActionType() {
+        return actionType;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public String getEntityName() {
+        return entityName;
+    }
+
+    public boolean reportsFailure() {
+        return reportsFailure;
+    }
+}
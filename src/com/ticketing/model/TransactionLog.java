@@ -0,0 +1,62 @@
+package com.ticketing.model;
+
+import java.util.List;
+
+/**
+ * Destination for the transactions performed on a ticket pool.
+ * Recorded transactions can be visited incrementally through {@link #forEachRecord},
+ * which must keep working after {@link #close()} so the history can be exported at exit.
+ */
+public interface TransactionLog extends TicketRecordSource {
+
+    /**
+     * Records a completed transaction.
+     *
+     * @param actionType       Type of action (ADD or RETRIEVE).
+     * @param entityName       Name of the entity performing the action.
+     * @param ticketCount      Number of tickets involved.
+     * @param remainingTickets Tickets remaining after the action.
+     */
+    void append(ActionType actionType, String entityName, int ticketCount, int remainingTickets);
+
+    /**
+     * Records a completed transaction on a range of consecutive seats.
+     *
+     * @param actionType       Type of action (ADD or RETRIEVE).
+     * @param entityName       Name of the entity performing the action.
+     * @param ticketCount      Number of seats involved.
+     * @param remainingTickets Seats on sale after the action.
+     * @param firstSeat        Id of the first seat.
+     */
+    void append(ActionType actionType, String entityName, int ticketCount, int remainingTickets, int firstSeat);
+
+    /**
+     * Records the successful requests of a batch as one append.
+     * The default appends them one at a time; logs override it to reserve space for the
+     * whole batch at once.
+     *
+     * @param requests  The batch, in the order it was applied.
+     * @param results   Which requests were applied; only those are recorded.
+     * @param remaining Tickets remaining after each request.
+     */
+    default void appendBatch(List<TicketRequest> requests, boolean[] results, int[] remaining) {
+        for (int i = 0; i < requests.size(); i++) {
+            if (results[i]) {
+                TicketRequest request = requests.get(i);
+                append(request.getActionType(), request.getEntityName(), request.getCount(), remaining[i]);
+            }
+        }
+    }
+
+    /**
+     * Retrieves a copy of all recorded transactions for safe external use.
+     *
+     * @return List of transactions.
+     */
+    List<TicketRecord> getTransactions();
+
+    /**
+     * Flushes any buffered transactions and releases resources.
+     */
+    void close();
+}
@@ -0,0 +1,294 @@
+package com.ticketing.model;
+
+import com.ticketing.logging.Logger;
+import com.ticketing.metrics.PoolMetrics;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Front end that lets customers wait in line for tickets instead of failing and retrying.
+ * A purchase that finds too few tickets parks its caller in a wait queue; a vendor that adds
+ * tickets serves the queue from the head, buying on behalf of each waiting customer in turn and
+ * unparking it, so nobody polls the pool. Each hand-off is one purchase, one unlink and one
+ * unpark, whatever the length of the queue.
+ * <p>
+ * In "fifo" mode there is a single line. In "priority" mode there is one line per tier and the
+ * highest non-empty tier is served first; the tier of a customer comes from its number
+ * (Customer-1 in tier 0, Customer-2 in tier 1, ...), standing in for membership levels.
+ * Service is strict: if the customer at the head wants more tickets than the pool holds, the
+ * customers behind it keep waiting too, and new purchases join the back of the line instead of
+ * taking the tickets first. A customer that waits longer than the timeout leaves the line and its
+ * purchase fails as before.
+ */
+public class WaitingTicketPool implements TicketPool {
+    public static final String RETRY = "retry";       // No waiting: a purchase fails at once and the customer retries
+    public static final String FIFO = "fifo";         // One line, served in order of arrival
+    public static final String PRIORITY = "priority"; // One line per tier, higher tiers first
+
+    private final TicketPool delegate;
+    private final int tiers;
+    private final long timeoutNanos;
+    private final ReentrantLock lock = new ReentrantLock(); // Guards the lines
+    private final Waiter[] heads;
+    private final Waiter[] tails;
+    private volatile int waiting; // Customers in line; written with the lock held
+    private volatile boolean failureRecording;
+
+    /**
+     * A customer waiting in line. Links are only touched with the lock held.
+     */
+    private static final class Waiter {
+        final String customerName;
+        final int count;
+        final int tier;
+        final Thread thread;
+        Waiter previous;
+        Waiter next;
+        volatile boolean served;
+
+        Waiter(String customerName, int count, int tier, Thread thread) {
+            this.customerName = customerName;
+            this.count = count;
+            this.tier = tier;
+            this.thread = thread;
+        }
+    }
+
+    /**
+     * Initializes the front end.
+     *
+     * @param delegate      The pool that holds the tickets.
+     * @param mode          "fifo" or "priority".
+     * @param priorityTiers Number of tiers in "priority" mode.
+     * @param timeoutMs     Longest time a customer waits in line, in milliseconds.
+     */
+    public WaitingTicketPool(TicketPool delegate, String mode, int priorityTiers, int timeoutMs) {
+        if (!FIFO.equals(mode) && !PRIORITY.equals(mode)) {
+            throw new IllegalArgumentException("Unknown wait mode: " + mode);
+        }
+        if (priorityTiers < 1) {
+            throw new IllegalArgumentException("Priority tiers must be at least 1.");
+        }
+        this.delegate = delegate;
+        this.tiers = PRIORITY.equals(mode) ? priorityTiers : 1;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        this.heads = new Waiter[tiers];
+        this.tails = new Waiter[tiers];
+    }
+
+    /**
+     * Checks whether the given name refers to a known wait mode.
+     *
+     * @param mode Wait mode name.
+     * @return true if the name is supported.
+     */
+    public static boolean isSupported(String mode) {
+        return RETRY.equals(mode) || FIFO.equals(mode) || PRIORITY.equals(mode);
+    }
+
+    @Override
+    public void addTickets(int count, String vendorName) {
+        delegate.addTickets(count, vendorName);
+        if (waiting > 0) {
+            lock.lock();
+            try {
+                serveWaiters();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public boolean retrieveTickets(int count, String customerName) {
+        // Nobody in line: buy directly without touching the lock. Not recorded if it misses, as the customer waits next
+        if (waiting == 0 && delegate.tryRetrieveTickets(count, customerName)) {
+            return true;
+        }
+        Waiter waiter;
+        lock.lock();
+        try {
+            // Checked again with the lock held, so a vendor that added tickets meanwhile is not missed
+            if (waiting == 0 && delegate.tryRetrieveTickets(count, customerName)) {
+                return true;
+            }
+            waiter = new Waiter(customerName, count, tierOf(customerName), Thread.currentThread());
+            enqueue(waiter);
+        } finally {
+            lock.unlock();
+        }
+        Logger.info("{} waiting for {} tickets. Customers in line: {}", customerName, count, waiting);
+
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (!waiter.served) {
+            long left = deadline - System.nanoTime();
+            if (left <= 0 || Thread.currentThread().isInterrupted()) {
+                break;
+            }
+            LockSupport.parkNanos(this, left);
+        }
+        if (waiter.served) {
+            return true;
+        }
+        int remaining;
+        lock.lock();
+        try {
+            if (waiter.served) {
+                return true; // Served while the wait ran out
+            }
+            unlink(waiter);
+            serveWaiters(); // The customers behind may fit in what is left
+            remaining = delegate.getTotalTickets();
+        } finally {
+            lock.unlock();
+        }
+        Logger.info("{} stopped waiting for {} tickets. Current Pool: {}", customerName, count, remaining);
+        PoolMetrics.purchaseFailed();
+        if (failureRecording) {
+            delegate.getTransactionLog().append(ActionType.RETRIEVE_FAILED, customerName, count, remaining);
+        }
+        return false;
+    }
+
+    /**
+     * Buys only if nobody is in line, without waiting: a customer that tries may not pass the line.
+     */
+    @Override
+    public boolean tryRetrieveTickets(int count, String customerName) {
+        return waiting == 0 && delegate.tryRetrieveTickets(count, customerName);
+    }
+
+    /**
+     * Hands tickets to the customers at the head of the line while the pool has enough for them.
+     * Call with the lock held.
+     */
+    private void serveWaiters() {
+        while (waiting > 0) {
+            Waiter head = null;
+            for (int tier = 0; head == null; tier++) {
+                head = heads[tier];
+            }
+            if (!delegate.tryRetrieveTickets(head.count, head.customerName)) {
+                return; // Strict order: the rest waits for the head
+            }
+            unlink(head);
+            head.served = true;
+            LockSupport.unpark(head.thread);
+        }
+    }
+
+    private void enqueue(Waiter waiter) {
+        int tier = waiter.tier;
+        waiter.previous = tails[tier];
+        if (tails[tier] == null) {
+            heads[tier] = waiter;
+        } else {
+            tails[tier].next = waiter;
+        }
+        tails[tier] = waiter;
+        waiting++;
+    }
+
+    private void unlink(Waiter waiter) {
+        int tier = waiter.tier;
+        if (waiter.previous == null) {
+            heads[tier] = waiter.next;
+        } else {
+            waiter.previous.next = waiter.next;
+        }
+        if (waiter.next == null) {
+            tails[tier] = waiter.previous;
+        } else {
+            waiter.next.previous = waiter.previous;
+        }
+        waiter.previous = null;
+        waiter.next = null;
+        waiting--;
+    }
+
+    /**
+     * Finds a customer's tier from the number in its name; names without one go to the lowest tier.
+     */
+    private int tierOf(String customerName) {
+        if (tiers == 1) {
+            return 0;
+        }
+        try {
+            int number = Integer.parseInt(customerName.substring(customerName.lastIndexOf('-') + 1));
+            return Math.floorMod(number - 1, tiers);
+        } catch (NumberFormatException e) {
+            return tiers - 1;
+        }
+    }
+
+    /**
+     * Retrieves the number of customers waiting in line.
+     *
+     * @return Waiting customer count.
+     */
+    public int getWaitingCount() {
+        return waiting;
+    }
+
+    /**
+     * Retrieves the pool behind the wait line.
+     *
+     * @return The pool that holds the tickets.
+     */
+    public TicketPool getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public boolean[] processBatch(List<TicketRequest> requests) {
+        boolean[] results = delegate.processBatch(requests);
+        if (waiting > 0) {
+            lock.lock();
+            try {
+                serveWaiters(); // The batch may have released tickets
+            } finally {
+                lock.unlock();
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public boolean acceptsReleases() {
+        return delegate.acceptsReleases();
+    }
+
+    @Override
+    public int getTotalTickets() {
+        return delegate.getTotalTickets();
+    }
+
+    @Override
+    public int getMaxCapacity() {
+        return delegate.getMaxCapacity();
+    }
+
+    @Override
+    public void setMaxCapacity(int maxCapacity) {
+        delegate.setMaxCapacity(maxCapacity);
+    }
+
+    @Override
+    public void setFailureRecording(boolean enabled) {
+        failureRecording = enabled;
+        delegate.setFailureRecording(enabled);
+    }
+
+    @Override
+    public List<TicketRecord> getTransactions() {
+        return delegate.getTransactions();
+    }
+
+    @Override
+    public TransactionLog getTransactionLog() {
+        return delegate.getTransactionLog();
+    }
+}
@@ -0,0 +1,122 @@
+package com.ticketing.producer;
+
+import com.ticketing.metrics.MetricsSnapshot;
+import com.ticketing.metrics.PoolMetrics;
+import com.ticketing.model.TicketPool;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feedback loop that steers how fast vendors release tickets, to keep the pool near a target
+ * fill level: full enough that purchases rarely fail, with enough room that vendors rarely
+ * block at max capacity. Every period it reads the live counters of {@link PoolMetrics} and
+ * the pool's ticket count, and aims the release rate at the rate tickets are being sold plus
+ * a correction that would close the gap to the target within one period. The vendors' interval
+ * is scaled by the ratio of that aim to the rate actually released, at most halved or doubled
+ * per period, and kept between 1 ms and {@value #MAX_SLOWDOWN} times the configured interval.
+ * Vendors read the interval with {@link #getReleaseInterval()} once per cycle.
+ * <p>
+ * The counters are process-wide, so the controller is only used with a single pool.
+ */
+public class ReleaseRateController implements AutoCloseable {
+    private static final int MAX_SLOWDOWN = 8;
+    private static final double MAX_STEP = 2.0;
+
+    private final TicketPool ticketPool;
+    private final double targetFill;
+    private final double maxIntervalMs;
+    private final ScheduledExecutorService timer;
+    private volatile double intervalMs;
+    private MetricsSnapshot previous; // Timer thread only
+    private volatile long adjustments;
+
+    /**
+     * Initializes a controller. Until {@link #start(int)} is called, the interval stays at the configured one.
+     *
+     * @param ticketPool      The pool to keep filled.
+     * @param targetPercent   Fill level to hold, in percent of max capacity (1-99).
+     * @param baseIntervalMs  The configured interval between releases, used until the first adjustment.
+     */
+    public ReleaseRateController(TicketPool ticketPool, int targetPercent, int baseIntervalMs) {
+        if (targetPercent < 1 || targetPercent > 99) {
+            throw new IllegalArgumentException("The target fill must be between 1 and 99 percent.");
+        }
+        this.ticketPool = ticketPool;
+        this.targetFill = targetPercent / 100.0;
+        this.intervalMs = Math.max(baseIntervalMs, 1);
+        this.maxIntervalMs = Math.max(baseIntervalMs, 1) * (double) MAX_SLOWDOWN;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "release-controller");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts the feedback loop. Call it once the vendors and customers run, as an idle pool
+     * would otherwise drive the interval down to 1 ms before the first sale.
+     *
+     * @param periodMs Time between adjustments, in milliseconds.
+     */
+    public void start(int periodMs) {
+        previous = PoolMetrics.snapshot();
+        timer.scheduleAtFixedRate(this::adjust, periodMs, periodMs, TimeUnit.MILLISECONDS);
+        PoolMetrics.registerGauge("controller.releaseIntervalMs", this::getReleaseInterval);
+    }
+
+    /**
+     * Runs one step of the loop.
+     */
+    private void adjust() {
+        MetricsSnapshot current = PoolMetrics.snapshot();
+        double seconds = (current.getTimeMillis() - previous.getTimeMillis()) / 1000.0;
+        if (seconds <= 0) {
+            return;
+        }
+        double soldRate = (current.getTicketsSold() - previous.getTicketsSold()) / seconds;
+        double releasedRate = (current.getTicketsReleased() - previous.getTicketsReleased()) / seconds;
+        previous = current;
+
+        int capacity = ticketPool.getMaxCapacity();
+        double fill = (double) ticketPool.getTotalTickets() / capacity;
+        double aim = soldRate + (targetFill - fill) * capacity / seconds;
+        double step;
+        if (aim <= 0) {
+            step = MAX_STEP; // Above target and nothing selling: release slower
+        } else if (releasedRate <= 0) {
+            step = 1 / MAX_STEP; // Below target and nothing released: release faster
+        } else {
+            step = Math.max(1 / MAX_STEP, Math.min(MAX_STEP, releasedRate / aim));
+        }
+        intervalMs = Math.max(1, Math.min(maxIntervalMs, intervalMs * step));
+        adjustments++;
+    }
+
+    /**
+     * Retrieves the interval vendors should wait between releases.
+     *
+     * @return Interval in milliseconds, at least 1.
+     */
+    public int getReleaseInterval() {
+        return (int) Math.round(intervalMs);
+    }
+
+    public double getTargetFill() {
+        return targetFill;
+    }
+
+    public long getAdjustments() {
+        return adjustments;
+    }
+
+    /**
+     * Stops the loop. Vendors keep the last interval.
+     */
+    @Override
+    public void close() {
+        timer.shutdownNow();
+        PoolMetrics.removeGauge("controller.releaseIntervalMs");
+    }
+}
@@ -1,15 +1,27 @@
 package com.ticketing.producer;
 
+import com.ticketing.catalog.EventCatalog;
+import com.ticketing.catalog.EventClient;
+import com.ticketing.logging.Logger;
+import com.ticketing.model.SimulatedEntity;
 import com.ticketing.model.TicketPool;
+import com.ticketing.workload.ArrivalProfile;
+import com.ticketing.workload.ArrivalSchedule;
+
+import java.util.SplittableRandom;
+import java.util.function.IntSupplier;
 
 /**
  * Represents a vendor thread that periodically adds tickets to the shared ticket pool.
  */
-public class Vendor implements Runnable {
+public class Vendor implements SimulatedEntity {
     private final TicketPool ticketPool;
-    private final int releaseInterval;
+    private final IntSupplier releaseInterval; // Read once per cycle, so a reloaded configuration applies
     private final String vendorName;
-    private boolean isRunning = true; // Controls the thread's lifecycle
+    private final EventClient events; // Picks an event per cycle; null when the simulation has a single pool
+    private final SplittableRandom random = new SplittableRandom(); // Used only by the thread running this entity
+    private final ArrivalSchedule schedule;
+    private volatile boolean isRunning = true; // Controls the thread's lifecycle
 
     /**
      * Initializes a com.ticketing.config.producer.Vendor object.
@@ -19,9 +31,48 @@ public class Vendor implements Runnable {
      * @param vendorName     Name of the vendor.
      */
     public Vendor(TicketPool ticketPool, int releaseInterval, String vendorName) {
+        this(ticketPool, () -> releaseInterval, vendorName);
+    }
+
+    /**
+     * Initializes a com.ticketing.config.producer.Vendor object.
+     *
+     * @param ticketPool     The shared TicketPool object.
+     * @param releaseInterval Supplies the interval (milliseconds) between ticket additions; read once per cycle.
+     * @param vendorName     Name of the vendor.
+     */
+    public Vendor(TicketPool ticketPool, IntSupplier releaseInterval, String vendorName) {
         this.ticketPool = ticketPool;
         this.releaseInterval = releaseInterval;
         this.vendorName = vendorName;
+        this.events = null;
+        this.schedule = new ArrivalSchedule(ArrivalProfile.fixedInterval(releaseInterval), 1.0, random);
+    }
+
+    /**
+     * Initializes a Vendor that releases tickets for a different event each time, picked by popularity.
+     *
+     * @param catalog         The events on sale.
+     * @param releaseInterval Interval (milliseconds) between ticket additions.
+     * @param vendorName      Name of the vendor.
+     */
+    public Vendor(EventCatalog catalog, int releaseInterval, String vendorName) {
+        this(catalog, () -> releaseInterval, vendorName);
+    }
+
+    /**
+     * Initializes a Vendor that releases tickets for a different event each time, picked by popularity.
+     *
+     * @param catalog         The events on sale.
+     * @param releaseInterval Supplies the interval (milliseconds) between ticket additions; read once per cycle.
+     * @param vendorName      Name of the vendor.
+     */
+    public Vendor(EventCatalog catalog, IntSupplier releaseInterval, String vendorName) {
+        this.ticketPool = null;
+        this.releaseInterval = releaseInterval;
+        this.vendorName = vendorName;
+        this.events = new EventClient(catalog, vendorName);
+        this.schedule = new ArrivalSchedule(ArrivalProfile.fixedInterval(releaseInterval), 1.0, random);
     }
 
     /**
@@ -37,17 +88,69 @@ public class Vendor implements Runnable {
      */
     @Override
     public void run() {
+        schedule.start(System.nanoTime());
         while (isRunning) {
             try {
-                Thread.sleep(releaseInterval); // Wait before adding tickets
-                int ticketsToAdd = (int) (Math.random() * 10) + 1; // Randomize number of tickets (1-10)
-                ticketPool.addTickets(ticketsToAdd, vendorName); // Add tickets to the pool
+                // Wait for the next scheduled turn; a slow cycle does not push later turns back
+                ArrivalSchedule.awaitArrival(schedule.next());
+                runCycle();
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt(); // Restore interrupted status
                 break; // Exit if interrupted
             }
         }
-        System.out.println(vendorName + ": Stopped adding tickets.");
+        Logger.info("{}: Stopped adding tickets.", vendorName);
     }
-}
 
+    /**
+     * Adds a random batch of tickets to the pool once. Stops the vendor once the pool accepts
+     * no more releases (every seat of a seated pool is on sale).
+     */
+    @Override
+    public void runCycle() throws InterruptedException {
+        if (!isRunning) {
+            return; // Nothing left to release; a shared scheduler may still hand out turns
+        }
+        int ticketsToAdd = random.nextInt(1, 11); // Randomize number of tickets (1-10)
+        if (events != null) {
+            events.release(ticketsToAdd, random); // Skipped if the picked event is full
+        } else {
+            ticketPool.addTickets(ticketsToAdd, vendorName); // Add tickets to the pool
+            if (!ticketPool.acceptsReleases()) {
+                Logger.info("{}: No tickets left to release.", vendorName);
+                stopVendor();
+            }
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedException(); // The pool gave up waiting for capacity
+        }
+    }
+
+    /**
+     * Releases tickets only if they fit, so the shared thread is never parked on a full pool.
+     * A release that does not fit is skipped; the vendor tries again on its next turn.
+     */
+    @Override
+    public void runTurn() {
+        if (!isRunning) {
+            return;
+        }
+        int ticketsToAdd = random.nextInt(1, 11); // Randomize number of tickets (1-10)
+        if (events != null) {
+            events.tryRelease(ticketsToAdd, random);
+        } else if (!ticketPool.tryAddTickets(ticketsToAdd, vendorName) && !ticketPool.acceptsReleases()) {
+            Logger.info("{}: No tickets left to release.", vendorName);
+            stopVendor();
+        }
+    }
+
+    @Override
+    public int getInterval() {
+        return releaseInterval.getAsInt();
+    }
+
+    @Override
+    public String getName() {
+        return vendorName;
+    }
+}
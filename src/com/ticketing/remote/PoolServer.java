@@ -0,0 +1,478 @@
+package com.ticketing.remote;
+
+import com.ticketing.model.ActionType;
+import com.ticketing.model.TicketPool;
+import com.ticketing.model.TicketRequest;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Serves a {@link TicketPool} to vendor and customer processes over TCP or a Unix-domain socket.
+ * One selector thread owns the pool: each round it reads every request that has arrived on
+ * every connection and applies them together with one {@link TicketPool#processBatch} call, so a
+ * busy server enters the pool once for many requests (group commit across processes).
+ * Since a single thread applies the requests one after the other, every purchase and release
+ * takes effect at one point between its request and its response: the pool is linearizable.
+ * <p>
+ * A release that does not fit is not rejected; it waits on the server, in arrival order, and is
+ * applied as soon as purchases make room, so remote vendors block just like local ones without
+ * polling. Later releases queue behind it. A vendor that stops waiting cancels its release.
+ */
+public class PoolServer implements AutoCloseable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int OUTPUT_LIMIT = 1 << 20; // Stop reading from a client this far behind on responses
+    private static final long SELECT_TIMEOUT_MS = 100;
+
+    private final TicketPool pool;
+    private final SocketAddress address;
+    private final ServerSocketChannel server;
+    private final Selector selector;
+    private final Thread thread;
+    private final List<Call> received = new ArrayList<>(); // Requests of the current round
+    private final List<Call> run = new ArrayList<>();      // Purchases and releases applied in one batch
+    private final List<TicketRequest> requests = new ArrayList<>();
+    private final ArrayDeque<Call> waitingReleases = new ArrayDeque<>();
+    private boolean releasesWithdrawn; // A disconnect removed waiting releases; those behind them may fit
+    private final List<Connection> pendingOutput = new ArrayList<>();
+    private volatile boolean closed;
+
+    // Counters, written by the server thread only
+    private volatile long requestCount;
+    private volatile long batchCount;
+    private volatile int connectionCount;
+
+    /**
+     * A client connection and its unparsed input and unsent output.
+     */
+    private static final class Connection {
+        final SocketChannel channel;
+        final SelectionKey key;
+        final ByteBuffer in = ByteBuffer.allocate(BUFFER_SIZE);
+        ByteBuffer out = ByteBuffer.allocate(BUFFER_SIZE);
+        boolean open = true;
+        boolean queuedForOutput;
+
+        Connection(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+    }
+
+    /**
+     * A request and the connection to answer on.
+     */
+    private static final class Call {
+        final Connection connection;
+        final long id;
+        final byte op;
+        final int count;
+        final String name;
+
+        Call(Connection connection, long id, byte op, int count, String name) {
+            this.connection = connection;
+            this.id = id;
+            this.op = op;
+            this.count = count;
+            this.name = name;
+        }
+    }
+
+    private PoolServer(TicketPool pool, SocketAddress address, ServerSocketChannel server, Selector selector) {
+        this.pool = pool;
+        this.address = address;
+        this.server = server;
+        this.selector = selector;
+        this.thread = new Thread(this::serve, "pool-server");
+    }
+
+    /**
+     * Binds the address and starts serving the pool. The server must be the pool's only user.
+     *
+     * @param addressSpec Where to listen: {@code <host>:<port>}, {@code <port>} or {@code unix:<path>};
+     *                    port 0 picks a free port.
+     * @param pool        The pool to serve.
+     * @return The running server.
+     * @throws IOException If the address cannot be bound.
+     */
+    public static PoolServer start(String addressSpec, TicketPool pool) throws IOException {
+        SocketAddress address = WireProtocol.parseAddress(addressSpec);
+        if (address instanceof UnixDomainSocketAddress) {
+            Files.deleteIfExists(((UnixDomainSocketAddress) address).getPath()); // Left behind by a killed server
+        }
+        ServerSocketChannel server = ServerSocketChannel.open(WireProtocol.familyOf(address));
+        Selector selector = Selector.open();
+        try {
+            server.bind(address);
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            server.close();
+            selector.close();
+            throw e;
+        }
+        PoolServer poolServer = new PoolServer(pool, server.getLocalAddress(), server, selector);
+        poolServer.thread.start();
+        return poolServer;
+    }
+
+    private void serve() {
+        try {
+            while (!closed) {
+                selector.select(SELECT_TIMEOUT_MS);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Connection connection = (Connection) key.attachment();
+                    if (key.isReadable()) {
+                        read(connection);
+                    }
+                    if (connection.open && key.isWritable()) {
+                        flush(connection);
+                    }
+                }
+                if (!received.isEmpty()) {
+                    apply();
+                    received.clear();
+                }
+                if (releasesWithdrawn) {
+                    releasesWithdrawn = false;
+                    applyWaitingReleases(pool.getTotalTickets(), pool.getMaxCapacity());
+                }
+                for (Connection connection : pendingOutput) {
+                    connection.queuedForOutput = false;
+                    flush(connection);
+                }
+                pendingOutput.clear();
+            }
+        } catch (IOException e) {
+            System.err.println("Pool server stopped: " + e.getMessage());
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        if (!(address instanceof UnixDomainSocketAddress)) {
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true); // Responses are small and latency-bound
+        }
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        key.attach(new Connection(channel, key));
+        connectionCount++;
+    }
+
+    /**
+     * Reads what has arrived on a connection and parses every complete request.
+     */
+    private void read(Connection connection) {
+        ByteBuffer in = connection.in;
+        try {
+            if (connection.channel.read(in) < 0) {
+                disconnect(connection);
+                return;
+            }
+        } catch (IOException e) {
+            disconnect(connection);
+            return;
+        }
+        in.flip();
+        while (in.remaining() >= 4) {
+            int length = in.getInt(in.position());
+            if (length < WireProtocol.REQUEST_HEADER_SIZE - 4
+                    || length > WireProtocol.REQUEST_HEADER_SIZE - 4 + WireProtocol.MAX_NAME_BYTES) {
+                System.err.println("Closing a pool client that sent a malformed request.");
+                disconnect(connection);
+                return;
+            }
+            if (in.remaining() < 4 + length) {
+                break;
+            }
+            in.getInt();
+            long id = in.getLong();
+            byte op = in.get();
+            int count = in.getInt();
+            int nameLength = in.getShort() & 0xFFFF;
+            if (nameLength != length - (WireProtocol.REQUEST_HEADER_SIZE - 4)) {
+                System.err.println("Closing a pool client that sent a malformed request.");
+                disconnect(connection);
+                return;
+            }
+            String name = new String(in.array(), in.arrayOffset() + in.position(), nameLength, StandardCharsets.UTF_8);
+            in.position(in.position() + nameLength);
+            received.add(new Call(connection, id, op, count, name));
+        }
+        in.compact();
+    }
+
+    /**
+     * Applies the requests of one round in arrival order. Consecutive purchases and releases go to
+     * the pool as one batch; reads and capacity changes are answered between batches, so they
+     * see exactly the requests that came before them.
+     */
+    private void apply() {
+        requestCount += received.size();
+        int total = pool.getTotalTickets(); // Exact: nothing else changes the pool
+        int capacity = pool.getMaxCapacity();
+        boolean roomMade = false;
+        for (Call call : received) {
+            if (call.op >= WireProtocol.ADD && call.op <= WireProtocol.RETRIEVE && call.count < 1) {
+                respond(call, WireProtocol.ERROR, total);
+                continue;
+            }
+            switch (call.op) {
+                case WireProtocol.ADD:
+                    if (!waitingReleases.isEmpty() || total + call.count > capacity) {
+                        waitingReleases.add(call); // Applied once purchases make room
+                        break;
+                    }
+                    run.add(call);
+                    total += call.count;
+                    break;
+                case WireProtocol.TRY_ADD:
+                    run.add(call);
+                    if (total + call.count <= capacity) {
+                        total += call.count;
+                    }
+                    break;
+                case WireProtocol.RETRIEVE:
+                    run.add(call);
+                    if (total >= call.count) {
+                        total -= call.count;
+                        roomMade = true;
+                    }
+                    break;
+                case WireProtocol.TOTAL:
+                    total = applyRun();
+                    respond(call, WireProtocol.OK, total);
+                    break;
+                case WireProtocol.CAPACITY:
+                    total = applyRun();
+                    respond(call, WireProtocol.OK, capacity);
+                    break;
+                case WireProtocol.CANCEL:
+                    Call cancelled = withdrawWaitingRelease(call);
+                    if (cancelled != null) {
+                        respond(cancelled, WireProtocol.REJECTED, total);
+                        roomMade = true; // Releases queued behind it may fit
+                    }
+                    break;
+                case WireProtocol.SET_CAPACITY:
+                    total = applyRun();
+                    try {
+                        pool.setMaxCapacity(call.count);
+                        capacity = call.count;
+                        roomMade = true;
+                        respond(call, WireProtocol.OK, capacity);
+                    } catch (UnsupportedOperationException | IllegalArgumentException e) {
+                        respond(call, WireProtocol.ERROR, capacity);
+                    }
+                    break;
+                default:
+                    respond(call, WireProtocol.ERROR, 0);
+            }
+        }
+        total = applyRun();
+        if (roomMade) {
+            applyWaitingReleases(total, capacity);
+        }
+    }
+
+    /**
+     * Removes the waiting release a cancel refers to.
+     *
+     * @return The release, or null if it is not waiting (already applied).
+     */
+    private Call withdrawWaitingRelease(Call cancel) {
+        Iterator<Call> releases = waitingReleases.iterator();
+        while (releases.hasNext()) {
+            Call release = releases.next();
+            if (release.connection == cancel.connection && release.id == cancel.id) {
+                releases.remove();
+                return release;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Applies the waiting releases that now fit, oldest first.
+     */
+    private void applyWaitingReleases(int total, int capacity) {
+        while (!waitingReleases.isEmpty() && total + waitingReleases.peek().count <= capacity) {
+            Call release = waitingReleases.poll();
+            run.add(release);
+            total += release.count;
+        }
+        applyRun();
+    }
+
+    /**
+     * Applies the collected purchases and releases with one batch and answers them.
+     *
+     * @return Tickets in the pool afterwards.
+     */
+    private int applyRun() {
+        int remaining = pool.getTotalTickets();
+        if (run.isEmpty()) {
+            return remaining;
+        }
+        for (Call call : run) {
+            requests.add(call.op == WireProtocol.RETRIEVE
+                    ? TicketRequest.purchase(call.count, call.name)
+                    : TicketRequest.add(call.count, call.name));
+        }
+        boolean[] results = pool.processBatch(requests);
+        batchCount++;
+        for (int i = 0; i < results.length; i++) {
+            Call call = run.get(i);
+            if (results[i]) {
+                remaining += requests.get(i).getActionType() == ActionType.ADD ? call.count : -call.count;
+            }
+            respond(call, results[i] ? WireProtocol.OK : WireProtocol.REJECTED, remaining);
+        }
+        run.clear();
+        requests.clear();
+        return remaining;
+    }
+
+    private void respond(Call call, byte status, int value) {
+        Connection connection = call.connection;
+        if (!connection.open) {
+            return;
+        }
+        if (connection.out.remaining() < WireProtocol.RESPONSE_SIZE) {
+            ByteBuffer larger = ByteBuffer.allocate(connection.out.capacity() * 2);
+            connection.out.flip();
+            larger.put(connection.out);
+            connection.out = larger;
+        }
+        WireProtocol.putResponse(connection.out, call.id, status, value);
+        if (!connection.queuedForOutput) {
+            connection.queuedForOutput = true;
+            pendingOutput.add(connection);
+        }
+    }
+
+    /**
+     * Writes as much pending output as the socket takes; the rest is sent when it becomes writable.
+     * A client that falls far behind is not read from until it catches up.
+     */
+    private void flush(Connection connection) {
+        if (!connection.open) {
+            return;
+        }
+        ByteBuffer out = connection.out;
+        out.flip();
+        try {
+            connection.channel.write(out);
+        } catch (IOException e) {
+            disconnect(connection);
+            return;
+        }
+        out.compact();
+        int interest = out.position() > OUTPUT_LIMIT ? 0 : SelectionKey.OP_READ;
+        if (out.position() > 0) {
+            interest |= SelectionKey.OP_WRITE;
+        }
+        connection.key.interestOps(interest);
+    }
+
+    private void disconnect(Connection connection) {
+        if (!connection.open) {
+            return;
+        }
+        connection.open = false;
+        releasesWithdrawn |= waitingReleases.removeIf(release -> release.connection == connection);
+        connection.key.cancel();
+        try {
+            connection.channel.close();
+        } catch (IOException e) {
+            // Closing anyway
+        }
+        connectionCount--;
+    }
+
+    /**
+     * Retrieves the address the server listens on, with the chosen port if port 0 was asked for.
+     *
+     * @return The address, in the form {@link WireProtocol#parseAddress} reads.
+     */
+    public String getAddress() {
+        return WireProtocol.describe(address);
+    }
+
+    /**
+     * Retrieves the number of requests applied so far.
+     *
+     * @return Request count.
+     */
+    public long getRequestCount() {
+        return requestCount;
+    }
+
+    /**
+     * Retrieves the number of batches the requests were applied in.
+     *
+     * @return Batch count.
+     */
+    public long getBatchCount() {
+        return batchCount;
+    }
+
+    public int getConnectionCount() {
+        return connectionCount;
+    }
+
+    /**
+     * Stops serving and closes every connection. Releases still waiting for room are dropped;
+     * their vendors see the connection close.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        selector.wakeup();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof Connection) {
+                disconnect((Connection) key.attachment());
+            }
+        }
+        try {
+            selector.close();
+            server.close();
+            if (address instanceof UnixDomainSocketAddress) {
+                Files.deleteIfExists(((UnixDomainSocketAddress) address).getPath());
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to close the pool server: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package com.ticketing.remote;
+
+import com.ticketing.logging.Logger;
+import com.ticketing.model.AbstractTicketPool;
+import com.ticketing.model.ActionType;
+import com.ticketing.model.TicketRequest;
+import com.ticketing.model.TransactionLog;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A ticket pool served by a {@link PoolServer} in another process. Calls from any number of
+ * threads share one connection and are pipelined: a caller queues its request, and a writer
+ * thread writes every queued request with one socket write, so concurrent calls leave the
+ * process in batches. A reader thread hands each response to its caller. Callers never touch
+ * the channel themselves, since an interrupt during a write would close it for every caller.
+ * <p>
+ * The server's log holds every transaction of every process. This process's own successful
+ * transactions also go to its local log, with the ticket counts the server reported. A caller
+ * interrupted while waiting still waits for its answer, so no request the server applied is
+ * missing from the local log.
+ */
+public class RemoteTicketPool extends AbstractTicketPool implements AutoCloseable {
+    private static final int PENDING = -1;
+    private static final int SEND_BUFFER_SIZE = 64 * 1024;
+
+    private final SocketChannel channel;
+    private final String address;
+    private final Thread reader;
+    private final Thread writer;
+    private final AtomicLong nextId = new AtomicLong();
+    private final Map<Long, Call> inFlight = new ConcurrentHashMap<>();
+    private final Queue<Call> outgoing = new ConcurrentLinkedQueue<>();
+    private final ByteBuffer sendBuffer = ByteBuffer.allocateDirect(SEND_BUFFER_SIZE); // Used by the writer only
+    private volatile int lastTotal; // Tickets in the pool as of the latest response that reported them
+    private volatile boolean closed;
+
+    /**
+     * A request waiting for its response.
+     */
+    private static final class Call {
+        final long id;
+        final byte op;
+        final int count;
+        final byte[] name;
+        final Thread caller;
+        int value; // Written before status
+        volatile int status = PENDING;
+
+        Call(long id, byte op, int count, byte[] name, Thread caller) {
+            this.id = id;
+            this.op = op;
+            this.count = count;
+            this.name = name;
+            this.caller = caller;
+        }
+    }
+
+    private RemoteTicketPool(SocketChannel channel, String address, int maxCapacity, TransactionLog transactionLog) {
+        super(maxCapacity, transactionLog);
+        this.channel = channel;
+        this.address = address;
+        this.reader = new Thread(this::readResponses, "pool-client-reader");
+        this.reader.setDaemon(true);
+        this.writer = new Thread(this::writeRequests, "pool-client-writer");
+        this.writer.setDaemon(true);
+    }
+
+    /**
+     * Connects to a pool server.
+     *
+     * @param addressSpec    The server: {@code <host>:<port>}, {@code <port>} or {@code unix:<path>}.
+     * @param transactionLog Local log for this process's transactions.
+     * @return The connected pool.
+     * @throws IOException If the server cannot be reached.
+     */
+    public static RemoteTicketPool connect(String addressSpec, TransactionLog transactionLog) throws IOException {
+        SocketAddress address = WireProtocol.parseAddress(addressSpec);
+        SocketChannel channel = SocketChannel.open(WireProtocol.familyOf(address));
+        try {
+            channel.connect(address);
+            if (!(address instanceof UnixDomainSocketAddress)) {
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        RemoteTicketPool pool = new RemoteTicketPool(channel, WireProtocol.describe(address), 0, transactionLog);
+        pool.reader.start();
+        pool.writer.start();
+        Call capacity = pool.call(WireProtocol.CAPACITY, 0, "");
+        if (capacity.status != WireProtocol.OK) {
+            pool.close();
+            throw new IOException("No answer from the pool server at " + pool.address + ".");
+        }
+        pool.maxCapacity = capacity.value;
+        return pool;
+    }
+
+    /**
+     * Releases tickets once they fit on the server. A vendor interrupted while waiting cancels the
+     * release and waits for the server's answer, since the release may have been applied already;
+     * either way the outcome is recorded and the interrupt is kept.
+     */
+    @Override
+    public void addTickets(int count, String vendorName) {
+        Call call = call(WireProtocol.ADD, count, vendorName); // Answered once the tickets fit
+        if (call.status == WireProtocol.OK) {
+            Logger.info("{} added {} tickets. Current Pool: {}", vendorName, count, call.value);
+            recordTransaction(ActionType.ADD, vendorName, count, call.value);
+        } else if (call.status == WireProtocol.REJECTED) { // Cancelled
+            Logger.info("{} stopped waiting to add tickets.", vendorName);
+        } else {
+            Logger.warn("{} could not add tickets. The pool server did not accept them.", vendorName);
+        }
+    }
+
+    @Override
+    protected boolean purchase(int count, String customerName, boolean reportFailure) {
+        Call call = call(WireProtocol.RETRIEVE, count, customerName);
+        if (call.status == WireProtocol.OK) {
+            Logger.info("{} purchased {} tickets. Current Pool: {}", customerName, count, call.value);
+            recordTransaction(ActionType.RETRIEVE, customerName, count, call.value);
+            return true;
+        }
+        if (call.status == WireProtocol.REJECTED && reportFailure) {
+            Logger.info("{} failed to purchase {} tickets. Not enough tickets.", customerName, count);
+            recordFailedPurchase(customerName, count, call.value);
+        }
+        return false;
+    }
+
+    /**
+     * Sends the whole batch before waiting for any response. The server applies the requests in
+     * order, though requests from other processes may come between them.
+     */
+    @Override
+    public boolean[] processBatch(List<TicketRequest> requests) {
+        Call[] calls = new Call[requests.size()];
+        for (int i = 0; i < calls.length; i++) {
+            TicketRequest request = requests.get(i);
+            calls[i] = newCall(request.getActionType() == ActionType.ADD ? WireProtocol.TRY_ADD : WireProtocol.RETRIEVE,
+                    request.getCount(), request.getEntityName());
+            outgoing.offer(calls[i]);
+        }
+        sendQueued();
+        boolean[] results = new boolean[calls.length];
+        int[] remaining = new int[calls.length];
+        for (int i = 0; i < calls.length; i++) {
+            await(calls[i]);
+            results[i] = calls[i].status == WireProtocol.OK;
+            remaining[i] = calls[i].value;
+            logBatchResult(requests.get(i), results[i], remaining[i]);
+        }
+        recordBatch(requests, results, remaining);
+        return results;
+    }
+
+    /**
+     * Reads the tickets in the server's pool. If the server does not answer, returns the count of
+     * the latest response that reported one, with a warning.
+     */
+    @Override
+    public int getTotalTickets() {
+        Call call = call(WireProtocol.TOTAL, 0, "");
+        if (call.status != WireProtocol.OK) {
+            Logger.warn("No ticket count from the pool server; showing the last known count, {}.", lastTotal);
+        }
+        return lastTotal;
+    }
+
+    @Override
+    public int getMaxCapacity() {
+        Call call = call(WireProtocol.CAPACITY, 0, "");
+        if (call.status == WireProtocol.OK) {
+            maxCapacity = call.value; // Another process may have changed it
+        }
+        return maxCapacity;
+    }
+
+    @Override
+    protected void applyMaxCapacity(int maxCapacity) {
+        Call call = call(WireProtocol.SET_CAPACITY, maxCapacity, "");
+        if (call.status != WireProtocol.OK) {
+            throw new UnsupportedOperationException("The pool server at " + address + " did not change its capacity.");
+        }
+        this.maxCapacity = maxCapacity;
+    }
+
+    /**
+     * Sends one request and waits for its response.
+     *
+     * @return The answered call; ERROR if the connection was lost.
+     */
+    private Call call(byte op, int count, String name) {
+        Call call = newCall(op, count, name);
+        outgoing.offer(call);
+        sendQueued();
+        await(call);
+        return call;
+    }
+
+    private Call newCall(byte op, int count, String name) {
+        Call call = new Call(nextId.incrementAndGet(), op, count, name.getBytes(StandardCharsets.UTF_8),
+                Thread.currentThread());
+        if (closed) {
+            call.status = WireProtocol.ERROR;
+        } else {
+            inFlight.put(call.id, call);
+        }
+        return call;
+    }
+
+    private void sendQueued() {
+        LockSupport.unpark(writer);
+    }
+
+    /**
+     * Writes the queued requests until the connection closes, all that have piled up with one
+     * socket write, and parks while the queue is empty.
+     */
+    private void writeRequests() {
+        try {
+            while (!closed) {
+                Call call;
+                while ((call = outgoing.poll()) != null) {
+                    if (sendBuffer.remaining() < WireProtocol.REQUEST_HEADER_SIZE + call.name.length) {
+                        write();
+                    }
+                    if (call.status == PENDING) {
+                        WireProtocol.putRequest(sendBuffer, call.id, call.op, call.count, call.name);
+                    }
+                }
+                if (sendBuffer.position() > 0) {
+                    write();
+                }
+                if (outgoing.isEmpty()) {
+                    LockSupport.park(this); // Unparked by the next caller
+                }
+            }
+        } catch (IOException e) {
+            connectionLost(e);
+        }
+    }
+
+    private void write() throws IOException {
+        sendBuffer.flip();
+        while (sendBuffer.hasRemaining()) {
+            channel.write(sendBuffer);
+        }
+        sendBuffer.clear();
+    }
+
+    /**
+     * Waits for the response to a call. An interrupt does not end the wait, since the server may
+     * apply the request anyway and the outcome must still be recorded; the interrupt is kept for
+     * the caller. A release still waiting for room is cancelled, so its answer comes at once.
+     */
+    private void await(Call call) {
+        boolean interrupted = false;
+        while (call.status == PENDING) {
+            if (Thread.interrupted() && !interrupted) {
+                interrupted = true;
+                if (call.op == WireProtocol.ADD) {
+                    outgoing.offer(new Call(call.id, WireProtocol.CANCEL, 0, new byte[0], call.caller));
+                    sendQueued();
+                }
+            }
+            LockSupport.park(this);
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void readResponses() {
+        ByteBuffer in = ByteBuffer.allocateDirect(SEND_BUFFER_SIZE);
+        try {
+            while (channel.read(in) >= 0) {
+                in.flip();
+                while (in.remaining() >= WireProtocol.RESPONSE_SIZE) {
+                    long id = in.getLong();
+                    byte status = in.get();
+                    int value = in.getInt();
+                    Call call = inFlight.remove(id);
+                    if (call != null) {
+                        if (status != WireProtocol.ERROR && call.op != WireProtocol.CAPACITY
+                                && call.op != WireProtocol.SET_CAPACITY) {
+                            lastTotal = value; // Responses arrive in the order the server applied them
+                        }
+                        call.value = value;
+                        call.status = status;
+                        LockSupport.unpark(call.caller);
+                    }
+                }
+                in.compact();
+            }
+            connectionLost(null);
+        } catch (IOException e) {
+            connectionLost(e);
+        }
+    }
+
+    /**
+     * Fails every call still waiting; later calls fail at once.
+     */
+    private void connectionLost(IOException cause) {
+        if (!closed) {
+            closed = true;
+            System.err.println("Lost the connection to the pool server at " + address
+                    + (cause != null ? ": " + cause.getMessage() : "."));
+        }
+        for (Call call : inFlight.values()) {
+            inFlight.remove(call.id);
+            call.status = WireProtocol.ERROR;
+            LockSupport.unpark(call.caller);
+        }
+    }
+
+    /**
+     * Retrieves the server this pool is connected to.
+     *
+     * @return Server address.
+     */
+    public String getAddress() {
+        return address;
+    }
+
+    /**
+     * Closes the connection. Calls still waiting fail.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close the pool connection: " + e.getMessage());
+        }
+        try {
+            reader.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        connectionLost(null);
+    }
+}
@@ -0,0 +1,113 @@
+package com.ticketing.remote;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+
+/**
+ * The binary protocol between a {@link PoolServer} and its {@link RemoteTicketPool} clients.
+ * Clients may send any number of requests without waiting for the responses (pipelining); each
+ * response carries the id of its request, since a response can come after those of later
+ * requests (e.g. a release waiting for room). A CANCEL gets no response of its own: if its release
+ * was still waiting, that release is answered as rejected; if it had been applied, its answer was
+ * already sent.
+ * <pre>
+ * request:  int length of the rest | long id | byte op | int count | short name length | name (UTF-8)
+ * response: long id | byte status | int value (tickets in the pool after the request, or the value asked for)
+ * </pre>
+ * All numbers are big-endian.
+ */
+public final class WireProtocol {
+    // Operations
+    static final byte ADD = 1;          // Release tickets; the response waits until they fit
+    static final byte TRY_ADD = 2;      // Release tickets, rejected at once if they do not fit
+    static final byte RETRIEVE = 3;     // Purchase tickets
+    static final byte TOTAL = 4;        // Read the tickets in the pool
+    static final byte CAPACITY = 5;     // Read the max capacity
+    static final byte SET_CAPACITY = 6; // Change the max capacity to count
+    static final byte CANCEL = 7;       // Withdraw the waiting ADD with the same id; it is answered REJECTED
+
+    // Response status
+    static final byte OK = 0;
+    static final byte REJECTED = 1; // Too few tickets, or no room for a TRY_ADD
+    static final byte ERROR = 2;    // Malformed or unsupported request, or the connection was lost
+
+    static final int RESPONSE_SIZE = 13;
+    static final int REQUEST_HEADER_SIZE = 4 + 8 + 1 + 4 + 2; // Up to and including the name length
+    static final int MAX_NAME_BYTES = 1024;
+
+    private WireProtocol() {
+    }
+
+    /**
+     * Parses a server address: {@code unix:<path>} for a Unix-domain socket,
+     * {@code <host>:<port>} or {@code <port>} (local host) for TCP.
+     *
+     * @param spec The address.
+     * @return The socket address.
+     * @throws IllegalArgumentException If the address cannot be parsed.
+     */
+    public static SocketAddress parseAddress(String spec) {
+        if (spec.startsWith("unix:")) {
+            if (spec.length() == 5) {
+                throw new IllegalArgumentException("Missing socket path in " + spec);
+            }
+            return UnixDomainSocketAddress.of(spec.substring(5));
+        }
+        int colon = spec.lastIndexOf(':');
+        String host = colon < 0 ? "localhost" : spec.substring(0, colon);
+        try {
+            int port = Integer.parseInt(spec.substring(colon + 1));
+            if (port < 0 || port > 65535) {
+                throw new IllegalArgumentException("Port out of range in " + spec);
+            }
+            return new InetSocketAddress(host.isEmpty() ? "localhost" : host, port);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid pool server address: " + spec);
+        }
+    }
+
+    /**
+     * Retrieves the protocol family of an address, for opening a channel to it.
+     */
+    static StandardProtocolFamily familyOf(SocketAddress address) {
+        return address instanceof UnixDomainSocketAddress ? StandardProtocolFamily.UNIX : StandardProtocolFamily.INET;
+    }
+
+    /**
+     * Formats an address the way {@link #parseAddress} reads it.
+     *
+     * @param address A TCP or Unix-domain socket address.
+     * @return The address as text.
+     */
+    public static String describe(SocketAddress address) {
+        if (address instanceof UnixDomainSocketAddress) {
+            return "unix:" + ((UnixDomainSocketAddress) address).getPath();
+        }
+        InetSocketAddress inet = (InetSocketAddress) address;
+        return inet.getHostString() + ":" + inet.getPort();
+    }
+
+    /**
+     * Writes one request into a buffer.
+     */
+    static void putRequest(ByteBuffer buffer, long id, byte op, int count, byte[] name) {
+        buffer.putInt(REQUEST_HEADER_SIZE - 4 + name.length);
+        buffer.putLong(id);
+        buffer.put(op);
+        buffer.putInt(count);
+        buffer.putShort((short) name.length);
+        buffer.put(name);
+    }
+
+    /**
+     * Writes one response into a buffer.
+     */
+    static void putResponse(ByteBuffer buffer, long id, byte status, int value) {
+        buffer.putLong(id);
+        buffer.put(status);
+        buffer.putInt(value);
+    }
+}
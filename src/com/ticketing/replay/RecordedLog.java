@@ -0,0 +1,117 @@
+package com.ticketing.replay;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.ticketing.analytics.TransactionAnalyzer;
+import com.ticketing.journal.JournalFormat;
+import com.ticketing.journal.TransactionJournal;
+import com.ticketing.model.ActionType;
+import com.ticketing.model.TicketRecord;
+import com.ticketing.model.TicketRecordSource;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads a recorded transaction log one record at a time, in the order it was written: a binary
+ * journal, a JSON journal, or an exported transactions.json (plain or gzip, compact or
+ * pretty-printed). Every format stores timestamps; records from JSON files written before they
+ * did have a timestamp of 0, and can only be replayed as fast as possible.
+ */
+public final class RecordedLog {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private RecordedLog() {
+    }
+
+    /**
+     * Opens a recorded log.
+     *
+     * @param file The log file.
+     * @return A source that reads the file each time it is visited.
+     * @throws IOException If the file cannot be read.
+     */
+    public static TicketRecordSource open(Path file) throws IOException {
+        TransactionAnalyzer.LogFormat format = TransactionAnalyzer.detectFormat(file);
+        if (format == TransactionAnalyzer.LogFormat.BINARY) {
+            return TransactionJournal.fileSource(file.toString(), JournalFormat.BINARY);
+        }
+        boolean gzip = format == TransactionAnalyzer.LogFormat.GZIP_JSON;
+        return action -> {
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE);
+                 JsonReader reader = new JsonReader(new InputStreamReader(
+                         gzip ? new GZIPInputStream(in, BUFFER_SIZE) : in, StandardCharsets.UTF_8))) {
+                reader.setLenient(true); // A JSON journal is a sequence of top-level objects
+                readRecords(reader, action);
+            }
+        };
+    }
+
+    /**
+     * Reads every record of a JSON array or a sequence of JSON objects.
+     */
+    private static void readRecords(JsonReader reader, Consumer<? super TicketRecord> action) throws IOException {
+        JsonToken token;
+        while ((token = reader.peek()) != JsonToken.END_DOCUMENT) {
+            if (token == JsonToken.BEGIN_ARRAY) {
+                reader.beginArray();
+            } else if (token == JsonToken.END_ARRAY) {
+                reader.endArray();
+            } else if (token == JsonToken.BEGIN_OBJECT) {
+                action.accept(readRecord(reader));
+            } else {
+                throw new IOException("Expected a transaction record at " + reader.getPath());
+            }
+        }
+    }
+
+    private static TicketRecord readRecord(JsonReader reader) throws IOException {
+        ActionType actionType = null;
+        String entityName = null;
+        int ticketCount = 0;
+        int remainingTickets = 0;
+        long timestamp = 0;
+        int firstSeat = -1;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "actionType":
+                    try {
+                        actionType = ActionType.valueOf(reader.nextString());
+                    } catch (IllegalArgumentException e) {
+                        throw new IOException("Unknown action type at " + reader.getPath());
+                    }
+                    break;
+                case "entityName":
+                    entityName = reader.nextString();
+                    break;
+                case "ticketCount":
+                    ticketCount = reader.nextInt();
+                    break;
+                case "remainingTickets":
+                    remainingTickets = reader.nextInt();
+                    break;
+                case "timestamp":
+                    timestamp = reader.nextLong();
+                    break;
+                case "firstSeat":
+                    firstSeat = reader.nextInt();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (actionType == null || entityName == null) {
+            throw new IOException("Incomplete transaction record before " + reader.getPath());
+        }
+        return new TicketRecord(actionType, entityName, ticketCount, remainingTickets, timestamp, firstSeat);
+    }
+}
@@ -0,0 +1,252 @@
+package com.ticketing.replay;
+
+import com.ticketing.metrics.LatencyHistogram;
+import com.ticketing.model.ActionType;
+import com.ticketing.model.TicketPool;
+import com.ticketing.model.TicketRecord;
+import com.ticketing.workload.ArrivalSchedule;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Drives a ticket pool with the records of a log, one at a time and in log order, and checks
+ * each outcome against the log: a recorded purchase or release must succeed, a recorded failed
+ * purchase must fail, and the tickets left afterwards must equal the recorded count. Since one
+ * thread applies every record, the run is deterministic, and any difference points to the first
+ * request the pool handled differently.
+ * <p>
+ * After a count differs, the replay carries on from the new difference between the recorded
+ * and the replayed count, so each divergence is counted once rather than at every later record.
+ * Two neighbouring records whose counts only match in the other order were logged swapped; they
+ * are counted as a swap instead of a difference.
+ * <p>
+ * Releases use {@link TicketPool#tryAddTickets}, so a release that the recorded run could apply
+ * but the replayed pool cannot is reported instead of blocking the replay. The pool is created
+ * when the first record arrives, with the tickets it held before that record. Records without
+ * a ticket count ({@link TicketRecord#UNKNOWN_REMAINING}, from the sharded pool) are only checked
+ * for their outcome, and a log that starts with one starts from a given ticket count.
+ * With a speed above 0, each record is applied at its recorded time divided by the speed,
+ * measured from the first record; records without a timestamp are applied at once.
+ */
+public class ReplayEngine implements Consumer<TicketRecord> {
+    private final IntFunction<TicketPool> poolFactory;
+    private final double speed;
+    private final int uncountedInitialTickets;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LatencyHistogram lag = new LatencyHistogram(); // How late records were applied
+    private TicketPool pool;
+    private int initialTickets;
+    private long firstTimestamp = -1;
+    private long startNanos;
+    private long endNanos;
+    private long records;
+    private long timedRecords;
+    private long uncountedRecords;
+    private int offset; // Recorded minus replayed count while in step with the log
+    private long mismatches;
+    private long firstMismatchIndex = -1;
+    private String firstMismatch;
+    private long swaps;
+    // The last record, while its count alone differed: a difference unless the next one makes it a swap
+    private boolean pending;
+    private int pendingOffset;
+    private int pendingRecorded;
+    private int pendingDelta;
+    private long pendingIndex;
+    private String pendingDescription;
+
+    /**
+     * Initializes a replay.
+     *
+     * @param poolFactory             Creates the pool to drive from its initial ticket count.
+     * @param speed                   0 to replay as fast as possible, 1 at the recorded pace, 2 twice as fast, ...
+     * @param uncountedInitialTickets Tickets at start if the first record carries no ticket count.
+     */
+    public ReplayEngine(IntFunction<TicketPool> poolFactory, double speed, int uncountedInitialTickets) {
+        this.poolFactory = poolFactory;
+        this.speed = speed;
+        this.uncountedInitialTickets = uncountedInitialTickets;
+    }
+
+    /**
+     * Applies one record and checks its outcome.
+     *
+     * @param record The next record of the log.
+     */
+    @Override
+    public void accept(TicketRecord record) {
+        boolean counted = record.getRemainingTickets() != TicketRecord.UNKNOWN_REMAINING;
+        if (pool == null) {
+            initialTickets = counted
+                    ? record.getRemainingTickets() - record.getActionType().ticketDelta(record.getTicketCount())
+                    : uncountedInitialTickets;
+            pool = poolFactory.apply(initialTickets);
+            startNanos = System.nanoTime();
+        }
+        if (!counted) {
+            uncountedRecords++;
+        }
+        if (speed > 0 && record.getTimestamp() > 0) {
+            awaitRecordedTime(record.getTimestamp());
+        }
+
+        long start = System.nanoTime();
+        boolean applied = record.getActionType() == ActionType.ADD
+                ? pool.tryAddTickets(record.getTicketCount(), record.getEntityName())
+                : pool.retrieveTickets(record.getTicketCount(), record.getEntityName());
+        endNanos = System.nanoTime();
+        latency.record(endNanos - start);
+
+        int remaining = pool.getTotalTickets(); // Exact, as nothing else uses the pool
+        boolean expected = record.getActionType() != ActionType.RETRIEVE_FAILED;
+        int recorded = record.getRemainingTickets();
+        if (pending) {
+            pending = false;
+            if (applied == expected && counted && recorded - pendingOffset == remaining - pendingDelta
+                    && pendingRecorded - pendingOffset == remaining) {
+                swaps++; // Logged in the other order; both counts match from here
+                offset = pendingOffset;
+                records++;
+                return;
+            }
+            countMismatch(pendingIndex, pendingDescription);
+        }
+        if (applied != expected) {
+            countMismatch(records, describe(record, applied, remaining, expected));
+            offset = counted ? recorded - remaining : offset;
+        } else if (counted && recorded - remaining != offset) {
+            pending = true;
+            pendingOffset = offset;
+            pendingRecorded = recorded;
+            pendingDelta = record.getActionType().ticketDelta(record.getTicketCount());
+            pendingIndex = records;
+            pendingDescription = describe(record, applied, remaining, expected);
+            offset = recorded - remaining;
+        }
+        records++;
+    }
+
+    private String describe(TicketRecord record, boolean applied, int remaining, boolean expected) {
+        String description = record + ": " + (applied ? "applied" : "not applied") + " with " + remaining
+                + " tickets left, expected " + (expected ? "applied" : "not applied");
+        return record.getRemainingTickets() == TicketRecord.UNKNOWN_REMAINING ? description
+                : description + " with " + (record.getRemainingTickets() - offset);
+    }
+
+    private void countMismatch(long index, String description) {
+        mismatches++;
+        if (firstMismatchIndex < 0) {
+            firstMismatchIndex = index;
+            firstMismatch = description;
+        }
+    }
+
+    private void awaitRecordedTime(long timestamp) {
+        if (firstTimestamp < 0) {
+            firstTimestamp = timestamp;
+            startNanos = System.nanoTime();
+        }
+        long due = startNanos + (long) (TimeUnit.MILLISECONDS.toNanos(timestamp - firstTimestamp) / speed);
+        try {
+            ArrivalSchedule.awaitArrival(due);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lag.record(Math.max(0, System.nanoTime() - due));
+        timedRecords++;
+    }
+
+    public long getRecords() {
+        return records;
+    }
+
+    /**
+     * Retrieves the number of records applied at their recorded time.
+     *
+     * @return Timed record count; 0 if the replay ran as fast as possible or the log has no timestamps.
+     */
+    public long getTimedRecords() {
+        return timedRecords;
+    }
+
+    /**
+     * Retrieves the number of records without a ticket count, whose outcome alone was checked.
+     *
+     * @return Uncounted record count.
+     */
+    public long getUncountedRecords() {
+        return uncountedRecords;
+    }
+
+    /**
+     * Retrieves the number of differences from the log, counting a changed ticket count once.
+     *
+     * @return Records whose outcome, or whose count relative to the previous record, differed.
+     */
+    public long getMismatches() {
+        return mismatches + (pending ? 1 : 0);
+    }
+
+    /**
+     * Retrieves the number of neighbouring record pairs that the log holds in swapped order.
+     *
+     * @return Swapped pairs; each one matched the log once put back in order.
+     */
+    public long getSwaps() {
+        return swaps;
+    }
+
+    /**
+     * Retrieves the position of the first record whose outcome differed from the log.
+     *
+     * @return Zero-based record index, or -1 if every outcome matched.
+     */
+    public long getFirstMismatchIndex() {
+        return firstMismatchIndex >= 0 || !pending ? firstMismatchIndex : pendingIndex;
+    }
+
+    /**
+     * Describes the first record whose outcome differed from the log.
+     *
+     * @return The record with the expected and actual outcome, or null if every outcome matched.
+     */
+    public String getFirstMismatch() {
+        return firstMismatchIndex >= 0 || !pending ? firstMismatch : pendingDescription;
+    }
+
+    public int getInitialTickets() {
+        return initialTickets;
+    }
+
+    /**
+     * Retrieves the tickets in the pool after the replay.
+     *
+     * @return Final ticket count, or the initial count if the log was empty.
+     */
+    public int getFinalTickets() {
+        return pool != null ? pool.getTotalTickets() : initialTickets;
+    }
+
+    /**
+     * Retrieves the time from the first record to the end of the last one.
+     *
+     * @return Elapsed nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return records == 0 ? 0 : endNanos - startNanos;
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public LatencyHistogram getLag() {
+        return lag;
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+}
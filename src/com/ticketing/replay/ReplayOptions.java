@@ -0,0 +1,219 @@
+package com.ticketing.replay;
+
+import com.ticketing.model.TicketPoolFactory;
+
+/**
+ * Settings of a replay run, parsed from command-line flags.
+ */
+public class ReplayOptions {
+    public static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: TicketingSystem --replay <file>|seed:<n> [options]",
+            "  --replay <file>            Recorded log to replay: binary journal, JSON journal or transactions.json(.gz)",
+            "  --replay seed:<n>          Generate the log of a simulation run from a seed instead",
+            "  --speed <speed>            max (default), recorded, or a factor such as 10 (ten times as fast);",
+            "                             JSON logs written by older versions have no timestamps",
+            "  --pool <type>              Pool to drive: blocking (default), atomic, sharded or seated",
+            "  --shards <n>               Shards of the sharded pool (default: available processors)",
+            "  --capacity <n>             Max ticket capacity (default 1000000 for a file, 500 for a seed)",
+            "  --report <file>            Machine-readable JSON report (default replay-report.json)",
+            "  --initial <n>              Tickets in the pool at start (default 100); for a file, only used",
+            "                             if its records carry no ticket counts (sharded pool logs)",
+            "Generated logs only:",
+            "  --operations <n>           Records to generate (default 1000000)",
+            "  --vendors <n>              Number of vendors (default 5)",
+            "  --customers <n>            Number of customers (default 3)",
+            "  --vendor-interval <ms>     Time between a vendor's releases (default 5)",
+            "  --customer-interval <ms>   Time between a customer's purchases (default 5)");
+
+    private static final String SEED_PREFIX = "seed:";
+
+    private String logFile;
+    private long seed;
+    private boolean seeded;
+    private double speed; // 0 means as fast as possible
+    private String poolType = TicketPoolFactory.BLOCKING;
+    private int shardCount = Runtime.getRuntime().availableProcessors();
+    private int maxCapacity = -1; // -1 means the default for the input
+    private String reportFile = "replay-report.json";
+    private long operations = 1_000_000;
+    private int initialTickets = 100;
+    private int vendors = 5;
+    private int customers = 3;
+    private int vendorIntervalMs = 5;
+    private int customerIntervalMs = 5;
+
+    /**
+     * Parses command-line flags.
+     *
+     * @param args Command-line arguments including "--replay".
+     * @return The parsed options.
+     * @throws IllegalArgumentException If a flag is unknown or its value is invalid.
+     */
+    public static ReplayOptions parse(String[] args) {
+        ReplayOptions options = new ReplayOptions();
+        for (int i = 0; i < args.length; i++) {
+            String flag = args[i];
+            switch (flag) {
+                case "--replay":
+                    String input = value(args, ++i, flag);
+                    if (input.startsWith(SEED_PREFIX)) {
+                        try {
+                            options.seed = Long.parseLong(input.substring(SEED_PREFIX.length()));
+                            options.seeded = true;
+                        } catch (NumberFormatException e) {
+                            throw new IllegalArgumentException("Invalid seed: " + input);
+                        }
+                    } else {
+                        options.logFile = input;
+                    }
+                    break;
+                case "--speed":
+                    options.speed = speed(value(args, ++i, flag));
+                    break;
+                case "--pool":
+                    options.poolType = value(args, ++i, flag);
+                    if (!TicketPoolFactory.isSupported(options.poolType)) {
+                        throw new IllegalArgumentException("Unknown pool type: " + options.poolType);
+                    }
+                    break;
+                case "--shards":
+                    options.shardCount = (int) number(args, ++i, flag, 1);
+                    break;
+                case "--capacity":
+                    options.maxCapacity = (int) number(args, ++i, flag, 1);
+                    break;
+                case "--report":
+                    options.reportFile = value(args, ++i, flag);
+                    break;
+                case "--operations":
+                    options.operations = number(args, ++i, flag, 1);
+                    break;
+                case "--initial":
+                    options.initialTickets = (int) number(args, ++i, flag, 0);
+                    break;
+                case "--vendors":
+                    options.vendors = (int) number(args, ++i, flag, 1);
+                    break;
+                case "--customers":
+                    options.customers = (int) number(args, ++i, flag, 1);
+                    break;
+                case "--vendor-interval":
+                    options.vendorIntervalMs = (int) number(args, ++i, flag, 1);
+                    break;
+                case "--customer-interval":
+                    options.customerIntervalMs = (int) number(args, ++i, flag, 1);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + flag);
+            }
+        }
+        if (options.logFile == null && !options.seeded) {
+            throw new IllegalArgumentException("Missing value for --replay");
+        }
+        if (options.maxCapacity < 0) {
+            options.maxCapacity = options.seeded ? 500 : 1_000_000;
+        }
+        return options;
+    }
+
+    /**
+     * Checks whether the arguments ask for a replay.
+     *
+     * @param args Command-line arguments.
+     * @return true if "--replay" is present.
+     */
+    public static boolean isReplay(String[] args) {
+        for (String arg : args) {
+            if (arg.equals("--replay")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String value(String[] args, int index, String flag) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + flag);
+        }
+        return args[index];
+    }
+
+    private static long number(String[] args, int index, String flag, long min) {
+        String text = value(args, index, flag);
+        try {
+            long number = Long.parseLong(text);
+            if (number < min || number > Integer.MAX_VALUE && !flag.equals("--operations")) {
+                throw new IllegalArgumentException(flag + " must be between " + min + " and " + Integer.MAX_VALUE);
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for " + flag + ": " + text);
+        }
+    }
+
+    private static double speed(String text) {
+        if (text.equals("max")) {
+            return 0;
+        }
+        if (text.equals("recorded")) {
+            return 1;
+        }
+        try {
+            double factor = Double.parseDouble(text);
+            if (!(factor > 0) || Double.isInfinite(factor)) {
+                throw new IllegalArgumentException("--speed must be max, recorded or a factor above 0");
+            }
+            return factor;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid speed: " + text);
+        }
+    }
+
+    /**
+     * Builds the workload of a seeded replay.
+     *
+     * @return The generated log.
+     */
+    public SeededWorkload toWorkload() {
+        return new SeededWorkload(seed, operations, vendors, customers, vendorIntervalMs, customerIntervalMs,
+                initialTickets, maxCapacity);
+    }
+
+    /**
+     * Checks whether the log is generated from a seed rather than read from a file.
+     *
+     * @return true for "seed:&lt;n&gt;".
+     */
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    // Getters for the replay settings
+    public String getLogFile() {
+        return logFile;
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+
+    public int getInitialTickets() {
+        return initialTickets;
+    }
+
+    public String getPoolType() {
+        return poolType;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public int getMaxCapacity() {
+        return maxCapacity;
+    }
+
+    public String getReportFile() {
+        return reportFile;
+    }
+}
@@ -0,0 +1,126 @@
+package com.ticketing.replay;
+
+import com.google.gson.JsonObject;
+import com.ticketing.metrics.LatencyHistogram;
+
+/**
+ * Result of a replay: whether the pool reproduced the log, and how fast it applied the records.
+ */
+public class ReplayReport {
+    private final String input;
+    private final String poolType;
+    private final ReplayEngine engine;
+
+    /**
+     * Initializes a report.
+     *
+     * @param input    The replayed log: a file name or a workload description.
+     * @param poolType The pool that was driven.
+     * @param engine   The finished replay.
+     */
+    public ReplayReport(String input, String poolType, ReplayEngine engine) {
+        this.input = input;
+        this.poolType = poolType;
+        this.engine = engine;
+    }
+
+    /**
+     * Checks whether every outcome matched the log.
+     *
+     * @return true if the pool reproduced the log.
+     */
+    public boolean isMatch() {
+        return engine.getMismatches() == 0;
+    }
+
+    public double getRecordsPerSecond() {
+        return engine.getElapsedNanos() > 0 ? engine.getRecords() * 1e9 / engine.getElapsedNanos() : 0;
+    }
+
+    /**
+     * Formats the report for the console.
+     *
+     * @return Multi-line text report.
+     */
+    public String toText() {
+        LatencyHistogram latency = engine.getLatency();
+        StringBuilder text = new StringBuilder();
+        text.append("Replay Report (").append(input).append(")\n");
+        text.append(String.format("Replayed: %d records on the %s pool in %.2f s, %.0f records/sec (%s)%n",
+                engine.getRecords(), poolType, engine.getElapsedNanos() / 1e9, getRecordsPerSecond(), describeSpeed()));
+        text.append(String.format("Latency (us): p50 %.2f, p99 %.2f, p99.9 %.2f, max %.2f%n",
+                latency.percentile(50) / 1e3, latency.percentile(99) / 1e3, latency.percentile(99.9) / 1e3,
+                latency.getMax() / 1e3));
+        if (engine.getTimedRecords() > 0) {
+            LatencyHistogram lag = engine.getLag();
+            text.append(String.format("Schedule lag (us): p50 %.2f, p99 %.2f, max %.2f%n",
+                    lag.percentile(50) / 1e3, lag.percentile(99) / 1e3, lag.getMax() / 1e3));
+        }
+        text.append(String.format("Tickets: %d at start, %d at end%n", engine.getInitialTickets(), engine.getFinalTickets()));
+        if (isMatch() && engine.getUncountedRecords() == engine.getRecords()) {
+            text.append("Verification: every outcome matched the log (it records no ticket counts)");
+        } else if (isMatch()) {
+            text.append("Verification: every outcome and remaining ticket count matched the log");
+        } else {
+            text.append(String.format("Verification: %d of %d records differ; first at record %d:%n  %s",
+                    engine.getMismatches(), engine.getRecords(), engine.getFirstMismatchIndex(), engine.getFirstMismatch()));
+        }
+        if (engine.getSwaps() > 0) {
+            text.append(String.format("%nSwapped: %d pairs of neighbouring records were logged in the opposite order",
+                    engine.getSwaps()));
+        }
+        return text.toString();
+    }
+
+    private String describeSpeed() {
+        if (engine.getSpeed() == 0) {
+            return "as fast as possible";
+        }
+        if (engine.getTimedRecords() == 0) {
+            return "as fast as possible: the log has no timestamps";
+        }
+        return engine.getSpeed() == 1 ? "recorded timing" : engine.getSpeed() + "x recorded timing";
+    }
+
+    /**
+     * Builds the machine-readable form of the report.
+     *
+     * @return JSON object with the same figures as the text report.
+     */
+    public JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        json.addProperty("input", input);
+        json.addProperty("poolType", poolType);
+        json.addProperty("speed", engine.getSpeed());
+        json.addProperty("records", engine.getRecords());
+        json.addProperty("timedRecords", engine.getTimedRecords());
+        json.addProperty("elapsedSeconds", engine.getElapsedNanos() / 1e9);
+        json.addProperty("recordsPerSecond", getRecordsPerSecond());
+        json.add("latencyMicros", percentiles(engine.getLatency()));
+        if (engine.getTimedRecords() > 0) {
+            json.add("lagMicros", percentiles(engine.getLag()));
+        }
+        json.addProperty("initialTickets", engine.getInitialTickets());
+        json.addProperty("finalTickets", engine.getFinalTickets());
+        json.addProperty("match", isMatch());
+        json.addProperty("mismatches", engine.getMismatches());
+        json.addProperty("swaps", engine.getSwaps());
+        json.addProperty("uncountedRecords", engine.getUncountedRecords());
+        if (!isMatch()) {
+            json.addProperty("firstMismatchIndex", engine.getFirstMismatchIndex());
+            json.addProperty("firstMismatch", engine.getFirstMismatch());
+        }
+        return json;
+    }
+
+    private static JsonObject percentiles(LatencyHistogram histogram) {
+        JsonObject json = new JsonObject();
+        json.addProperty("samples", histogram.getCount());
+        json.addProperty("mean", histogram.getMean() / 1000.0);
+        json.addProperty("p50", histogram.percentile(50) / 1000.0);
+        json.addProperty("p99", histogram.percentile(99) / 1000.0);
+        json.addProperty("p999", histogram.percentile(99.9) / 1000.0);
+        json.addProperty("max", histogram.getMax() / 1000.0);
+        return json;
+    }
+}
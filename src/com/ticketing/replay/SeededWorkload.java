@@ -0,0 +1,149 @@
+package com.ticketing.replay;
+
+import com.ticketing.model.ActionType;
+import com.ticketing.model.TicketRecord;
+import com.ticketing.model.TicketRecordSource;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * Generates the log of a simulation run from a seed, without threads or clocks, so the same
+ * seed always gives the same records. Vendors release 1-10 tickets and customers buy 1-5 at
+ * fixed intervals, as in the simulation, each starting at a random point of its first interval.
+ * The expected ticket counts come from a sequential model of the pool: a release that does not
+ * fit waits until purchases make room, oldest first, and the vendor releases nothing else in the
+ * meantime; a purchase that finds too few tickets is recorded as failed.
+ */
+public class SeededWorkload implements TicketRecordSource {
+    private static final long START_TIME = 1_700_000_000_000L; // Fixed, so that timestamps repeat too
+
+    private final long seed;
+    private final long operations;
+    private final int vendors;
+    private final int customers;
+    private final int vendorIntervalMs;
+    private final int customerIntervalMs;
+    private final int initialTickets;
+    private final int maxCapacity;
+
+    /**
+     * A simulated vendor or customer and its next turn.
+     */
+    private static final class Entity {
+        final String name;
+        final int index;
+        final boolean vendor;
+        final SplittableRandom random;
+        long nextTime;
+        int pending; // Tickets of a release waiting for room
+
+        Entity(String name, int index, boolean vendor, SplittableRandom random) {
+            this.name = name;
+            this.index = index;
+            this.vendor = vendor;
+            this.random = random;
+        }
+    }
+
+    /**
+     * Initializes the workload.
+     *
+     * @param seed               Seed of every random choice.
+     * @param operations         Records to generate.
+     * @param vendors            Number of vendors.
+     * @param customers          Number of customers.
+     * @param vendorIntervalMs   Time between a vendor's releases, in milliseconds.
+     * @param customerIntervalMs Time between a customer's purchases, in milliseconds.
+     * @param initialTickets     Tickets in the pool at start.
+     * @param maxCapacity        Maximum ticket capacity of the pool.
+     */
+    public SeededWorkload(long seed, long operations, int vendors, int customers, int vendorIntervalMs,
+                          int customerIntervalMs, int initialTickets, int maxCapacity) {
+        if (vendors < 1 || customers < 1 || vendorIntervalMs < 1 || customerIntervalMs < 1) {
+            throw new IllegalArgumentException("A workload needs at least one vendor and one customer, with intervals of at least 1 ms.");
+        }
+        if (initialTickets < 0 || initialTickets > maxCapacity) {
+            throw new IllegalArgumentException("Initial tickets must be between 0 and the max capacity.");
+        }
+        this.seed = seed;
+        this.operations = operations;
+        this.vendors = vendors;
+        this.customers = customers;
+        this.vendorIntervalMs = vendorIntervalMs;
+        this.customerIntervalMs = customerIntervalMs;
+        this.initialTickets = initialTickets;
+        this.maxCapacity = maxCapacity;
+    }
+
+    @Override
+    public void forEachRecord(Consumer<? super TicketRecord> action) {
+        SplittableRandom root = new SplittableRandom(seed);
+        PriorityQueue<Entity> turns = new PriorityQueue<>(
+                Comparator.<Entity>comparingLong(e -> e.nextTime).thenComparingInt(e -> e.index));
+        for (int i = 0; i < vendors + customers; i++) {
+            boolean vendor = i < vendors;
+            Entity entity = new Entity(vendor ? "Vendor-" + (i + 1) : "Customer-" + (i - vendors + 1), i, vendor,
+                    root.split());
+            entity.nextTime = START_TIME + entity.random.nextInt(vendor ? vendorIntervalMs : customerIntervalMs);
+            turns.add(entity);
+        }
+        ArrayDeque<Entity> waitingReleases = new ArrayDeque<>();
+        int tickets = initialTickets;
+        long emitted = 0;
+
+        while (emitted < operations) {
+            Entity entity = turns.poll();
+            long now = entity.nextTime;
+            if (entity.vendor) {
+                int count = Math.min(entity.random.nextInt(1, 11), maxCapacity);
+                if (!waitingReleases.isEmpty() || tickets + count > maxCapacity) {
+                    entity.pending = count; // Blocked until purchases make room; back in turn after that
+                    waitingReleases.add(entity);
+                    continue;
+                }
+                tickets += count;
+                action.accept(new TicketRecord(ActionType.ADD, entity.name, count, tickets, now));
+                emitted++;
+                entity.nextTime = now + vendorIntervalMs;
+                turns.add(entity);
+                continue;
+            }
+
+            int count = entity.random.nextInt(1, 6);
+            if (tickets >= count) {
+                tickets -= count;
+                action.accept(new TicketRecord(ActionType.RETRIEVE, entity.name, count, tickets, now));
+                emitted++;
+                while (emitted < operations && !waitingReleases.isEmpty()
+                        && tickets + waitingReleases.peek().pending <= maxCapacity) {
+                    Entity released = waitingReleases.poll();
+                    tickets += released.pending;
+                    action.accept(new TicketRecord(ActionType.ADD, released.name, released.pending, tickets, now));
+                    emitted++;
+                    released.nextTime = now + vendorIntervalMs;
+                    turns.add(released);
+                }
+            } else {
+                action.accept(new TicketRecord(ActionType.RETRIEVE_FAILED, entity.name, count, tickets, now));
+                emitted++;
+            }
+            entity.nextTime = now + customerIntervalMs;
+            turns.add(entity);
+        }
+    }
+
+    /**
+     * Describes the workload for reports.
+     *
+     * @return A one-line summary.
+     */
+    public String describe() {
+        return "seed " + seed + ": " + operations + " operations, " + vendors + " vendors every " + vendorIntervalMs
+                + " ms, " + customers + " customers every " + customerIntervalMs + " ms, " + initialTickets + "/"
+                + maxCapacity + " tickets";
+    }
+}
@@ -0,0 +1,87 @@
+package com.ticketing.seating;
+
+import java.util.function.Consumer;
+
+/**
+ * Hashed timer wheel that expires seat holds.
+ * Each hold is linked into the bucket of its deadline tick, so scheduling and
+ * cancelling are O(1) and each tick only visits one bucket. Holds whose deadline
+ * lies more than one turn of the wheel ahead stay in their bucket until that turn.
+ * Not thread-safe: every wheel belongs to one section and is guarded by its lock.
+ */
+final class HoldTimerWheel {
+    private final SeatHold[] buckets;
+    private final int mask;
+    private long currentTick;
+
+    /**
+     * Initializes a wheel.
+     *
+     * @param bucketCount Number of buckets, rounded up to a power of two.
+     * @param startTick   Tick the wheel starts at.
+     */
+    HoldTimerWheel(int bucketCount, long startTick) {
+        int size = Integer.highestOneBit(Math.max(bucketCount, 2) - 1) << 1;
+        this.buckets = new SeatHold[size];
+        this.mask = size - 1;
+        this.currentTick = startTick;
+    }
+
+    /**
+     * Schedules a hold to expire at the given tick.
+     */
+    void schedule(SeatHold hold, long deadlineTick) {
+        hold.deadlineTick = Math.max(deadlineTick, currentTick + 1);
+        int bucket = (int) hold.deadlineTick & mask;
+        hold.previous = null;
+        hold.next = buckets[bucket];
+        if (hold.next != null) {
+            hold.next.previous = hold;
+        }
+        buckets[bucket] = hold;
+        hold.scheduled = true;
+    }
+
+    /**
+     * Removes a hold from the wheel.
+     */
+    void cancel(SeatHold hold) {
+        if (!hold.scheduled) {
+            return;
+        }
+        if (hold.previous != null) {
+            hold.previous.next = hold.next;
+        } else {
+            buckets[(int) hold.deadlineTick & mask] = hold.next;
+        }
+        if (hold.next != null) {
+            hold.next.previous = hold.previous;
+        }
+        hold.previous = null;
+        hold.next = null;
+        hold.scheduled = false;
+    }
+
+    /**
+     * Advances the wheel to the given tick and removes every hold whose deadline has passed.
+     *
+     * @param tick    Current tick.
+     * @param expired Receives each expired hold.
+     */
+    void advance(long tick, Consumer<SeatHold> expired) {
+        // After a long pause, one pass over all buckets is enough
+        long from = Math.max(currentTick + 1, tick - mask);
+        for (long t = from; t <= tick; t++) {
+            SeatHold hold = buckets[(int) t & mask];
+            while (hold != null) {
+                SeatHold next = hold.next;
+                if (hold.deadlineTick <= tick) {
+                    cancel(hold);
+                    expired.accept(hold);
+                }
+                hold = next;
+            }
+        }
+        currentTick = Math.max(currentTick, tick);
+    }
+}
@@ -0,0 +1,69 @@
+package com.ticketing.seating;
+
+/**
+ * A temporary reservation of consecutive seats in one section.
+ * The seats are off sale until the hold is confirmed (sold), cancelled or expires.
+ * State changes and the timer wheel links are guarded by the owning section's lock.
+ */
+public final class SeatHold {
+    static final int HELD = 0;
+    static final int CONFIRMED = 1;
+    static final int CANCELLED = 2;
+    static final int EXPIRED = 3;
+
+    final SeatSection section;
+    final int firstIndex; // Index of the first seat within the section
+    final int count;
+    final String holderName;
+    int state = HELD;
+
+    // Timer wheel bucket links
+    long deadlineTick;
+    SeatHold previous;
+    SeatHold next;
+    boolean scheduled;
+
+    SeatHold(SeatSection section, int firstIndex, int count, String holderName) {
+        this.section = section;
+        this.firstIndex = firstIndex;
+        this.count = count;
+        this.holderName = holderName;
+    }
+
+    /**
+     * Retrieves the id of the first held seat; the hold covers {@link #getCount()} consecutive ids.
+     *
+     * @return First seat id.
+     */
+    public int getFirstSeat() {
+        return section.getFirstSeatId() + firstIndex;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public String getHolderName() {
+        return holderName;
+    }
+
+    /**
+     * Checks whether the seats are still held (not yet confirmed, cancelled or expired).
+     *
+     * @return true while the hold is active.
+     */
+    public boolean isActive() {
+        section.lock.lock();
+        try {
+            return state == HELD;
+        } finally {
+            section.lock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SeatHold[" + section.getName() + " seats " + (firstIndex + 1) + "-" + (firstIndex + count)
+                + ", holder=" + holderName + "]";
+    }
+}
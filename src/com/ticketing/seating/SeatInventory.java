@@ -0,0 +1,381 @@
+package com.ticketing.seating;
+
+import com.ticketing.metrics.PoolMetrics;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Seat-level inventory of a venue split into sections.
+ * Each section keeps its availability as a bitset and its own lock and hold timer wheel,
+ * so buyers in different sections never contend. A buyer starts searching in a home
+ * section derived from their name. When it cannot serve them, a venue-wide summary bitset
+ * of sections with plenty of seats left leads straight to the next candidate, so a
+ * mostly sold-out venue does not make every search walk past full sections.
+ * Seat ids are numbered consecutively across sections, starting at 0.
+ */
+public class SeatInventory implements AutoCloseable {
+    public static final int DEFAULT_SECTION_SIZE = 1000;
+    private static final long TICK_MILLIS = 10; // Resolution of hold expiry
+    private static final int WHEEL_BUCKETS = 1024; // About ten seconds per turn
+    private static final int ROOMY_SEATS = 64; // Sections with at least this many seats on sale are in the summary
+
+    private final SeatSection[] sections;
+    private final AtomicLongArray roomySections; // One bit per section; changes only when a section crosses ROOMY_SEATS
+    private final int seatCount;
+    private final long originNanos = System.nanoTime();
+    private final long tickNanos = TimeUnit.MILLISECONDS.toNanos(TICK_MILLIS);
+    private final AtomicInteger unreleasedSeats;
+    private final ReentrantLock releaseLock = new ReentrantLock();
+    private int releaseSection; // First section that still has unreleased seats; guarded by releaseLock
+    private final LongAdder expiredHolds = new LongAdder();
+    private volatile ScheduledExecutorService expiryTimer; // Started with the first hold
+
+    /**
+     * Consumer of the seat ranges put on sale by {@link #releaseSeats}.
+     */
+    @FunctionalInterface
+    public interface SeatRangeConsumer {
+        void accept(int firstSeat, int count);
+    }
+
+    /**
+     * Initializes a venue.
+     *
+     * @param seatCount     Number of seats in the venue.
+     * @param sectionSize   Seats per section (the last section may be smaller).
+     * @param initialOnSale Seats put on sale immediately, in seat id order.
+     */
+    public SeatInventory(int seatCount, int sectionSize, int initialOnSale) {
+        if (seatCount < 1 || sectionSize < 1) {
+            throw new IllegalArgumentException("Seat count and section size must be positive.");
+        }
+        this.seatCount = seatCount;
+        this.sections = new SeatSection[(seatCount + sectionSize - 1) / sectionSize];
+        for (int i = 0; i < sections.length; i++) {
+            int first = i * sectionSize;
+            sections[i] = new SeatSection(i, "S" + (i + 1), first, Math.min(sectionSize, seatCount - first),
+                    WHEEL_BUCKETS, 0);
+        }
+        this.roomySections = new AtomicLongArray((sections.length + 63) >>> 6);
+        this.unreleasedSeats = new AtomicInteger(seatCount);
+        releaseSeats(Math.min(initialOnSale, seatCount), (first, count) -> { });
+    }
+
+    /**
+     * Holds a block of consecutive seats in one section.
+     *
+     * @param count      Number of seats.
+     * @param holderName Name of the customer.
+     * @param ttlMillis  Time after which the hold expires and the seats go back on sale.
+     * @return The hold, or null if no section has enough consecutive seats on sale.
+     */
+    public SeatHold hold(int count, String holderName, long ttlMillis) {
+        startExpiryTimer();
+        long deadline = currentTick() + (TimeUnit.MILLISECONDS.toNanos(ttlMillis) + tickNanos - 1) / tickNanos;
+        long block = takeBlock(count, holderName);
+        if (block < 0) {
+            return null;
+        }
+        SeatSection section = sections[(int) (block >>> 32)];
+        SeatHold hold = new SeatHold(section, (int) block, count, holderName);
+        section.lock.lock();
+        try {
+            section.wheel.schedule(hold, deadline);
+        } finally {
+            section.lock.unlock();
+        }
+        return hold;
+    }
+
+    /**
+     * Buys a block of consecutive seats without holding them first.
+     *
+     * @param count        Number of seats.
+     * @param customerName Name of the customer.
+     * @return Id of the first seat bought, or -1 if no section has enough consecutive seats on sale.
+     */
+    public int purchase(int count, String customerName) {
+        long block = takeBlock(count, customerName);
+        return block < 0 ? -1 : sections[(int) (block >>> 32)].getFirstSeatId() + (int) block;
+    }
+
+    /**
+     * Takes a block of consecutive seats off sale: first in the home section, then in the
+     * sections of the summary, then (when the venue is nearly sold out) in any section.
+     *
+     * @return Section index (high 32 bits) and seat index within the section (low 32 bits), or -1.
+     */
+    private long takeBlock(int count, String name) {
+        int home = homeSection(name);
+        int seat = tryTake(sections[home], count);
+        if (seat >= 0) {
+            return ((long) home << 32) | seat;
+        }
+        for (int i = nextRoomy(home + 1); i >= 0; i = nextRoomy(i + 1)) {
+            if ((seat = tryTake(sections[i], count)) >= 0) {
+                return ((long) i << 32) | seat;
+            }
+        }
+        for (int i = nextRoomy(0); i >= 0 && i < home; i = nextRoomy(i + 1)) {
+            if ((seat = tryTake(sections[i], count)) >= 0) {
+                return ((long) i << 32) | seat;
+            }
+        }
+        for (int step = 1; step < sections.length; step++) {
+            int i = (home + step) % sections.length;
+            if ((seat = tryTake(sections[i], count)) >= 0) {
+                return ((long) i << 32) | seat;
+            }
+        }
+        return -1;
+    }
+
+    private int tryTake(SeatSection section, int count) {
+        if (section.getAvailableCount() < count) {
+            return -1; // Cannot fit; skip without locking
+        }
+        if (!section.lock.tryLock()) {
+            PoolMetrics.lockContended();
+            section.lock.lock();
+        }
+        try {
+            int index = section.findContiguous(count);
+            if (index >= 0) {
+                section.take(index, count);
+                updateSummary(section);
+            }
+            return index;
+        } finally {
+            section.lock.unlock();
+        }
+    }
+
+    /**
+     * Finds the next section at or after {@code from} that is in the summary.
+     *
+     * @return Section index, or -1 if there is none.
+     */
+    private int nextRoomy(int from) {
+        int word = from >>> 6;
+        if (word >= roomySections.length()) {
+            return -1;
+        }
+        long bits = roomySections.get(word) & (-1L << (from & 63));
+        while (bits == 0) {
+            if (++word >= roomySections.length()) {
+                return -1;
+            }
+            bits = roomySections.get(word);
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(bits);
+    }
+
+    /**
+     * Adds or removes a section from the summary after its seat count changed. Caller holds the section's lock.
+     */
+    private void updateSummary(SeatSection section) {
+        boolean roomy = section.getAvailableCount() >= ROOMY_SEATS;
+        if (roomy != section.roomy) {
+            section.roomy = roomy;
+            long bit = 1L << (section.index & 63);
+            if (roomy) {
+                roomySections.getAndAccumulate(section.index >>> 6, bit, (bits, mask) -> bits | mask);
+            } else {
+                roomySections.getAndAccumulate(section.index >>> 6, bit, (bits, mask) -> bits & ~mask);
+            }
+        }
+    }
+
+    /**
+     * Turns a hold into a purchase.
+     *
+     * @param hold The hold.
+     * @return false if the hold had already expired or been cancelled.
+     */
+    public boolean confirm(SeatHold hold) {
+        return finish(hold, SeatHold.CONFIRMED);
+    }
+
+    /**
+     * Gives up a hold and puts its seats back on sale.
+     *
+     * @param hold The hold.
+     * @return false if the hold had already expired or been confirmed.
+     */
+    public boolean cancel(SeatHold hold) {
+        return finish(hold, SeatHold.CANCELLED);
+    }
+
+    private boolean finish(SeatHold hold, int newState) {
+        SeatSection section = hold.section;
+        section.lock.lock();
+        try {
+            if (hold.state != SeatHold.HELD) {
+                return false;
+            }
+            hold.state = newState;
+            section.wheel.cancel(hold);
+            if (newState == SeatHold.CANCELLED) {
+                section.give(hold.firstIndex, hold.count);
+                updateSummary(section);
+            }
+            return true;
+        } finally {
+            section.lock.unlock();
+        }
+    }
+
+    /**
+     * Puts seats that have never been on sale on sale, in seat id order.
+     * Either all requested seats are released or none.
+     *
+     * @param count    Number of seats.
+     * @param released Receives each released range of consecutive seats.
+     * @return false if fewer than {@code count} seats are left to release.
+     */
+    public boolean releaseSeats(int count, SeatRangeConsumer released) {
+        releaseLock.lock();
+        try {
+            if (unreleasedSeats.get() < count) {
+                return false;
+            }
+            int remaining = count;
+            while (remaining > 0) {
+                SeatSection section = sections[releaseSection];
+                int index;
+                int put;
+                section.lock.lock();
+                try {
+                    put = Math.min(remaining, section.unreleased());
+                    index = section.release(put);
+                    updateSummary(section);
+                    if (section.unreleased() == 0) {
+                        releaseSection++;
+                    }
+                } finally {
+                    section.lock.unlock();
+                }
+                if (put > 0) {
+                    unreleasedSeats.addAndGet(-put);
+                    released.accept(section.getFirstSeatId() + index, put);
+                    remaining -= put;
+                }
+            }
+            return true;
+        } finally {
+            releaseLock.unlock();
+        }
+    }
+
+    /**
+     * Expires the holds whose time has run out, putting their seats back on sale.
+     * Called by the expiry timer every tick; each section only visits its current wheel bucket.
+     *
+     * @return Number of holds expired.
+     */
+    public int expireHolds() {
+        long tick = currentTick();
+        int[] expired = new int[1];
+        for (SeatSection section : sections) {
+            section.lock.lock();
+            try {
+                section.wheel.advance(tick, hold -> {
+                    hold.state = SeatHold.EXPIRED;
+                    section.give(hold.firstIndex, hold.count);
+                    expired[0]++;
+                });
+                updateSummary(section);
+            } finally {
+                section.lock.unlock();
+            }
+        }
+        expiredHolds.add(expired[0]);
+        return expired[0];
+    }
+
+    /**
+     * Sums the seats on sale. Exact when the venue is quiescent, approximate while purchases are in flight.
+     *
+     * @return Seats currently on sale.
+     */
+    public int getAvailableSeats() {
+        int total = 0;
+        for (SeatSection section : sections) {
+            total += section.getAvailableCount();
+        }
+        return total;
+    }
+
+    public int getUnreleasedSeats() {
+        return unreleasedSeats.get();
+    }
+
+    public int getSeatCount() {
+        return seatCount;
+    }
+
+    public int getSectionCount() {
+        return sections.length;
+    }
+
+    public long getExpiredHolds() {
+        return expiredHolds.sum();
+    }
+
+    /**
+     * Formats a seat id as section and seat number, e.g. "S3-17".
+     *
+     * @param seatId Seat id.
+     * @return Seat label.
+     */
+    public String seatLabel(int seatId) {
+        for (SeatSection section : sections) {
+            if (seatId < section.getFirstSeatId() + section.getSize()) {
+                return section.getName() + "-" + (seatId - section.getFirstSeatId() + 1);
+            }
+        }
+        throw new IllegalArgumentException("No such seat: " + seatId);
+    }
+
+    /**
+     * Stops the expiry timer. Holds still active stay held.
+     */
+    @Override
+    public void close() {
+        ScheduledExecutorService timer = expiryTimer;
+        if (timer != null) {
+            timer.shutdownNow();
+        }
+    }
+
+    private void startExpiryTimer() {
+        if (expiryTimer != null) {
+            return;
+        }
+        synchronized (this) {
+            if (expiryTimer == null) {
+                ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(task -> {
+                    Thread thread = new Thread(task, "seat-hold-expiry");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                timer.scheduleAtFixedRate(this::expireHolds, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+                expiryTimer = timer;
+            }
+        }
+    }
+
+    private long currentTick() {
+        return (System.nanoTime() - originNanos) / tickNanos;
+    }
+
+    private int homeSection(String name) {
+        return (name.hashCode() & Integer.MAX_VALUE) % sections.length;
+    }
+}
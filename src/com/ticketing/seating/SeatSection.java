@@ -0,0 +1,170 @@
+package com.ticketing.seating;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One section of a venue. Seat availability is a bitset (one bit per seat, 1 = on sale),
+ * so finding a block of consecutive seats scans 64 seats per step. Seats are put on sale
+ * in order by vendors; the ones not yet released sit after {@code releasedUpTo}.
+ * All state is guarded by {@link #lock}; sections are independent of each other.
+ */
+final class SeatSection {
+    final ReentrantLock lock = new ReentrantLock();
+    final HoldTimerWheel wheel;
+    final int index; // Position in the venue
+    boolean roomy; // Mirrors this section's bit in the venue's summary; guarded by the lock
+
+    private final String name;
+    private final int firstSeatId;
+    private final int size;
+    private final long[] available;
+    private volatile int availableCount; // Read without the lock to skip sections that cannot fit a block
+    private int releasedUpTo;
+    private int firstFreeWord; // No word before this one has a free seat
+
+    SeatSection(int index, String name, int firstSeatId, int size, int wheelBuckets, long startTick) {
+        this.index = index;
+        this.name = name;
+        this.firstSeatId = firstSeatId;
+        this.size = size;
+        this.available = new long[(size + 63) >>> 6];
+        this.wheel = new HoldTimerWheel(wheelBuckets, startTick);
+    }
+
+    /**
+     * Finds the first block of {@code count} consecutive seats on sale. Caller holds the lock.
+     *
+     * @return Index of the first seat of the block, or -1 if there is none.
+     */
+    int findContiguous(int count) {
+        if (count > availableCount) {
+            return -1;
+        }
+        int run = 0; // Free seats ending at the top of the previous word
+        int runStart = 0;
+        for (int word = firstFreeWord; word < available.length; word++) {
+            long bits = available[word];
+            int base = word << 6;
+            if (bits == -1L) {
+                if (run == 0) {
+                    runStart = base;
+                }
+                run += 64;
+                if (run >= count) {
+                    return runStart;
+                }
+                continue;
+            }
+            if (bits == 0) {
+                run = 0;
+                continue;
+            }
+            // A run from the previous word continuing into the low bits of this one
+            if (run > 0 && run + Long.numberOfTrailingZeros(~bits) >= count) {
+                return runStart;
+            }
+            if (count <= 64) {
+                long starts = runStarts(bits, count);
+                if (starts != 0) {
+                    return base + Long.numberOfTrailingZeros(starts);
+                }
+            }
+            // A run starting in the high bits may continue into the next word
+            run = Long.numberOfLeadingZeros(~bits);
+            runStart = base + 64 - run;
+        }
+        return -1;
+    }
+
+    /**
+     * Marks every bit that starts a run of at least {@code count} set bits within the word.
+     * Doubles the covered run length at each step, so a block of n seats takes log2(n) shifts.
+     */
+    private static long runStarts(long bits, int count) {
+        long starts = bits;
+        int covered = 1;
+        while (covered * 2 <= count) {
+            starts &= starts >>> covered;
+            covered *= 2;
+        }
+        if (covered < count) {
+            starts &= starts >>> (count - covered);
+        }
+        return starts;
+    }
+
+    /**
+     * Takes seats off sale. Caller holds the lock and has checked that they are on sale.
+     */
+    void take(int index, int count) {
+        setRange(index, count, false);
+        availableCount -= count;
+        while (firstFreeWord < available.length && available[firstFreeWord] == 0) {
+            firstFreeWord++;
+        }
+    }
+
+    /**
+     * Puts seats (back) on sale. Caller holds the lock.
+     */
+    void give(int index, int count) {
+        setRange(index, count, true);
+        availableCount += count;
+        firstFreeWord = Math.min(firstFreeWord, index >>> 6);
+    }
+
+    /**
+     * Puts up to {@code count} seats that have never been on sale on sale. Caller holds the lock.
+     *
+     * @return Index of the first released seat; the released seats follow it. The number
+     *         released is the smaller of {@code count} and {@link #unreleased()}.
+     */
+    int release(int count) {
+        int index = releasedUpTo;
+        int released = Math.min(count, size - releasedUpTo);
+        if (released > 0) {
+            releasedUpTo += released;
+            give(index, released);
+        }
+        return index;
+    }
+
+    private void setRange(int index, int count, boolean onSale) {
+        int end = index + count - 1;
+        int firstWord = index >>> 6;
+        int lastWord = end >>> 6;
+        for (int word = firstWord; word <= lastWord; word++) {
+            long mask = -1L;
+            if (word == firstWord) {
+                mask &= -1L << (index & 63);
+            }
+            if (word == lastWord) {
+                mask &= -1L >>> (63 - (end & 63));
+            }
+            available[word] = onSale ? available[word] | mask : available[word] & ~mask;
+        }
+    }
+
+    String getName() {
+        return name;
+    }
+
+    int getFirstSeatId() {
+        return firstSeatId;
+    }
+
+    int getSize() {
+        return size;
+    }
+
+    int getAvailableCount() {
+        return availableCount;
+    }
+
+    /**
+     * Seats never put on sale yet. Caller holds the lock.
+     */
+    int unreleased() {
+        return size - releasedUpTo;
+    }
+}
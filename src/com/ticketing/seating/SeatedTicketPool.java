@@ -0,0 +1,185 @@
+package com.ticketing.seating;
+
+import com.ticketing.logging.Logger;
+import com.ticketing.model.AbstractTicketPool;
+import com.ticketing.model.ActionType;
+import com.ticketing.model.InMemoryTransactionLog;
+import com.ticketing.model.RecordCodec;
+import com.ticketing.model.TicketRequest;
+import com.ticketing.model.TransactionLog;
+
+import java.util.List;
+
+/**
+ * Ticket pool backed by a {@link SeatInventory}: every ticket is a seat.
+ * The maximum capacity is the number of seats in the venue. Vendors put seats that
+ * have never been on sale on sale; once every seat has been released, the pool accepts no
+ * more releases and vendors stop. Customers buy blocks of consecutive seats in one section,
+ * and every transaction records the seats it involved.
+ * Seats can also be held for a limited time with {@link #hold} and then confirmed or cancelled.
+ */
+public class SeatedTicketPool extends AbstractTicketPool {
+    private final SeatInventory inventory;
+
+    /**
+     * Initializes the pool with in-memory transactions.
+     *
+     * @param initialTickets Seats on sale at start.
+     * @param maxCapacity    Seats in the venue.
+     * @param sectionSize    Seats per section.
+     */
+    public SeatedTicketPool(int initialTickets, int maxCapacity, int sectionSize) {
+        this(initialTickets, maxCapacity, sectionSize, new InMemoryTransactionLog());
+    }
+
+    /**
+     * Initializes the pool.
+     *
+     * @param initialTickets Seats on sale at start.
+     * @param maxCapacity    Seats in the venue, at most {@link RecordCodec#MAX_SEAT_ID} + 1.
+     * @param sectionSize    Seats per section.
+     * @param transactionLog Destination for completed transactions.
+     */
+    public SeatedTicketPool(int initialTickets, int maxCapacity, int sectionSize, TransactionLog transactionLog) {
+        super(maxCapacity, transactionLog);
+        if (maxCapacity > RecordCodec.MAX_SEAT_ID + 1) {
+            throw new IllegalArgumentException("A venue can have at most " + (RecordCodec.MAX_SEAT_ID + 1) + " seats.");
+        }
+        this.inventory = new SeatInventory(maxCapacity, sectionSize, initialTickets);
+    }
+
+    /**
+     * Puts seats on sale, or the last ones left if fewer than {@code count} remain. Released seats
+     * never come back, so there is nothing to wait for: once every seat has been released, this
+     * returns without adding any and {@link #acceptsReleases} turns false.
+     */
+    @Override
+    public void addTickets(int count, String vendorName) {
+        int left;
+        while ((left = inventory.getUnreleasedSeats()) > 0) {
+            if (release(Math.min(count, left), vendorName)) {
+                return;
+            }
+            // Another vendor released some of the last seats in between
+        }
+        Logger.info("{} could not add tickets. All seats have been released.", vendorName);
+    }
+
+    @Override
+    public boolean acceptsReleases() {
+        return inventory.getUnreleasedSeats() > 0;
+    }
+
+    @Override
+    protected boolean purchase(int count, String customerName, boolean reportFailure) {
+        int firstSeat = count <= RecordCodec.MAX_SEATED_COUNT ? inventory.purchase(count, customerName) : -1;
+        if (firstSeat < 0) {
+            if (reportFailure) {
+                Logger.info("{} failed to purchase {} tickets. Not enough consecutive seats.", customerName, count);
+                recordFailedPurchase(customerName, count, inventory.getAvailableSeats());
+            }
+            return false;
+        }
+        int remaining = inventory.getAvailableSeats();
+        Logger.info("{} purchased {} tickets. Current Pool: {}", customerName, count, remaining);
+        recordTransaction(ActionType.RETRIEVE, customerName, count, remaining, firstSeat);
+        return true;
+    }
+
+    /**
+     * Applies each request in turn. Records carry seat ranges, so they are appended one
+     * range at a time rather than as one batch.
+     */
+    @Override
+    public boolean[] processBatch(List<TicketRequest> requests) {
+        boolean[] results = new boolean[requests.size()];
+        for (int i = 0; i < results.length; i++) {
+            TicketRequest request = requests.get(i);
+            if (request.getActionType() == ActionType.ADD) {
+                results[i] = release(request.getCount(), request.getEntityName());
+            } else {
+                results[i] = purchase(request.getCount(), request.getEntityName(), request.reportsFailure());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Holds a block of consecutive seats for a limited time.
+     *
+     * @param count        Number of seats.
+     * @param customerName Name of the customer.
+     * @param ttlMillis    Time after which unconfirmed seats go back on sale.
+     * @return The hold, or null if no section has enough consecutive seats on sale.
+     */
+    public SeatHold hold(int count, String customerName, long ttlMillis) {
+        if (count > RecordCodec.MAX_SEATED_COUNT) {
+            return null;
+        }
+        return inventory.hold(count, customerName, ttlMillis);
+    }
+
+    /**
+     * Buys the seats of a hold.
+     *
+     * @param hold The hold.
+     * @return false if the hold had expired or been cancelled.
+     */
+    public boolean confirm(SeatHold hold) {
+        if (!inventory.confirm(hold)) {
+            Logger.info("{} could not confirm {}. The hold has expired.", hold.getHolderName(), hold);
+            return false;
+        }
+        recordTransaction(ActionType.RETRIEVE, hold.getHolderName(), hold.getCount(),
+                inventory.getAvailableSeats(), hold.getFirstSeat());
+        return true;
+    }
+
+    /**
+     * Releases the seats of a hold without buying them.
+     *
+     * @param hold The hold.
+     * @return false if the hold had already expired or been confirmed.
+     */
+    public boolean cancel(SeatHold hold) {
+        return inventory.cancel(hold);
+    }
+
+    /**
+     * Not supported: the seat map is laid out for the venue when the pool is created.
+     */
+    @Override
+    protected void applyMaxCapacity(int maxCapacity) {
+        throw new UnsupportedOperationException("A seated pool cannot change its number of seats.");
+    }
+
+    @Override
+    public int getTotalTickets() {
+        return inventory.getAvailableSeats();
+    }
+
+    /**
+     * Retrieves the seat inventory behind the pool.
+     *
+     * @return The inventory.
+     */
+    public SeatInventory getInventory() {
+        return inventory;
+    }
+
+    /**
+     * Puts seats on sale and records one transaction per range of consecutive seats.
+     *
+     * @return false if fewer than {@code count} seats are left to release.
+     */
+    private boolean release(int count, String vendorName) {
+        return inventory.releaseSeats(count, (firstSeat, released) -> {
+            for (int offset = 0; offset < released; offset += RecordCodec.MAX_SEATED_COUNT) {
+                int chunk = Math.min(RecordCodec.MAX_SEATED_COUNT, released - offset);
+                int remaining = inventory.getAvailableSeats();
+                Logger.info("{} added {} tickets. Current Pool: {}", vendorName, chunk, remaining);
+                recordTransaction(ActionType.ADD, vendorName, chunk, remaining, firstSeat + offset);
+            }
+        });
+    }
+}
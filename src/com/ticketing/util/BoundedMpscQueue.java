@@ -0,0 +1,124 @@
+package com.ticketing.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded, lock-free multi-producer / single-consumer queue backed by a ring buffer.
+ * Each slot carries a sequence number that tells producers when the slot is free
+ * and tells the consumer when its element has been published.
+ *
+ * @param <E> Element type.
+ */
+public class BoundedMpscQueue<E> {
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong(); // Next slot producers claim
+    private volatile long head; // Next slot the consumer reads; only advanced by the consumer thread
+
+    /**
+     * Initializes the queue.
+     *
+     * @param capacity Requested capacity, rounded up to a power of two.
+     */
+    public BoundedMpscQueue(int capacity) {
+        int size = roundCapacity(capacity);
+        this.mask = size - 1;
+        this.elements = new AtomicReferenceArray<>(size);
+        long[] initial = new long[size];
+        for (int i = 0; i < size; i++) {
+            initial[i] = i;
+        }
+        this.sequences = new AtomicLongArray(initial); // Plain stores: set() per slot is slow before the JIT kicks in
+    }
+
+    /**
+     * Computes the capacity a queue created with the requested capacity will have.
+     *
+     * @param capacity Requested capacity.
+     * @return The next power of two, at least 2.
+     */
+    public static int roundCapacity(int capacity) {
+        return Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+    }
+
+    /**
+     * Adds an element if there is room. Safe to call from any thread.
+     *
+     * @param element The element to add.
+     * @return false if the queue is full.
+     */
+    public boolean offer(E element) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long sequence = sequences.get(index);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.lazySet(index, element);
+                    sequences.set(index, position + 1); // Publish to the consumer
+                    return true;
+                }
+            } else if (sequence < position) {
+                return false; // Slot still holds an element the consumer has not taken
+            }
+            // Another producer claimed this slot first; retry with the new tail
+        }
+    }
+
+    /**
+     * Removes up to {@code limit} elements and hands them to the consumer in order.
+     * Must only be called from the single consumer thread.
+     *
+     * @param consumer Receives each element.
+     * @param limit    Maximum number of elements to remove.
+     * @return Number of elements removed.
+     */
+    public int drain(Consumer<E> consumer, int limit) {
+        int drained = 0;
+        while (drained < limit) {
+            int index = (int) head & mask;
+            if (sequences.get(index) != head + 1) {
+                break; // Next element not yet published
+            }
+            E element = elements.get(index);
+            elements.lazySet(index, null);
+            sequences.set(index, head + mask + 1); // Free the slot for the next lap
+            head++;
+            consumer.accept(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * Approximates the number of queued elements.
+     *
+     * @return Queue depth.
+     */
+    public int size() {
+        long depth = tail.get() - head;
+        return (int) Math.max(0, Math.min(depth, mask + 1));
+    }
+
+    /**
+     * Retrieves the number of elements ever added to the queue.
+     *
+     * @return Total successful offers.
+     */
+    public long offeredCount() {
+        return tail.get();
+    }
+
+    /**
+     * Retrieves the queue capacity.
+     *
+     * @return Maximum number of elements the queue holds.
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+}
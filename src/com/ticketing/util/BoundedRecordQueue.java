@@ -0,0 +1,151 @@
+package com.ticketing.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded, lock-free multi-producer / single-consumer queue of primitive
+ * two-long records. Works like {@link BoundedMpscQueue} but stores the payload
+ * in a long array, so offering a record allocates nothing.
+ */
+public class BoundedRecordQueue {
+    private final int mask;
+    private final long[] payload; // Two longs per slot, guarded by the slot's sequence
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    /**
+     * Consumer of drained records.
+     */
+    @FunctionalInterface
+    public interface RecordConsumer {
+        void accept(long first, long second);
+    }
+
+    /**
+     * Initializes the queue.
+     *
+     * @param capacity Requested capacity, rounded up to a power of two.
+     */
+    public BoundedRecordQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.mask = size - 1;
+        this.payload = new long[size * 2];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds a record if there is room. Safe to call from any thread.
+     *
+     * @return false if the queue is full.
+     */
+    public boolean offer(long first, long second) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long sequence = sequences.get(index);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    payload[index << 1] = first;
+                    payload[(index << 1) + 1] = second;
+                    sequences.set(index, position + 1); // Volatile write publishes the payload
+                    return true;
+                }
+            } else if (sequence < position) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Adds a run of records with a single reservation, so they are stored next to each
+     * other and drained together. Safe to call from any thread.
+     *
+     * @param firsts  First long of each record.
+     * @param seconds Second long of each record.
+     * @param length  Number of records to add; at most {@link #capacity()}.
+     * @return false if the queue does not have room for all of them; nothing is added then.
+     */
+    public boolean offerBatch(long[] firsts, long[] seconds, int length) {
+        if (length > mask + 1) {
+            throw new IllegalArgumentException("Batch of " + length + " records exceeds the queue capacity.");
+        }
+        while (true) {
+            long position = tail.get();
+            long last = position + length - 1;
+            long sequence = sequences.get((int) last & mask);
+            if (sequence == last) {
+                // Slots are freed in order, so if the last one is free the whole run is
+                if (tail.compareAndSet(position, position + length)) {
+                    for (int i = 0; i < length; i++) {
+                        int index = (int) (position + i) & mask;
+                        payload[index << 1] = firsts[i];
+                        payload[(index << 1) + 1] = seconds[i];
+                        sequences.set(index, position + i + 1);
+                    }
+                    return true;
+                }
+            } else if (sequence < last) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Removes up to {@code limit} records in order. Must only be called from the consumer thread.
+     *
+     * @param consumer Receives each record.
+     * @param limit    Maximum number of records to remove.
+     * @return Number of records removed.
+     */
+    public int drain(RecordConsumer consumer, int limit) {
+        int drained = 0;
+        long position = head;
+        while (drained < limit) {
+            int index = (int) position & mask;
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            long first = payload[index << 1];
+            long second = payload[(index << 1) + 1];
+            sequences.set(index, position + mask + 1);
+            position++;
+            head = position;
+            consumer.accept(first, second);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * Approximates the number of queued records.
+     *
+     * @return Queue depth.
+     */
+    public int size() {
+        long depth = tail.get() - head;
+        return (int) Math.max(0, Math.min(depth, mask + 1));
+    }
+
+    /**
+     * Retrieves the number of records the queue can hold.
+     *
+     * @return Capacity.
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Retrieves the number of records ever added to the queue.
+     *
+     * @return Total successful offers.
+     */
+    public long offeredCount() {
+        return tail.get();
+    }
+}
@@ -3,10 +3,23 @@ package com.ticketing.util;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
+import com.ticketing.model.TicketRecord;
+import com.ticketing.model.TicketRecordSource;
 
+import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Utility class for writing and reading data to/from JSON files.
@@ -60,6 +73,78 @@ public class JSONFileWriter {
         }
     }
 
+    /**
+     * Writes a report object (e.g. a load test summary) to a JSON file.
+     *
+     * @param report   The report to write.
+     * @param filename Name of the JSON file.
+     */
+    public static void writeReportToJSON(Object report, String filename) {
+        try (FileWriter writer = new FileWriter(filename)) {
+            gson.toJson(report, writer);  // Pretty print JSON
+            System.out.println("Report successfully saved to " + filename);
+        } catch (IOException e) {
+            System.err.println("Failed to write report to JSON file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Streams ticket records to a JSON file one record at a time.
+     * Peak memory stays constant regardless of the number of records, unlike
+     * {@link #writeTicketRecordsToJSON}, which needs the whole list up front.
+     *
+     * @param source   Records to write, visited once in order.
+     * @param filename Name of the JSON file.
+     * @param compact  If true, omit indentation and line breaks.
+     * @param gzip     If true, gzip-compress the output.
+     * @return Number of records written, or -1 if writing failed.
+     */
+    public static long writeTicketRecordsStreaming(TicketRecordSource source, String filename,
+                                                   boolean compact, boolean gzip) {
+        long[] count = new long[1];
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             OutputStream out = gzip ? new GZIPOutputStream(Channels.newOutputStream(channel), 64 * 1024)
+                     : Channels.newOutputStream(channel);
+             JsonWriter json = new JsonWriter(new BufferedWriter(
+                     new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024))) {
+            if (!compact) {
+                json.setIndent("  "); // Same layout as the pretty-printing Gson instance
+            }
+            json.beginArray();
+            source.forEachRecord(record -> {
+                writeTicketRecord(json, record);
+                count[0]++;
+            });
+            json.endArray();
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Failed to stream records to JSON file: " + e.getMessage());
+            return -1;
+        }
+        System.out.println(count[0] + " records successfully saved to " + filename);
+        return count[0];
+    }
+
+    /**
+     * Writes a single record as a JSON object with the same fields Gson would produce.
+     */
+    private static void writeTicketRecord(JsonWriter json, TicketRecord record) {
+        try {
+            json.beginObject();
+            json.name("actionType").value(record.getActionType().name());
+            json.name("entityName").value(record.getEntityName());
+            json.name("ticketCount").value(record.getTicketCount());
+            json.name("remainingTickets").value(record.getRemainingTickets());
+            json.name("timestamp").value(record.getTimestamp());
+            if (record.getFirstSeat() >= 0) {
+                json.name("firstSeat").value(record.getFirstSeat());
+            }
+            json.endObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     /**
      * Writes the configuration data to a JSON file.
      *
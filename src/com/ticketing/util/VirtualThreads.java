@@ -0,0 +1,66 @@
+package com.ticketing.util;
+
+import java.lang.reflect.Method;
+
+/**
+ * Creates virtual threads when the running JDK supports them (JDK 21+).
+ * The API is looked up reflectively so the project still compiles and runs on older JDKs,
+ * where callers fall back to platform threads.
+ */
+public final class VirtualThreads {
+    private static final Method OF_VIRTUAL; // Thread.ofVirtual(), or null if unsupported
+    private static final Method NAME;
+    private static final Method UNSTARTED;
+
+    static {
+        Method ofVirtual = null;
+        Method name = null;
+        Method unstarted = null;
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            ofVirtual.invoke(null); // Throws while virtual threads are still a preview feature
+            name = builderType.getMethod("name", String.class);
+            unstarted = builderType.getMethod("unstarted", Runnable.class);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        UNSTARTED = unstarted;
+    }
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Checks whether virtual threads can be created on this JDK.
+     *
+     * @return true if virtual threads are available.
+     */
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Creates an unstarted virtual thread.
+     *
+     * @param task The task to run.
+     * @param name The thread name.
+     * @return A new, unstarted virtual thread.
+     * @throws UnsupportedOperationException If virtual threads are not available.
+     */
+    public static Thread newThread(Runnable task, String name) {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("Virtual threads require JDK 21 or newer.");
+        }
+        try {
+            // Builders are not thread-safe, so each thread gets its own named builder
+            Object builder = OF_VIRTUAL.invoke(null);
+            NAME.invoke(builder, name);
+            return (Thread) UNSTARTED.invoke(builder, task);
+        } catch (ReflectiveOperationException e) {
+            throw new UnsupportedOperationException("Failed to create virtual thread: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.ticketing.workload;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * Shape of an arrival stream: how long to wait for the next arrival at a given point in the run.
+ * Profiles are immutable and shared by all workers; each worker draws from its own random source.
+ */
+public interface ArrivalProfile {
+
+    /**
+     * Computes the gap until the next arrival of one worker.
+     *
+     * @param elapsedNanos Time since the start of the run at the previous arrival.
+     * @param share        Fraction of the total rate handled by the calling worker.
+     * @param random       The calling worker's random source.
+     * @return Nanoseconds until the next arrival.
+     */
+    long nextGap(long elapsedNanos, double share, SplittableRandom random);
+
+    /**
+     * Describes the profile for reports.
+     *
+     * @return Short description, e.g. "poisson 50000/s".
+     */
+    String describe();
+
+    /**
+     * Arrivals at a fixed interval, e.g. a vendor releasing tickets every second.
+     *
+     * @param intervalMillis Interval between arrivals in milliseconds.
+     * @return The profile.
+     */
+    static ArrivalProfile fixedInterval(int intervalMillis) {
+        return new FixedIntervalProfile(() -> intervalMillis);
+    }
+
+    /**
+     * Arrivals at an interval that may change while the run goes on, e.g. after a configuration reload.
+     *
+     * @param intervalMillis Supplies the interval between arrivals in milliseconds; read once per arrival.
+     * @return The profile.
+     */
+    static ArrivalProfile fixedInterval(IntSupplier intervalMillis) {
+        return new FixedIntervalProfile(intervalMillis);
+    }
+
+    /**
+     * Parses a profile from a command-line specification:
+     * <ul>
+     *   <li>{@code poisson} - random arrivals at a constant rate,</li>
+     *   <li>{@code burst:<peakRate>:<periodSeconds>:<lengthSeconds>} - a flash sale at the peak rate
+     *       at the start of every period, the base rate otherwise,</li>
+     *   <li>{@code ramp:<endRate>:<seconds>} - a linear ramp from the base rate to the end rate.</li>
+     * </ul>
+     *
+     * @param spec     Profile specification.
+     * @param baseRate Total arrivals per second.
+     * @return The profile.
+     * @throws IllegalArgumentException If the specification is invalid.
+     */
+    static ArrivalProfile parse(String spec, double baseRate) {
+        String[] parts = spec.split(":");
+        try {
+            switch (parts[0]) {
+                case "poisson":
+                    if (parts.length == 1) {
+                        return new PoissonProfile(baseRate);
+                    }
+                    break;
+                case "burst":
+                    if (parts.length == 4) {
+                        return new BurstProfile(baseRate, Double.parseDouble(parts[1]),
+                                seconds(parts[2]), seconds(parts[3]));
+                    }
+                    break;
+                case "ramp":
+                    if (parts.length == 3) {
+                        return new RampProfile(baseRate, Double.parseDouble(parts[1]), seconds(parts[2]));
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown arrival profile: " + spec);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number in arrival profile: " + spec);
+        }
+        throw new IllegalArgumentException("Invalid arrival profile: " + spec);
+    }
+
+    /**
+     * Draws an exponentially distributed gap, so that arrivals form a Poisson process.
+     *
+     * @param rate   Arrivals per second; a rate of zero waits one millisecond and looks again.
+     * @param random Random source.
+     * @return Gap in nanoseconds.
+     */
+    static long exponentialGap(double rate, SplittableRandom random) {
+        if (rate <= 0) {
+            return TimeUnit.MILLISECONDS.toNanos(1);
+        }
+        return (long) (-Math.log(1.0 - random.nextDouble()) * 1e9 / rate);
+    }
+
+    private static long seconds(String text) {
+        return (long) (Double.parseDouble(text) * 1e9);
+    }
+}
@@ -0,0 +1,73 @@
+package com.ticketing.workload;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The intended start times of one worker's operations.
+ * Times follow the profile regardless of how long each operation takes, so a slow pool
+ * does not lower the offered load; a worker that falls behind issues its late arrivals
+ * back to back. Not thread-safe: each schedule belongs to a single worker.
+ */
+public final class ArrivalSchedule {
+    private static final long SPIN_THRESHOLD_NANOS = 50_000; // Spin for the last 50 us, park before that
+
+    private final ArrivalProfile profile;
+    private final double share;
+    private final SplittableRandom random;
+    private long startNanos;
+    private long nextNanos;
+
+    /**
+     * Initializes a schedule.
+     *
+     * @param profile Arrival profile shared by all workers.
+     * @param share   Fraction of the profile's rate handled by this worker.
+     * @param random  This worker's random source.
+     */
+    public ArrivalSchedule(ArrivalProfile profile, double share, SplittableRandom random) {
+        this.profile = profile;
+        this.share = share;
+        this.random = random;
+    }
+
+    /**
+     * Starts the schedule; the first arrival follows one gap after the start time.
+     *
+     * @param startNanos Start of the run, from {@link System#nanoTime()}.
+     */
+    public void start(long startNanos) {
+        this.startNanos = startNanos;
+        this.nextNanos = startNanos;
+    }
+
+    /**
+     * Advances to the next arrival.
+     *
+     * @return Intended start time of the next operation, comparable to {@link System#nanoTime()}.
+     */
+    public long next() {
+        nextNanos += profile.nextGap(nextNanos - startNanos, share, random);
+        return nextNanos;
+    }
+
+    /**
+     * Waits until the given arrival time. Returns at once if the time has already passed.
+     *
+     * @param arrivalNanos Intended start time from {@link #next()}.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public static void awaitArrival(long arrivalNanos) throws InterruptedException {
+        long remaining;
+        while ((remaining = arrivalNanos - System.nanoTime()) > 0) {
+            if (remaining > SPIN_THRESHOLD_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+}
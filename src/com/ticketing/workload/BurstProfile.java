@@ -0,0 +1,35 @@
+package com.ticketing.workload;
+
+import java.util.SplittableRandom;
+
+/**
+ * Poisson arrivals at a base rate with a flash sale at the peak rate at the start of every period.
+ */
+final class BurstProfile implements ArrivalProfile {
+    private final double baseRate;
+    private final double peakRate;
+    private final long periodNanos;
+    private final long lengthNanos;
+
+    BurstProfile(double baseRate, double peakRate, long periodNanos, long lengthNanos) {
+        if (periodNanos <= 0 || lengthNanos <= 0 || lengthNanos > periodNanos) {
+            throw new IllegalArgumentException("Burst length must be positive and not longer than its period.");
+        }
+        this.baseRate = baseRate;
+        this.peakRate = peakRate;
+        this.periodNanos = periodNanos;
+        this.lengthNanos = lengthNanos;
+    }
+
+    @Override
+    public long nextGap(long elapsedNanos, double share, SplittableRandom random) {
+        double rate = elapsedNanos % periodNanos < lengthNanos ? peakRate : baseRate;
+        return ArrivalProfile.exponentialGap(rate * share, random);
+    }
+
+    @Override
+    public String describe() {
+        return String.format("burst %.0f/s, %.0f/s for %.1f s every %.1f s",
+                baseRate, peakRate, lengthNanos / 1e9, periodNanos / 1e9);
+    }
+}
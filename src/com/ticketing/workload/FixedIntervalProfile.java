@@ -0,0 +1,27 @@
+package com.ticketing.workload;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * Arrivals spaced exactly one interval apart. The interval is read again for every
+ * arrival, so a supplier backed by a reloadable configuration changes the pace on the fly.
+ */
+final class FixedIntervalProfile implements ArrivalProfile {
+    private final IntSupplier intervalMillis;
+
+    FixedIntervalProfile(IntSupplier intervalMillis) {
+        this.intervalMillis = intervalMillis;
+    }
+
+    @Override
+    public long nextGap(long elapsedNanos, double share, SplittableRandom random) {
+        return (long) (TimeUnit.MILLISECONDS.toNanos(intervalMillis.getAsInt()) / share);
+    }
+
+    @Override
+    public String describe() {
+        return "every " + intervalMillis.getAsInt() + " ms";
+    }
+}
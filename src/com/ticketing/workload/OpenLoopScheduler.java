@@ -0,0 +1,52 @@
+package com.ticketing.workload;
+
+import java.util.SplittableRandom;
+
+/**
+ * Issues arrivals at a target rate shape to a group of workers.
+ * Rather than dispatching every arrival from one thread, the scheduler splits the profile
+ * into one {@link ArrivalSchedule} per worker, each with an equal share of the rate, its own
+ * {@link SplittableRandom} and a common start time. Workers then compute their own arrival
+ * times, so the achievable rate grows with the number of workers instead of being capped
+ * by a central dispatcher.
+ */
+public class OpenLoopScheduler {
+    private final ArrivalProfile profile;
+    private final SplittableRandom seedSource;
+
+    /**
+     * Initializes a scheduler.
+     *
+     * @param profile Total arrival profile of the group.
+     * @param seed    Seed for the workers' random sources; the same seed gives the same arrivals.
+     */
+    public OpenLoopScheduler(ArrivalProfile profile, long seed) {
+        this.profile = profile;
+        this.seedSource = new SplittableRandom(seed);
+    }
+
+    /**
+     * Creates the schedules of a group of workers, all starting at the same time.
+     *
+     * @param workerCount Number of workers sharing the profile.
+     * @param startNanos  Start of the run, from {@link System#nanoTime()}.
+     * @return One schedule per worker.
+     */
+    public synchronized ArrivalSchedule[] createSchedules(int workerCount, long startNanos) {
+        ArrivalSchedule[] schedules = new ArrivalSchedule[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            schedules[i] = new ArrivalSchedule(profile, 1.0 / workerCount, seedSource.split());
+            schedules[i].start(startNanos);
+        }
+        return schedules;
+    }
+
+    /**
+     * Retrieves the total arrival profile.
+     *
+     * @return The profile.
+     */
+    public ArrivalProfile getProfile() {
+        return profile;
+    }
+}
@@ -0,0 +1,24 @@
+package com.ticketing.workload;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random arrivals at a constant average rate.
+ */
+final class PoissonProfile implements ArrivalProfile {
+    private final double rate;
+
+    PoissonProfile(double rate) {
+        this.rate = rate;
+    }
+
+    @Override
+    public long nextGap(long elapsedNanos, double share, SplittableRandom random) {
+        return ArrivalProfile.exponentialGap(rate * share, random);
+    }
+
+    @Override
+    public String describe() {
+        return String.format("poisson %.0f/s", rate);
+    }
+}
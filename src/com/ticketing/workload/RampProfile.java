@@ -0,0 +1,33 @@
+package com.ticketing.workload;
+
+import java.util.SplittableRandom;
+
+/**
+ * Poisson arrivals whose rate grows (or falls) linearly and then holds at the end rate.
+ */
+final class RampProfile implements ArrivalProfile {
+    private final double startRate;
+    private final double endRate;
+    private final long rampNanos;
+
+    RampProfile(double startRate, double endRate, long rampNanos) {
+        if (rampNanos <= 0) {
+            throw new IllegalArgumentException("Ramp length must be positive.");
+        }
+        this.startRate = startRate;
+        this.endRate = endRate;
+        this.rampNanos = rampNanos;
+    }
+
+    @Override
+    public long nextGap(long elapsedNanos, double share, SplittableRandom random) {
+        double progress = Math.min(1.0, (double) elapsedNanos / rampNanos);
+        double rate = startRate + (endRate - startRate) * progress;
+        return ArrivalProfile.exponentialGap(rate * share, random);
+    }
+
+    @Override
+    public String describe() {
+        return String.format("ramp %.0f/s to %.0f/s over %.1f s", startRate, endRate, rampNanos / 1e9);
+    }
+}
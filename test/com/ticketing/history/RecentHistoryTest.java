@@ -0,0 +1,76 @@
+package com.ticketing.history;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Timeout(60)
+class RecentHistoryTest {
+    @Test
+    void keepsOnlyTheLatestCapacityRecords() {
+        RecentHistory history = new RecentHistory(5);
+        assertEquals(8, history.capacity());
+        assertFalse(history.isPublished(0));
+
+        for (long position = 0; position < 20; position++) {
+            history.put(position, position, -position);
+        }
+
+        long[] read = new long[2];
+        assertFalse(history.read(11, (meta, state) -> { }));
+        assertTrue(history.read(12, (meta, state) -> {
+            read[0] = meta;
+            read[1] = state;
+        }));
+        assertEquals(12, read[0]);
+        assertEquals(-12, read[1]);
+        assertTrue(history.isPublished(19));
+        assertFalse(history.isPublished(20));
+    }
+
+    @Test
+    void readersNeverSeeATornRecord() throws InterruptedException {
+        RecentHistory history = new RecentHistory(64);
+        AtomicLong written = new AtomicLong();
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong torn = new AtomicLong();
+        AtomicLong reads = new AtomicLong();
+
+        Thread[] readers = new Thread[3];
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = new Thread(() -> {
+                while (running.get()) {
+                    long newest = written.get() - 1;
+                    for (long position = Math.max(0, newest - 80); position <= newest; position++) {
+                        long expected = position;
+                        if (history.read(position, (meta, state) -> {
+                            if (meta != expected || state != ~expected) {
+                                torn.incrementAndGet();
+                            }
+                        })) {
+                            reads.incrementAndGet();
+                        }
+                    }
+                }
+            });
+            readers[i].start();
+        }
+        for (long position = 0; position < 2_000_000; position++) {
+            history.put(position, position, ~position); // Overwrites the slot of position - 64
+            written.set(position + 1);
+        }
+        running.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertEquals(0, torn.get());
+        assertTrue(reads.get() > 0);
+    }
+}
@@ -0,0 +1,68 @@
+package com.ticketing.model;
+
+import com.ticketing.logging.LogLevel;
+import com.ticketing.logging.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Timeout(60)
+class AtomicTicketPoolTest {
+    private static final int INITIAL = 50;
+    private static final int MAX = 200;
+
+    @BeforeAll
+    static void silenceLogger() {
+        Logger.configure(LogLevel.OFF, 0, 1024);
+    }
+
+    @Test
+    void concurrentTradingConservesTicketsAndRespectsCapacity() throws InterruptedException {
+        AtomicTicketPool pool = new AtomicTicketPool(INITIAL, MAX);
+        PoolStress stress = new PoolStress().run(pool, 3, 5, 20_000);
+
+        assertEquals(INITIAL + stress.getAdded() - stress.getSold(), pool.getTotalTickets());
+        assertTrue(stress.getMaxSeen() <= MAX, "Pool held " + stress.getMaxSeen() + " tickets");
+        assertTrue(stress.getMinSeen() >= 0, "Pool held " + stress.getMinSeen() + " tickets");
+    }
+
+    @Test
+    void logFollowsTheOrderOfCountChanges() throws InterruptedException {
+        AtomicTicketPool pool = new AtomicTicketPool(INITIAL, MAX);
+        pool.setFailureRecording(true);
+        new PoolStress().run(pool, 3, 5, 10_000);
+
+        List<TicketRecord> records = pool.getTransactions();
+        assertFalse(records.isEmpty());
+        int expected = INITIAL;
+        for (int i = 0; i < records.size(); i++) {
+            TicketRecord record = records.get(i);
+            expected += record.getActionType().ticketDelta(record.getTicketCount());
+            assertEquals(expected, record.getRemainingTickets(), "Record " + i + ": " + record);
+            assertTrue(expected <= MAX, "Record " + i + " exceeds capacity: " + record);
+        }
+        assertEquals(expected, pool.getTotalTickets());
+    }
+
+    @Test
+    void vendorWaitsUntilLoweredCapacityHasRoom() throws InterruptedException {
+        AtomicTicketPool pool = new AtomicTicketPool(30, 100);
+        pool.setMaxCapacity(20);
+        Thread vendor = new Thread(() -> pool.addTickets(5, "Vendor-0"));
+        vendor.start();
+        vendor.join(200);
+        assertTrue(vendor.isAlive(), "Vendor added above the lowered capacity");
+        assertEquals(30, pool.getTotalTickets());
+
+        assertTrue(pool.retrieveTickets(15, "Customer-0"));
+        vendor.join(5_000);
+        assertFalse(vendor.isAlive());
+        assertEquals(20, pool.getTotalTickets());
+    }
+}
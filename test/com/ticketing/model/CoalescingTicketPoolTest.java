@@ -0,0 +1,81 @@
+package com.ticketing.model;
+
+import com.ticketing.logging.LogLevel;
+import com.ticketing.logging.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Timeout(10)
+class CoalescingTicketPoolTest {
+    @BeforeAll
+    static void silenceLogger() {
+        Logger.configure(LogLevel.OFF, 0, 1024);
+    }
+
+    @Test
+    void interruptedCallerWaitsForItsBatch() {
+        BlockingTicketPool tickets = new BlockingTicketPool(10, 100);
+        CoalescingTicketPool pool = new CoalescingTicketPool(tickets, 8, 300_000); // Lingers long enough to park
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        try {
+            long cpuBefore = threads.getCurrentThreadCpuTime();
+            Thread.currentThread().interrupt();
+            boolean bought = pool.retrieveTickets(3, "Customer-1");
+            boolean keptInterrupt = Thread.interrupted();
+            long cpuMillis = (threads.getCurrentThreadCpuTime() - cpuBefore) / 1_000_000;
+
+            assertTrue(bought);
+            assertTrue(keptInterrupt);
+            assertTrue(cpuMillis < 150, "Spun for " + cpuMillis + " ms while the batch lingered");
+            assertEquals(7, tickets.getTotalTickets());
+            assertEquals(1, tickets.getTransactions().size());
+        } finally {
+            pool.close();
+        }
+    }
+
+    @Test
+    void missedTryInABatchLeavesNoRecord() {
+        BlockingTicketPool tickets = new BlockingTicketPool(1, 100);
+        CoalescingTicketPool pool = new CoalescingTicketPool(tickets, 8, 0);
+        pool.setFailureRecording(true);
+        try {
+            assertFalse(pool.tryRetrieveTickets(2, "Customer-1"));
+            assertTrue(pool.tryRetrieveTickets(1, "Customer-2"));
+            assertFalse(pool.retrieveTickets(2, "Customer-3"));
+
+            List<TicketRecord> records = tickets.getTransactions();
+            assertEquals(2, records.size());
+            assertEquals(ActionType.RETRIEVE, records.get(0).getActionType());
+            assertEquals(ActionType.RETRIEVE_FAILED, records.get(1).getActionType());
+            assertEquals("Customer-3", records.get(1).getEntityName());
+        } finally {
+            pool.close();
+        }
+    }
+
+    @Test
+    void closeAppliesWhatIsQueuedBehindAWaitLine() throws InterruptedException {
+        BlockingTicketPool tickets = new BlockingTicketPool(10, 100);
+        TicketPool pool = TicketPoolFactory.waitInLine(TicketPoolFactory.coalesce(tickets, 8, 200_000),
+                WaitingTicketPool.FIFO, 1, 1_000);
+        Thread vendor = new Thread(() -> pool.addTickets(3, "Vendor-1"));
+        vendor.start();
+        while (vendor.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+
+        TicketPoolFactory.close(pool);
+        assertEquals(13, tickets.getTotalTickets()); // Applied before close returned
+        vendor.join();
+    }
+}
@@ -0,0 +1,120 @@
+package com.ticketing.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives a pool with concurrent vendors and customers and keeps the totals needed to check
+ * that no ticket was created or lost. Vendors release a fixed number of times through the
+ * blocking {@link TicketPool#addTickets}; customers buy, singly and in batches, until the
+ * vendors are done. A sampler thread watches the pool's count meanwhile.
+ */
+final class PoolStress {
+    private final AtomicLong added = new AtomicLong();
+    private final AtomicLong sold = new AtomicLong();
+    private final AtomicInteger maxSeen = new AtomicInteger(Integer.MIN_VALUE);
+    private final AtomicInteger minSeen = new AtomicInteger(Integer.MAX_VALUE);
+
+    /**
+     * Runs the vendors and customers to completion.
+     *
+     * @param pool           Pool under test.
+     * @param vendors        Number of vendor threads.
+     * @param customers      Number of customer threads.
+     * @param addsPerVendor  Releases each vendor makes.
+     * @return This run, for its totals.
+     * @throws InterruptedException If the test is interrupted.
+     */
+    PoolStress run(TicketPool pool, int vendors, int customers, int addsPerVendor) throws InterruptedException {
+        AtomicBoolean vendorsDone = new AtomicBoolean();
+        List<Thread> vendorThreads = new ArrayList<>();
+        List<Thread> others = new ArrayList<>();
+        for (int v = 0; v < vendors; v++) {
+            String name = "Vendor-" + v;
+            vendorThreads.add(new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < addsPerVendor; i++) {
+                    int count = 1 + random.nextInt(5);
+                    pool.addTickets(count, name);
+                    added.addAndGet(count);
+                }
+            }, name));
+        }
+        for (int c = 0; c < customers; c++) {
+            String name = "Customer-" + c;
+            others.add(new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (!vendorsDone.get()) {
+                    if (random.nextInt(8) == 0) {
+                        buyInBatch(pool, name, random);
+                    } else {
+                        int count = 1 + random.nextInt(4);
+                        if (pool.retrieveTickets(count, name)) {
+                            sold.addAndGet(count);
+                        }
+                    }
+                }
+            }, name));
+        }
+        others.add(new Thread(() -> {
+            while (!vendorsDone.get()) {
+                int total = pool.getTotalTickets();
+                maxSeen.accumulateAndGet(total, Math::max);
+                minSeen.accumulateAndGet(total, Math::min);
+                Thread.yield();
+            }
+        }, "sampler"));
+
+        vendorThreads.forEach(Thread::start);
+        others.forEach(Thread::start);
+        for (Thread vendor : vendorThreads) {
+            vendor.join();
+        }
+        vendorsDone.set(true);
+        for (Thread other : others) {
+            other.join();
+        }
+        return this;
+    }
+
+    /**
+     * Applies a small batch of purchases with one release mixed in.
+     */
+    private void buyInBatch(TicketPool pool, String name, ThreadLocalRandom random) {
+        List<TicketRequest> requests = List.of(
+                TicketRequest.purchase(1 + random.nextInt(4), name),
+                TicketRequest.add(1, name),
+                TicketRequest.purchase(1 + random.nextInt(4), name));
+        boolean[] results = pool.processBatch(requests);
+        for (int i = 0; i < results.length; i++) {
+            if (results[i]) {
+                TicketRequest request = requests.get(i);
+                if (request.getActionType() == ActionType.ADD) {
+                    added.addAndGet(request.getCount());
+                } else {
+                    sold.addAndGet(request.getCount());
+                }
+            }
+        }
+    }
+
+    long getAdded() {
+        return added.get();
+    }
+
+    long getSold() {
+        return sold.get();
+    }
+
+    int getMaxSeen() {
+        return maxSeen.get();
+    }
+
+    int getMinSeen() {
+        return minSeen.get();
+    }
+}
@@ -0,0 +1,144 @@
+package com.ticketing.model;
+
+import com.ticketing.logging.LogLevel;
+import com.ticketing.logging.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Timeout(60)
+class ShardedTicketPoolTest {
+    private static final int INITIAL = 50;
+    private static final int MAX = 200;
+
+    @BeforeAll
+    static void silenceLogger() {
+        Logger.configure(LogLevel.OFF, 0, 1024);
+    }
+
+    @Test
+    void concurrentTradingConservesTicketsAndRespectsCapacity() throws InterruptedException {
+        ShardedTicketPool pool = new ShardedTicketPool(INITIAL, MAX, 4);
+        PoolStress stress = new PoolStress().run(pool, 3, 5, 20_000);
+
+        assertEquals(INITIAL + stress.getAdded() - stress.getSold(), pool.getTotalTickets());
+        assertTrue(stress.getMaxSeen() <= MAX, "Pool held " + stress.getMaxSeen() + " tickets");
+        assertTrue(stress.getMinSeen() >= 0, "Pool held " + stress.getMinSeen() + " tickets");
+    }
+
+    @Test
+    void recordsCarryNoTicketCountButAddUpToTheTotal() throws InterruptedException {
+        ShardedTicketPool pool = new ShardedTicketPool(INITIAL, MAX, 4);
+        new PoolStress().run(pool, 2, 3, 5_000);
+
+        int total = INITIAL;
+        for (TicketRecord record : pool.getTransactions()) {
+            assertEquals(TicketRecord.UNKNOWN_REMAINING, record.getRemainingTickets());
+            total += record.getActionType().ticketDelta(record.getTicketCount());
+        }
+        assertEquals(total, pool.getTotalTickets());
+    }
+
+    @Test
+    void loweredCapacityHoldsAcrossShards() {
+        ShardedTicketPool pool = new ShardedTicketPool(0, 100, 4);
+        pool.addTickets(25, "Vendor-0");
+        pool.setMaxCapacity(40);
+
+        assertTrue(pool.tryAddTickets(10, "Vendor-0"));
+        assertFalse(pool.tryAddTickets(10, "Vendor-1"));
+        assertFalse(pool.tryAddTickets(10, "Vendor-2"));
+        assertEquals(35, pool.getTotalTickets());
+        assertTrue(pool.tryAddTickets(5, "Vendor-3"));
+        assertEquals(40, pool.getTotalTickets());
+    }
+
+    @Test
+    void capacityLoweredBelowHoldingsIsOwedUntilPurchasesFreeIt() throws InterruptedException {
+        ShardedTicketPool pool = new ShardedTicketPool(100, 100, 4);
+        pool.setMaxCapacity(40);
+        assertFalse(pool.tryAddTickets(1, "Vendor-0"));
+
+        Thread vendor = new Thread(() -> pool.addTickets(5, "Vendor-1"));
+        vendor.start();
+        for (int i = 0; i < 10; i++) {
+            assertTrue(pool.retrieveTickets(5, "Customer-" + i));
+        }
+        vendor.join(200);
+        assertTrue(vendor.isAlive(), "Vendor added while the pool held 50 of 40");
+        assertEquals(50, pool.getTotalTickets());
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(pool.retrieveTickets(5, "Customer-" + i));
+        }
+        vendor.join(5_000);
+        assertFalse(vendor.isAlive());
+        assertEquals(40, pool.getTotalTickets());
+        assertFalse(pool.tryAddTickets(1, "Vendor-0"));
+    }
+
+    @Test
+    void capacityChangesDuringTradingLoseNoRoom() throws InterruptedException {
+        ShardedTicketPool pool = new ShardedTicketPool(INITIAL, MAX, 4);
+        AtomicBoolean done = new AtomicBoolean();
+        Thread changer = new Thread(() -> {
+            int[] capacities = {60, MAX, 30, 150};
+            for (int i = 0; !done.get(); i++) {
+                pool.setMaxCapacity(capacities[i % capacities.length]);
+                Thread.yield();
+            }
+        });
+        changer.start();
+        PoolStress stress = new PoolStress().run(pool, 3, 5, 5_000);
+        done.set(true);
+        changer.join();
+        assertEquals(INITIAL + stress.getAdded() - stress.getSold(), pool.getTotalTickets());
+
+        pool.setMaxCapacity(120);
+        while (pool.getTotalTickets() > 120) {
+            assertTrue(pool.retrieveTickets(1, "Customer-0"));
+        }
+        while (pool.tryAddTickets(1, "Vendor-0")) {
+            assertTrue(pool.getTotalTickets() <= 120);
+        }
+        assertEquals(120, pool.getTotalTickets());
+    }
+
+    @Test
+    void competingGathersServeOneOfTwoCustomers() throws InterruptedException {
+        for (int trial = 0; trial < 500; trial++) {
+            ShardedTicketPool pool = new ShardedTicketPool(8, 100, 8); // One ticket per shard
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicInteger served = new AtomicInteger();
+            Thread[] customers = new Thread[2];
+            for (int c = 0; c < customers.length; c++) {
+                String name = "Customer-" + c;
+                customers[c] = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    if (pool.retrieveTickets(6, name)) {
+                        served.incrementAndGet();
+                    }
+                });
+                customers[c].start();
+            }
+            start.countDown();
+            for (Thread customer : customers) {
+                customer.join();
+            }
+            assertEquals(1, served.get(), "Trial " + trial);
+            assertEquals(2, pool.getTotalTickets());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.ticketing.model;
+
+import com.ticketing.logging.LogLevel;
+import com.ticketing.logging.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@Timeout(60)
+class WaitingTicketPoolTest {
+    @BeforeAll
+    static void silenceLogger() {
+        Logger.configure(LogLevel.OFF, 0, 1024);
+    }
+
+    private static long count(TicketPool pool, ActionType action) {
+        return pool.getTransactions().stream().filter(record -> record.getActionType() == action).count();
+    }
+
+    @Test
+    void servedCustomersLeaveNoFailedPurchases() throws InterruptedException {
+        BlockingTicketPool tickets = new BlockingTicketPool(0, 20);
+        WaitingTicketPool pool = new WaitingTicketPool(tickets, WaitingTicketPool.FIFO, 1, 30_000);
+        pool.setFailureRecording(true);
+        AtomicInteger unserved = new AtomicInteger();
+
+        Thread[] customers = new Thread[4];
+        for (int i = 0; i < customers.length; i++) {
+            String name = "Customer-" + (i + 1);
+            customers[i] = new Thread(() -> {
+                for (int purchase = 0; purchase < 500; purchase++) {
+                    if (!pool.retrieveTickets(2, name)) {
+                        unserved.incrementAndGet();
+                    }
+                }
+            });
+            customers[i].start();
+        }
+        for (int release = 0; release < 4000; release++) {
+            pool.addTickets(1, "Vendor-1");
+        }
+        for (Thread customer : customers) {
+            customer.join();
+        }
+
+        assertEquals(0, unserved.get());
+        assertEquals(0, count(pool, ActionType.RETRIEVE_FAILED)); // Missed tries on the way in are not failures
+        assertEquals(2000, count(pool, ActionType.RETRIEVE));
+        assertEquals(0, pool.getTotalTickets());
+    }
+
+    @Test
+    void staleCountOnTheWayInIsNoFailedPurchase() throws InterruptedException {
+        BlockingTicketPool tickets = new BlockingTicketPool(0, 20) {
+            @Override
+            public int getTotalTickets() {
+                return super.getTotalTickets() + 2; // As if read just before another customer bought
+            }
+        };
+        WaitingTicketPool pool = new WaitingTicketPool(tickets, WaitingTicketPool.FIFO, 1, 30_000);
+        pool.setFailureRecording(true);
+
+        Thread customer = new Thread(() -> pool.retrieveTickets(2, "Customer-1"));
+        customer.start();
+        while (customer.getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(1);
+        }
+        pool.addTickets(2, "Vendor-1");
+        customer.join();
+
+        assertEquals(0, count(pool, ActionType.RETRIEVE_FAILED));
+        assertEquals(1, count(pool, ActionType.RETRIEVE));
+    }
+
+    @Test
+    void customerThatTimesOutIsRecordedOnce() {
+        BlockingTicketPool tickets = new BlockingTicketPool(1, 20);
+        WaitingTicketPool pool = new WaitingTicketPool(tickets, WaitingTicketPool.FIFO, 1, 20);
+        pool.setFailureRecording(true);
+
+        assertFalse(pool.retrieveTickets(2, "Customer-1"));
+
+        assertEquals(1, count(pool, ActionType.RETRIEVE_FAILED));
+        assertEquals(1, pool.getTotalTickets());
+    }
+}
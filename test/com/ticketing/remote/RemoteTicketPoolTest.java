@@ -0,0 +1,100 @@
+package com.ticketing.remote;
+
+import com.ticketing.logging.LogLevel;
+import com.ticketing.logging.Logger;
+import com.ticketing.model.BlockingTicketPool;
+import com.ticketing.model.InMemoryTransactionLog;
+import com.ticketing.model.TicketRequest;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Timeout(30)
+class RemoteTicketPoolTest {
+    @BeforeAll
+    static void silenceLogger() {
+        Logger.configure(LogLevel.OFF, 0, 1024);
+    }
+
+    @Test
+    void interruptedReleaseIsCancelledOnTheServer() throws IOException, InterruptedException {
+        BlockingTicketPool served = new BlockingTicketPool(10, 10);
+        try (PoolServer server = PoolServer.start("0", served);
+             RemoteTicketPool pool = RemoteTicketPool.connect(server.getAddress(), new InMemoryTransactionLog())) {
+            AtomicBoolean keptInterrupt = new AtomicBoolean();
+            Thread vendor = new Thread(() -> {
+                pool.addTickets(5, "Vendor-1"); // The pool is full, so this waits on the server
+                keptInterrupt.set(Thread.currentThread().isInterrupted());
+            });
+            vendor.start();
+            while (vendor.getState() != Thread.State.WAITING) {
+                Thread.sleep(1);
+            }
+            Thread.sleep(50); // Let the release reach the server
+            vendor.interrupt();
+            vendor.join();
+
+            assertTrue(keptInterrupt.get());
+            assertTrue(pool.retrieveTickets(5, "Customer-1")); // Would let a release still queued in
+            assertEquals(5, pool.getTotalTickets());
+            assertEquals(1, pool.getTransactions().size());
+        }
+    }
+
+    @Test
+    void releaseOfADisconnectedClientHoldsNobodyUp() throws IOException, InterruptedException {
+        BlockingTicketPool served = new BlockingTicketPool(10, 12);
+        try (PoolServer server = PoolServer.start("0", served);
+             RemoteTicketPool live = RemoteTicketPool.connect(server.getAddress(), new InMemoryTransactionLog())) {
+            RemoteTicketPool dead = RemoteTicketPool.connect(server.getAddress(), new InMemoryTransactionLog());
+            long before = server.getRequestCount();
+            Thread vendor = new Thread(() -> dead.addTickets(5, "Vendor-1")); // Does not fit: waits on the server
+            vendor.start();
+            while (server.getRequestCount() == before) {
+                Thread.sleep(1);
+            }
+            dead.close();
+            vendor.join();
+
+            live.addTickets(2, "Vendor-2"); // Fits, so it must not queue behind the closed client's release
+            assertEquals(12, served.getTotalTickets());
+        }
+    }
+
+    @Test
+    void interruptedCallerStillRecordsItsPurchases() throws IOException {
+        BlockingTicketPool served = new BlockingTicketPool(10, 100);
+        try (PoolServer server = PoolServer.start("0", served);
+             RemoteTicketPool pool = RemoteTicketPool.connect(server.getAddress(), new InMemoryTransactionLog())) {
+            Thread.currentThread().interrupt();
+            boolean bought = pool.retrieveTickets(3, "Customer-1");
+            boolean[] batch = pool.processBatch(List.of(TicketRequest.purchase(2, "Customer-1")));
+            boolean keptInterrupt = Thread.interrupted();
+
+            assertTrue(bought);
+            assertTrue(batch[0]);
+            assertTrue(keptInterrupt);
+            assertEquals(5, served.getTotalTickets());
+            assertEquals(2, pool.getTransactions().size());
+        }
+    }
+
+    @Test
+    void lostServerKeepsTheLastKnownCount() throws IOException {
+        BlockingTicketPool served = new BlockingTicketPool(10, 100);
+        PoolServer server = PoolServer.start("0", served);
+        try (RemoteTicketPool pool = RemoteTicketPool.connect(server.getAddress(), new InMemoryTransactionLog())) {
+            assertTrue(pool.retrieveTickets(3, "Customer-1"));
+            server.close();
+
+            assertEquals(7, pool.getTotalTickets());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.ticketing.replay;
+
+import com.ticketing.logging.LogLevel;
+import com.ticketing.logging.Logger;
+import com.ticketing.model.ActionType;
+import com.ticketing.model.BlockingTicketPool;
+import com.ticketing.model.TicketRecord;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReplayEngineTest {
+    @BeforeAll
+    static void silenceLogger() {
+        Logger.configure(LogLevel.OFF, 0, 1024);
+    }
+
+    private static ReplayEngine replay(TicketRecord... records) {
+        ReplayEngine engine = new ReplayEngine(initial -> new BlockingTicketPool(initial, 1000), 0, 0);
+        for (TicketRecord record : records) {
+            engine.accept(record);
+        }
+        return engine;
+    }
+
+    private static TicketRecord record(ActionType action, int count, int remaining) {
+        return new TicketRecord(action, "Entity", count, remaining, 0);
+    }
+
+    @Test
+    void matchingLogHasNoDifferences() {
+        ReplayEngine engine = replay(
+                record(ActionType.ADD, 5, 15),
+                record(ActionType.RETRIEVE, 3, 12),
+                record(ActionType.RETRIEVE_FAILED, 20, 12));
+
+        assertEquals(0, engine.getMismatches());
+        assertEquals(0, engine.getSwaps());
+        assertEquals(12, engine.getFinalTickets());
+    }
+
+    @Test
+    void oneDivergenceIsCountedOnce() {
+        ReplayEngine engine = replay(
+                record(ActionType.ADD, 5, 15),
+                record(ActionType.ADD, 5, 21), // Recorded one ticket too many
+                record(ActionType.RETRIEVE, 2, 19),
+                record(ActionType.RETRIEVE, 2, 17),
+                record(ActionType.ADD, 1, 18));
+
+        assertEquals(1, engine.getMismatches());
+        assertEquals(1, engine.getFirstMismatchIndex());
+        assertEquals(0, engine.getSwaps());
+    }
+
+    @Test
+    void neighboursLoggedInTheOppositeOrderAreASwap() {
+        ReplayEngine engine = replay(
+                record(ActionType.ADD, 5, 15),
+                record(ActionType.RETRIEVE, 3, 14), // Applied after the next add
+                record(ActionType.ADD, 2, 17),
+                record(ActionType.RETRIEVE, 1, 13));
+
+        assertEquals(0, engine.getMismatches());
+        assertEquals(1, engine.getSwaps());
+        assertEquals(-1, engine.getFirstMismatchIndex());
+    }
+
+    @Test
+    void differenceInTheLastRecordIsCounted() {
+        ReplayEngine engine = replay(
+                record(ActionType.ADD, 5, 15),
+                record(ActionType.RETRIEVE, 3, 11));
+
+        assertEquals(1, engine.getMismatches());
+        assertEquals(1, engine.getFirstMismatchIndex());
+    }
+}
@@ -0,0 +1,39 @@
+package com.ticketing.seating;
+
+import com.ticketing.logging.LogLevel;
+import com.ticketing.logging.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Timeout(10)
+class SeatedTicketPoolTest {
+    @BeforeAll
+    static void silenceLogger() {
+        Logger.configure(LogLevel.OFF, 0, 1024);
+    }
+
+    @Test
+    void lastSeatsAreReleasedEvenIfFewerThanAskedFor() {
+        SeatedTicketPool pool = new SeatedTicketPool(95, 100, 50);
+        pool.addTickets(10, "Vendor-1");
+
+        assertEquals(100, pool.getTotalTickets());
+        assertFalse(pool.acceptsReleases());
+    }
+
+    @Test
+    void vendorReturnsOnceEverySeatHasBeenReleased() {
+        SeatedTicketPool pool = new SeatedTicketPool(100, 100, 50);
+        assertTrue(pool.retrieveTickets(30, "Customer-1"));
+
+        pool.addTickets(5, "Vendor-1"); // Would park forever if it waited for seats to come back
+
+        assertEquals(70, pool.getTotalTickets());
+        assertFalse(pool.acceptsReleases());
+    }
+}